@@ -0,0 +1,101 @@
+package com.solana.rpc.deposit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.IndexedDerivedAccountRepository;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocks decoded per second by one thread. Mainnet produces about 2.5 blocks per second with a
+ * few thousand transactions each, so a single fetch thread has to sustain well over that.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockDepositDecoderBenchmark {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int ISSUED_ADDRESSES = 100_000;
+
+    @Param({"3000"})
+    public int transactions;
+
+    private byte[] block;
+    private IndexedDerivedAccountRepository repository;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        repository = new IndexedDerivedAccountRepository(new InMemoryDerivedAccountRepository());
+        for (int i = 0; i < ISSUED_ADDRESSES; i++) {
+            repository.save(new DerivedAccount("deposit-" + i, 0, 0, i, new PublicKey(randomBytes(random, 32)).toBase58()));
+        }
+
+        StringBuilder json = new StringBuilder("{\"parentSlot\":99,\"transactions\":[");
+        for (int i = 0; i < transactions; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"transaction\":[\"").append(Base64.getEncoder().encodeToString(transfer(random)))
+                    .append("\",\"base64\"],\"meta\":{\"err\":null,\"fee\":5000,\"innerInstructions\":[],")
+                    .append("\"logMessages\":[\"Program 11111111111111111111111111111111 invoke [1]\",")
+                    .append("\"Program 11111111111111111111111111111111 success\"],")
+                    .append("\"postBalances\":[9998995000,1000000,1],\"preBalances\":[10000000000,0,1],")
+                    .append("\"postTokenBalances\":[],\"preTokenBalances\":[],\"status\":{\"Ok\":null}},")
+                    .append("\"version\":\"legacy\"}");
+        }
+        json.append("],\"blockTime\":1760000000,\"blockHeight\":90}");
+        block = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<DepositEvent> decodeBlock() throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(block)) {
+            parser.nextToken();
+            return new BlockDepositDecoder(100, repository).decode(parser);
+        }
+    }
+
+    private static byte[] transfer(Random random) {
+        ByteBuffer wire = ByteBuffer.allocate(1 + 64 + 3 + 1 + 3 * 32 + 32 + 1 + 1 + 1 + 2 + 1 + 12)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        wire.put((byte) 1).put(randomBytes(random, 64));
+        wire.put((byte) 1).put((byte) 0).put((byte) 1);
+        wire.put((byte) 3).put(randomBytes(random, 32)).put(randomBytes(random, 32)).put(new byte[32]);
+        wire.put(randomBytes(random, 32));
+        wire.put((byte) 1).put((byte) 2).put((byte) 2).put((byte) 0).put((byte) 1);
+        wire.put((byte) 12).putInt(2).putLong(1_000_000);
+        return wire.array();
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
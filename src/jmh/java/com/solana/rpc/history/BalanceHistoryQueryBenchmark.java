@@ -0,0 +1,106 @@
+package com.solana.rpc.history;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Query latency over 90 days of hourly snapshots of 10,000 addresses, 2% of which change between
+ * snapshots, in daily segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BalanceHistoryQueryBenchmark {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int DAYS = 90;
+    private static final int CHANGES_PER_SNAPSHOT = ACCOUNTS / 50;
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private final Random random = new Random(42);
+    private Path directory;
+    private BalanceHistoryStore store;
+    private List<String> addresses;
+    private long end;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("balance-history");
+        store = BalanceHistoryStore.open(directory);
+        addresses = new ArrayList<>(ACCOUNTS);
+        long[] balances = new long[ACCOUNTS];
+        byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            random.nextBytes(key);
+            addresses.add(new PublicKey(key).toBase58());
+            balances[i] = random.nextInt(1_000_000_000);
+        }
+        store.record(0, addresses, balances);
+
+        List<String> changed = new ArrayList<>(CHANGES_PER_SNAPSHOT);
+        long[] values = new long[CHANGES_PER_SNAPSHOT];
+        for (long t = HOUR; t < DAYS * 24 * HOUR; t += HOUR) {
+            changed.clear();
+            for (int i = 0; i < CHANGES_PER_SNAPSHOT; i++) {
+                int account = random.nextInt(ACCOUNTS);
+                changed.add(addresses.get(account));
+                values[i] = random.nextInt(1_000_000_000);
+            }
+            store.record(t, changed, values);
+            end = t;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public OptionalLong totalAt() {
+        return store.totalAt(Instant.ofEpochMilli(random.nextLong(end)));
+    }
+
+    @Benchmark
+    public OptionalLong balanceAt() {
+        return store.balanceAt(addresses.get(random.nextInt(ACCOUNTS)), Instant.ofEpochMilli(random.nextLong(end)));
+    }
+
+    @Benchmark
+    public List<BalancePoint> thirtyDayHistory() {
+        long from = random.nextLong(end - 30 * 24 * HOUR);
+        return store.history(addresses.get(random.nextInt(ACCOUNTS)), Instant.ofEpochMilli(from),
+                Instant.ofEpochMilli(from + 30 * 24 * HOUR));
+    }
+}
@@ -0,0 +1,97 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.wallet.DerivationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signatures per second for a batch of transaction-sized messages, signed one at a time the way
+ * Solanaj does and through {@link BatchSigningService} with a growing pool. Keys come from key
+ * storage so the numbers measure signing, not derivation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSigningBenchmark {
+
+    private static final String MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final int BATCH_SIZE = 512;
+    private static final int DISTINCT_SIGNERS = 64;
+    private static final int MESSAGE_BYTES = 300;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private List<SigningRequest> requests;
+    private List<Account> accounts;
+    private BatchSigningService signingService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DerivationService derivationService = new DerivationService(MNEMONIC);
+        InMemoryKeyStorage keyStorage = new InMemoryKeyStorage();
+        List<DerivedAccount> signers = new ArrayList<>();
+        for (int index = 0; index < DISTINCT_SIGNERS; index++) {
+            Account account = derivationService.derive(0, 0, index);
+            keyStorage.save(account);
+            signers.add(new DerivedAccount("signer-" + index, 0, 0, index, account.getPublicKey().toBase58()));
+        }
+
+        Random random = new Random(42);
+        requests = new ArrayList<>(BATCH_SIZE);
+        accounts = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            byte[] message = new byte[MESSAGE_BYTES];
+            random.nextBytes(message);
+            DerivedAccount signer = signers.get(i % DISTINCT_SIGNERS);
+            requests.add(new SigningRequest(signer, message));
+            accounts.add(keyStorage.findByPublicKey(signer.getPublicKey()).orElseThrow());
+        }
+        signingService = new BatchSigningService(derivationService, keyStorage, threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        signingService.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object solanajSequential() {
+        byte[][] signatures = new byte[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            signatures[i] = new TweetNaclFast.Signature(new byte[0], accounts.get(i).getSecretKey())
+                    .detached(requests.get(i).getMessage());
+        }
+        return signatures;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object batchSigningService() {
+        return signingService.signAll(requests);
+    }
+}
@@ -0,0 +1,90 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account keys checked per second against a set of issued addresses, through the membership
+ * index on raw bytes and through the repository's Base58 lookup. One probed key in 64 is an
+ * issued address; the rest are foreign, as in real traffic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletMembershipIndexBenchmark {
+
+    private static final int PROBES = 4096;
+    private static final int HIT_EVERY = 64;
+
+    @Param({"100000", "1000000"})
+    public int issuedKeys;
+
+    private byte[] probeBuffer;
+    private WalletMembershipIndex index;
+    private InMemoryDerivedAccountRepository repository;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new WalletMembershipIndex(issuedKeys);
+        repository = new InMemoryDerivedAccountRepository();
+        byte[][] issued = new byte[issuedKeys][];
+        for (int i = 0; i < issuedKeys; i++) {
+            issued[i] = new byte[WalletMembershipIndex.KEY_BYTES];
+            random.nextBytes(issued[i]);
+            index.add(issued[i], 0);
+            repository.save(new DerivedAccount("deposit-" + i, 0, 0, i, new PublicKey(issued[i]).toBase58()));
+        }
+
+        probeBuffer = new byte[PROBES * WalletMembershipIndex.KEY_BYTES];
+        random.nextBytes(probeBuffer);
+        for (int i = 0; i < PROBES; i += HIT_EVERY) {
+            System.arraycopy(issued[random.nextInt(issuedKeys)], 0, probeBuffer,
+                    i * WalletMembershipIndex.KEY_BYTES, WalletMembershipIndex.KEY_BYTES);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int membershipIndex() {
+        int matches = 0;
+        for (int offset = 0; offset < probeBuffer.length; offset += WalletMembershipIndex.KEY_BYTES) {
+            if (index.contains(probeBuffer, offset)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int repositoryLookup() {
+        int matches = 0;
+        byte[] key = new byte[WalletMembershipIndex.KEY_BYTES];
+        for (int offset = 0; offset < probeBuffer.length; offset += WalletMembershipIndex.KEY_BYTES) {
+            System.arraycopy(probeBuffer, offset, key, 0, key.length);
+            if (repository.findByPublicKey(new PublicKey(key).toBase58()).isPresent()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,48 @@
+package com.solana.rpc.tracing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation around one traced operation with three nested spans, with sampling
+ * off and with every operation sampled. Run with {@code -prof gc} to confirm the unsampled path
+ * does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingOverheadBenchmark {
+
+    private final Tracer off = new Tracer(0, 1);
+    private final Tracer sampled = new Tracer(1, Tracer.DEFAULT_CAPACITY);
+
+    @Benchmark
+    public void samplingOff() {
+        trace(off);
+    }
+
+    @Benchmark
+    public void everyOperationSampled() {
+        trace(sampled);
+    }
+
+    private static void trace(Tracer tracer) {
+        try (Span ignored = tracer.startTrace("wallet.getBalance")) {
+            try (Span attempt = Tracer.span("rpc.attempt").setAttribute("attempt", 0)) {
+                Tracer.span("http.server").close();
+            }
+        }
+    }
+}
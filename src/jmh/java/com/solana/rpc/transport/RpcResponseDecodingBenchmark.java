@@ -0,0 +1,115 @@
+package com.solana.rpc.transport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.AccountInfo;
+import org.p2p.solanaj.rpc.types.RpcResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a {@code getMultipleAccounts} response the way Solanaj does (response body to
+ * String, then a Map tree, then {@link AccountInfo.Value} objects) with the streaming decoder that
+ * keeps only lamports. Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RpcResponseDecodingBenchmark {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Param({"100"})
+    public int accounts;
+
+    @Param({"0", "165"})
+    public int dataBytes;
+
+    private byte[] response;
+    private ObjectMapper solanajMapper;
+    private JavaType solanajType;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        byte[] data = new byte[dataBytes];
+        random.nextBytes(data);
+        String encodedData = Base64.getEncoder().encodeToString(data);
+
+        StringBuilder json = new StringBuilder("{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"apiVersion\":\"1.18.22\",\"slot\":281447911},\"value\":[");
+        for (int i = 0; i < accounts; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"data\":[\"").append(encodedData).append("\",\"base64\"],")
+                    .append("\"executable\":false,\"lamports\":").append(1_000_000L + random.nextInt(1_000_000))
+                    .append(",\"owner\":\"TokenkegQfeZyiNwAJbNbGKPFXCWuBvf9Ss623VQ5DA\",")
+                    .append("\"rentEpoch\":18446744073709551615,\"space\":").append(dataBytes).append('}');
+        }
+        json.append("]},\"id\":1}");
+        response = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        // Mirrors the ObjectMapper configuration inside Solanaj's RpcClient.
+        solanajMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+        solanajType = solanajMapper.getTypeFactory().constructParametricType(RpcResponse.class, Map.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public long solanajTreeDecoding() throws IOException {
+        String body = new String(response, StandardCharsets.UTF_8);
+        RpcResponse<Map> rpcResponse = solanajMapper.readValue(body, solanajType);
+        List<AbstractMap> rawValues = (List<AbstractMap>) rpcResponse.getResult().get("value");
+        List<AccountInfo.Value> values = new ArrayList<>(rawValues.size());
+        for (AbstractMap raw : rawValues) {
+            values.add(raw == null ? null : new AccountInfo.Value(raw));
+        }
+        long total = 0;
+        for (AccountInfo.Value value : values) {
+            total += value == null ? 0 : (long) value.getLamports();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long streamingDecoding() throws IOException, RpcException {
+        AccountLamports lamports;
+        try (JsonParser parser = JSON_FACTORY.createParser(new ByteArrayInputStream(response))) {
+            lamports = JsonRpcTransport.readEnvelope(parser, RpcResultDecoders.multipleAccountLamports(accounts));
+        }
+        long total = 0;
+        for (int i = 0; i < lamports.size(); i++) {
+            total += Math.max(0, lamports.getLamports(i));
+        }
+        return total;
+    }
+}
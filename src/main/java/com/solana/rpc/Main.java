@@ -1,20 +1,23 @@
 package com.solana.rpc;
 
 import com.solana.rpc.config.SolanaApplicationContext;
+import com.solana.rpc.config.SolanaConfig;
+import com.solana.rpc.loadgen.LoadGenerator;
 import com.solana.rpc.model.DerivedAccount;
 import com.solana.rpc.service.SolanaWalletService;
 import com.solana.rpc.service.SolanajWalletService;
+import com.solana.rpc.startup.StartupPipeline;
+import com.solana.rpc.startup.StartupReport;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcException;
 
-import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -24,15 +27,36 @@ import java.util.stream.Collectors;
  * Simple console entrypoint that exercises the SolanaWalletService against the
  * Solana testnet. Generates a new address using the configured mnemonic,
  * prints its balance, and lists known derived accounts.
+ * <p>
+ * Startup loads the configuration, then runs network diagnostics, opens the RPC connection and
+ * derives the wallet seed concurrently; the demo starts once all of them have finished and the
+ * per-phase timings have been printed.
+ * <p>
+ * Started as {@code Main loadgen [options]} it runs the {@link LoadGenerator} instead.
     */
     public class Main {
 
-    public static void main(String[] args) {
+    private static final String LOADGEN_COMMAND = "loadgen";
+
+    public static void main(String[] args) throws Exception {
         configureProxyFromEnv();
+        if (args.length > 0 && LOADGEN_COMMAND.equals(args[0])) {
+            LoadGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
-        SolanaWalletService walletService = new SolanajWalletService();
+        StringWriter diagnostics = new StringWriter();
+        StartupReport startup = new StartupPipeline()
+                .first("config", SolanaApplicationContext::getConfig)
+                .concurrently("diagnostics", () -> collectNetworkDiagnostics(new PrintWriter(diagnostics, true)))
+                .concurrently("rpc-connection", Main::warmRpcConnection)
+                .concurrently("seed", () -> SolanaApplicationContext.getDerivationService().warmUp())
+                .run();
+        System.out.print(diagnostics);
+        startup.print(System.out);
+        System.out.println();
 
-        printNetworkDiagnostics();
+        SolanaWalletService walletService = new SolanajWalletService();
 
         System.out.println("=== Solana Testnet Wallet Demo ===");
         System.out.println("RPC endpoint: " + SolanaApplicationContext.getConfig().getSolanaRpcUrl());
@@ -125,71 +149,51 @@ import java.util.stream.Collectors;
         return null;
     }
 
-    private static void printNetworkDiagnostics() {
-        System.out.println("=== RPC Connectivity Diagnostics ===");
+    /**
+     * Opens the shared HTTP client's connection to the RPC node (DNS, TCP, TLS and HTTP/2 setup) with
+     * a {@code getHealth} call, so the first real request reuses it.
+     */
+    private static void warmRpcConnection() throws RpcException {
+        if (!SolanaApplicationContext.getRpcExecutor().execute(RpcApi::getHealth)) {
+            throw new RpcException("RPC node reports unhealthy");
+        }
+    }
+
+    private static void collectNetworkDiagnostics(PrintWriter out) {
+        out.println("=== RPC Connectivity Diagnostics ===");
 
-        SolanaApplicationContext.getConfig();
-        String rpcUrl = SolanaApplicationContext.getConfig().getSolanaRpcUrl();
-        System.out.println("Configured RPC URL: " + rpcUrl);
-        System.out.println("Configured timeouts (ms): connect="
-                + SolanaApplicationContext.getConfig().getConnectTimeoutMs()
-                + ", read=" + SolanaApplicationContext.getConfig().getReadTimeoutMs()
-                + ", write=" + SolanaApplicationContext.getConfig().getWriteTimeoutMs());
+        SolanaConfig config = SolanaApplicationContext.getConfig();
+        String rpcUrl = config.getSolanaRpcUrl();
+        out.println("Configured RPC URL: " + rpcUrl);
+        out.println("Configured timeouts (ms): connect=" + config.getConnectTimeoutMs()
+                + ", read=" + config.getReadTimeoutMs()
+                + ", write=" + config.getWriteTimeoutMs());
 
-        System.out.println("System proxy environment variables:");
+        out.println("System proxy environment variables:");
         for (String key : List.of("HTTP_PROXY", "HTTPS_PROXY", "NO_PROXY")) {
-            System.out.printf(" - %s=%s%n", key, System.getenv(key));
+            out.printf(" - %s=%s%n", key, System.getenv(key));
         }
 
-        System.out.println("System properties influencing networking:");
+        out.println("System properties influencing networking:");
         for (Map.Entry<Object, Object> entry : System.getProperties().entrySet()) {
             String propKey = String.valueOf(entry.getKey());
             if (propKey.startsWith("http.") || propKey.startsWith("https.")) {
-                System.out.printf(" - %s=%s%n", propKey, entry.getValue());
+                out.printf(" - %s=%s%n", propKey, entry.getValue());
             }
         }
 
         try {
             URI uri = new URI(rpcUrl);
-            System.out.println("Resolved hosts for: " + uri.getHost());
+            out.println("Resolved hosts for: " + uri.getHost());
             Arrays.stream(InetAddress.getAllByName(uri.getHost()))
-                    .forEach(addr -> System.out.println(" - " + addr.getHostAddress() + " (" + addr.getClass().getSimpleName() + ")"));
-            performJavaHealthProbe(uri);
+                    .forEach(addr -> out.println(" - " + addr.getHostAddress() + " (" + addr.getClass().getSimpleName() + ")"));
         } catch (UnknownHostException e) {
-            System.err.println("Unable to resolve host for RPC URL: " + e.getMessage());
+            out.println("Unable to resolve host for RPC URL: " + e.getMessage());
         } catch (URISyntaxException e) {
-            System.err.println("Invalid RPC URL configured: " + rpcUrl + " => " + e.getMessage());
+            out.println("Invalid RPC URL configured: " + rpcUrl + " => " + e.getMessage());
         }
 
-        System.out.println("=== End Diagnostics ===\n");
-    }
-
-    private static void performJavaHealthProbe(URI uri) {
-        String payload = "{\"jsonrpc\":\"2.0\",\"id\":1,\"method\":\"getHealth\"}";
-        HttpRequest request = HttpRequest.newBuilder(uri)
-                .timeout(Duration.ofMillis(SolanaApplicationContext.getConfig().getReadTimeoutMs()))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(payload))
-                .build();
-
-        HttpClient client = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofMillis(SolanaApplicationContext.getConfig().getConnectTimeoutMs()))
-                .build();
-
-        System.out.println("Attempting Java HTTP health probe (getHealth)...");
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            System.out.println("Health probe status: " + response.statusCode());
-            String body = response.body();
-            if (body != null && body.length() > 400) {
-                body = body.substring(0, 400) + "...";
-            }
-            System.out.println("Health probe body: " + body);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            System.err.println("Health probe interrupted: " + e.getMessage());
-        } catch (IOException e) {
-            System.err.println("Health probe failed: " + e.getMessage());
-        }
+        out.println("The health probe runs as the rpc-connection startup phase, over the shared RPC client.");
+        out.println("=== End Diagnostics ===\n");
     }
 }
@@ -1,33 +1,187 @@
 package com.solana.rpc.config;
 
+import com.solana.rpc.token.TokenBalanceCache;
+import com.solana.rpc.tracing.Tracer;
+import com.solana.rpc.tracing.TracingEventListener;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.FeeOracle;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transport.AdaptiveConcurrencyLimiter;
+import com.solana.rpc.transport.BackoffPolicy;
+import com.solana.rpc.transport.DeadlineInterceptor;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.HedgingPolicy;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
 import org.p2p.solanaj.rpc.Cluster;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.p2p.solanaj.rpc.RpcClient;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Singleton-style application context for sharing configuration and RPC client instances.
+ * <p>
+ * Each group of instances is created on first access through a holder class: reading the
+ * configuration does not build the HTTP client, and building the RPC stack does not derive the
+ * wallet seed. Startup can therefore touch the groups from different threads at the same time.
  */
 public final class SolanaApplicationContext {
 
-    private static final SolanaConfig CONFIG = SolanaConfig.load();
-    private static final RpcClient RPC_CLIENT = createRpcClient(CONFIG);
+    private static final int INITIAL_RPC_CONCURRENCY = 8;
+    private static final long RPC_BACKOFF_BASE_MS = 100;
+    private static final long RPC_BACKOFF_MAX_MS = 5_000;
+
+    private static final TokenBalanceCache TOKEN_BALANCE_CACHE = new TokenBalanceCache();
 
     private SolanaApplicationContext() {
     }
 
     public static SolanaConfig getConfig() {
-        return CONFIG;
+        return ConfigHolder.CONFIG;
+    }
+
+    /**
+     * @return tracer installed as {@link Tracer#global()}, sampling at the configured rate
+     */
+    public static Tracer getTracer() {
+        return TracerHolder.TRACER;
+    }
+
+    public static OkHttpClient getHttpClient() {
+        return RpcHolder.HTTP_CLIENT;
     }
 
     public static RpcClient getRpcClient() {
-        return RPC_CLIENT;
+        return RpcHolder.RPC_CLIENT;
+    }
+
+    /**
+     * @return streaming JSON-RPC transport sharing the RPC client's endpoint and connection pool
+     */
+    public static JsonRpcTransport getJsonRpcTransport() {
+        return RpcHolder.JSON_RPC_TRANSPORT;
+    }
+
+    public static RpcExecutor getRpcExecutor() {
+        return RpcHolder.RPC_EXECUTOR;
+    }
+
+    /**
+     * @return executor for idempotent reads, hedged according to configuration
+     */
+    public static HedgedRpcExecutor getHedgedRpcExecutor() {
+        return RpcHolder.HEDGED_RPC_EXECUTOR;
+    }
+
+    /**
+     * @return shared recent-blockhash cache; its refresh task starts on first use
+     */
+    public static RecentBlockhashCache getBlockhashCache() {
+        return RpcHolder.BLOCKHASH_CACHE;
+    }
+
+    /**
+     * @return shared confirmation tracker; its poll loop starts with the first tracked signature
+     */
+    public static ConfirmationTracker getConfirmationTracker() {
+        return RpcHolder.CONFIRMATION_TRACKER;
+    }
+
+    /**
+     * @return shared priority fee estimator; its refresh task starts on first use
+     */
+    public static FeeOracle getFeeOracle() {
+        return RpcHolder.FEE_ORACLE;
+    }
+
+    /**
+     * @return derivation service for the configured mnemonic; {@link DerivationService#warmUp()}
+     * computes its seed ahead of the first derivation
+     */
+    public static DerivationService getDerivationService() {
+        return WalletHolder.DERIVATION_SERVICE;
+    }
+
+    /**
+     * @return token balance cache shared by every token balance service built from this context
+     */
+    public static TokenBalanceCache getTokenBalanceCache() {
+        return TOKEN_BALANCE_CACHE;
+    }
+
+    private static final class ConfigHolder {
+
+        private static final SolanaConfig CONFIG = SolanaConfig.load();
     }
 
-    private static RpcClient createRpcClient(SolanaConfig config) {
+    private static final class TracerHolder {
+
+        private static final Tracer TRACER = installTracer(getConfig());
+    }
+
+    private static final class RpcHolder {
+
+        static {
+            // Spans recorded by the HTTP client go to the configured tracer.
+            getTracer();
+        }
+
+        private static final OkHttpClient HTTP_CLIENT = createHttpClient(getConfig());
+        private static final RpcClient RPC_CLIENT = createRpcClient(getConfig(), HTTP_CLIENT);
+        private static final JsonRpcTransport JSON_RPC_TRANSPORT =
+                new JsonRpcTransport(HTTP_CLIENT, RPC_CLIENT.getEndpoint());
+        private static final RpcExecutor RPC_EXECUTOR = createRpcExecutor(getConfig(), RPC_CLIENT);
+        private static final HedgedRpcExecutor HEDGED_RPC_EXECUTOR = new HedgedRpcExecutor(RPC_EXECUTOR,
+                HedgingPolicy.of(getConfig().getHedgeDelayPercentile(), getConfig().getHedgeMaxPercent()));
+        private static final RecentBlockhashCache BLOCKHASH_CACHE = new RecentBlockhashCache(RPC_EXECUTOR);
+        private static final ConfirmationTracker CONFIRMATION_TRACKER = new ConfirmationTracker(RPC_EXECUTOR);
+        private static final FeeOracle FEE_ORACLE = new FeeOracle(RPC_EXECUTOR);
+    }
+
+    private static final class WalletHolder {
+
+        private static final DerivationService DERIVATION_SERVICE =
+                new DerivationService(getConfig().getMnemonic());
+    }
+
+    private static OkHttpClient createHttpClient(SolanaConfig config) {
+        // Configured timeouts are upper bounds; per-call deadlines tighten them via the interceptor.
+        return new OkHttpClient.Builder()
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .readTimeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                .writeTimeout(Duration.ofMillis(config.getWriteTimeoutMs()))
+                .addInterceptor(new DeadlineInterceptor())
+                .eventListenerFactory(TracingEventListener.FACTORY)
+                .build();
+    }
+
+    private static Tracer installTracer(SolanaConfig config) {
+        Tracer tracer = new Tracer(config.getTraceSampleRate(), Math.max(1, config.getTraceBufferSpans()));
+        Tracer.setGlobal(tracer);
+        return tracer;
+    }
+
+    private static RpcClient createRpcClient(SolanaConfig config, OkHttpClient httpClient) {
         String rpcUrl = config.getSolanaRpcUrl();
         if (rpcUrl == null || rpcUrl.isBlank()) {
-            return new RpcClient(Cluster.TESTNET);
+            rpcUrl = Cluster.TESTNET.getEndpoint();
         }
 
-        return new RpcClient(rpcUrl, config.getReadTimeoutMs(), config.getConnectTimeoutMs(), config.getWriteTimeoutMs());
+        return new RpcClient(rpcUrl, httpClient);
+    }
+
+    private static RpcExecutor createRpcExecutor(SolanaConfig config, RpcClient rpcClient) {
+        int maxConcurrency = Math.max(1, config.getRpcMaxConcurrency());
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                Math.min(INITIAL_RPC_CONCURRENCY, maxConcurrency), 1, maxConcurrency,
+                config.getRpcBulkSharePercent() / 100.0);
+        BackoffPolicy backoffPolicy = new BackoffPolicy(config.getRpcMaxRetries(),
+                RPC_BACKOFF_BASE_MS, RPC_BACKOFF_MAX_MS);
+        return new RpcExecutor(rpcClient, limiter, backoffPolicy, Duration.ofMillis(config.getRpcMaxQueueWaitMs()));
     }
 }
@@ -21,6 +21,9 @@ public class SolanaConfig {
     @JsonProperty("SolanaRpcUrl")
     private String solanaRpcUrl;
 
+    @JsonProperty("InstanceId")
+    private String instanceId;
+
     @JsonProperty("ReadTimeoutMs")
     private int readTimeoutMs = 20_000;
 
@@ -30,6 +33,33 @@ public class SolanaConfig {
     @JsonProperty("WriteTimeoutMs")
     private int writeTimeoutMs = 20_000;
 
+    @JsonProperty("RpcMaxRetries")
+    private int rpcMaxRetries = 3;
+
+    @JsonProperty("RpcMaxConcurrency")
+    private int rpcMaxConcurrency = 64;
+
+    @JsonProperty("RpcMaxQueueWaitMs")
+    private int rpcMaxQueueWaitMs = 2_000;
+
+    @JsonProperty("RpcBulkSharePercent")
+    private int rpcBulkSharePercent = 25;
+
+    @JsonProperty("HedgeDelayPercentile")
+    private int hedgeDelayPercentile = 95;
+
+    @JsonProperty("HedgeMaxPercent")
+    private int hedgeMaxPercent = 0;
+
+    @JsonProperty("PriorityFeePercentile")
+    private int priorityFeePercentile = 0;
+
+    @JsonProperty("TraceSampleRate")
+    private double traceSampleRate = 0;
+
+    @JsonProperty("TraceBufferSpans")
+    private int traceBufferSpans = 65_536;
+
     SolanaConfig() {
         // Jackson constructor
     }
@@ -65,6 +95,15 @@ public class SolanaConfig {
         if (mnemonic == null || mnemonic.isBlank()) {
             throw new IllegalStateException("Mnemonic is required in config.json (field \"Mnemonic\")");
         }
+        if (rpcBulkSharePercent < 1 || rpcBulkSharePercent > 99) {
+            throw new IllegalStateException("RpcBulkSharePercent must be between 1 and 99");
+        }
+        if (priorityFeePercentile < 0 || priorityFeePercentile > 100) {
+            throw new IllegalStateException("PriorityFeePercentile must be between 0 and 100");
+        }
+        if (!(traceSampleRate >= 0 && traceSampleRate <= 1)) {
+            throw new IllegalStateException("TraceSampleRate must be between 0 and 1");
+        }
     }
 
     public String getMnemonic() {
@@ -74,9 +113,19 @@ public class SolanaConfig {
     private void applyEnvironmentOverrides() {
         mnemonic = overrideIfPresent(mnemonic, "SOLANA_MNEMONIC");
         solanaRpcUrl = overrideIfPresent(solanaRpcUrl, "SOLANA_RPC_URL");
+        instanceId = overrideIfPresent(instanceId, "SOLANA_INSTANCE_ID");
         readTimeoutMs = overrideIfPresent(readTimeoutMs, "SOLANA_READ_TIMEOUT_MS");
         connectTimeoutMs = overrideIfPresent(connectTimeoutMs, "SOLANA_CONNECT_TIMEOUT_MS");
         writeTimeoutMs = overrideIfPresent(writeTimeoutMs, "SOLANA_WRITE_TIMEOUT_MS");
+        rpcMaxRetries = overrideIfPresent(rpcMaxRetries, "SOLANA_RPC_MAX_RETRIES");
+        rpcMaxConcurrency = overrideIfPresent(rpcMaxConcurrency, "SOLANA_RPC_MAX_CONCURRENCY");
+        rpcMaxQueueWaitMs = overrideIfPresent(rpcMaxQueueWaitMs, "SOLANA_RPC_MAX_QUEUE_WAIT_MS");
+        rpcBulkSharePercent = overrideIfPresent(rpcBulkSharePercent, "SOLANA_RPC_BULK_SHARE_PERCENT");
+        hedgeDelayPercentile = overrideIfPresent(hedgeDelayPercentile, "SOLANA_HEDGE_DELAY_PERCENTILE");
+        hedgeMaxPercent = overrideIfPresent(hedgeMaxPercent, "SOLANA_HEDGE_MAX_PERCENT");
+        priorityFeePercentile = overrideIfPresent(priorityFeePercentile, "SOLANA_PRIORITY_FEE_PERCENTILE");
+        traceSampleRate = overrideIfPresent(traceSampleRate, "SOLANA_TRACE_SAMPLE_RATE");
+        traceBufferSpans = overrideIfPresent(traceBufferSpans, "SOLANA_TRACE_BUFFER_SPANS");
     }
 
     private static String overrideIfPresent(String currentValue, String envKey) {
@@ -99,10 +148,30 @@ public class SolanaConfig {
         }
     }
 
+    private static double overrideIfPresent(double currentValue, String envKey) {
+        String override = System.getenv(envKey);
+        if (override == null || override.isBlank()) {
+            return currentValue;
+        }
+        try {
+            return Double.parseDouble(override.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Environment variable " + envKey + " must be a valid number", e);
+        }
+    }
+
     public String getSolanaRpcUrl() {
         return solanaRpcUrl;
     }
 
+    /**
+     * @return identifier of this instance whose trailing number selects the account' path value
+     * it issues addresses under, or {@code null} when running alone
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
     public int getReadTimeoutMs() {
         return readTimeoutMs;
     }
@@ -115,14 +184,71 @@ public class SolanaConfig {
         return writeTimeoutMs;
     }
 
+    public int getRpcMaxRetries() {
+        return rpcMaxRetries;
+    }
+
+    public int getRpcMaxConcurrency() {
+        return rpcMaxConcurrency;
+    }
+
+    public int getRpcMaxQueueWaitMs() {
+        return rpcMaxQueueWaitMs;
+    }
+
+    /**
+     * @return percentage of the RPC concurrency limit guaranteed to bulk work; interactive calls
+     * are guaranteed the rest
+     */
+    public int getRpcBulkSharePercent() {
+        return rpcBulkSharePercent;
+    }
+
+    public int getHedgeDelayPercentile() {
+        return hedgeDelayPercentile;
+    }
+
+    public int getHedgeMaxPercent() {
+        return hedgeMaxPercent;
+    }
+
+    /**
+     * @return percentile of recent prioritization fees bid by outgoing transfers, or 0 to send
+     * without a priority fee
+     */
+    public int getPriorityFeePercentile() {
+        return priorityFeePercentile;
+    }
+
+    /**
+     * @return fraction of wallet operations traced, from 0 (tracing off) to 1
+     */
+    public double getTraceSampleRate() {
+        return traceSampleRate;
+    }
+
+    public int getTraceBufferSpans() {
+        return traceBufferSpans;
+    }
+
     @Override
     public String toString() {
         return "SolanaConfig{" +
                 "mnemonic='" + (mnemonic == null ? "" : "***") + '\'' +
                 ", solanaRpcUrl='" + solanaRpcUrl + '\'' +
+                ", instanceId='" + instanceId + '\'' +
                 ", readTimeoutMs=" + readTimeoutMs +
                 ", connectTimeoutMs=" + connectTimeoutMs +
                 ", writeTimeoutMs=" + writeTimeoutMs +
+                ", rpcMaxRetries=" + rpcMaxRetries +
+                ", rpcMaxConcurrency=" + rpcMaxConcurrency +
+                ", rpcMaxQueueWaitMs=" + rpcMaxQueueWaitMs +
+                ", rpcBulkSharePercent=" + rpcBulkSharePercent +
+                ", hedgeDelayPercentile=" + hedgeDelayPercentile +
+                ", hedgeMaxPercent=" + hedgeMaxPercent +
+                ", priorityFeePercentile=" + priorityFeePercentile +
+                ", traceSampleRate=" + traceSampleRate +
+                ", traceBufferSpans=" + traceBufferSpans +
                 '}';
     }
 
@@ -130,11 +256,20 @@ public class SolanaConfig {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof SolanaConfig that)) return false;
-        return readTimeoutMs == that.readTimeoutMs && connectTimeoutMs == that.connectTimeoutMs && writeTimeoutMs == that.writeTimeoutMs && Objects.equals(mnemonic, that.mnemonic) && Objects.equals(solanaRpcUrl, that.solanaRpcUrl);
+        return readTimeoutMs == that.readTimeoutMs && connectTimeoutMs == that.connectTimeoutMs && writeTimeoutMs == that.writeTimeoutMs
+                && rpcMaxRetries == that.rpcMaxRetries && rpcMaxConcurrency == that.rpcMaxConcurrency && rpcMaxQueueWaitMs == that.rpcMaxQueueWaitMs
+                && rpcBulkSharePercent == that.rpcBulkSharePercent
+                && hedgeDelayPercentile == that.hedgeDelayPercentile && hedgeMaxPercent == that.hedgeMaxPercent
+                && priorityFeePercentile == that.priorityFeePercentile
+                && Double.compare(traceSampleRate, that.traceSampleRate) == 0 && traceBufferSpans == that.traceBufferSpans
+                && Objects.equals(mnemonic, that.mnemonic) && Objects.equals(solanaRpcUrl, that.solanaRpcUrl)
+                && Objects.equals(instanceId, that.instanceId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(mnemonic, solanaRpcUrl, readTimeoutMs, connectTimeoutMs, writeTimeoutMs);
+        return Objects.hash(mnemonic, solanaRpcUrl, instanceId, readTimeoutMs, connectTimeoutMs, writeTimeoutMs,
+                rpcMaxRetries, rpcMaxConcurrency, rpcMaxQueueWaitMs, rpcBulkSharePercent, hedgeDelayPercentile, hedgeMaxPercent,
+                priorityFeePercentile, traceSampleRate, traceBufferSpans);
     }
 }
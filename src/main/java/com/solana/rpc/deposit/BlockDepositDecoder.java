@@ -0,0 +1,307 @@
+package com.solana.rpc.deposit;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.IndexedDerivedAccountRepository;
+import com.solana.rpc.service.WalletMembershipIndex;
+import com.solana.rpc.transport.ResultDecoder;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.utils.Base58;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams a {@code getBlock} result with base64 transactions and keeps only the deposits to issued
+ * addresses.
+ * <p>
+ * Each transaction's wire bytes are decoded into a per-thread buffer and its static account keys
+ * are tested in place against the {@link WalletMembershipIndex}, after a cheap check that the
+ * account's balance went up. Only matches are Base58-encoded. Writable keys loaded from address
+ * lookup tables arrive as Base58 in the metadata and are checked after decoding. Failed
+ * transactions are skipped.
+ */
+final class BlockDepositDecoder implements ResultDecoder<List<DepositEvent>> {
+
+    private static final int SIGNATURE_BYTES = 64;
+    private static final int MESSAGE_HEADER_BYTES = 3;
+    private static final int VERSION_PREFIX_MASK = 0x80;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final long slot;
+    private final IndexedDerivedAccountRepository repository;
+    private final WalletMembershipIndex membershipIndex;
+    private List<Match> matches = Collections.emptyList();
+    private int cursor;
+
+    BlockDepositDecoder(long slot, IndexedDerivedAccountRepository repository) {
+        this.slot = slot;
+        this.repository = repository;
+        this.membershipIndex = repository.getMembershipIndex();
+    }
+
+    @Override
+    public List<DepositEvent> decode(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        Scratch scratch = SCRATCH.get();
+        long blockTime = 0;
+        try {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("transactions".equals(field)) {
+                    expect(parser, token, JsonToken.START_ARRAY);
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        readTransaction(parser, scratch);
+                    }
+                } else if ("blockTime".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                    blockTime = parser.getLongValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } finally {
+            scratch.trim();
+        }
+
+        // Block time usually follows the transactions, so events are built once it is known.
+        List<DepositEvent> deposits = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            deposits.add(new DepositEvent(slot, blockTime, match.signature(), match.publicKey(),
+                    match.label(), match.lamports()));
+        }
+        return deposits;
+    }
+
+    private void readTransaction(JsonParser parser, Scratch scratch) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        scratch.reset();
+        boolean hasMeta = false;
+        boolean failed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("transaction".equals(field)) {
+                readWireTransaction(parser, token, scratch);
+            } else if ("meta".equals(field) && token == JsonToken.START_OBJECT) {
+                hasMeta = true;
+                failed = readMeta(parser, scratch);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (hasMeta && !failed && scratch.wire.size() > 0) {
+            matchAccounts(parser, scratch);
+        }
+    }
+
+    private static void readWireTransaction(JsonParser parser, JsonToken token, Scratch scratch) throws IOException {
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected a base64-encoded transaction but found " + token);
+        }
+        expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+        parser.readBinaryValue(Base64Variants.MIME_NO_LINEFEEDS, scratch.wire);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * @return whether the transaction failed
+     */
+    private static boolean readMeta(JsonParser parser, Scratch scratch) throws IOException {
+        boolean failed = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("err".equals(field)) {
+                failed = token != JsonToken.VALUE_NULL;
+                parser.skipChildren();
+            } else if ("preBalances".equals(field)) {
+                scratch.preBalances.read(parser, token);
+            } else if ("postBalances".equals(field)) {
+                scratch.postBalances.read(parser, token);
+            } else if ("loadedAddresses".equals(field) && token == JsonToken.START_OBJECT) {
+                readLoadedWritable(parser, scratch);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return failed;
+    }
+
+    private static void readLoadedWritable(JsonParser parser, Scratch scratch) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("writable".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    scratch.loadedWritable.add(parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void matchAccounts(JsonParser parser, Scratch scratch) throws IOException {
+        byte[] wire = scratch.wire.array();
+        int length = scratch.wire.size();
+        cursor = 0;
+        int signatures = readShortVec(parser, wire, length);
+        int signatureOffset = cursor;
+        cursor += signatures * SIGNATURE_BYTES;
+        if (signatures == 0 || cursor >= length) {
+            throw new JsonParseException(parser, "Malformed transaction in slot " + slot);
+        }
+        if ((wire[cursor] & VERSION_PREFIX_MASK) != 0) {
+            cursor++;
+        }
+        cursor += MESSAGE_HEADER_BYTES;
+        int staticKeys = readShortVec(parser, wire, length);
+        int keysOffset = cursor;
+        if (keysOffset + staticKeys * WalletMembershipIndex.KEY_BYTES > length) {
+            throw new JsonParseException(parser, "Malformed transaction in slot " + slot);
+        }
+
+        String signature = null;
+        for (int account = 0; account < staticKeys; account++) {
+            long credited = credited(scratch, account);
+            int keyOffset = keysOffset + account * WalletMembershipIndex.KEY_BYTES;
+            if (credited > 0 && membershipIndex.contains(wire, keyOffset)) {
+                String publicKey = Base58.encode(Arrays.copyOfRange(wire, keyOffset,
+                        keyOffset + WalletMembershipIndex.KEY_BYTES));
+                signature = signature != null ? signature : encodeSignature(wire, signatureOffset);
+                addMatch(signature, publicKey, credited);
+            }
+        }
+        for (int loaded = 0; loaded < scratch.loadedWritable.size(); loaded++) {
+            long credited = credited(scratch, staticKeys + loaded);
+            String publicKey = scratch.loadedWritable.get(loaded);
+            if (credited > 0 && membershipIndex.contains(new PublicKey(publicKey))) {
+                signature = signature != null ? signature : encodeSignature(wire, signatureOffset);
+                addMatch(signature, publicKey, credited);
+            }
+        }
+    }
+
+    private static long credited(Scratch scratch, int account) {
+        if (account >= scratch.preBalances.size || account >= scratch.postBalances.size) {
+            return 0;
+        }
+        return scratch.postBalances.values[account] - scratch.preBalances.values[account];
+    }
+
+    private static String encodeSignature(byte[] wire, int offset) {
+        return Base58.encode(Arrays.copyOfRange(wire, offset, offset + SIGNATURE_BYTES));
+    }
+
+    private void addMatch(String signature, String publicKey, long lamports) {
+        // The index can briefly run ahead of a concurrent delete; the repository has the final say.
+        Optional<DerivedAccount> account = repository.findByPublicKey(publicKey);
+        if (account.isEmpty()) {
+            return;
+        }
+        if (matches.isEmpty()) {
+            matches = new ArrayList<>();
+        }
+        matches.add(new Match(signature, publicKey, account.get().getLabel(), lamports));
+    }
+
+    private int readShortVec(JsonParser parser, byte[] wire, int length) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift <= 14; shift += 7) {
+            if (cursor >= length) {
+                break;
+            }
+            int b = wire[cursor++] & 0xff;
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new JsonParseException(parser, "Malformed transaction in slot " + slot);
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    private record Match(String signature, String publicKey, String label, long lamports) {
+    }
+
+    /**
+     * Buffers reused by every block decoded on a thread.
+     */
+    private static final class Scratch {
+
+        private static final int MAX_RETAINED_WIRE = 64 * 1024;
+
+        private final WireBuffer wire = new WireBuffer();
+        private final List<String> loadedWritable = new ArrayList<>();
+        private final Balances preBalances = new Balances();
+        private final Balances postBalances = new Balances();
+
+        private void reset() {
+            wire.reset();
+            loadedWritable.clear();
+            preBalances.size = 0;
+            postBalances.size = 0;
+        }
+
+        private void trim() {
+            wire.trim(MAX_RETAINED_WIRE);
+        }
+    }
+
+    /**
+     * Per-account lamport balances of one transaction.
+     */
+    private static final class Balances {
+
+        private long[] values = new long[64];
+        private int size;
+
+        private void read(JsonParser parser, JsonToken token) throws IOException {
+            expect(parser, token, JsonToken.START_ARRAY);
+            size = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = parser.getLongValue();
+            }
+        }
+    }
+
+    /**
+     * Growable byte buffer exposing its backing array.
+     */
+    private static final class WireBuffer extends ByteArrayOutputStream {
+
+        private WireBuffer() {
+            super(1280);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void trim(int maxRetained) {
+            if (buf.length > maxRetained) {
+                buf = new byte[1280];
+            }
+            count = 0;
+        }
+    }
+}
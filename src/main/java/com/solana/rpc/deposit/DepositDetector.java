@@ -0,0 +1,252 @@
+package com.solana.rpc.deposit;
+
+import com.solana.rpc.service.IndexedDerivedAccountRepository;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows confirmed slots and reports every deposit to an issued address, in slot order.
+ * <p>
+ * The pipeline has three stages. A follower thread reads the confirmed tip and lists the produced
+ * slots up to it. A fetch pool downloads and decodes up to {@code prefetchBlocks} blocks ahead,
+ * each with a streaming decoder that tests raw account keys against the repository's membership
+ * index. The follower then delivers each block's deposits to the listener in order and
+ * checkpoints the slot. All of its RPC calls run in the {@link RpcLane#BULK} lane.
+ * <p>
+ * Delivery is at least once. A block is checkpointed only after all of its deposits were
+ * delivered, so a failure or restart mid-block repeats that block's deposits; listeners should
+ * deduplicate by signature. Without a checkpoint, scanning starts at the current tip.
+ */
+public class DepositDetector implements AutoCloseable {
+
+    /**
+     * Most slots listed by one {@code getBlocks} call, keeping each listing small while catching up.
+     */
+    static final int MAX_SLOTS_PER_LISTING = 1_000;
+
+    private static final Logger LOGGER = Logger.getLogger(DepositDetector.class.getName());
+    private static final String COMMITMENT = "confirmed";
+    private static final int DEFAULT_FETCH_THREADS = 4;
+    private static final int DEFAULT_PREFETCH_BLOCKS = 16;
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofMillis(400);
+    private static final String SKIPPED_SLOT_CODE = "(code -32007)";
+    private static final String MISSING_SLOT_CODE = "(code -32009)";
+
+    private final RpcExecutor rpcExecutor;
+    private final JsonRpcTransport transport;
+    private final IndexedDerivedAccountRepository repository;
+    private final SlotCheckpoint checkpoint;
+    private final DepositListener listener;
+    private final int prefetchBlocks;
+    private final long pollIntervalNanos;
+    private final ExecutorService fetchPool;
+
+    private long nextSlot = -1;
+    private volatile Thread follower;
+    private volatile boolean closed;
+
+    public DepositDetector(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                           IndexedDerivedAccountRepository repository, SlotCheckpoint checkpoint,
+                           DepositListener listener) {
+        this(rpcExecutor, transport, repository, checkpoint, listener,
+                DEFAULT_FETCH_THREADS, DEFAULT_PREFETCH_BLOCKS, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * @param rpcExecutor    executor for all RPC calls
+     * @param transport      streaming transport used for slot listings and blocks
+     * @param repository     issued addresses, matched through its membership index
+     * @param checkpoint     last delivered slot; scanning resumes after it
+     * @param listener       receives deposits in slot order
+     * @param fetchThreads   threads downloading and decoding blocks
+     * @param prefetchBlocks most blocks fetched ahead of the one being delivered
+     * @param pollInterval   pause between scans once caught up with the tip
+     */
+    public DepositDetector(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                           IndexedDerivedAccountRepository repository, SlotCheckpoint checkpoint,
+                           DepositListener listener, int fetchThreads, int prefetchBlocks, Duration pollInterval) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.checkpoint = Objects.requireNonNull(checkpoint, "checkpoint must not be null");
+        this.listener = Objects.requireNonNull(listener, "listener must not be null");
+        Objects.requireNonNull(pollInterval, "pollInterval must not be null");
+        if (fetchThreads <= 0) {
+            throw new IllegalArgumentException("fetchThreads must be positive");
+        }
+        if (prefetchBlocks <= 0) {
+            throw new IllegalArgumentException("prefetchBlocks must be positive");
+        }
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("pollInterval must be positive");
+        }
+        this.prefetchBlocks = prefetchBlocks;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchPool = Executors.newFixedThreadPool(fetchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "deposit-block-fetcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start following the chain on a background thread. Scan failures are logged and retried
+     * from the first undelivered slot after the poll interval.
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("DepositDetector is closed");
+        }
+        if (follower == null) {
+            Thread thread = new Thread(this::follow, "deposit-detector");
+            thread.setDaemon(true);
+            follower = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * @return last slot whose deposits have all been delivered
+     */
+    public OptionalLong getLastScannedSlot() {
+        return checkpoint.getLastSlot();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = follower;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        fetchPool.shutdownNow();
+    }
+
+    /**
+     * Scan every slot from the checkpoint up to the current confirmed tip.
+     *
+     * @return number of blocks whose deposits were delivered
+     */
+    synchronized int scanToTip() throws RpcException {
+        long tip = rpcExecutor.execute(api -> transport.getSlot(COMMITMENT), RpcLane.BULK);
+        if (nextSlot < 0) {
+            OptionalLong lastSlot = checkpoint.getLastSlot();
+            nextSlot = lastSlot.isPresent() ? lastSlot.getAsLong() + 1 : tip;
+        }
+
+        int blocks = 0;
+        while (nextSlot <= tip && !closed) {
+            long startSlot = nextSlot;
+            long endSlot = Math.min(tip, startSlot + MAX_SLOTS_PER_LISTING - 1);
+            long[] slots = rpcExecutor.execute(api -> transport.getBlocks(startSlot, endSlot, COMMITMENT),
+                    RpcLane.BULK);
+            blocks += deliver(slots);
+            if (closed) {
+                break;
+            }
+            // Skipped slots after the last block are covered too.
+            checkpoint.save(endSlot);
+            nextSlot = endSlot + 1;
+        }
+        return blocks;
+    }
+
+    private int deliver(long[] slots) throws RpcException {
+        ArrayDeque<PendingBlock> inFlight = new ArrayDeque<>(Math.min(slots.length, prefetchBlocks));
+        int submitted = 0;
+        int delivered = 0;
+        try {
+            while (delivered < slots.length && !closed) {
+                while (submitted < slots.length && inFlight.size() < prefetchBlocks) {
+                    long slot = slots[submitted++];
+                    inFlight.add(new PendingBlock(slot, CompletableFuture.supplyAsync(() -> fetch(slot), fetchPool)));
+                }
+                PendingBlock head = inFlight.poll();
+                for (DepositEvent deposit : await(head)) {
+                    listener.onDeposit(deposit);
+                }
+                checkpoint.save(head.slot());
+                nextSlot = head.slot() + 1;
+                delivered++;
+            }
+        } finally {
+            for (PendingBlock pending : inFlight) {
+                pending.deposits().cancel(true);
+            }
+        }
+        return delivered;
+    }
+
+    private List<DepositEvent> fetch(long slot) {
+        try {
+            return rpcExecutor.execute(api -> transport.getBlock(slot, COMMITMENT,
+                    new BlockDepositDecoder(slot, repository)), RpcLane.BULK);
+        } catch (RpcException e) {
+            String message = e.getMessage();
+            if (message != null && (message.endsWith(SKIPPED_SLOT_CODE) || message.endsWith(MISSING_SLOT_CODE))) {
+                return List.of();
+            }
+            throw new CompletionException(e);
+        }
+    }
+
+    private static List<DepositEvent> await(PendingBlock pending) throws RpcException {
+        try {
+            return pending.deposits().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while fetching block " + pending.slot());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RpcException) {
+                throw (RpcException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Failed to fetch block " + pending.slot(), cause);
+        }
+    }
+
+    private void follow() {
+        while (!closed) {
+            try {
+                int blocks = scanToTip();
+                LOGGER.fine(() -> "Deposit scan delivered " + blocks + " blocks");
+            } catch (RpcException | RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                LOGGER.log(Level.WARNING, "Deposit scan failed; retrying after slot "
+                        + checkpoint.getLastSlot().orElse(-1), e);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(pollIntervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private record PendingBlock(long slot, CompletableFuture<List<DepositEvent>> deposits) {
+    }
+}
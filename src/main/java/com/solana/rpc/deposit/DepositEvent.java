@@ -0,0 +1,100 @@
+package com.solana.rpc.deposit;
+
+import java.util.Objects;
+
+/**
+ * A successful transaction that raised the balance of an address issued by this wallet.
+ */
+public final class DepositEvent {
+
+    private final long slot;
+    private final long blockTime;
+    private final String signature;
+    private final String publicKey;
+    private final String label;
+    private final long lamports;
+
+    public DepositEvent(long slot, long blockTime, String signature, String publicKey, String label, long lamports) {
+        this.slot = slot;
+        this.blockTime = blockTime;
+        this.signature = Objects.requireNonNull(signature, "signature must not be null");
+        this.publicKey = Objects.requireNonNull(publicKey, "publicKey must not be null");
+        this.label = Objects.requireNonNull(label, "label must not be null");
+        this.lamports = lamports;
+    }
+
+    /**
+     * @return slot of the block holding the transaction
+     */
+    public long getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return estimated production time of the block in Unix seconds, or 0 when the node did not report it
+     */
+    public long getBlockTime() {
+        return blockTime;
+    }
+
+    /**
+     * @return base58-encoded signature of the crediting transaction
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return base58-encoded address that was credited
+     */
+    public String getPublicKey() {
+        return publicKey;
+    }
+
+    /**
+     * @return label of the credited address
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return net balance increase of the address in this transaction
+     */
+    public long getLamports() {
+        return lamports;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DepositEvent that = (DepositEvent) o;
+        return slot == that.slot
+                && blockTime == that.blockTime
+                && lamports == that.lamports
+                && signature.equals(that.signature)
+                && publicKey.equals(that.publicKey)
+                && label.equals(that.label);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(slot, blockTime, signature, publicKey, label, lamports);
+    }
+
+    @Override
+    public String toString() {
+        return "DepositEvent{" +
+                "slot=" + slot +
+                ", signature='" + signature + '\'' +
+                ", publicKey='" + publicKey + '\'' +
+                ", label='" + label + '\'' +
+                ", lamports=" + lamports +
+                '}';
+    }
+}
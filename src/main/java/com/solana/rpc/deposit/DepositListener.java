@@ -0,0 +1,17 @@
+package com.solana.rpc.deposit;
+
+/**
+ * Receives deposits from a {@link DepositDetector} in slot order, and in transaction order within
+ * a block.
+ */
+@FunctionalInterface
+public interface DepositListener {
+
+    /**
+     * Handle one deposit. Throwing stops the scan before the block is checkpointed, so the block's
+     * deposits are delivered again on the next attempt.
+     *
+     * @param event detected deposit
+     */
+    void onDeposit(DepositEvent event);
+}
@@ -0,0 +1,95 @@
+package com.solana.rpc.deposit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Last slot whose deposits have been fully delivered, optionally persisted to a file so that a
+ * restarted detector resumes after it instead of rescanning.
+ * <p>
+ * The file holds a single decimal slot number and is replaced atomically on every save, so a
+ * crash leaves either the old or the new value.
+ */
+public final class SlotCheckpoint {
+
+    private static final long NONE = -1;
+
+    private final Path file;
+    private volatile long lastSlot;
+
+    private SlotCheckpoint(Path file, long lastSlot) {
+        this.file = file;
+        this.lastSlot = lastSlot;
+    }
+
+    /**
+     * @return checkpoint that is not persisted
+     */
+    public static SlotCheckpoint inMemory() {
+        return new SlotCheckpoint(null, NONE);
+    }
+
+    /**
+     * Open a checkpoint file, reading the slot it already holds.
+     *
+     * @param checkpointFile checkpoint location; created on the first save when missing
+     * @return checkpoint backed by the file
+     * @throws IOException when the file exists but cannot be read or does not hold a slot number
+     */
+    public static SlotCheckpoint open(Path checkpointFile) throws IOException {
+        Objects.requireNonNull(checkpointFile, "checkpointFile must not be null");
+        long slot = NONE;
+        if (Files.exists(checkpointFile)) {
+            String content = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+            try {
+                slot = Long.parseLong(content);
+            } catch (NumberFormatException e) {
+                throw new IOException("Checkpoint file " + checkpointFile + " does not hold a slot number", e);
+            }
+        }
+        return new SlotCheckpoint(checkpointFile, slot);
+    }
+
+    /**
+     * @return last fully delivered slot, or empty when nothing has been scanned yet
+     */
+    public OptionalLong getLastSlot() {
+        long slot = lastSlot;
+        return slot == NONE ? OptionalLong.empty() : OptionalLong.of(slot);
+    }
+
+    /**
+     * Move the checkpoint forward. Slots at or before the current one are ignored.
+     *
+     * @param slot last slot whose deposits have all been delivered
+     * @throws UncheckedIOException when the checkpoint file cannot be written
+     */
+    public synchronized void save(long slot) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("slot must not be negative");
+        }
+        if (slot <= lastSlot) {
+            return;
+        }
+        if (file != null) {
+            write(slot);
+        }
+        lastSlot = slot;
+    }
+
+    private void write(long slot) {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, slot + "\n", StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.solana.rpc.history;
+
+/**
+ * Change in the balance of one address between two reconciliation reads.
+ *
+ * @param address          base58-encoded address
+ * @param previousLamports balance at the previous read, or zero when the address was not read before
+ * @param lamports         balance at {@code slot}
+ * @param slot             context slot of the read that observed the change
+ */
+public record BalanceDelta(String address, long previousLamports, long lamports, long slot) {
+
+    /**
+     * @return signed change in lamports
+     */
+    public long change() {
+        return lamports - previousLamports;
+    }
+}
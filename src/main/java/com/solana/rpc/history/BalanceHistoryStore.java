@@ -0,0 +1,710 @@
+package com.solana.rpc.history;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.utils.Base58;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only, time-partitioned store of per-address lamport balances.
+ * <p>
+ * Addresses get dense numeric ids, kept in {@code accounts.bin}. Balances go to one segment file
+ * per {@code segmentSpan} of time ({@code balances-<startMillis>.seg}). Each call to
+ * {@link #record} appends a frame holding only the balances that changed, laid out as columns:
+ * <pre>
+ *   varint  body length
+ *   varint  timestamp - previous frame's timestamp (segment start for the first frame)
+ *   zigzag  total lamports - previous frame's total
+ *   varint  number of entries
+ *   varint  account id - previous entry's id, for each entry in ascending id order
+ *   zigzag  balance - the account's previous balance in this segment, for each entry
+ * </pre>
+ * The first frame of a segment holds every non-zero balance, so a segment decodes on its own and
+ * an account missing from it has a zero balance. Every frame carries the running total, so a total
+ * at a point in time is found by skipping from frame header to frame header without touching the
+ * columns.
+ * <p>
+ * Queries read segments through read-only memory maps and never block {@link #record}. A crash can
+ * lose frames that were not yet flushed by the operating system; on the next open a torn frame at
+ * the end of the newest segment is cut off. New addresses are flushed to {@code accounts.bin}
+ * before the first frame that refers to them, so a surviving frame never names an unknown id.
+ */
+public final class BalanceHistoryStore implements AutoCloseable {
+
+    public static final Duration DEFAULT_SEGMENT_SPAN = Duration.ofDays(1);
+
+    private static final byte[] ACCOUNTS_MAGIC = {'S', 'O', 'L', 'B', 'A', 'L', 'A', 1};
+    private static final byte[] SEGMENT_MAGIC = {'S', 'O', 'L', 'B', 'A', 'L', 'S', 1};
+    private static final int SEGMENT_HEADER_BYTES = SEGMENT_MAGIC.length + Long.BYTES;
+    private static final String ACCOUNTS_FILE = "accounts.bin";
+    private static final String SEGMENT_PREFIX = "balances-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int FRAME_HEADER_BYTES = 3 * MAX_VARINT_BYTES;
+
+    private final Path directory;
+    private final long segmentSpanMillis;
+    private final FileChannel accountsChannel;
+    private final Map<String, Integer> accountIds = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    // Writer state, guarded by this.
+    private long[] balances = new long[1024];
+    private long total;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private Segment active;
+    private FileChannel activeChannel;
+    private boolean closed;
+
+    private BalanceHistoryStore(Path directory, long segmentSpanMillis, FileChannel accountsChannel) {
+        this.directory = directory;
+        this.segmentSpanMillis = segmentSpanMillis;
+        this.accountsChannel = accountsChannel;
+    }
+
+    /**
+     * Open or create a store with daily segments.
+     */
+    public static BalanceHistoryStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SPAN);
+    }
+
+    /**
+     * Open or create a store. An existing store must be reopened with the span it was created with.
+     *
+     * @param directory   directory holding the store's files; created when missing
+     * @param segmentSpan length of time covered by one segment file
+     * @throws IOException when the files cannot be read or are not a balance store
+     */
+    public static BalanceHistoryStore open(Path directory, Duration segmentSpan) throws IOException {
+        Objects.requireNonNull(directory, "directory must not be null");
+        Objects.requireNonNull(segmentSpan, "segmentSpan must not be null");
+        if (segmentSpan.toMillis() <= 0) {
+            throw new IllegalArgumentException("segmentSpan must be at least one millisecond");
+        }
+        Files.createDirectories(directory);
+        FileChannel accounts = FileChannel.open(directory.resolve(ACCOUNTS_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        BalanceHistoryStore store = new BalanceHistoryStore(directory, segmentSpan.toMillis(), accounts);
+        try {
+            store.loadAccounts();
+            store.loadSegments();
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Record the balances observed at one point in time. Addresses not listed keep their previous
+     * balance; addresses seen for the first time start from zero.
+     *
+     * @param timestampMillis observation time in epoch milliseconds; must not precede earlier records
+     * @param addresses       base58-encoded public keys
+     * @param lamports        balances in the same order; must not be negative
+     * @return number of balances that changed and were written
+     * @throws UncheckedIOException when the store cannot be written
+     */
+    public synchronized int record(long timestampMillis, List<String> addresses, long[] lamports) {
+        Objects.requireNonNull(addresses, "addresses must not be null");
+        Objects.requireNonNull(lamports, "lamports must not be null");
+        if (closed) {
+            throw new IllegalStateException("BalanceHistoryStore is closed");
+        }
+        if (addresses.size() != lamports.length) {
+            throw new IllegalArgumentException("addresses and lamports must have the same length");
+        }
+        if (timestampMillis < 0 || timestampMillis < lastTimestamp) {
+            throw new IllegalArgumentException("Timestamp " + timestampMillis + " precedes the last record at "
+                    + lastTimestamp);
+        }
+        for (long value : lamports) {
+            if (value < 0) {
+                throw new IllegalArgumentException("lamports must not be negative");
+            }
+        }
+
+        try {
+            int[] ids = resolveIds(addresses);
+            long segmentStart = Math.floorDiv(timestampMillis, segmentSpanMillis) * segmentSpanMillis;
+            if (active == null || active.startMillis != segmentStart) {
+                return startSegment(segmentStart, timestampMillis, ids, lamports);
+            }
+
+            Map<Integer, Long> changed = new HashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (lamports[i] != balances[ids[i]]) {
+                    changed.put(ids[i], lamports[i]);
+                } else {
+                    changed.remove(ids[i]);
+                }
+            }
+            if (changed.isEmpty()) {
+                return 0;
+            }
+            int[] entryIds = changed.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            long[] deltas = new long[entryIds.length];
+            long newTotal = total;
+            for (int i = 0; i < entryIds.length; i++) {
+                long value = changed.get(entryIds[i]);
+                deltas[i] = value - balances[entryIds[i]];
+                newTotal += deltas[i];
+            }
+            appendFrame(timestampMillis, newTotal, entryIds, deltas);
+            for (int i = 0; i < entryIds.length; i++) {
+                balances[entryIds[i]] += deltas[i];
+            }
+            return entryIds.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write balance history in " + directory, e);
+        }
+    }
+
+    /**
+     * @return total lamports of all recorded addresses as of {@code at}, or empty when nothing was
+     * recorded by then
+     */
+    public OptionalLong totalAt(Instant at) {
+        long t = at.toEpochMilli();
+        List<Segment> view = List.copyOf(segments);
+        for (int s = lastSegmentStartingBy(view, t); s >= 0; s--) {
+            FrameCursor cursor = new FrameCursor(view.get(s));
+            boolean found = false;
+            long result = 0;
+            while (cursor.next() && cursor.timestamp <= t) {
+                found = true;
+                result = cursor.total;
+            }
+            if (found) {
+                return OptionalLong.of(result);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @return balance of the address as of {@code at}, or empty when nothing was recorded by then or
+     * the address was never recorded; an address first recorded later reads as zero
+     */
+    public OptionalLong balanceAt(String address, Instant at) {
+        Integer id = accountIds.get(Objects.requireNonNull(address, "address must not be null"));
+        if (id == null) {
+            return OptionalLong.empty();
+        }
+        long t = at.toEpochMilli();
+        List<Segment> view = List.copyOf(segments);
+        for (int s = lastSegmentStartingBy(view, t); s >= 0; s--) {
+            FrameCursor cursor = new FrameCursor(view.get(s));
+            boolean found = false;
+            long value = 0;
+            while (cursor.next() && cursor.timestamp <= t) {
+                found = true;
+                value += cursor.delta(id);
+            }
+            if (found) {
+                return OptionalLong.of(value);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Balance history of one address over {@code [from, to)}: the balance in effect at
+     * {@code from}, if any, followed by every change before {@code to}.
+     *
+     * @return points in time order, each with a different balance from the one before
+     */
+    public List<BalancePoint> history(String address, Instant from, Instant to) {
+        Objects.requireNonNull(address, "address must not be null");
+        long start = from.toEpochMilli();
+        long end = to.toEpochMilli();
+        if (end <= start) {
+            return List.of();
+        }
+        Integer id = accountIds.get(address);
+        if (id == null) {
+            return List.of();
+        }
+
+        List<BalancePoint> points = new ArrayList<>();
+        OptionalLong initial = balanceAt(address, from);
+        if (initial.isPresent()) {
+            points.add(new BalancePoint(start, initial.getAsLong()));
+        }
+        List<Segment> view = List.copyOf(segments);
+        for (int s = Math.max(0, lastSegmentStartingBy(view, start)); s < view.size(); s++) {
+            Segment segment = view.get(s);
+            if (segment.startMillis >= end) {
+                break;
+            }
+            FrameCursor cursor = new FrameCursor(segment);
+            long value = 0;
+            while (cursor.next() && cursor.timestamp < end) {
+                long delta = cursor.delta(id);
+                value += delta;
+                boolean defined = cursor.frameIndex == 0 || delta != 0;
+                if (cursor.timestamp > start && defined
+                        && (points.isEmpty() || points.get(points.size() - 1).lamports() != value)) {
+                    points.add(new BalancePoint(cursor.timestamp, value));
+                }
+            }
+        }
+        return Collections.unmodifiableList(points);
+    }
+
+    /**
+     * @return number of distinct addresses recorded
+     */
+    public int getAccountCount() {
+        return accountIds.size();
+    }
+
+    /**
+     * @return number of segment files
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (FileChannel accounts = accountsChannel; FileChannel segment = activeChannel) {
+            if (segment != null) {
+                segment.force(false);
+            }
+            accounts.force(false);
+        }
+    }
+
+    private void loadAccounts() throws IOException {
+        long size = accountsChannel.size();
+        if (size == 0) {
+            writeFully(accountsChannel, ByteBuffer.wrap(ACCOUNTS_MAGIC), 0);
+            return;
+        }
+        ByteBuffer content = accountsChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        byte[] magic = new byte[ACCOUNTS_MAGIC.length];
+        if (size < magic.length || !Arrays.equals(magic(content, magic), ACCOUNTS_MAGIC)) {
+            throw new IOException(directory.resolve(ACCOUNTS_FILE) + " is not a balance store account table");
+        }
+        int count = (int) ((size - magic.length) / PublicKey.PUBLIC_KEY_LENGTH);
+        byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        for (int id = 0; id < count; id++) {
+            content.get(key);
+            accountIds.put(Base58.encode(key), id);
+        }
+        long whole = magic.length + (long) count * PublicKey.PUBLIC_KEY_LENGTH;
+        if (whole != size) {
+            // A key was only partly written before a crash; no frame refers to it.
+            accountsChannel.truncate(whole);
+        }
+        ensureCapacity(count);
+    }
+
+    private void loadSegments() throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String start = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    found.add(new Segment(file, Long.parseLong(start)));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Unexpected file in balance store: " + file, e);
+                }
+            }
+        }
+        found.sort((a, b) -> Long.compare(a.startMillis, b.startMillis));
+        for (Segment segment : found) {
+            segment.committedSize = Files.size(segment.path);
+        }
+        if (found.isEmpty()) {
+            return;
+        }
+
+        Segment newest = found.get(found.size() - 1);
+        FileChannel channel = FileChannel.open(newest.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (newest.committedSize < SEGMENT_HEADER_BYTES) {
+                // Crashed while creating the segment; nothing was recorded in it.
+                channel.close();
+                Files.delete(newest.path);
+                found.remove(found.size() - 1);
+                segments.addAll(found);
+                restoreFrom(found.isEmpty() ? null : found.get(found.size() - 1));
+                return;
+            }
+            long valid = replay(newest);
+            if (valid < newest.committedSize) {
+                channel.truncate(valid);
+                newest.committedSize = valid;
+            }
+            channel.position(valid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        segments.addAll(found);
+        active = newest;
+        activeChannel = channel;
+    }
+
+    /**
+     * Rebuild the writer state from a closed segment, whose frames are all complete.
+     */
+    private void restoreFrom(Segment segment) throws IOException {
+        if (segment != null) {
+            replay(segment);
+        }
+    }
+
+    /**
+     * Apply every complete frame of the segment to the writer state.
+     *
+     * @return size of the segment up to the end of its last complete frame
+     */
+    private long replay(Segment segment) throws IOException {
+        ByteBuffer content;
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.committedSize);
+        }
+        byte[] magic = new byte[SEGMENT_MAGIC.length];
+        if (!Arrays.equals(magic(content, magic), SEGMENT_MAGIC) || content.getLong() != segment.startMillis) {
+            throw new IOException(segment.path + " is not a balance segment");
+        }
+        Arrays.fill(balances, 0);
+        long timestamp = segment.startMillis;
+        long runningTotal = 0;
+        int valid = SEGMENT_HEADER_BYTES;
+        try {
+            while (content.hasRemaining()) {
+                long bodyLength = getVarint(content);
+                if (bodyLength > content.remaining()) {
+                    break;
+                }
+                int frameEnd = content.position() + (int) bodyLength;
+                long frameTimestamp = timestamp + getVarint(content);
+                long frameTotal = runningTotal + decodeZigzag(getVarint(content));
+                int count = (int) getVarint(content);
+                int[] ids = new int[count];
+                int id = 0;
+                for (int i = 0; i < count; i++) {
+                    id += (int) getVarint(content);
+                    ids[i] = id;
+                }
+                if (count > 0 && id >= accountIds.size()) {
+                    throw new IOException("Frame in " + segment.path + " at offset " + valid
+                            + " refers to account " + id + " missing from " + ACCOUNTS_FILE);
+                }
+                for (int i = 0; i < count; i++) {
+                    balances[ids[i]] += decodeZigzag(getVarint(content));
+                }
+                if (content.position() != frameEnd) {
+                    throw new IOException("Corrupt frame in " + segment.path + " at offset " + valid);
+                }
+                timestamp = frameTimestamp;
+                runningTotal = frameTotal;
+                valid = frameEnd;
+            }
+        } catch (BufferUnderflowException e) {
+            // Torn final frame.
+        }
+        total = runningTotal;
+        lastTimestamp = timestamp;
+        return valid;
+    }
+
+    private int[] resolveIds(List<String> addresses) throws IOException {
+        int[] ids = new int[addresses.size()];
+        ByteBuffer newKeys = null;
+        int next = accountIds.size();
+        Map<String, Integer> added = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            String address = Objects.requireNonNull(addresses.get(i), "address must not be null");
+            Integer id = accountIds.get(address);
+            if (id == null) {
+                id = added.get(address);
+            }
+            if (id == null) {
+                byte[] key = Base58.decode(address);
+                if (key.length != PublicKey.PUBLIC_KEY_LENGTH) {
+                    throw new IllegalArgumentException("Not a base58-encoded public key: " + address);
+                }
+                if (newKeys == null) {
+                    newKeys = ByteBuffer.allocate((ids.length - i) * PublicKey.PUBLIC_KEY_LENGTH);
+                }
+                newKeys.put(key);
+                id = next++;
+                added.put(address, id);
+            }
+            ids[i] = id;
+        }
+        if (newKeys != null) {
+            newKeys.flip();
+            writeFully(accountsChannel, newKeys, accountsChannel.size());
+            // The frame about to be written refers to these ids; they must reach the disk first.
+            accountsChannel.force(false);
+            ensureCapacity(next);
+            accountIds.putAll(added);
+        }
+        return ids;
+    }
+
+    private int startSegment(long segmentStart, long timestampMillis, int[] ids, long[] lamports) throws IOException {
+        for (int i = 0; i < ids.length; i++) {
+            balances[ids[i]] = lamports[i];
+        }
+        int accounts = accountIds.size();
+        int nonZero = 0;
+        long newTotal = 0;
+        for (int id = 0; id < accounts; id++) {
+            if (balances[id] != 0) {
+                nonZero++;
+                newTotal += balances[id];
+            }
+        }
+        int[] entryIds = new int[nonZero];
+        long[] values = new long[nonZero];
+        for (int id = 0, n = 0; id < accounts; id++) {
+            if (balances[id] != 0) {
+                entryIds[n] = id;
+                values[n++] = balances[id];
+            }
+        }
+
+        Path file = directory.resolve(SEGMENT_PREFIX + segmentStart + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES).put(SEGMENT_MAGIC).putLong(segmentStart);
+        header.flip();
+        writeFully(channel, header, 0);
+        channel.position(SEGMENT_HEADER_BYTES);
+
+        FileChannel previous = activeChannel;
+        Segment segment = new Segment(file, segmentStart);
+        segment.committedSize = SEGMENT_HEADER_BYTES;
+        active = segment;
+        activeChannel = channel;
+        total = 0;
+        lastTimestamp = segmentStart;
+        segments.add(segment);
+        if (previous != null) {
+            previous.force(false);
+            previous.close();
+        }
+        appendFrame(timestampMillis, newTotal, entryIds, values);
+        return nonZero;
+    }
+
+    private void appendFrame(long timestampMillis, long newTotal, int[] entryIds, long[] deltas) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(FRAME_HEADER_BYTES + entryIds.length * 2 * MAX_VARINT_BYTES);
+        putVarint(body, timestampMillis - lastTimestamp);
+        putVarint(body, encodeZigzag(newTotal - total));
+        putVarint(body, entryIds.length);
+        int previousId = 0;
+        for (int id : entryIds) {
+            putVarint(body, id - previousId);
+            previousId = id;
+        }
+        for (long delta : deltas) {
+            putVarint(body, encodeZigzag(delta));
+        }
+        body.flip();
+        ByteBuffer length = ByteBuffer.allocate(MAX_VARINT_BYTES);
+        putVarint(length, body.remaining());
+        length.flip();
+
+        long frameBytes = length.remaining() + body.remaining();
+        while (length.hasRemaining() || body.hasRemaining()) {
+            activeChannel.write(new ByteBuffer[]{length, body});
+        }
+        active.committedSize += frameBytes;
+        total = newTotal;
+        lastTimestamp = timestampMillis;
+    }
+
+    private void ensureCapacity(int accounts) {
+        if (accounts > balances.length) {
+            balances = Arrays.copyOf(balances, Math.max(accounts, balances.length * 2));
+        }
+    }
+
+    private static int lastSegmentStartingBy(List<Segment> view, long t) {
+        int low = 0;
+        int high = view.size() - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (view.get(mid).startMillis <= t) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private static byte[] magic(ByteBuffer content, byte[] magic) {
+        content.get(magic);
+        return magic;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static long encodeZigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long decodeZigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in balance segment");
+    }
+
+    /**
+     * One segment file and its read-only mapping, refreshed when the file has grown.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        private final long startMillis;
+        private volatile long committedSize;
+        private MappedByteBuffer mapped;
+
+        private Segment(Path path, long startMillis) {
+            this.path = path;
+            this.startMillis = startMillis;
+        }
+
+        private synchronized ByteBuffer view() {
+            long size = committedSize;
+            if (mapped == null || mapped.capacity() < size) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to map balance segment " + path, e);
+                }
+            }
+            return mapped.duplicate().limit((int) size);
+        }
+    }
+
+    /**
+     * Walks the frames of a segment, decoding headers eagerly and columns only on request.
+     */
+    private static final class FrameCursor {
+
+        private final ByteBuffer buffer;
+        private long timestamp;
+        private long total;
+        private int frameIndex = -1;
+        private int count;
+        private int columnsStart;
+        private int frameEnd;
+
+        private FrameCursor(Segment segment) {
+            this.buffer = segment.view();
+            this.timestamp = segment.startMillis;
+            this.frameEnd = SEGMENT_HEADER_BYTES;
+        }
+
+        private boolean next() {
+            if (frameEnd >= buffer.limit()) {
+                return false;
+            }
+            buffer.position(frameEnd);
+            long bodyLength = getVarint(buffer);
+            frameEnd = buffer.position() + (int) bodyLength;
+            timestamp += getVarint(buffer);
+            total += decodeZigzag(getVarint(buffer));
+            count = (int) getVarint(buffer);
+            columnsStart = buffer.position();
+            frameIndex++;
+            return true;
+        }
+
+        /**
+         * @return change of the account's balance in the current frame, zero when it has no entry
+         */
+        private long delta(int id) {
+            buffer.position(columnsStart);
+            int current = 0;
+            int position = -1;
+            int i = 0;
+            for (; i < count; i++) {
+                current += (int) getVarint(buffer);
+                if (current >= id) {
+                    if (current == id) {
+                        position = i;
+                    }
+                    i++;
+                    break;
+                }
+            }
+            if (position < 0) {
+                return 0;
+            }
+            for (; i < count; i++) {
+                skipVarint(buffer);
+            }
+            for (int v = 0; v < position; v++) {
+                skipVarint(buffer);
+            }
+            return decodeZigzag(getVarint(buffer));
+        }
+
+        private static void skipVarint(ByteBuffer buffer) {
+            while ((buffer.get() & 0x80) != 0) {
+                // continuation byte
+            }
+        }
+    }
+}
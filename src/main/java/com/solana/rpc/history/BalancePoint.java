@@ -0,0 +1,10 @@
+package com.solana.rpc.history;
+
+/**
+ * Balance of one address from {@code timestampMillis} until the next point.
+ *
+ * @param timestampMillis when the balance was observed, in epoch milliseconds
+ * @param lamports        balance in lamports
+ */
+public record BalancePoint(long timestampMillis, long lamports) {
+}
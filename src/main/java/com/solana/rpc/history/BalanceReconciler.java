@@ -0,0 +1,218 @@
+package com.solana.rpc.history;
+
+import com.solana.rpc.service.DerivedAccountRepository;
+import com.solana.rpc.transport.AccountLamports;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the last observed balance and context slot of every issued address and, on each
+ * {@link #reconcile()} run, reads only the addresses that are due, reporting the balances that
+ * changed as {@link BalanceDelta}s.
+ * <p>
+ * An address is due in the run after its balance last changed. Every read that finds it unchanged
+ * doubles the number of runs until the next read, up to {@code maxIdleRuns}. Steady-state cost
+ * therefore follows activity: busy addresses are read every run, and cold ones once every
+ * {@code maxIdleRuns} runs. Addresses passed to {@link #markActive(String)}, such as those a
+ * deposit listener or a transfer just touched, are read in the next run whatever their schedule.
+ * When more addresses are due than {@code maxAccountsPerRun}, marked addresses come first, then
+ * the most recently changed; the rest stay due.
+ * <p>
+ * Balances are read with {@code getMultipleAccounts} in the {@link RpcLane#BULK} lane, 100 per
+ * call, with account data sliced away on the server. Each call returns one coherent snapshot at
+ * its context slot. It also asks for a node that has reached the highest slot seen so far, so a
+ * lagging node behind a load balancer cannot report an older balance as a change. A failed call
+ * is logged, and its addresses are read again in the next run.
+ */
+public class BalanceReconciler {
+
+    private static final Logger LOGGER = Logger.getLogger(BalanceReconciler.class.getName());
+    private static final int DEFAULT_MAX_IDLE_RUNS = 32;
+    private static final int DEFAULT_MAX_ACCOUNTS_PER_RUN = 10_000;
+    private static final Comparator<AccountState> PRIORITY = Comparator
+            .comparing((AccountState state) -> !state.marked)
+            .thenComparing(Comparator.comparingLong((AccountState state) -> state.lastChangedRun).reversed())
+            .thenComparingLong(state -> state.nextDueRun);
+
+    private final RpcExecutor rpcExecutor;
+    private final JsonRpcTransport transport;
+    private final DerivedAccountRepository repository;
+    private final int maxIdleRuns;
+    private final int maxAccountsPerRun;
+    private final Map<String, AccountState> accounts = new HashMap<>();
+    private final Set<String> activeAddresses = ConcurrentHashMap.newKeySet();
+
+    private long run;
+    private long highestContextSlot = -1;
+
+    public BalanceReconciler(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                             DerivedAccountRepository repository) {
+        this(rpcExecutor, transport, repository, DEFAULT_MAX_IDLE_RUNS, DEFAULT_MAX_ACCOUNTS_PER_RUN);
+    }
+
+    /**
+     * @param rpcExecutor       executor for all RPC calls
+     * @param transport         transport used for batched balance reads
+     * @param repository        addresses to reconcile
+     * @param maxIdleRuns       most runs an unchanged address goes without being read
+     * @param maxAccountsPerRun most addresses read in one run
+     */
+    public BalanceReconciler(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                             DerivedAccountRepository repository, int maxIdleRuns, int maxAccountsPerRun) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        if (maxIdleRuns < 1) {
+            throw new IllegalArgumentException("maxIdleRuns must be positive");
+        }
+        if (maxAccountsPerRun < 1) {
+            throw new IllegalArgumentException("maxAccountsPerRun must be positive");
+        }
+        this.maxIdleRuns = maxIdleRuns;
+        this.maxAccountsPerRun = maxAccountsPerRun;
+    }
+
+    /**
+     * Have the next run read the address regardless of its schedule. Safe to call from any thread.
+     *
+     * @param address base58-encoded address; ignored when it is not in the repository
+     */
+    public void markActive(String address) {
+        activeAddresses.add(Objects.requireNonNull(address, "address must not be null"));
+    }
+
+    /**
+     * Read the addresses that are due and report the balances that changed.
+     */
+    public synchronized ReconciliationReport reconcile() {
+        long currentRun = ++run;
+        List<AccountState> due = new ArrayList<>();
+        repository.forEachAccount(account -> {
+            AccountState state = accounts.computeIfAbsent(account.getPublicKey(), AccountState::new);
+            state.seenInRun = currentRun;
+            if (activeAddresses.remove(state.address)) {
+                state.marked = true;
+            }
+            if (state.marked || state.nextDueRun <= currentRun) {
+                due.add(state);
+            }
+        });
+        accounts.values().removeIf(state -> state.seenInRun != currentRun);
+        activeAddresses.removeIf(address -> !accounts.containsKey(address));
+
+        due.sort(PRIORITY);
+        List<AccountState> selected = due.subList(0, Math.min(due.size(), maxAccountsPerRun));
+        List<BalanceDelta> deltas = new ArrayList<>();
+        int read = 0;
+        int calls = 0;
+        int failed = 0;
+        for (int from = 0; from < selected.size(); from += JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST) {
+            List<AccountState> chunk = selected.subList(from,
+                    Math.min(selected.size(), from + JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST));
+            List<String> addresses = chunk.stream().map(state -> state.address).toList();
+            long minContextSlot = highestContextSlot;
+            calls++;
+            AccountLamports result;
+            try {
+                result = rpcExecutor.execute(api -> transport.getMultipleAccountLamports(addresses, minContextSlot),
+                        RpcLane.BULK);
+            } catch (RpcException | RuntimeException e) {
+                failed++;
+                LOGGER.log(Level.WARNING, "Balance reconciliation read failed; retrying in the next run", e);
+                continue;
+            }
+            for (int i = 0; i < result.size(); i++) {
+                if (apply(chunk.get(i), result.getLamports(i), result.getContextSlot(), currentRun, deltas)) {
+                    read++;
+                }
+            }
+            highestContextSlot = Math.max(highestContextSlot, result.getContextSlot());
+        }
+        return new ReconciliationReport(deltas, read, accounts.size() - selected.size(), calls, failed);
+    }
+
+    /**
+     * @return number of addresses whose balance is remembered
+     */
+    public synchronized int getTrackedAccountCount() {
+        return accounts.size();
+    }
+
+    /**
+     * @param address base58-encoded address
+     * @return balance at the last read of the address, or empty when it has not been read yet
+     */
+    public synchronized OptionalLong getLamports(String address) {
+        AccountState state = accounts.get(address);
+        return state == null || state.slot < 0 ? OptionalLong.empty() : OptionalLong.of(state.lamports);
+    }
+
+    /**
+     * @return highest context slot any read has returned, or {@code -1} before the first read
+     */
+    public synchronized long getHighestContextSlot() {
+        return highestContextSlot;
+    }
+
+    private boolean apply(AccountState state, long value, long slot, long currentRun, List<BalanceDelta> deltas) {
+        if (slot < state.slot) {
+            // The node ignored minContextSlot and answered from behind our last read; try again next run.
+            return false;
+        }
+        long lamports = value == AccountLamports.MISSING ? 0 : value;
+        long nextDueRun;
+        if (lamports != state.lamports) {
+            deltas.add(new BalanceDelta(state.address, state.lamports, lamports, slot));
+            state.lamports = lamports;
+            state.lastChangedRun = currentRun;
+            state.idleRuns = 1;
+            nextDueRun = currentRun + 1;
+        } else {
+            int previousIdleRuns = state.idleRuns;
+            state.idleRuns = Math.min(previousIdleRuns * 2, maxIdleRuns);
+            nextDueRun = currentRun + state.idleRuns;
+            if (state.idleRuns == maxIdleRuns && previousIdleRuns < maxIdleRuns) {
+                // Addresses issued together reach the limit together; spread their reads over the period.
+                nextDueRun -= Math.floorMod(state.address.hashCode(), maxIdleRuns);
+            }
+        }
+        state.slot = slot;
+        state.marked = false;
+        state.nextDueRun = nextDueRun;
+        return true;
+    }
+
+    /**
+     * Last observation and read schedule of one address. Only touched while holding the
+     * reconciler's lock.
+     */
+    private static final class AccountState {
+
+        private final String address;
+        private long lamports;
+        private long slot = -1;
+        private long lastChangedRun = -1;
+        private int idleRuns = 1;
+        private long nextDueRun;
+        private long seenInRun;
+        private boolean marked;
+
+        private AccountState(String address) {
+            this.address = address;
+        }
+    }
+}
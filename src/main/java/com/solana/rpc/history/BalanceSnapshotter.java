@@ -0,0 +1,133 @@
+package com.solana.rpc.history;
+
+import com.solana.rpc.service.DerivedAccountRepository;
+import com.solana.rpc.transport.AccountLamports;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Periodically reads the balance of every issued address and records it in a
+ * {@link BalanceHistoryStore}, which keeps only the balances that changed.
+ * <p>
+ * Balances are read with {@code getMultipleAccounts} in the {@link RpcLane#BULK} lane; accounts
+ * that do not exist on chain are recorded as zero. Callers that learn of a change sooner, such as
+ * a deposit listener, can call {@link #snapshot()} directly.
+ */
+public class BalanceSnapshotter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(BalanceSnapshotter.class.getName());
+
+    private final RpcExecutor rpcExecutor;
+    private final JsonRpcTransport transport;
+    private final DerivedAccountRepository repository;
+    private final BalanceHistoryStore store;
+    private final long intervalNanos;
+    private final Clock clock;
+
+    private volatile Thread poller;
+    private volatile boolean closed;
+
+    /**
+     * @param rpcExecutor executor for all RPC calls
+     * @param transport   transport used for batched balance reads
+     * @param repository  addresses to snapshot
+     * @param store       destination of the snapshots; not closed by this snapshotter
+     * @param interval    pause between snapshots
+     * @param clock       source of snapshot timestamps
+     */
+    public BalanceSnapshotter(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                              DerivedAccountRepository repository, BalanceHistoryStore store,
+                              Duration interval, Clock clock) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.store = Objects.requireNonNull(store, "store must not be null");
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        Objects.requireNonNull(interval, "interval must not be null");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Start taking snapshots on a background thread. Failed snapshots are logged and retried at the
+     * next interval.
+     */
+    public synchronized void start() {
+        if (closed) {
+            throw new IllegalStateException("BalanceSnapshotter is closed");
+        }
+        if (poller == null) {
+            Thread thread = new Thread(this::poll, "balance-snapshotter");
+            thread.setDaemon(true);
+            poller = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Read the balance of every address in the repository and record it.
+     *
+     * @return number of balances that changed since the previous snapshot
+     */
+    public synchronized int snapshot() throws RpcException {
+        List<String> addresses = new ArrayList<>();
+        repository.forEachAccount(account -> addresses.add(account.getPublicKey()));
+        if (addresses.isEmpty()) {
+            return 0;
+        }
+        long[] lamports = new long[addresses.size()];
+        for (int from = 0; from < addresses.size(); from += JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST) {
+            List<String> chunk = addresses.subList(from,
+                    Math.min(addresses.size(), from + JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST));
+            AccountLamports result = rpcExecutor.execute(api -> transport.getMultipleAccountLamports(chunk),
+                    RpcLane.BULK);
+            for (int i = 0; i < result.size(); i++) {
+                long value = result.getLamports(i);
+                lamports[from + i] = value == AccountLamports.MISSING ? 0 : value;
+            }
+        }
+        return store.record(clock.millis(), addresses, lamports);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Thread thread = poller;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void poll() {
+        while (!closed) {
+            try {
+                int changed = snapshot();
+                LOGGER.fine(() -> "Balance snapshot recorded " + changed + " changes");
+            } catch (RpcException | RuntimeException e) {
+                if (closed) {
+                    return;
+                }
+                LOGGER.log(Level.WARNING, "Balance snapshot failed; retrying at the next interval", e);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
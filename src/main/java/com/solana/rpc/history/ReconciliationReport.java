@@ -0,0 +1,70 @@
+package com.solana.rpc.history;
+
+import java.util.List;
+
+/**
+ * Outcome of one {@link BalanceReconciler#reconcile()} run.
+ */
+public final class ReconciliationReport {
+
+    private final List<BalanceDelta> deltas;
+    private final int accountsRead;
+    private final int accountsSkipped;
+    private final int rpcCalls;
+    private final int failedCalls;
+
+    ReconciliationReport(List<BalanceDelta> deltas, int accountsRead, int accountsSkipped, int rpcCalls,
+                         int failedCalls) {
+        this.deltas = List.copyOf(deltas);
+        this.accountsRead = accountsRead;
+        this.accountsSkipped = accountsSkipped;
+        this.rpcCalls = rpcCalls;
+        this.failedCalls = failedCalls;
+    }
+
+    /**
+     * @return balances that changed since they were last read, in read order
+     */
+    public List<BalanceDelta> getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * @return accounts whose balance was read in this run
+     */
+    public int getAccountsRead() {
+        return accountsRead;
+    }
+
+    /**
+     * @return accounts left out of this run because they were not due or did not fit its budget
+     */
+    public int getAccountsSkipped() {
+        return accountsSkipped;
+    }
+
+    /**
+     * @return {@code getMultipleAccounts} calls made, failed ones included
+     */
+    public int getRpcCalls() {
+        return rpcCalls;
+    }
+
+    /**
+     * @return calls that failed; their accounts are read again in the next run
+     */
+    public int getFailedCalls() {
+        return failedCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationReport{" +
+                "deltas=" + deltas.size() +
+                ", accountsRead=" + accountsRead +
+                ", accountsSkipped=" + accountsSkipped +
+                ", rpcCalls=" + rpcCalls +
+                ", failedCalls=" + failedCalls +
+                '}';
+    }
+}
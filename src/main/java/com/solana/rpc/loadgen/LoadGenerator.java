@@ -0,0 +1,225 @@
+package com.solana.rpc.loadgen;
+
+import com.solana.rpc.config.SolanaConfig;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.service.InMemoryKeyStorage;
+import com.solana.rpc.service.SolanaWalletService;
+import com.solana.rpc.service.SolanajWalletService;
+import com.solana.rpc.tracing.TracingEventListener;
+import com.solana.rpc.transport.AdaptiveConcurrencyLimiter;
+import com.solana.rpc.transport.BackoffPolicy;
+import com.solana.rpc.transport.DeadlineInterceptor;
+import com.solana.rpc.transport.LatencyHistogram;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import okhttp3.OkHttpClient;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Open-loop load generator for a {@link SolanaWalletService}.
+ * <p>
+ * Operations are started on a fixed arrival schedule derived from the target rate, whether or not
+ * earlier ones have finished, and each latency is measured from its scheduled start. A stalled
+ * service therefore shows up as the queueing delay callers would really see, instead of silently
+ * lowering the offered load (coordinated omission). Operations scheduled during the warmup phase
+ * run but are not recorded.
+ */
+public class LoadGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+    // Held strongly so the level set from the profile is not lost to garbage collection.
+    private static final Logger SERVICE_LOGGER = Logger.getLogger("com.solana.rpc");
+    private static final String LABEL_PREFIX = "load-";
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    private static final long MOCK_BALANCE_LAMPORTS = 1_000_000_000L;
+    private static final int INITIAL_RPC_CONCURRENCY = 8;
+    private static final long RPC_BACKOFF_BASE_MS = 100;
+    private static final long RPC_BACKOFF_MAX_MS = 5_000;
+
+    private final SolanaWalletService walletService;
+    private final LoadProfile profile;
+
+    public LoadGenerator(SolanaWalletService walletService, LoadProfile profile) {
+        this.walletService = Objects.requireNonNull(walletService, "walletService must not be null");
+        this.profile = Objects.requireNonNull(profile, "profile must not be null");
+    }
+
+    /**
+     * Create the profile's accounts, then run the warmup and measurement phases.
+     *
+     * @return what was measured
+     * @throws InterruptedException when interrupted while scheduling or draining
+     */
+    public LoadReport run() throws InterruptedException {
+        List<String> labels = new ArrayList<>(profile.getAccounts());
+        List<String> addresses = new ArrayList<>(profile.getAccounts());
+        for (int i = 0; i < profile.getAccounts(); i++) {
+            String label = LABEL_PREFIX + i;
+            labels.add(label);
+            addresses.add(walletService.getNewAddress(label));
+        }
+
+        Map<WalletOperation, LatencyHistogram> latencies = new EnumMap<>(WalletOperation.class);
+        Map<WalletOperation, LongAdder> succeeded = new EnumMap<>(WalletOperation.class);
+        Map<WalletOperation, LongAdder> failed = new EnumMap<>(WalletOperation.class);
+        for (WalletOperation operation : profile.getMix().keySet()) {
+            latencies.put(operation, new LatencyHistogram());
+            succeeded.put(operation, new LongAdder());
+            failed.put(operation, new LongAdder());
+        }
+        LongAdder pending = new LongAdder();
+
+        WalletOperation[] operations = profile.getMix().keySet().toArray(new WalletOperation[0]);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += profile.getMix().get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+
+        SplittableRandom random = new SplittableRandom(profile.getSeed());
+        ExecutorService workers = Executors.newFixedThreadPool(profile.getWorkers(), daemonThreads("load-worker"));
+        double intervalNanos = 1e9 / profile.getRatePerSecond();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + profile.getWarmup().toNanos();
+        long endNanos = measureFromNanos + profile.getDuration().toNanos();
+        long maxLagNanos = 0;
+        LOGGER.info(() -> "Starting load run: " + profile);
+
+        try {
+            for (long n = 0; ; n++) {
+                long scheduledNanos = startNanos + (long) (n * intervalNanos);
+                if (scheduledNanos >= endNanos) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < scheduledNanos) {
+                    LockSupport.parkNanos(scheduledNanos - now);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException("Interrupted while scheduling load");
+                    }
+                }
+                boolean measured = scheduledNanos >= measureFromNanos;
+                if (measured) {
+                    maxLagNanos = Math.max(maxLagNanos, now - scheduledNanos);
+                    pending.increment();
+                }
+
+                int pick = random.nextInt(totalWeight);
+                int slot = 0;
+                while (cumulativeWeights[slot] <= pick) {
+                    slot++;
+                }
+                WalletOperation operation = operations[slot];
+                int account = random.nextInt(labels.size());
+                workers.execute(() -> {
+                    boolean ok = invoke(operation, labels.get(account), addresses.get(account));
+                    if (measured) {
+                        latencies.get(operation).record(System.nanoTime() - scheduledNanos);
+                        (ok ? succeeded : failed).get(operation).increment();
+                        pending.decrement();
+                    }
+                });
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOGGER.warning(() -> "Operations still running " + DRAIN_TIMEOUT.toSeconds()
+                        + " s after the run ended; abandoning them");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        Map<WalletOperation, LoadReport.OperationResult> results = new EnumMap<>(WalletOperation.class);
+        for (WalletOperation operation : operations) {
+            results.put(operation, new LoadReport.OperationResult(succeeded.get(operation).sum(),
+                    failed.get(operation).sum(), latencies.get(operation)));
+        }
+        return new LoadReport(profile, results, Math.max(0, pending.sum()), maxLagNanos);
+    }
+
+    /**
+     * Run a load test from the command line; see {@link LoadProfile#parse} for the options.
+     */
+    public static void main(String[] args) throws Exception {
+        LoadProfile profile = LoadProfile.parse(args);
+        SERVICE_LOGGER.setLevel(profile.getLogLevel());
+        String endpoint = profile.getEndpoint();
+        if (LoadProfile.CONFIGURED_ENDPOINT.equals(endpoint)) {
+            new LoadGenerator(new SolanajWalletService(), profile).run().print(System.out);
+            return;
+        }
+
+        SolanaConfig config = SolanaConfig.load();
+        if (!LoadProfile.MOCK_ENDPOINT.equals(endpoint)) {
+            new LoadGenerator(walletService(config, endpoint), profile).run().print(System.out);
+            return;
+        }
+        try (MockBalanceEndpoint server = MockBalanceEndpoint.start(MOCK_BALANCE_LAMPORTS, profile.getMockLatency())) {
+            System.out.println("In-process mock RPC endpoint at " + server.getUrl()
+                    + " answering in " + profile.getMockLatency().toMillis() + " ms");
+            new LoadGenerator(walletService(config, server.getUrl()), profile).run().print(System.out);
+        }
+    }
+
+    /**
+     * Wallet service against the given endpoint, with the same transport stack and limits as the
+     * application context but its own connection pool.
+     */
+    private static SolanaWalletService walletService(SolanaConfig config, String endpoint) {
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .readTimeout(Duration.ofMillis(config.getReadTimeoutMs()))
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                .writeTimeout(Duration.ofMillis(config.getWriteTimeoutMs()))
+                .addInterceptor(new DeadlineInterceptor())
+                .eventListenerFactory(TracingEventListener.FACTORY)
+                .build();
+        int maxConcurrency = Math.max(1, config.getRpcMaxConcurrency());
+        RpcExecutor rpcExecutor = new RpcExecutor(new RpcClient(endpoint, httpClient),
+                new AdaptiveConcurrencyLimiter(Math.min(INITIAL_RPC_CONCURRENCY, maxConcurrency), 1, maxConcurrency),
+                new BackoffPolicy(config.getRpcMaxRetries(), RPC_BACKOFF_BASE_MS, RPC_BACKOFF_MAX_MS),
+                Duration.ofMillis(config.getRpcMaxQueueWaitMs()));
+        return new SolanajWalletService(rpcExecutor, new DerivationService(config.getMnemonic()),
+                new InMemoryDerivedAccountRepository(), new InMemoryKeyStorage());
+    }
+
+    private boolean invoke(WalletOperation operation, String label, String address) {
+        try {
+            switch (operation) {
+                case GET_NEW_ADDRESS -> walletService.getNewAddress();
+                case GET_BALANCE -> walletService.getBalance(address);
+                case GET_BALANCE_BY_LABEL -> walletService.getBalanceByLabel(label);
+                case LIST_ACCOUNTS -> walletService.listAccounts();
+            }
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.fine(() -> operation.getCliName() + " failed: " + e);
+            return false;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
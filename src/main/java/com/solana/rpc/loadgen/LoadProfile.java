@@ -0,0 +1,234 @@
+package com.solana.rpc.loadgen;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+
+/**
+ * What a load run issues and for how long: the target arrival rate, the operation mix, the warmup
+ * and measurement phases, the worker pool and the RPC endpoint to run against.
+ */
+public final class LoadProfile {
+
+    /**
+     * Endpoint value selecting an in-process mock RPC server.
+     */
+    public static final String MOCK_ENDPOINT = "mock";
+
+    /**
+     * Endpoint value selecting the RPC endpoint from {@code config.json}.
+     */
+    public static final String CONFIGURED_ENDPOINT = "config";
+
+    private final double ratePerSecond;
+    private final Map<WalletOperation, Integer> mix;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int workers;
+    private final int accounts;
+    private final String endpoint;
+    private final Duration mockLatency;
+    private final long seed;
+    private final Level logLevel;
+
+    /**
+     * @param ratePerSecond operations started per second, regardless of how fast earlier ones finish
+     * @param mix           relative weight of each operation; operations left out are not issued
+     * @param warmup        time before measurement starts
+     * @param duration      measured time
+     * @param workers       threads executing operations
+     * @param accounts      addresses created before the run for the balance operations to read
+     * @param endpoint      {@link #MOCK_ENDPOINT}, {@link #CONFIGURED_ENDPOINT} or an RPC URL
+     * @param mockLatency   service time of the in-process mock endpoint
+     * @param seed          seed for the operation and address choices
+     * @param logLevel      level for the service's own loggers during the run; per-call logging
+     *                      is part of the service's cost but floods the console under load
+     */
+    public LoadProfile(double ratePerSecond, Map<WalletOperation, Integer> mix, Duration warmup, Duration duration,
+                       int workers, int accounts, String endpoint, Duration mockLatency, long seed, Level logLevel) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        Objects.requireNonNull(mix, "mix must not be null");
+        if (mix.values().stream().anyMatch(weight -> weight < 0)
+                || mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix weights must not be negative and must not all be zero");
+        }
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("warmup must not be negative");
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        if (accounts < 1) {
+            throw new IllegalArgumentException("accounts must be positive");
+        }
+        if (mockLatency.isNegative()) {
+            throw new IllegalArgumentException("mock latency must not be negative");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.mix = Collections.unmodifiableMap(new EnumMap<>(mix));
+        this.warmup = warmup;
+        this.duration = duration;
+        this.workers = workers;
+        this.accounts = accounts;
+        this.endpoint = Objects.requireNonNull(endpoint, "endpoint must not be null");
+        this.mockLatency = mockLatency;
+        this.seed = seed;
+        this.logLevel = Objects.requireNonNull(logLevel, "logLevel must not be null");
+    }
+
+    /**
+     * @return profile used for options that are not given on the command line
+     */
+    public static LoadProfile defaults() {
+        Map<WalletOperation, Integer> mix = new EnumMap<>(WalletOperation.class);
+        mix.put(WalletOperation.GET_BALANCE, 60);
+        mix.put(WalletOperation.GET_BALANCE_BY_LABEL, 25);
+        mix.put(WalletOperation.LIST_ACCOUNTS, 10);
+        mix.put(WalletOperation.GET_NEW_ADDRESS, 5);
+        return new LoadProfile(200, mix, Duration.ofSeconds(10), Duration.ofSeconds(60), 64, 1_000,
+                MOCK_ENDPOINT, Duration.ofMillis(2), 42, Level.OFF);
+    }
+
+    /**
+     * Parse {@code --name=value} options on top of {@link #defaults()}:
+     * {@code --rate}, {@code --mix=getBalance:60,listAccounts:10,...}, {@code --warmup},
+     * {@code --duration}, {@code --workers}, {@code --accounts}, {@code --rpc=mock|config|<url>},
+     * {@code --mock-latency}, {@code --seed} and {@code --log-level}. Durations take an {@code ms}, {@code s} or
+     * {@code m} suffix.
+     *
+     * @throws IllegalArgumentException for unknown options or malformed values
+     */
+    public static LoadProfile parse(String... args) {
+        LoadProfile defaults = defaults();
+        double rate = defaults.ratePerSecond;
+        Map<WalletOperation, Integer> mix = defaults.mix;
+        Duration warmup = defaults.warmup;
+        Duration duration = defaults.duration;
+        int workers = defaults.workers;
+        int accounts = defaults.accounts;
+        String endpoint = defaults.endpoint;
+        Duration mockLatency = defaults.mockLatency;
+        long seed = defaults.seed;
+        Level logLevel = defaults.logLevel;
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            try {
+                switch (name) {
+                    case "rate" -> rate = Double.parseDouble(value);
+                    case "mix" -> mix = parseMix(value);
+                    case "warmup" -> warmup = parseDuration(value);
+                    case "duration" -> duration = parseDuration(value);
+                    case "workers" -> workers = Integer.parseInt(value);
+                    case "accounts" -> accounts = Integer.parseInt(value);
+                    case "rpc" -> endpoint = value;
+                    case "mock-latency" -> mockLatency = parseDuration(value);
+                    case "seed" -> seed = Long.parseLong(value);
+                    case "log-level" -> logLevel = Level.parse(value.toUpperCase(Locale.ROOT));
+                    default -> throw new IllegalArgumentException("Unknown option: --" + name);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for --" + name + ": " + value, e);
+            }
+        }
+        return new LoadProfile(rate, mix, warmup, duration, workers, accounts, endpoint, mockLatency, seed,
+                logLevel);
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public Map<WalletOperation, Integer> getMix() {
+        return mix;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public int getAccounts() {
+        return accounts;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Duration getMockLatency() {
+        return mockLatency;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public Level getLogLevel() {
+        return logLevel;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadProfile{" +
+                "ratePerSecond=" + ratePerSecond +
+                ", mix=" + mix +
+                ", warmup=" + warmup +
+                ", duration=" + duration +
+                ", workers=" + workers +
+                ", accounts=" + accounts +
+                ", endpoint='" + endpoint + '\'' +
+                ", mockLatency=" + mockLatency +
+                ", seed=" + seed +
+                ", logLevel=" + logLevel +
+                '}';
+    }
+
+    private static Map<WalletOperation, Integer> parseMix(String value) {
+        Map<WalletOperation, Integer> mix = new EnumMap<>(WalletOperation.class);
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected operation:weight in mix but got: " + entry);
+            }
+            mix.put(WalletOperation.fromCliName(entry.substring(0, separator).trim()),
+                    Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return mix;
+    }
+
+    static Duration parseDuration(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(normalized.substring(0, normalized.length() - 2)));
+        }
+        if (normalized.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(normalized.substring(0, normalized.length() - 1)));
+        }
+        if (normalized.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(normalized.substring(0, normalized.length() - 1)));
+        }
+        throw new IllegalArgumentException("Duration needs an ms, s or m suffix: " + value);
+    }
+}
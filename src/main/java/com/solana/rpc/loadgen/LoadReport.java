@@ -0,0 +1,110 @@
+package com.solana.rpc.loadgen;
+
+import com.solana.rpc.transport.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Outcome of the measurement phase of a load run. Latencies run from each operation's scheduled
+ * start, not from when a worker picked it up, so time spent queued behind slow operations counts.
+ */
+public final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 100};
+
+    private final LoadProfile profile;
+    private final Map<WalletOperation, OperationResult> results;
+    private final long abandoned;
+    private final long maxSchedulerLagNanos;
+
+    LoadReport(LoadProfile profile, Map<WalletOperation, OperationResult> results, long abandoned,
+               long maxSchedulerLagNanos) {
+        this.profile = profile;
+        this.results = Collections.unmodifiableMap(new EnumMap<>(results));
+        this.abandoned = abandoned;
+        this.maxSchedulerLagNanos = maxSchedulerLagNanos;
+    }
+
+    /**
+     * @return result per operation issued during the measurement phase
+     */
+    public Map<WalletOperation, OperationResult> getResults() {
+        return results;
+    }
+
+    /**
+     * @return measured operations still running when the run gave up waiting for them
+     */
+    public long getAbandoned() {
+        return abandoned;
+    }
+
+    /**
+     * @return how far the scheduler itself fell behind the arrival schedule; a large value means
+     * the load generator, not the service, limited the rate
+     */
+    public long getMaxSchedulerLagNanos() {
+        return maxSchedulerLagNanos;
+    }
+
+    /**
+     * @return successful operations per second over the measurement phase
+     */
+    public double getThroughput() {
+        long succeeded = results.values().stream().mapToLong(OperationResult::succeeded).sum();
+        return succeeded / (profile.getDuration().toNanos() / 1e9);
+    }
+
+    /**
+     * @return latency histogram over all operations
+     */
+    public LatencyHistogram getOverallLatency() {
+        LatencyHistogram overall = new LatencyHistogram();
+        results.values().forEach(result -> overall.add(result.latency()));
+        return overall;
+    }
+
+    public void print(PrintStream out) {
+        Duration measured = profile.getDuration();
+        out.printf("=== Load report: target %.1f ops/s, %d s measured, %d workers ===%n",
+                profile.getRatePerSecond(), measured.toSeconds(), profile.getWorkers());
+        out.printf("%-18s %9s %7s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "ok", "failed", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long succeeded = 0;
+        long failed = 0;
+        for (Map.Entry<WalletOperation, OperationResult> entry : results.entrySet()) {
+            OperationResult result = entry.getValue();
+            printRow(out, entry.getKey().getCliName(), result.succeeded(), result.failed(), result.latency());
+            succeeded += result.succeeded();
+            failed += result.failed();
+        }
+        printRow(out, "total", succeeded, failed, getOverallLatency());
+        if (abandoned > 0) {
+            out.printf("%d operations were still running at the end and are not counted%n", abandoned);
+        }
+        out.printf("Scheduler max lag: %.3f ms%n", maxSchedulerLagNanos / 1e6);
+    }
+
+    private void printRow(PrintStream out, String name, long succeeded, long failed, LatencyHistogram latency) {
+        out.printf("%-18s %9d %7d %9.1f %9.3f", name, succeeded, failed,
+                succeeded / (profile.getDuration().toNanos() / 1e9), latency.getMeanNanos() / 1e6);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.3f", latency.getValueAtPercentile(percentile) / 1e6);
+        }
+        out.println();
+    }
+
+    /**
+     * Counts and latency of one operation during the measurement phase.
+     *
+     * @param succeeded operations that returned normally
+     * @param failed    operations that threw
+     * @param latency   latency of every finished operation, failed ones included, from scheduled start
+     */
+    public record OperationResult(long succeeded, long failed, LatencyHistogram latency) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.solana.rpc.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process JSON-RPC endpoint for {@code --rpc=mock} load runs. It answers {@code getBalance}
+ * with a fixed balance after a fixed service time, and every other method with a JSON-RPC error.
+ */
+final class MockBalanceEndpoint implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final long balanceLamports;
+    private final long responseDelayNanos;
+
+    private MockBalanceEndpoint(long balanceLamports, Duration responseDelay) throws IOException {
+        this.balanceLamports = balanceLamports;
+        this.responseDelayNanos = responseDelay.toNanos();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * @param balanceLamports balance reported for every address
+     * @param responseDelay   time to hold every response, standing in for a remote node's service time
+     */
+    static MockBalanceEndpoint start(long balanceLamports, Duration responseDelay) throws IOException {
+        if (responseDelay.isNegative()) {
+            throw new IllegalArgumentException("responseDelay must not be negative");
+        }
+        return new MockBalanceEndpoint(balanceLamports, responseDelay);
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+        String method = request.path("method").asText();
+        String envelope = "{\"jsonrpc\":\"2.0\",\"id\":" + request.path("id") + ("getBalance".equals(method)
+                ? ",\"result\":{\"context\":{\"slot\":1},\"value\":" + balanceLamports + "}}"
+                : ",\"error\":{\"code\":-32601,\"message\":" + MAPPER.valueToTree("Method not found: " + method) + "}}");
+
+        if (responseDelayNanos > 0) {
+            LockSupport.parkNanos(responseDelayNanos);
+        }
+
+        byte[] body = envelope.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
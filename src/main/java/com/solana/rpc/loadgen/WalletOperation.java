@@ -0,0 +1,30 @@
+package com.solana.rpc.loadgen;
+
+/**
+ * Wallet service calls the load generator can issue, by the name used on the command line.
+ */
+public enum WalletOperation {
+    GET_NEW_ADDRESS("getNewAddress"),
+    GET_BALANCE("getBalance"),
+    GET_BALANCE_BY_LABEL("getBalanceByLabel"),
+    LIST_ACCOUNTS("listAccounts");
+
+    private final String cliName;
+
+    WalletOperation(String cliName) {
+        this.cliName = cliName;
+    }
+
+    public String getCliName() {
+        return cliName;
+    }
+
+    public static WalletOperation fromCliName(String name) {
+        for (WalletOperation operation : values()) {
+            if (operation.cliName.equals(name)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+}
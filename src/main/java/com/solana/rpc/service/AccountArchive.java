@@ -0,0 +1,291 @@
+package com.solana.rpc.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.solana.rpc.model.DerivedAccount;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.utils.Base58;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streaming codecs behind {@link DerivedAccountRepository#exportAccounts} and
+ * {@link DerivedAccountRepository#importAccounts}.
+ * <p>
+ * Export visits the repository with {@link DerivedAccountRepository#forEachAccount} and writes
+ * through one fixed buffer; import reads through one fixed buffer and hands accounts to
+ * {@link DerivedAccountRepository#saveAll} in batches of {@value #IMPORT_BATCH_SIZE}. Memory use
+ * therefore does not grow with the size of the registry.
+ */
+final class AccountArchive {
+
+    static final int IMPORT_BATCH_SIZE = 4096;
+
+    private static final byte[] MAGIC = {'S', 'O', 'L', 'A', 'C', 'C', 'T', 1};
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_LABEL_BYTES = 16 * 1024;
+    private static final int MAX_VARINT_BYTES = 10;
+    private static final int MAX_RECORD_BYTES = MAX_VARINT_BYTES + MAX_LABEL_BYTES + 3 * MAX_VARINT_BYTES
+            + PublicKey.PUBLIC_KEY_LENGTH;
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .build();
+
+    private AccountArchive() {
+    }
+
+    static long write(DerivedAccountRepository repository, WritableByteChannel channel, AccountArchiveFormat format)
+            throws IOException {
+        Objects.requireNonNull(channel, "channel must not be null");
+        Objects.requireNonNull(format, "format must not be null");
+        try {
+            return format == AccountArchiveFormat.BINARY
+                    ? writeBinary(repository, channel)
+                    : writeNdjson(repository, channel);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static long read(ReadableByteChannel channel, AccountArchiveFormat format, DerivedAccountRepository repository)
+            throws IOException {
+        Objects.requireNonNull(channel, "channel must not be null");
+        Objects.requireNonNull(format, "format must not be null");
+        return format == AccountArchiveFormat.BINARY
+                ? readBinary(channel, repository)
+                : readNdjson(channel, repository);
+    }
+
+    private static long writeBinary(DerivedAccountRepository repository, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        buffer.put(MAGIC);
+        long[] count = new long[1];
+        repository.forEachAccount(account -> {
+            byte[] label = account.getLabel().getBytes(StandardCharsets.UTF_8);
+            byte[] publicKey = Base58.decode(account.getPublicKey());
+            try {
+                if (label.length > MAX_LABEL_BYTES) {
+                    throw new IOException("Label of " + account.getPublicKey() + " exceeds "
+                            + MAX_LABEL_BYTES + " bytes");
+                }
+                if (publicKey.length != PublicKey.PUBLIC_KEY_LENGTH) {
+                    throw new IOException("Invalid public key for label " + account.getLabel());
+                }
+                if (buffer.remaining() < MAX_RECORD_BYTES) {
+                    flush(buffer, channel);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Label lengths are stored plus one so that zero can mark the end of the records.
+            putVarint(buffer, label.length + 1L);
+            buffer.put(label);
+            putVarint(buffer, Integer.toUnsignedLong(account.getAccount()));
+            putVarint(buffer, Integer.toUnsignedLong(account.getChange()));
+            putVarint(buffer, Integer.toUnsignedLong(account.getIndex()));
+            buffer.put(publicKey);
+            count[0]++;
+        });
+        if (buffer.remaining() < 2 * MAX_VARINT_BYTES) {
+            flush(buffer, channel);
+        }
+        putVarint(buffer, 0);
+        putVarint(buffer, count[0]);
+        flush(buffer, channel);
+        return count[0];
+    }
+
+    private static long readBinary(ReadableByteChannel channel, DerivedAccountRepository repository) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        buffer.limit(0);
+        require(buffer, channel, MAGIC.length);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an account archive, or an unsupported version");
+        }
+
+        List<DerivedAccount> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        byte[] publicKey = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        long count = 0;
+        long labelLength;
+        while ((labelLength = readVarint(buffer, channel)) != 0) {
+            if (labelLength - 1 > MAX_LABEL_BYTES) {
+                throw new IOException("Record " + count + " has a label longer than " + MAX_LABEL_BYTES + " bytes");
+            }
+            int labelBytes = (int) labelLength - 1;
+            require(buffer, channel, labelBytes);
+            String label = new String(buffer.array(), buffer.position(), labelBytes, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + labelBytes);
+            int account = readPathComponent(buffer, channel);
+            int change = readPathComponent(buffer, channel);
+            int index = readPathComponent(buffer, channel);
+            require(buffer, channel, publicKey.length);
+            buffer.get(publicKey);
+
+            batch.add(new DerivedAccount(label, account, change, index, Base58.encode(publicKey)));
+            count++;
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        long recorded = readVarint(buffer, channel);
+        if (recorded != count) {
+            throw new IOException("Archive holds " + count + " accounts but its trailer records " + recorded);
+        }
+        if (!batch.isEmpty()) {
+            repository.saveAll(batch);
+        }
+        return count;
+    }
+
+    private static long writeNdjson(DerivedAccountRepository repository, WritableByteChannel channel) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES);
+        long[] count = new long[1];
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            repository.forEachAccount(account -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeStringField("label", account.getLabel());
+                    generator.writeNumberField("account", account.getAccount());
+                    generator.writeNumberField("change", account.getChange());
+                    generator.writeNumberField("index", account.getIndex());
+                    generator.writeStringField("publicKey", account.getPublicKey());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        }
+        out.flush();
+        return count[0];
+    }
+
+    private static long readNdjson(ReadableByteChannel channel, DerivedAccountRepository repository) throws IOException {
+        List<DerivedAccount> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        long count = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(Channels.newInputStream(channel))) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Expected an account object but found " + token);
+                }
+                batch.add(readNdjsonRecord(parser));
+                count++;
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    repository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            repository.saveAll(batch);
+        }
+        return count;
+    }
+
+    private static DerivedAccount readNdjsonRecord(JsonParser parser) throws IOException {
+        String label = null;
+        String publicKey = null;
+        int account = 0;
+        int change = 0;
+        int index = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "label" -> label = parser.getValueAsString();
+                case "account" -> account = parser.getIntValue();
+                case "change" -> change = parser.getIntValue();
+                case "index" -> index = parser.getIntValue();
+                case "publicKey" -> publicKey = parser.getValueAsString();
+                default -> parser.skipChildren();
+            }
+        }
+        if (label == null || publicKey == null) {
+            throw new JsonParseException(parser, "Account record is missing label or publicKey");
+        }
+        try {
+            new PublicKey(publicKey);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Invalid publicKey for label " + label);
+        }
+        return new DerivedAccount(label, account, change, index, publicKey);
+    }
+
+    private static int readPathComponent(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        long value = readVarint(buffer, channel);
+        if (value > 0xFFFF_FFFFL) {
+            throw new IOException("Derivation path component out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long readVarint(ByteBuffer buffer, ReadableByteChannel channel) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 7 * MAX_VARINT_BYTES; shift += 7) {
+            require(buffer, channel, 1);
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in account archive");
+    }
+
+    /**
+     * Make at least {@code bytes} bytes readable, refilling the buffer from the channel.
+     */
+    private static void require(ByteBuffer buffer, ReadableByteChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Account archive is truncated");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
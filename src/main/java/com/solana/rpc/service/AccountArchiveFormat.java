@@ -0,0 +1,20 @@
+package com.solana.rpc.service;
+
+/**
+ * Formats for exporting and importing the account registry.
+ */
+public enum AccountArchiveFormat {
+
+    /**
+     * Compact binary records: the label as length-prefixed UTF-8, the account, change and index
+     * path components as unsigned varints, and the raw 32-byte public key. The stream opens with a
+     * magic header and closes with a record count, so truncation is detected.
+     */
+    BINARY,
+
+    /**
+     * One JSON object per line with {@code label}, {@code account}, {@code change}, {@code index}
+     * and {@code publicKey} fields, for use with other tools.
+     */
+    NDJSON
+}
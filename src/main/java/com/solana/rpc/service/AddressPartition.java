@@ -0,0 +1,93 @@
+package com.solana.rpc.service;
+
+import java.util.Objects;
+
+/**
+ * The {@code account'} level of {@code m/44'/501'/account'/0'/index'} that one wallet-service
+ * instance issues new addresses under.
+ * <p>
+ * Instances sharing a mnemonic and an account repository but owning different partitions never
+ * derive the same path, so each can hand out indexes from a local counter without coordinating
+ * with the others. Addresses issued by any instance stay visible to all of them through the shared
+ * repository and can be signed for by any of them, since signing derives from the stored path.
+ */
+public final class AddressPartition {
+
+    private static final AddressPartition SINGLE = new AddressPartition(0);
+
+    private final int account;
+
+    private AddressPartition(int account) {
+        this.account = account;
+    }
+
+    /**
+     * @return the partition of a service running alone, account {@code 0'}
+     */
+    public static AddressPartition single() {
+        return SINGLE;
+    }
+
+    /**
+     * @param account {@code account'} path value owned by this instance
+     */
+    public static AddressPartition of(int account) {
+        if (account < 0) {
+            throw new IllegalArgumentException("Partition account must not be negative");
+        }
+        return account == 0 ? SINGLE : new AddressPartition(account);
+    }
+
+    /**
+     * Partition for an instance identified by a number or by a name ending in one, such as the
+     * ordinal suffix of a StatefulSet pod: {@code "3"} and {@code "wallet-3"} both own account {@code 3'}.
+     *
+     * @throws IllegalArgumentException when the identifier does not end in a number
+     */
+    public static AddressPartition forInstance(String instanceId) {
+        Objects.requireNonNull(instanceId, "instanceId must not be null");
+        String trimmed = instanceId.trim();
+        int start = trimmed.length();
+        while (start > 0 && Character.isDigit(trimmed.charAt(start - 1))) {
+            start--;
+        }
+        if (start == trimmed.length()) {
+            throw new IllegalArgumentException("Instance id must end in a number: " + instanceId);
+        }
+        try {
+            return of(Integer.parseInt(trimmed.substring(start)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Instance number out of range: " + instanceId, e);
+        }
+    }
+
+    public int getAccount() {
+        return account;
+    }
+
+    /**
+     * Label given to an address issued without one. Account {@code 0'} keeps the historical
+     * {@code account-<index>} form; other partitions include their account so that labels stay
+     * unique across instances.
+     */
+    String autoLabel(int index) {
+        return account == 0 ? "account-" + index : "account-" + account + "-" + index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AddressPartition that)) return false;
+        return account == that.account;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(account);
+    }
+
+    @Override
+    public String toString() {
+        return "AddressPartition{account=" + account + '}';
+    }
+}
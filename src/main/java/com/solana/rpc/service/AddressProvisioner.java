@@ -0,0 +1,189 @@
+package com.solana.rpc.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.wallet.DerivationService;
+import org.p2p.solanaj.core.Account;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives a run of addresses in parallel and streams them to a consumer as NDJSON while the rest
+ * are still being derived.
+ * <p>
+ * Derivations run on a bounded pool at most {@code window} indexes ahead of the output, so a slow
+ * consumer stalls derivation rather than letting it pile up in memory. Finished addresses are
+ * committed to the repository in batches with {@link DerivedAccountRepository#saveAll} and only
+ * written once committed, so every address a consumer sees is persisted. A batch is committed as
+ * soon as the next derivation is not ready yet, or once it reaches {@value #MAX_COMMIT_BATCH}
+ * accounts: the first addresses go out after a few derivations while a busy pipeline still
+ * commits in large batches.
+ */
+public class AddressProvisioner implements AutoCloseable {
+
+    static final int MAX_COMMIT_BATCH = 512;
+
+    private static final int DEFAULT_WINDOW_PER_THREAD = 64;
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final DerivationService derivationService;
+    private final DerivedAccountRepository accountRepository;
+    private final KeyStorage keyStorage;
+    private final int window;
+    private final ExecutorService pool;
+
+    /**
+     * Create a provisioner deriving on one thread per available core.
+     */
+    public AddressProvisioner(DerivationService derivationService, DerivedAccountRepository accountRepository,
+                              KeyStorage keyStorage) {
+        this(derivationService, accountRepository, keyStorage, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads size of the derivation pool
+     */
+    public AddressProvisioner(DerivationService derivationService, DerivedAccountRepository accountRepository,
+                              KeyStorage keyStorage, int threads) {
+        this(derivationService, accountRepository, keyStorage, threads, threads * DEFAULT_WINDOW_PER_THREAD);
+    }
+
+    /**
+     * @param threads size of the derivation pool
+     * @param window  most derivations started ahead of the address being written
+     */
+    public AddressProvisioner(DerivationService derivationService, DerivedAccountRepository accountRepository,
+                              KeyStorage keyStorage, int threads, int window) {
+        this.derivationService = Objects.requireNonNull(derivationService, "derivationService must not be null");
+        this.accountRepository = Objects.requireNonNull(accountRepository, "accountRepository must not be null");
+        this.keyStorage = Objects.requireNonNull(keyStorage, "keyStorage must not be null");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+        this.window = window;
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "address-provisioner-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Derive, persist and stream the addresses at {@code m/44'/501'/account'/change'/index'} for
+     * every index in {@code [startIndex, startIndex + count)}, labelled {@code labelPrefix + index}.
+     * Each address is written as one line of {@code {"label":...,"index":...,"publicKey":...}}
+     * and the stream is flushed after every committed batch.
+     * <p>
+     * The caller must own the index range. If writing fails, the addresses already written stay
+     * persisted and the rest of the range is left unused.
+     *
+     * @param out consumer stream; it is flushed but not closed
+     * @return number of addresses written
+     * @throws IOException              when writing to the consumer fails
+     * @throws IllegalArgumentException when a generated label is already taken
+     */
+    public long provision(int account, int change, int startIndex, int count, String labelPrefix,
+                          OutputStream out) throws IOException {
+        Objects.requireNonNull(labelPrefix, "labelPrefix must not be null");
+        Objects.requireNonNull(out, "out must not be null");
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+
+        ArrayDeque<CompletableFuture<Account>> inFlight = new ArrayDeque<>(Math.min(count, window));
+        List<DerivedAccount> batch = new ArrayList<>();
+        List<Account> keys = new ArrayList<>();
+        int submitted = 0;
+        long written = 0;
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            while (written + batch.size() < count) {
+                while (submitted < count && inFlight.size() < window) {
+                    int index = startIndex + submitted++;
+                    inFlight.add(CompletableFuture.supplyAsync(
+                            () -> derivationService.derive(account, change, index), pool));
+                }
+                Account key = await(inFlight.poll());
+                int index = startIndex + (int) written + batch.size();
+                keys.add(key);
+                batch.add(new DerivedAccount(labelPrefix + index, account, change, index,
+                        key.getPublicKey().toBase58()));
+
+                CompletableFuture<Account> next = inFlight.peek();
+                if (batch.size() == MAX_COMMIT_BATCH || next == null || !next.isDone()) {
+                    commit(batch, keys);
+                    write(generator, batch);
+                    written += batch.size();
+                    batch.clear();
+                    keys.clear();
+                }
+            }
+        } finally {
+            for (CompletableFuture<Account> pending : inFlight) {
+                pending.cancel(false);
+            }
+        }
+        out.flush();
+        return written;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private void commit(List<DerivedAccount> batch, List<Account> keys) {
+        for (DerivedAccount derivedAccount : batch) {
+            if (accountRepository.findByLabel(derivedAccount.getLabel()).isPresent()) {
+                throw new IllegalArgumentException("Label already exists: " + derivedAccount.getLabel());
+            }
+        }
+        keys.forEach(keyStorage::save);
+        accountRepository.saveAll(batch);
+    }
+
+    private static void write(JsonGenerator generator, List<DerivedAccount> batch) throws IOException {
+        for (DerivedAccount derivedAccount : batch) {
+            generator.writeStartObject();
+            generator.writeStringField("label", derivedAccount.getLabel());
+            generator.writeNumberField("index", derivedAccount.getIndex());
+            generator.writeStringField("publicKey", derivedAccount.getPublicKey());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static Account await(CompletableFuture<Account> derivation) {
+        try {
+            return derivation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while deriving addresses", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Address derivation failed", cause);
+        }
+    }
+}
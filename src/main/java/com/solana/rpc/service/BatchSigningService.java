@@ -0,0 +1,149 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.wallet.DerivationService;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Signs batches of messages with derived keys in parallel.
+ * <p>
+ * A batch is split into contiguous slices, one per worker of a bounded pool, and signatures are
+ * returned in request order. Keys come from {@link KeyStorage} when it holds them and are
+ * re-derived through {@link DerivationService} otherwise; each slice resolves a given key only
+ * once. Signing calls TweetNaCl directly with a per-thread output buffer instead of allocating
+ * a signed-message copy for every signature.
+ */
+public class BatchSigningService implements AutoCloseable {
+
+    private static final int SIGNATURE_LENGTH = TweetNaclFast.Signature.signatureLength;
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<byte[]> SIGNED_MESSAGE_BUFFER = ThreadLocal.withInitial(() -> new byte[2048]);
+
+    private final DerivationService derivationService;
+    private final KeyStorage keyStorage;
+    private final int threads;
+    private final ExecutorService pool;
+
+    /**
+     * Create a service signing on one thread per available core.
+     */
+    public BatchSigningService(DerivationService derivationService, KeyStorage keyStorage) {
+        this(derivationService, keyStorage, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param derivationService source of keys missing from storage
+     * @param keyStorage        storage consulted before deriving
+     * @param threads           size of the signing pool
+     */
+    public BatchSigningService(DerivationService derivationService, KeyStorage keyStorage, int threads) {
+        this.derivationService = Objects.requireNonNull(derivationService, "derivationService must not be null");
+        this.keyStorage = Objects.requireNonNull(keyStorage, "keyStorage must not be null");
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive");
+        }
+        this.threads = threads;
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-signer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sign every message with its signer's key.
+     *
+     * @param requests messages and the derived accounts that sign them
+     * @return 64-byte Ed25519 signatures, in request order
+     * @throws IllegalStateException when a derived key does not match the signer's stored public key
+     */
+    public List<byte[]> signAll(List<SigningRequest> requests) {
+        Objects.requireNonNull(requests, "requests must not be null");
+        int count = requests.size();
+        byte[][] signatures = new byte[count][];
+        int slices = Math.min(threads, count);
+        if (slices <= 1) {
+            signSlice(requests, 0, count, signatures);
+            return Arrays.asList(signatures);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(slices);
+        for (int slice = 0; slice < slices; slice++) {
+            int from = (int) ((long) count * slice / slices);
+            int to = (int) ((long) count * (slice + 1) / slices);
+            futures.add(pool.submit(() -> signSlice(requests, from, to, signatures)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while signing batch", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to sign batch", e.getCause());
+        }
+        return Arrays.asList(signatures);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private void signSlice(List<SigningRequest> requests, int from, int to, byte[][] signatures) {
+        Map<String, byte[]> secretKeys = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            SigningRequest request = requests.get(i);
+            DerivedAccount signer = request.getSigner();
+            byte[] secretKey = secretKeys.computeIfAbsent(signer.getPublicKey(), key -> resolveSecretKey(signer));
+            signatures[i] = sign(request.getMessage(), secretKey);
+        }
+    }
+
+    private byte[] resolveSecretKey(DerivedAccount signer) {
+        Account account = keyStorage.findByPublicKey(signer.getPublicKey())
+                .orElseGet(() -> derivationService.derive(signer.getAccount(), signer.getChange(), signer.getIndex()));
+        if (!account.getPublicKey().toBase58().equals(signer.getPublicKey())) {
+            throw new IllegalStateException("Derived key does not match stored public key for label: "
+                    + signer.getLabel());
+        }
+        return account.getSecretKey();
+    }
+
+    static byte[] sign(byte[] message, byte[] secretKey) {
+        int signedLength = SIGNATURE_LENGTH + message.length;
+        byte[] buffer = SIGNED_MESSAGE_BUFFER.get();
+        if (buffer.length < signedLength) {
+            buffer = new byte[Math.max(signedLength, buffer.length * 2)];
+            if (buffer.length <= MAX_RETAINED_BUFFER) {
+                SIGNED_MESSAGE_BUFFER.set(buffer);
+            }
+        }
+        TweetNaclFast.crypto_sign(buffer, -1, message, 0, message.length, secretKey);
+        return Arrays.copyOf(buffer, SIGNATURE_LENGTH);
+    }
+}
@@ -2,8 +2,13 @@ package com.solana.rpc.service;
 
 import com.solana.rpc.model.DerivedAccount;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Storage contract for derived accounts, supporting simple CRUD operations.
@@ -12,13 +17,82 @@ public interface DerivedAccountRepository {
 
     DerivedAccount save(DerivedAccount derivedAccount);
 
+    /**
+     * Saves a batch of accounts, as {@link #save} would one by one. Implementations may apply the
+     * batch under a single lock or transaction.
+     *
+     * @param derivedAccounts accounts to save, later entries overwriting earlier ones with the same label
+     */
+    default void saveAll(Collection<DerivedAccount> derivedAccounts) {
+        for (DerivedAccount derivedAccount : derivedAccounts) {
+            save(derivedAccount);
+        }
+    }
+
     List<DerivedAccount> findAll();
 
+    /**
+     * Visits every account without copying the repository into a list. Accounts saved or deleted
+     * during the visit may or may not be seen.
+     *
+     * @param action callback invoked once per account
+     */
+    default void forEachAccount(Consumer<? super DerivedAccount> action) {
+        findAll().forEach(action);
+    }
+
     Optional<DerivedAccount> findByLabel(String label);
 
     Optional<DerivedAccount> findByPublicKey(String publicKey);
 
+    /**
+     * Finds accounts whose label starts with the given prefix, in ascending label order.
+     *
+     * @param prefix label prefix, e.g. {@code "cust-123-"}; an empty prefix matches every label
+     * @param limit  maximum number of accounts to return; must be positive
+     * @return matching accounts, at most {@code limit}
+     */
+    List<DerivedAccount> findByLabelPrefix(String prefix, int limit);
+
+    /**
+     * Finds accounts derived under {@code m/44'/501'/account'/change'} whose index lies in the
+     * given range, in ascending index order.
+     *
+     * @param account   account path component
+     * @param change    change path component
+     * @param fromIndex lowest index to include
+     * @param toIndex   index to stop before (exclusive)
+     * @param limit     maximum number of accounts to return; must be positive
+     * @return matching accounts, at most {@code limit}
+     */
+    List<DerivedAccount> findByPathRange(int account, int change, int fromIndex, int toIndex, int limit);
+
     boolean deleteByLabel(String label);
 
     boolean deleteByPublicKey(String publicKey);
+
+    /**
+     * Streams every account to the channel in constant memory.
+     *
+     * @param channel destination; it is written to but not closed
+     * @param format  archive format
+     * @return number of accounts written
+     * @throws IOException when the channel cannot be written
+     */
+    default long exportAccounts(WritableByteChannel channel, AccountArchiveFormat format) throws IOException {
+        return AccountArchive.write(this, channel, format);
+    }
+
+    /**
+     * Loads accounts from an archive produced by {@link #exportAccounts}, saving them in batches.
+     * Accounts with labels already present are overwritten.
+     *
+     * @param channel source; it is read to the end but not closed
+     * @param format  archive format
+     * @return number of accounts loaded
+     * @throws IOException when the channel cannot be read or the archive is malformed or truncated
+     */
+    default long importAccounts(ReadableByteChannel channel, AccountArchiveFormat format) throws IOException {
+        return AccountArchive.read(channel, format, this);
+    }
 }
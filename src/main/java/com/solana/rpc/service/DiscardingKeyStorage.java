@@ -0,0 +1,23 @@
+package com.solana.rpc.service;
+
+import org.p2p.solanaj.core.Account;
+
+import java.util.Optional;
+
+/**
+ * Key storage that keeps nothing. Every key of a derived wallet can be re-derived from its seed,
+ * so services backed by this storage derive keys on demand instead of holding them for the
+ * lifetime of the process.
+ */
+public final class DiscardingKeyStorage implements KeyStorage {
+
+    @Override
+    public void save(Account account) {
+        // Intentionally not retained.
+    }
+
+    @Override
+    public Optional<Account> findByPublicKey(String publicKey) {
+        return Optional.empty();
+    }
+}
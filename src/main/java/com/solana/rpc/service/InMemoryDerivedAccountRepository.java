@@ -1,69 +1,195 @@
 package com.solana.rpc.service;
 
 import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
 
 /**
  * Thread-safe in-memory storage for derived accounts.
+ * <p>
+ * Exact lookups go through hash maps; sorted skip-list indexes over labels and derivation paths
+ * answer prefix and range queries in O(log n + k). Writes are serialized so the indexes never
+ * disagree with each other, while reads stay lock-free.
  */
 public class InMemoryDerivedAccountRepository implements DerivedAccountRepository {
 
     private final Map<String, DerivedAccount> accountsByLabel = new ConcurrentHashMap<>();
     private final Map<String, String> labelByPublicKey = new ConcurrentHashMap<>();
+    private final NavigableMap<String, DerivedAccount> labelIndex = new ConcurrentSkipListMap<>();
+    private final NavigableMap<PathKey, DerivedAccount> pathIndex = new ConcurrentSkipListMap<>();
+    private final Object writeLock = new Object();
 
     @Override
     public DerivedAccount save(DerivedAccount derivedAccount) {
         Objects.requireNonNull(derivedAccount, "derivedAccount must not be null");
 
-        accountsByLabel.put(derivedAccount.getLabel(), derivedAccount);
-        labelByPublicKey.put(derivedAccount.getPublicKey(), derivedAccount.getLabel());
+        try (Span ignored = Tracer.span("repository.save")) {
+            synchronized (writeLock) {
+                store(derivedAccount);
+            }
+        }
         return derivedAccount;
     }
 
+    @Override
+    public void saveAll(Collection<DerivedAccount> derivedAccounts) {
+        Objects.requireNonNull(derivedAccounts, "derivedAccounts must not be null");
+
+        try (Span ignored = Tracer.span("repository.saveAll").setAttribute("accounts", derivedAccounts.size())) {
+            synchronized (writeLock) {
+                for (DerivedAccount derivedAccount : derivedAccounts) {
+                    store(Objects.requireNonNull(derivedAccount, "derivedAccount must not be null"));
+                }
+            }
+        }
+    }
+
     @Override
     public List<DerivedAccount> findAll() {
-        return new ArrayList<>(accountsByLabel.values());
+        try (Span ignored = Tracer.span("repository.findAll")) {
+            return new ArrayList<>(accountsByLabel.values());
+        }
+    }
+
+    @Override
+    public void forEachAccount(Consumer<? super DerivedAccount> action) {
+        Objects.requireNonNull(action, "action must not be null");
+        labelIndex.values().forEach(action);
     }
 
     @Override
     public Optional<DerivedAccount> findByLabel(String label) {
-        return Optional.ofNullable(accountsByLabel.get(label));
+        try (Span ignored = Tracer.span("repository.findByLabel")) {
+            return Optional.ofNullable(accountsByLabel.get(label));
+        }
     }
 
     @Override
     public Optional<DerivedAccount> findByPublicKey(String publicKey) {
-        String label = labelByPublicKey.get(publicKey);
-        if (label == null) {
-            return Optional.empty();
+        try (Span ignored = Tracer.span("repository.findByPublicKey")) {
+            String label = labelByPublicKey.get(publicKey);
+            return label == null ? Optional.empty() : Optional.ofNullable(accountsByLabel.get(label));
         }
+    }
+
+    @Override
+    public List<DerivedAccount> findByLabelPrefix(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "prefix must not be null");
+        validateLimit(limit);
 
-        return findByLabel(label);
+        List<DerivedAccount> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, DerivedAccount> entry : labelIndex.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || matches.size() == limit) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
     }
 
     @Override
-    public boolean deleteByLabel(String label) {
-        DerivedAccount removed = accountsByLabel.remove(label);
-        if (removed == null) {
-            return false;
+    public List<DerivedAccount> findByPathRange(int account, int change, int fromIndex, int toIndex, int limit) {
+        validateLimit(limit);
+        if (fromIndex >= toIndex) {
+            return Collections.emptyList();
         }
 
-        labelByPublicKey.remove(removed.getPublicKey());
-        return true;
+        List<DerivedAccount> matches = new ArrayList<>(Math.min(limit, 16));
+        for (DerivedAccount match : pathIndex.subMap(new PathKey(account, change, fromIndex), true,
+                new PathKey(account, change, toIndex), false).values()) {
+            if (matches.size() == limit) {
+                break;
+            }
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean deleteByLabel(String label) {
+        synchronized (writeLock) {
+            DerivedAccount removed = accountsByLabel.remove(label);
+            if (removed == null) {
+                return false;
+            }
+
+            removeFromIndexes(removed);
+            return true;
+        }
     }
 
     @Override
     public boolean deleteByPublicKey(String publicKey) {
-        String label = labelByPublicKey.remove(publicKey);
-        if (label == null) {
-            return false;
+        synchronized (writeLock) {
+            String label = labelByPublicKey.get(publicKey);
+            if (label == null) {
+                return false;
+            }
+
+            DerivedAccount removed = accountsByLabel.remove(label);
+            if (removed == null) {
+                labelByPublicKey.remove(publicKey);
+                return false;
+            }
+            removeFromIndexes(removed);
+            return true;
         }
+    }
+
+    private void store(DerivedAccount derivedAccount) {
+        DerivedAccount previous = accountsByLabel.put(derivedAccount.getLabel(), derivedAccount);
+        if (previous != null && !previous.equals(derivedAccount)) {
+            labelByPublicKey.remove(previous.getPublicKey(), previous.getLabel());
+            pathIndex.remove(PathKey.of(previous), previous);
+        }
+        labelByPublicKey.put(derivedAccount.getPublicKey(), derivedAccount.getLabel());
+        labelIndex.put(derivedAccount.getLabel(), derivedAccount);
+        pathIndex.put(PathKey.of(derivedAccount), derivedAccount);
+    }
 
-        return accountsByLabel.remove(label) != null;
+    private void removeFromIndexes(DerivedAccount removed) {
+        labelByPublicKey.remove(removed.getPublicKey(), removed.getLabel());
+        labelIndex.remove(removed.getLabel(), removed);
+        pathIndex.remove(PathKey.of(removed), removed);
+    }
+
+    private static void validateLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+    }
+
+    /**
+     * Derivation path ordered by account, then change, then index.
+     */
+    private record PathKey(int account, int change, int index) implements Comparable<PathKey> {
+
+        static PathKey of(DerivedAccount derivedAccount) {
+            return new PathKey(derivedAccount.getAccount(), derivedAccount.getChange(), derivedAccount.getIndex());
+        }
+
+        @Override
+        public int compareTo(PathKey other) {
+            int result = Integer.compare(account, other.account);
+            if (result == 0) {
+                result = Integer.compare(change, other.change);
+            }
+            if (result == 0) {
+                result = Integer.compare(index, other.index);
+            }
+            return result;
+        }
     }
 }
@@ -3,6 +3,9 @@ package com.solana.rpc.service;
 import org.p2p.solanaj.core.Account;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -11,10 +14,17 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class InMemoryKeyStorage implements KeyStorage {
 
     private final List<Account> accounts = new CopyOnWriteArrayList<>();
+    private final Map<String, Account> accountsByPublicKey = new ConcurrentHashMap<>();
 
     @Override
     public void save(Account account) {
         accounts.add(account);
+        accountsByPublicKey.put(account.getPublicKey().toBase58(), account);
+    }
+
+    @Override
+    public Optional<Account> findByPublicKey(String publicKey) {
+        return Optional.ofNullable(accountsByPublicKey.get(publicKey));
     }
 
     public List<Account> getAccounts() {
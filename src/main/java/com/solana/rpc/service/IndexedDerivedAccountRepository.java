@@ -0,0 +1,139 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Repository decorator that keeps a {@link WalletMembershipIndex} in step with the accounts it
+ * stores, so hot paths can test raw public keys for membership without going through Base58.
+ * <p>
+ * Writes are serialized so the index and the delegate never disagree; reads pass straight through.
+ */
+public class IndexedDerivedAccountRepository implements DerivedAccountRepository {
+
+    private final DerivedAccountRepository delegate;
+    private final WalletMembershipIndex membershipIndex;
+    private final Object writeLock = new Object();
+
+    public IndexedDerivedAccountRepository(DerivedAccountRepository delegate) {
+        this(delegate, new WalletMembershipIndex());
+    }
+
+    /**
+     * @param delegate        repository holding the accounts; its current contents are indexed
+     * @param membershipIndex index to maintain, normally empty
+     */
+    public IndexedDerivedAccountRepository(DerivedAccountRepository delegate, WalletMembershipIndex membershipIndex) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.membershipIndex = Objects.requireNonNull(membershipIndex, "membershipIndex must not be null");
+        delegate.forEachAccount(account -> membershipIndex.add(new PublicKey(account.getPublicKey())));
+    }
+
+    /**
+     * @return index over the public keys of every stored account
+     */
+    public WalletMembershipIndex getMembershipIndex() {
+        return membershipIndex;
+    }
+
+    @Override
+    public DerivedAccount save(DerivedAccount derivedAccount) {
+        Objects.requireNonNull(derivedAccount, "derivedAccount must not be null");
+        PublicKey publicKey = new PublicKey(derivedAccount.getPublicKey());
+
+        synchronized (writeLock) {
+            Optional<DerivedAccount> previous = delegate.findByLabel(derivedAccount.getLabel());
+            DerivedAccount saved = delegate.save(derivedAccount);
+            membershipIndex.add(publicKey);
+            previous.ifPresent(this::unindexIfOrphaned);
+            return saved;
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<DerivedAccount> derivedAccounts) {
+        Objects.requireNonNull(derivedAccounts, "derivedAccounts must not be null");
+        List<PublicKey> publicKeys = new ArrayList<>(derivedAccounts.size());
+        for (DerivedAccount derivedAccount : derivedAccounts) {
+            publicKeys.add(new PublicKey(derivedAccount.getPublicKey()));
+        }
+
+        synchronized (writeLock) {
+            List<DerivedAccount> previous = new ArrayList<>();
+            for (DerivedAccount derivedAccount : derivedAccounts) {
+                delegate.findByLabel(derivedAccount.getLabel()).ifPresent(previous::add);
+            }
+            delegate.saveAll(derivedAccounts);
+            publicKeys.forEach(membershipIndex::add);
+            previous.forEach(this::unindexIfOrphaned);
+        }
+    }
+
+    @Override
+    public List<DerivedAccount> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void forEachAccount(Consumer<? super DerivedAccount> action) {
+        delegate.forEachAccount(action);
+    }
+
+    @Override
+    public Optional<DerivedAccount> findByLabel(String label) {
+        return delegate.findByLabel(label);
+    }
+
+    @Override
+    public Optional<DerivedAccount> findByPublicKey(String publicKey) {
+        return delegate.findByPublicKey(publicKey);
+    }
+
+    @Override
+    public List<DerivedAccount> findByLabelPrefix(String prefix, int limit) {
+        return delegate.findByLabelPrefix(prefix, limit);
+    }
+
+    @Override
+    public List<DerivedAccount> findByPathRange(int account, int change, int fromIndex, int toIndex, int limit) {
+        return delegate.findByPathRange(account, change, fromIndex, toIndex, limit);
+    }
+
+    @Override
+    public boolean deleteByLabel(String label) {
+        synchronized (writeLock) {
+            Optional<DerivedAccount> existing = delegate.findByLabel(label);
+            if (!delegate.deleteByLabel(label)) {
+                return false;
+            }
+            existing.ifPresent(this::unindexIfOrphaned);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean deleteByPublicKey(String publicKey) {
+        synchronized (writeLock) {
+            Optional<DerivedAccount> existing = delegate.findByPublicKey(publicKey);
+            if (!delegate.deleteByPublicKey(publicKey)) {
+                return false;
+            }
+            existing.ifPresent(this::unindexIfOrphaned);
+            return true;
+        }
+    }
+
+    private void unindexIfOrphaned(DerivedAccount account) {
+        // Another label may still map to the same key, e.g. after a label was re-saved.
+        if (delegate.findByPublicKey(account.getPublicKey()).isEmpty()) {
+            membershipIndex.remove(new PublicKey(account.getPublicKey()));
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.solana.rpc.service;
 
 import org.p2p.solanaj.core.Account;
 
+import java.util.Optional;
+
 /**
  * Abstraction for persisting generated Solana keypairs.
  */
@@ -13,4 +15,12 @@ public interface KeyStorage {
      * @param account generated account containing public and private keys
      */
     void save(Account account);
+
+    /**
+     * Look up a previously saved keypair.
+     *
+     * @param publicKey base58-encoded public key
+     * @return the stored account, or empty when this storage does not hold it
+     */
+    Optional<Account> findByPublicKey(String publicKey);
 }
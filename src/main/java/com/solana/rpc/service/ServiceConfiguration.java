@@ -10,6 +10,14 @@ public class ServiceConfiguration {
     @JsonProperty("SolanaRpcUrl")
     private String solanaRpcUrl;
 
+    public ServiceConfiguration() {
+        // Jackson constructor
+    }
+
+    ServiceConfiguration(String solanaRpcUrl) {
+        this.solanaRpcUrl = solanaRpcUrl;
+    }
+
     public String getSolanaRpcUrl() {
         return solanaRpcUrl;
     }
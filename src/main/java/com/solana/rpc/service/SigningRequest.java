@@ -0,0 +1,31 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+
+import java.util.Objects;
+
+/**
+ * Message to be signed with the key at a derived account's path.
+ */
+public final class SigningRequest {
+
+    private final DerivedAccount signer;
+    private final byte[] message;
+
+    /**
+     * @param signer  derived account whose path and public key identify the signing key
+     * @param message bytes to sign, e.g. a serialized transaction message; not copied
+     */
+    public SigningRequest(DerivedAccount signer, byte[] message) {
+        this.signer = Objects.requireNonNull(signer, "signer must not be null");
+        this.message = Objects.requireNonNull(message, "message must not be null");
+    }
+
+    public DerivedAccount getSigner() {
+        return signer;
+    }
+
+    public byte[] getMessage() {
+        return message;
+    }
+}
@@ -1,9 +1,15 @@
 package com.solana.rpc.service;
 
 import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.transaction.CommitmentLevel;
+import com.solana.rpc.transaction.TransactionConfirmation;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Logical contract for interacting with the Solana testnet as described in the project design.
@@ -34,6 +40,20 @@ public interface SolanaWalletService {
      */
     String getNewAddress(String label);
 
+    /**
+     * Generates {@code count} addresses labelled {@code labelPrefix + index} and streams each one
+     * to {@code out} as a line of NDJSON ({@code {"label":...,"index":...,"publicKey":...}}) as soon
+     * as it has been derived and persisted. Writing blocks while the consumer is slow, which in
+     * turn pauses derivation.
+     *
+     * @param labelPrefix prefix of the generated labels
+     * @param count       number of addresses to generate
+     * @param out         consumer stream; it is flushed but not closed
+     * @return number of addresses written
+     * @throws IOException when writing to the consumer fails; addresses already written stay persisted
+     */
+    long provisionAddresses(String labelPrefix, int count, OutputStream out) throws IOException;
+
     /**
      * Retrieves the SOL balance for the provided base58-encoded address.
      *
@@ -42,6 +62,17 @@ public interface SolanaWalletService {
      */
     BigDecimal getBalance(String base58Address);
 
+    /**
+     * Retrieves the SOL balance for the provided base58-encoded address within a time budget. The
+     * budget covers queueing, retries and the HTTP exchange; the in-flight request is cancelled
+     * once it runs out.
+     *
+     * @param base58Address Solana public key in base58 format
+     * @param timeout       total time the caller is willing to wait
+     * @return balance in SOL with up to nine fractional digits
+     */
+    BigDecimal getBalance(String base58Address, Duration timeout);
+
     /**
      * Retrieves the SOL balance for the derived account identified by the supplied label.
      *
@@ -49,4 +80,40 @@ public interface SolanaWalletService {
      * @return balance in SOL with up to nine fractional digits
      */
     BigDecimal getBalanceByLabel(String label);
+
+    /**
+     * Retrieves the SOL balance for the derived account identified by the supplied label within a
+     * time budget.
+     *
+     * @param label   human-readable label associated with a derived account
+     * @param timeout total time the caller is willing to wait
+     * @return balance in SOL with up to nine fractional digits
+     */
+    BigDecimal getBalanceByLabel(String label, Duration timeout);
+
+    /**
+     * Signs and submits a SOL transfer from the derived account identified by the label. The call
+     * returns once the RPC node has accepted the transaction; it does not wait for confirmation.
+     *
+     * @param fromLabel label of the derived account paying for and signing the transfer
+     * @param toAddress base58-encoded recipient public key
+     * @param lamports  amount to transfer in lamports; must be positive
+     * @return base58-encoded transaction signature
+     */
+    String transfer(String fromLabel, String toAddress, long lamports);
+
+    /**
+     * Signs and submits a SOL transfer like {@link #transfer(String, String, long)} and tracks it
+     * until it reaches the requested commitment. Tracking shares one poll loop with every other
+     * pending transaction.
+     *
+     * @param fromLabel  label of the derived account paying for and signing the transfer
+     * @param toAddress  base58-encoded recipient public key
+     * @param lamports   amount to transfer in lamports; must be positive
+     * @param commitment level at which the returned future completes
+     * @return future completing with the confirmation, or exceptionally when the transaction
+     * failed on chain or expired before landing
+     */
+    CompletableFuture<TransactionConfirmation> transferAndConfirm(String fromLabel, String toAddress, long lamports,
+                                                                  CommitmentLevel commitment);
 }
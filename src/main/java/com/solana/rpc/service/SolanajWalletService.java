@@ -2,55 +2,178 @@ package com.solana.rpc.service;
 
 import com.solana.rpc.config.SolanaApplicationContext;
 import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
+import com.solana.rpc.transaction.CommitmentLevel;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.FeeOracle;
+import com.solana.rpc.transaction.RecentBlockhash;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transaction.TransactionConfirmation;
+import com.solana.rpc.transport.Deadline;
+import com.solana.rpc.transport.DeadlineExceededException;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.HedgingPolicy;
+import com.solana.rpc.transport.RpcExecutor;
 import com.solana.rpc.wallet.DerivationService;
 import org.p2p.solanaj.core.Account;
 import org.p2p.solanaj.core.PublicKey;
-import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.programs.SystemProgram;
 import org.p2p.solanaj.rpc.RpcClient;
 import org.p2p.solanaj.rpc.RpcException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Default implementation of {@link SolanaWalletService} backed by the Solanaj RPC client and deterministic key derivation.
+ * <p>
+ * New addresses are issued under the {@link AddressPartition} the service owns, from a counter
+ * seeded once from the repository. Several instances can share a repository as long as each owns
+ * a different partition.
  */
 public class SolanajWalletService implements SolanaWalletService {
 
     private static final Logger LOGGER = Logger.getLogger(SolanajWalletService.class.getName());
     private static final BigDecimal LAMPORTS_PER_SOL = new BigDecimal("1000000000");
-    private static final int DEFAULT_ACCOUNT = 0;
     private static final int DEFAULT_CHANGE = 0;
+    private static final int UNSEEDED = -1;
+    private static final int MAX_SEND_ATTEMPTS = 2;
+    // A system transfer consumes 150 compute units; the rest covers the compute budget instructions.
+    private static final int TRANSFER_COMPUTE_UNIT_LIMIT = 1_000;
 
-    private final RpcClient rpcClient;
+    private final RpcExecutor rpcExecutor;
+    private final HedgedRpcExecutor readExecutor;
+    private final RecentBlockhashCache blockhashCache;
+    private final ConfirmationTracker confirmationTracker;
     private final DerivationService derivationService;
     private final DerivedAccountRepository accountRepository;
     private final KeyStorage keyStorage;
+    private final AddressPartition partition;
+    private final FeeOracle feeOracle;
+    private final int priorityFeePercentile;
+    private final Object indexAllocationLock = new Object();
+    private final AtomicInteger nextIndex = new AtomicInteger(UNSEEDED);
+    private volatile AddressProvisioner addressProvisioner;
 
     public SolanajWalletService() {
-        this(SolanaApplicationContext.getRpcClient(),
-                new DerivationService(SolanaApplicationContext.getConfig().getMnemonic()),
+        this(SolanaApplicationContext.getRpcExecutor(),
+                SolanaApplicationContext.getHedgedRpcExecutor(),
+                SolanaApplicationContext.getBlockhashCache(),
+                SolanaApplicationContext.getConfirmationTracker(),
+                SolanaApplicationContext.getDerivationService(),
                 new InMemoryDerivedAccountRepository(),
-                new InMemoryKeyStorage());
+                new InMemoryKeyStorage(),
+                configuredPartition(),
+                SolanaApplicationContext.getFeeOracle(),
+                SolanaApplicationContext.getConfig().getPriorityFeePercentile());
 
         LOGGER.info(() -> "Initialized SolanajWalletService with RPC URL="
                 + SolanaApplicationContext.getConfig().getSolanaRpcUrl()
                 + " (connectTimeoutMs=" + SolanaApplicationContext.getConfig().getConnectTimeoutMs()
                 + ", readTimeoutMs=" + SolanaApplicationContext.getConfig().getReadTimeoutMs()
-                + ", writeTimeoutMs=" + SolanaApplicationContext.getConfig().getWriteTimeoutMs() + ")");
+                + ", writeTimeoutMs=" + SolanaApplicationContext.getConfig().getWriteTimeoutMs() + ") issuing under "
+                + partition);
     }
 
     public SolanajWalletService(RpcClient rpcClient, DerivationService derivationService,
                                 DerivedAccountRepository accountRepository, KeyStorage keyStorage) {
-        this.rpcClient = Objects.requireNonNull(rpcClient, "rpcClient must not be null");
+        this(new RpcExecutor(Objects.requireNonNull(rpcClient, "rpcClient must not be null")),
+                derivationService, accountRepository, keyStorage);
+    }
+
+    public SolanajWalletService(RpcExecutor rpcExecutor, DerivationService derivationService,
+                                DerivedAccountRepository accountRepository, KeyStorage keyStorage) {
+        this(rpcExecutor, new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled()),
+                derivationService, accountRepository, keyStorage);
+    }
+
+    /**
+     * @param rpcExecutor  executor for all RPC calls
+     * @param readExecutor executor for idempotent reads such as balances, possibly hedged
+     */
+    public SolanajWalletService(RpcExecutor rpcExecutor, HedgedRpcExecutor readExecutor,
+                                DerivationService derivationService,
+                                DerivedAccountRepository accountRepository, KeyStorage keyStorage) {
+        this(rpcExecutor, readExecutor, new RecentBlockhashCache(rpcExecutor), new ConfirmationTracker(rpcExecutor),
+                derivationService, accountRepository, keyStorage);
+    }
+
+    /**
+     * @param rpcExecutor         executor for all RPC calls
+     * @param readExecutor        executor for idempotent reads such as balances, possibly hedged
+     * @param blockhashCache      source of recent blockhashes for outgoing transactions
+     * @param confirmationTracker shared poller for the confirmation of submitted transactions
+     */
+    public SolanajWalletService(RpcExecutor rpcExecutor, HedgedRpcExecutor readExecutor,
+                                RecentBlockhashCache blockhashCache, ConfirmationTracker confirmationTracker,
+                                DerivationService derivationService,
+                                DerivedAccountRepository accountRepository, KeyStorage keyStorage) {
+        this(rpcExecutor, readExecutor, blockhashCache, confirmationTracker, derivationService, accountRepository,
+                keyStorage, AddressPartition.single());
+    }
+
+    /**
+     * @param rpcExecutor         executor for all RPC calls
+     * @param readExecutor        executor for idempotent reads such as balances, possibly hedged
+     * @param blockhashCache      source of recent blockhashes for outgoing transactions
+     * @param confirmationTracker shared poller for the confirmation of submitted transactions
+     * @param partition           account' path value new addresses are issued under
+     */
+    public SolanajWalletService(RpcExecutor rpcExecutor, HedgedRpcExecutor readExecutor,
+                                RecentBlockhashCache blockhashCache, ConfirmationTracker confirmationTracker,
+                                DerivationService derivationService,
+                                DerivedAccountRepository accountRepository, KeyStorage keyStorage,
+                                AddressPartition partition) {
+        this(rpcExecutor, readExecutor, blockhashCache, confirmationTracker, derivationService, accountRepository,
+                keyStorage, partition, null, 0);
+    }
+
+    /**
+     * @param rpcExecutor           executor for all RPC calls
+     * @param readExecutor          executor for idempotent reads such as balances, possibly hedged
+     * @param blockhashCache        source of recent blockhashes for outgoing transactions
+     * @param confirmationTracker   shared poller for the confirmation of submitted transactions
+     * @param partition             account' path value new addresses are issued under
+     * @param feeOracle             source of recent prioritization fees for outgoing transactions; may
+     *                              be {@code null} when {@code priorityFeePercentile} is 0
+     * @param priorityFeePercentile percentile of recent fees that transfers bid, from 1 to 100, or 0
+     *                              to send without a priority fee
+     */
+    public SolanajWalletService(RpcExecutor rpcExecutor, HedgedRpcExecutor readExecutor,
+                                RecentBlockhashCache blockhashCache, ConfirmationTracker confirmationTracker,
+                                DerivationService derivationService,
+                                DerivedAccountRepository accountRepository, KeyStorage keyStorage,
+                                AddressPartition partition, FeeOracle feeOracle, int priorityFeePercentile) {
+        if (priorityFeePercentile < 0 || priorityFeePercentile > 100) {
+            throw new IllegalArgumentException("priorityFeePercentile must be between 0 and 100");
+        }
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.readExecutor = Objects.requireNonNull(readExecutor, "readExecutor must not be null");
+        this.blockhashCache = Objects.requireNonNull(blockhashCache, "blockhashCache must not be null");
+        this.confirmationTracker = Objects.requireNonNull(confirmationTracker, "confirmationTracker must not be null");
         this.derivationService = Objects.requireNonNull(derivationService, "derivationService must not be null");
         this.accountRepository = Objects.requireNonNull(accountRepository, "accountRepository must not be null");
         this.keyStorage = Objects.requireNonNull(keyStorage, "keyStorage must not be null");
+        this.partition = Objects.requireNonNull(partition, "partition must not be null");
+        if (priorityFeePercentile > 0) {
+            Objects.requireNonNull(feeOracle, "feeOracle must not be null when bidding a priority fee");
+        }
+        this.feeOracle = feeOracle;
+        this.priorityFeePercentile = priorityFeePercentile;
     }
 
     @Override
@@ -60,54 +183,189 @@ public class SolanajWalletService implements SolanaWalletService {
 
     @Override
     public String getNewAddress() {
-        int nextIndex = determineNextIndex();
-        String autoLabel = "account-" + nextIndex;
-        return createAndPersistAddress(autoLabel, nextIndex);
+        try (Span ignored = Tracer.global().startTrace("wallet.getNewAddress")) {
+            int nextIndex = reserveIndexes(1);
+            String autoLabel = partition.autoLabel(nextIndex);
+            return createAndPersistAddress(autoLabel, nextIndex);
+        }
     }
 
     @Override
     public String getNewAddress(String label) {
         validateLabel(label);
-        if (accountRepository.findByLabel(label).isPresent()) {
-            throw new IllegalArgumentException("Label already exists: " + label);
+        try (Span ignored = Tracer.global().startTrace("wallet.getNewAddress")) {
+            if (accountRepository.findByLabel(label).isPresent()) {
+                throw new IllegalArgumentException("Label already exists: " + label);
+            }
+
+            int nextIndex = reserveIndexes(1);
+            return createAndPersistAddress(label, nextIndex);
         }
+    }
 
-        int nextIndex = determineNextIndex();
-        return createAndPersistAddress(label, nextIndex);
+    @Override
+    public long provisionAddresses(String labelPrefix, int count, OutputStream out) throws IOException {
+        validateLabel(labelPrefix);
+        Objects.requireNonNull(out, "out must not be null");
+        if (count <= 0) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+
+        int startIndex = reserveIndexes(count);
+        long written;
+        try (Span ignored = Tracer.global().startTrace("wallet.provisionAddresses").setAttribute("count", count)) {
+            written = addressProvisioner().provision(partition.getAccount(), DEFAULT_CHANGE, startIndex, count,
+                    labelPrefix, out);
+        }
+        LOGGER.info(() -> "Provisioned " + written + " addresses with label prefix " + labelPrefix
+                + " from index " + startIndex);
+        return written;
     }
 
     @Override
     public BigDecimal getBalance(String base58Address) {
-        if (base58Address == null || base58Address.isBlank()) {
-            throw new IllegalArgumentException("Address must not be null or blank");
+        try (Span ignored = Tracer.global().startTrace("wallet.getBalance")) {
+            return fetchBalance(base58Address, Deadline.none());
         }
+    }
 
-        final PublicKey publicKey;
-        try {
-            publicKey = new PublicKey(base58Address);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Address is not a valid base58-encoded public key", e);
+    @Override
+    public BigDecimal getBalance(String base58Address, Duration timeout) {
+        try (Span ignored = Tracer.global().startTrace("wallet.getBalance")) {
+            return fetchBalance(base58Address, deadlineFor(timeout));
+        }
+    }
+
+    @Override
+    public BigDecimal getBalanceByLabel(String label) {
+        try (Span ignored = Tracer.global().startTrace("wallet.getBalanceByLabel")) {
+            return fetchBalance(resolveLabel(label).getPublicKey(), Deadline.none());
+        }
+    }
+
+    @Override
+    public BigDecimal getBalanceByLabel(String label, Duration timeout) {
+        Deadline deadline = deadlineFor(timeout);
+        try (Span ignored = Tracer.global().startTrace("wallet.getBalanceByLabel")) {
+            return fetchBalance(resolveLabel(label).getPublicKey(), deadline);
+        }
+    }
+
+    @Override
+    public String transfer(String fromLabel, String toAddress, long lamports) {
+        try (Span ignored = Tracer.global().startTrace("wallet.transfer")) {
+            return submitTransfer(fromLabel, toAddress, lamports).signature();
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransactionConfirmation> transferAndConfirm(String fromLabel, String toAddress,
+                                                                         long lamports, CommitmentLevel commitment) {
+        Objects.requireNonNull(commitment, "commitment must not be null");
+        SubmittedTransfer submitted;
+        try (Span ignored = Tracer.global().startTrace("wallet.transfer")) {
+            submitted = submitTransfer(fromLabel, toAddress, lamports);
+        }
+        return confirmationTracker.track(submitted.signature(), submitted.lastValidBlockHeight(), commitment);
+    }
+
+    private SubmittedTransfer submitTransfer(String fromLabel, String toAddress, long lamports) {
+        DerivedAccount source = resolveLabel(fromLabel);
+        PublicKey destination = parsePublicKey(toAddress);
+        if (lamports <= 0) {
+            throw new IllegalArgumentException("Lamports must be positive");
+        }
+
+        Account signer = derivationService.derive(source.getAccount(), source.getChange(), source.getIndex());
+        if (!signer.getPublicKey().toBase58().equals(source.getPublicKey())) {
+            throw new IllegalStateException("Derived key does not match stored public key for label: " + fromLabel);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            RecentBlockhash blockhash = null;
+            try {
+                blockhash = blockhashCache.get();
+                String recentBlockhash = blockhash.getBlockhash();
+                long computeUnitPrice = priorityFeePercentile == 0 ? 0
+                        : feeOracle.estimate().percentile(priorityFeePercentile);
+                // Signing is deterministic, so a retried send resubmits the same signature.
+                String signature = rpcExecutor.execute(api -> api.sendTransaction(
+                        transferTransaction(signer.getPublicKey(), destination, lamports, computeUnitPrice),
+                        List.of(signer), recentBlockhash));
+                LOGGER.info(() -> "Submitted transfer of " + lamports + " lamports from " + fromLabel
+                        + " to " + toAddress + ": " + signature);
+                return new SubmittedTransfer(signature, blockhash.getLastValidBlockHeight());
+            } catch (RpcException e) {
+                if (blockhash != null && isBlockhashNotFound(e) && attempt < MAX_SEND_ATTEMPTS) {
+                    blockhashCache.invalidate(blockhash.getBlockhash());
+                    continue;
+                }
+                LOGGER.log(Level.SEVERE, "RPC transfer call failed", e);
+                throw new IllegalStateException("Failed to send transfer via Solana RPC", e);
+            }
+        }
+    }
+
+    private BigDecimal fetchBalance(String base58Address, Deadline deadline) {
+        PublicKey publicKey;
+        try (Span ignored = Tracer.span("wallet.parseAddress")) {
+            publicKey = parsePublicKey(base58Address);
         }
 
         try {
-            RpcApi api = rpcClient.getApi();
             LOGGER.info(() -> "Requesting balance from RPC for address " + base58Address
-                    + " via endpoint " + SolanaApplicationContext.getConfig().getSolanaRpcUrl());
-            long lamports = api.getBalance(publicKey);
+                    + " via endpoint " + rpcExecutor.getRpcClient().getEndpoint());
+            long lamports = readExecutor.execute(api -> api.getBalance(publicKey), deadline);
             LOGGER.info(() -> "Received balance (lamports): " + lamports);
             return BigDecimal.valueOf(lamports).divide(LAMPORTS_PER_SOL, 9, RoundingMode.DOWN);
+        } catch (DeadlineExceededException e) {
+            LOGGER.warning(() -> "RPC balance call for " + base58Address + " abandoned: " + e.getMessage());
+            throw new IllegalStateException("Balance request did not complete within its deadline", e);
         } catch (RpcException e) {
             LOGGER.log(Level.SEVERE, "RPC balance call failed", e);
             throw new IllegalStateException("Failed to fetch balance from Solana RPC", e);
         }
     }
 
-    @Override
-    public BigDecimal getBalanceByLabel(String label) {
+    private static Transaction transferTransaction(PublicKey from, PublicKey to, long lamports, long computeUnitPrice) {
+        Transaction transaction = new Transaction();
+        if (computeUnitPrice > 0) {
+            // The fee is price times limit, so cap the limit near what a plain transfer consumes.
+            transaction.addInstruction(ComputeBudgetProgram.setComputeUnitLimit(TRANSFER_COMPUTE_UNIT_LIMIT));
+            transaction.addInstruction(ComputeBudgetProgram.setComputeUnitPrice(
+                    (int) Math.min(computeUnitPrice, Integer.MAX_VALUE)));
+        }
+        return transaction.addInstruction(SystemProgram.transfer(from, to, lamports));
+    }
+
+    private static PublicKey parsePublicKey(String base58Address) {
+        if (base58Address == null || base58Address.isBlank()) {
+            throw new IllegalArgumentException("Address must not be null or blank");
+        }
+
+        try {
+            return new PublicKey(base58Address);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Address is not a valid base58-encoded public key", e);
+        }
+    }
+
+    private static boolean isBlockhashNotFound(RpcException e) {
+        String message = e.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("blockhash not found");
+    }
+
+    private DerivedAccount resolveLabel(String label) {
         validateLabel(label);
-        DerivedAccount account = accountRepository.findByLabel(label)
+        return accountRepository.findByLabel(label)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown account label: " + label));
-        return getBalance(account.getPublicKey());
+    }
+
+    private static Deadline deadlineFor(Duration timeout) {
+        if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be a positive duration");
+        }
+        return Deadline.after(timeout);
     }
 
     private void validateLabel(String label) {
@@ -116,22 +374,89 @@ public class SolanajWalletService implements SolanaWalletService {
         }
     }
 
-    private int determineNextIndex() {
-        return accountRepository.findAll().stream()
-                .filter(account -> account.getAccount() == DEFAULT_ACCOUNT && account.getChange() == DEFAULT_CHANGE)
-                .mapToInt(DerivedAccount::getIndex)
-                .max()
-                .orElse(-1) + 1;
+    /**
+     * Reserve a run of indexes in this service's partition that no other caller will be handed,
+     * even before they are saved.
+     */
+    private int reserveIndexes(int count) {
+        while (true) {
+            int startIndex = nextIndex.get();
+            if (startIndex == UNSEEDED) {
+                startIndex = seedNextIndex();
+            }
+            if (count > Integer.MAX_VALUE - startIndex) {
+                throw new IllegalArgumentException("Not enough derivation indexes left for " + count + " addresses");
+            }
+            if (nextIndex.compareAndSet(startIndex, startIndex + count)) {
+                return startIndex;
+            }
+        }
+    }
+
+    private int seedNextIndex() {
+        synchronized (indexAllocationLock) {
+            if (nextIndex.get() == UNSEEDED) {
+                nextIndex.set(firstUnusedIndex());
+            }
+            return nextIndex.get();
+        }
+    }
+
+    private AddressProvisioner addressProvisioner() {
+        AddressProvisioner provisioner = addressProvisioner;
+        if (provisioner == null) {
+            synchronized (indexAllocationLock) {
+                provisioner = addressProvisioner;
+                if (provisioner == null) {
+                    provisioner = new AddressProvisioner(derivationService, accountRepository, keyStorage);
+                    addressProvisioner = provisioner;
+                }
+            }
+        }
+        return provisioner;
+    }
+
+    /**
+     * One past the highest index stored for this partition, found by binary search over path
+     * ranges rather than by scanning every account.
+     */
+    private int firstUnusedIndex() {
+        int account = partition.getAccount();
+        if (accountRepository.findByPathRange(account, DEFAULT_CHANGE, 0, Integer.MAX_VALUE, 1).isEmpty()) {
+            return 0;
+        }
+        // Some index >= low is stored; none >= high is.
+        int low = 0;
+        int high = Integer.MAX_VALUE;
+        while (high - low > 1) {
+            int mid = low + (high - low) / 2;
+            if (accountRepository.findByPathRange(account, DEFAULT_CHANGE, mid, Integer.MAX_VALUE, 1).isEmpty()) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return high;
+    }
+
+    private static AddressPartition configuredPartition() {
+        String instanceId = SolanaApplicationContext.getConfig().getInstanceId();
+        return instanceId == null || instanceId.isBlank()
+                ? AddressPartition.single()
+                : AddressPartition.forInstance(instanceId);
     }
 
     private String createAndPersistAddress(String label, int index) {
-        Account derivedAccount = derivationService.derive(DEFAULT_ACCOUNT, DEFAULT_CHANGE, index);
+        Account derivedAccount = derivationService.derive(partition.getAccount(), DEFAULT_CHANGE, index);
         keyStorage.save(derivedAccount);
         String publicKey = derivedAccount.getPublicKey().toBase58();
 
-        DerivedAccount metadata = new DerivedAccount(label, DEFAULT_ACCOUNT, DEFAULT_CHANGE, index, publicKey);
+        DerivedAccount metadata = new DerivedAccount(label, partition.getAccount(), DEFAULT_CHANGE, index, publicKey);
         accountRepository.save(metadata);
 
         return publicKey;
     }
+
+    private record SubmittedTransfer(String signature, long lastValidBlockHeight) {
+    }
 }
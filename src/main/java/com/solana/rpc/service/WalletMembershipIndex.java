@@ -0,0 +1,340 @@
+package com.solana.rpc.service;
+
+import org.p2p.solanaj.core.PublicKey;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Membership test over raw 32-byte public keys, for matching the account keys of observed
+ * transactions against the addresses this wallet has issued.
+ * <p>
+ * A split-block Bloom filter rejects almost every foreign key after touching a single 64-byte
+ * block; the few that pass are confirmed against an open-addressing hash set that stores each key
+ * as four longs. Keys are read straight from the caller's buffer at an offset, so checking the
+ * account keys of a wire-format message needs no Base58 decoding and allocates nothing.
+ * <p>
+ * Writers are serialized; readers never block them. A read that overlaps a write is validated
+ * with an optimistic {@link StampedLock} stamp and repeated under the read lock if the table moved.
+ * Removed keys stay in the Bloom filter until it is rebuilt, which only costs an extra set probe.
+ */
+public class WalletMembershipIndex {
+
+    /**
+     * Length of a Solana public key in bytes.
+     */
+    public static final int KEY_BYTES = PublicKey.PUBLIC_KEY_LENGTH;
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int DEFAULT_EXPECTED_KEYS = 1024;
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int KEYS_PER_BLOCK = 32;
+    private static final int[] SALTS = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31
+    };
+
+    private final StampedLock lock = new StampedLock();
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private Table table;
+    private volatile long[] bloom;
+    private int size;
+    private int removedSinceRebuild;
+
+    public WalletMembershipIndex() {
+        this(DEFAULT_EXPECTED_KEYS);
+    }
+
+    /**
+     * @param expectedKeys number of keys to size the tables for; they grow beyond it as needed
+     */
+    public WalletMembershipIndex(int expectedKeys) {
+        if (expectedKeys <= 0) {
+            throw new IllegalArgumentException("expectedKeys must be positive");
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, expectedKeys) - 1) << 2;
+        this.table = new Table(capacity);
+        this.bloom = new long[bloomBlocks(capacity) * WORDS_PER_BLOCK];
+    }
+
+    /**
+     * @param publicKey key to look up
+     * @return whether the key is in the index
+     */
+    public boolean contains(PublicKey publicKey) {
+        Objects.requireNonNull(publicKey, "publicKey must not be null");
+        return contains(publicKey.toByteArray(), 0);
+    }
+
+    /**
+     * Test the 32 bytes at {@code offset} for membership.
+     *
+     * @param buffer buffer holding the key, such as a serialized transaction message
+     * @param offset position of the first key byte
+     * @return whether the key is in the index
+     */
+    public boolean contains(byte[] buffer, int offset) {
+        Objects.checkFromIndexSize(offset, KEY_BYTES, buffer.length);
+        long k0 = (long) LONGS.get(buffer, offset);
+        long k1 = (long) LONGS.get(buffer, offset + 8);
+        long k2 = (long) LONGS.get(buffer, offset + 16);
+        long k3 = (long) LONGS.get(buffer, offset + 24);
+        long hash = hash(k0, k1, k2, k3);
+        if (!mightContain(bloom, hash)) {
+            return false;
+        }
+
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean found = table.find(hash, k0, k1, k2, k3) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return table.find(hash, k0, k1, k2, k3) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param publicKey key to add
+     * @return {@code true} if the key was not already present
+     */
+    public boolean add(PublicKey publicKey) {
+        Objects.requireNonNull(publicKey, "publicKey must not be null");
+        return add(publicKey.toByteArray(), 0);
+    }
+
+    /**
+     * @param buffer buffer holding the key
+     * @param offset position of the first key byte
+     * @return {@code true} if the key was not already present
+     */
+    public boolean add(byte[] buffer, int offset) {
+        Objects.checkFromIndexSize(offset, KEY_BYTES, buffer.length);
+        long k0 = (long) LONGS.get(buffer, offset);
+        long k1 = (long) LONGS.get(buffer, offset + 8);
+        long k2 = (long) LONGS.get(buffer, offset + 16);
+        long k3 = (long) LONGS.get(buffer, offset + 24);
+        long hash = hash(k0, k1, k2, k3);
+
+        long stamp = lock.writeLock();
+        try {
+            if (table.find(hash, k0, k1, k2, k3) >= 0) {
+                return false;
+            }
+            if ((size + 1) * 2 > table.capacity()) {
+                table = table.resize(table.capacity() * 2, this);
+                rebuildBloom();
+            }
+            // The Bloom bits go in first so a reader never sees the key in the table but not the filter.
+            setBloomBits(bloom, hash);
+            table.insert(hash, k0, k1, k2, k3);
+            size++;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param publicKey key to remove
+     * @return {@code true} if the key was present
+     */
+    public boolean remove(PublicKey publicKey) {
+        Objects.requireNonNull(publicKey, "publicKey must not be null");
+        return remove(publicKey.toByteArray(), 0);
+    }
+
+    /**
+     * @param buffer buffer holding the key
+     * @param offset position of the first key byte
+     * @return {@code true} if the key was present
+     */
+    public boolean remove(byte[] buffer, int offset) {
+        Objects.checkFromIndexSize(offset, KEY_BYTES, buffer.length);
+        long k0 = (long) LONGS.get(buffer, offset);
+        long k1 = (long) LONGS.get(buffer, offset + 8);
+        long k2 = (long) LONGS.get(buffer, offset + 16);
+        long k3 = (long) LONGS.get(buffer, offset + 24);
+        long hash = hash(k0, k1, k2, k3);
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = table.find(hash, k0, k1, k2, k3);
+            if (slot < 0) {
+                return false;
+            }
+            table.delete(slot, this);
+            size--;
+            if (++removedSinceRebuild > Math.max(size, DEFAULT_EXPECTED_KEYS)) {
+                rebuildBloom();
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return number of keys in the index
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void rebuildBloom() {
+        long[] rebuilt = new long[bloomBlocks(table.capacity()) * WORDS_PER_BLOCK];
+        Table current = table;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            if (current.used[slot]) {
+                int base = slot * 4;
+                setBloomBits(rebuilt, hash(current.keys[base], current.keys[base + 1],
+                        current.keys[base + 2], current.keys[base + 3]));
+            }
+        }
+        bloom = rebuilt;
+        removedSinceRebuild = 0;
+    }
+
+    private long hash(long k0, long k1, long k2, long k3) {
+        // Public keys are already uniformly distributed; the seeded mix keeps ground keys from
+        // steering lookups into the same probe run.
+        return mix(k0 ^ seed) ^ mix(k1 + Long.rotateLeft(k2, 21) ^ Long.rotateLeft(k3, 42));
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    private static int bloomBlocks(int tableCapacity) {
+        // The table is at most half full, so this reserves 16 filter bits per key at the resize point.
+        return Math.max(1, tableCapacity / 2 / KEYS_PER_BLOCK);
+    }
+
+    private static boolean mightContain(long[] filter, long hash) {
+        int base = blockIndex(filter, hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int word = 0; word < WORDS_PER_BLOCK; word++) {
+            if ((filter[base + word] & (1L << ((key * SALTS[word]) >>> 26))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void setBloomBits(long[] filter, long hash) {
+        int base = blockIndex(filter, hash) * WORDS_PER_BLOCK;
+        int key = (int) hash;
+        for (int word = 0; word < WORDS_PER_BLOCK; word++) {
+            filter[base + word] |= 1L << ((key * SALTS[word]) >>> 26);
+        }
+    }
+
+    private static int blockIndex(long[] filter, long hash) {
+        int blocks = filter.length / WORDS_PER_BLOCK;
+        return (int) (((hash >>> 32) * blocks) >>> 32);
+    }
+
+    /**
+     * Linear-probing table with backward-shift deletion. Keys live in {@code keys} at four longs
+     * per slot; {@code used} marks occupied slots, since the all-zero key is a valid address.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final boolean[] used;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity * 4];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return used.length;
+        }
+
+        private int find(long hash, long k0, long k1, long k2, long k3) {
+            int slot = (int) hash & mask;
+            // Bounded so an optimistic read over a table being rewritten cannot spin.
+            for (int probes = 0; probes <= mask; probes++) {
+                if (!used[slot]) {
+                    return -1;
+                }
+                int base = slot * 4;
+                if (keys[base] == k0 && keys[base + 1] == k1 && keys[base + 2] == k2 && keys[base + 3] == k3) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(long hash, long k0, long k1, long k2, long k3) {
+            int slot = (int) hash & mask;
+            while (used[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            int base = slot * 4;
+            keys[base] = k0;
+            keys[base + 1] = k1;
+            keys[base + 2] = k2;
+            keys[base + 3] = k3;
+            used[slot] = true;
+        }
+
+        private void delete(int slot, WalletMembershipIndex owner) {
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (used[next]) {
+                int base = next * 4;
+                int home = (int) owner.hash(keys[base], keys[base + 1], keys[base + 2], keys[base + 3]) & mask;
+                // Move the entry back unless its home lies cyclically in (hole, next].
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    System.arraycopy(keys, base, keys, hole * 4, 4);
+                    used[hole] = true;
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            used[hole] = false;
+            int base = hole * 4;
+            keys[base] = 0;
+            keys[base + 1] = 0;
+            keys[base + 2] = 0;
+            keys[base + 3] = 0;
+        }
+
+        private Table resize(int newCapacity, WalletMembershipIndex owner) {
+            Table resized = new Table(newCapacity);
+            for (int slot = 0; slot < capacity(); slot++) {
+                if (used[slot]) {
+                    int base = slot * 4;
+                    long k0 = keys[base];
+                    long k1 = keys[base + 1];
+                    long k2 = keys[base + 2];
+                    long k3 = keys[base + 3];
+                    resized.insert(owner.hash(k0, k1, k2, k3), k0, k1, k2, k3);
+                }
+            }
+            return resized;
+        }
+    }
+}
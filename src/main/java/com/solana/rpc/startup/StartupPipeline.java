@@ -0,0 +1,114 @@
+package com.solana.rpc.startup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the startup work of the service as named, timed phases.
+ * <p>
+ * Prerequisite phases added with {@link #first(String, Phase)} run one after the other on the
+ * calling thread; when one fails, startup fails with it. The phases added with
+ * {@link #concurrently(String, Phase)} then run at the same time, one thread each, so startup takes
+ * as long as the slowest of them rather than their sum. Their failures are recorded in the
+ * {@link StartupReport} instead of aborting startup, since the service can still serve requests
+ * cold. The report is returned only once every phase has finished.
+ */
+public final class StartupPipeline {
+
+    private static final Logger LOGGER = Logger.getLogger(StartupPipeline.class.getName());
+
+    private final Map<String, Phase> prerequisites = new LinkedHashMap<>();
+    private final Map<String, Phase> concurrentPhases = new LinkedHashMap<>();
+
+    /**
+     * Unit of startup work.
+     */
+    @FunctionalInterface
+    public interface Phase {
+
+        void run() throws Exception;
+    }
+
+    /**
+     * Add a phase that must finish before the concurrent phases start.
+     */
+    public StartupPipeline first(String name, Phase phase) {
+        add(prerequisites, name, phase);
+        return this;
+    }
+
+    /**
+     * Add a phase that runs alongside the other concurrent phases.
+     */
+    public StartupPipeline concurrently(String name, Phase phase) {
+        add(concurrentPhases, name, phase);
+        return this;
+    }
+
+    /**
+     * Run every phase and wait for all of them.
+     *
+     * @throws IllegalStateException when a prerequisite phase fails
+     */
+    public StartupReport run() {
+        long startedAt = System.nanoTime();
+        List<StartupReport.PhaseResult> results = new ArrayList<>();
+        for (Map.Entry<String, Phase> entry : prerequisites.entrySet()) {
+            StartupReport.PhaseResult result = runPhase(entry.getKey(), entry.getValue(), startedAt);
+            if (!result.succeeded()) {
+                throw new IllegalStateException("Startup phase " + entry.getKey() + " failed: " + result.failure());
+            }
+            results.add(result);
+        }
+
+        if (!concurrentPhases.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(concurrentPhases.size(), runnable -> {
+                Thread thread = new Thread(runnable, "startup-phase");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<CompletableFuture<StartupReport.PhaseResult>> futures = new ArrayList<>();
+                for (Map.Entry<String, Phase> entry : concurrentPhases.entrySet()) {
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> runPhase(entry.getKey(), entry.getValue(), startedAt), executor));
+                }
+                futures.forEach(future -> results.add(future.join()));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return new StartupReport(results, System.nanoTime() - startedAt);
+    }
+
+    private static StartupReport.PhaseResult runPhase(String name, Phase phase, long runStartedAt) {
+        long startedAt = System.nanoTime();
+        String failure = null;
+        try {
+            phase.run();
+        } catch (Throwable t) {
+            // Phases touch lazily initialized singletons, whose failures arrive wrapped in an Error.
+            Throwable cause = t instanceof ExceptionInInitializerError && t.getCause() != null ? t.getCause() : t;
+            failure = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+            LOGGER.log(Level.WARNING, "Startup phase " + name + " failed", cause);
+        }
+        return new StartupReport.PhaseResult(name, startedAt - runStartedAt, System.nanoTime() - startedAt, failure);
+    }
+
+    private void add(Map<String, Phase> phases, String name, Phase phase) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(phase, "phase must not be null");
+        if (prerequisites.containsKey(name) || concurrentPhases.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup phase: " + name);
+        }
+        phases.put(name, phase);
+    }
+}
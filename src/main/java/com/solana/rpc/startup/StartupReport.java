@@ -0,0 +1,64 @@
+package com.solana.rpc.startup;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Timing breakdown of a {@link StartupPipeline} run. Phase offsets are measured from the start of
+ * the run, so phases that overlapped show overlapping intervals.
+ */
+public final class StartupReport {
+
+    private final List<PhaseResult> phases;
+    private final long totalNanos;
+
+    StartupReport(List<PhaseResult> phases, long totalNanos) {
+        this.phases = List.copyOf(phases);
+        this.totalNanos = totalNanos;
+    }
+
+    /**
+     * @return result of every phase, in the order the phases were added
+     */
+    public List<PhaseResult> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @return time from the start of the run until the last phase finished
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return {@code true} when every phase succeeded, so the first request pays none of their costs
+     */
+    public boolean isWarm() {
+        return phases.stream().allMatch(PhaseResult::succeeded);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("=== Startup: %.1f ms, %s ===%n", totalNanos / 1e6, isWarm() ? "warm" : "not fully warm");
+        out.printf("%-16s %10s %10s  %s%n", "phase", "start ms", "took ms", "outcome");
+        for (PhaseResult phase : phases) {
+            out.printf("%-16s %10.1f %10.1f  %s%n", phase.name(), phase.startOffsetNanos() / 1e6,
+                    phase.durationNanos() / 1e6, phase.succeeded() ? "ok" : "failed: " + phase.failure());
+        }
+    }
+
+    /**
+     * Outcome of one startup phase.
+     *
+     * @param name             phase name
+     * @param startOffsetNanos when the phase started, relative to the start of the run
+     * @param durationNanos    how long the phase ran
+     * @param failure          message of the exception the phase threw, or {@code null} on success
+     */
+    public record PhaseResult(String name, long startOffsetNanos, long durationNanos, String failure) {
+
+        public boolean succeeded() {
+            return failure == null;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.solana.rpc.tenant;
+
+import java.util.Optional;
+
+/**
+ * Supplies the BIP39 mnemonic of a hosted tenant, e.g. from a secrets manager. It is asked when the
+ * tenant's wallet is first used and again whenever the tenant's derivation node has to be
+ * recomputed, so implementations should be safe to call repeatedly and from several threads.
+ */
+@FunctionalInterface
+public interface TenantSecretSource {
+
+    /**
+     * @param tenantId tenant identifier
+     * @return the tenant's mnemonic, or empty when the tenant is unknown
+     */
+    Optional<String> mnemonicFor(String tenantId);
+}
@@ -0,0 +1,142 @@
+package com.solana.rpc.tenant;
+
+import com.solana.rpc.config.SolanaApplicationContext;
+import com.solana.rpc.service.AddressPartition;
+import com.solana.rpc.service.DerivedAccountRepository;
+import com.solana.rpc.service.DiscardingKeyStorage;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.service.SolanaWalletService;
+import com.solana.rpc.service.SolanajWalletService;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.FeeOracle;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import com.solana.rpc.wallet.SeedCache;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Hosts the wallets of many tenants in one process.
+ * <p>
+ * Every tenant gets its own {@link DerivationService}, account repository and index allocator, so
+ * addresses and labels never cross tenants, while the RPC executors, blockhash cache,
+ * confirmation tracker and fee oracle are shared. Wallets are created on first use. Their m/44'/501' nodes live in
+ * one bounded {@link SeedCache}, so only the most recently active tenants keep secret material in
+ * memory and the rest re-derive it when they next sign or derive. Mnemonics are not retained: each
+ * is fetched from the {@link TenantSecretSource} for the duration of a seed computation. Derived keys
+ * are not retained either: tenant wallets use a {@link DiscardingKeyStorage}.
+ */
+public class TenantWalletRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(TenantWalletRegistry.class.getName());
+
+    private final RpcExecutor rpcExecutor;
+    private final HedgedRpcExecutor readExecutor;
+    private final RecentBlockhashCache blockhashCache;
+    private final ConfirmationTracker confirmationTracker;
+    private final FeeOracle feeOracle;
+    private final int priorityFeePercentile;
+    private final TenantSecretSource secretSource;
+    private final Function<String, DerivedAccountRepository> repositoryFactory;
+    private final SeedCache seedCache;
+    private final ConcurrentMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Create a registry on the application's shared RPC stack with in-memory repositories.
+     *
+     * @param maxCachedSeeds most tenants whose derivation nodes are held in memory at once
+     */
+    public TenantWalletRegistry(TenantSecretSource secretSource, int maxCachedSeeds) {
+        this(SolanaApplicationContext.getRpcExecutor(),
+                SolanaApplicationContext.getHedgedRpcExecutor(),
+                SolanaApplicationContext.getBlockhashCache(),
+                SolanaApplicationContext.getConfirmationTracker(),
+                SolanaApplicationContext.getFeeOracle(),
+                SolanaApplicationContext.getConfig().getPriorityFeePercentile(),
+                secretSource, maxCachedSeeds, tenantId -> new InMemoryDerivedAccountRepository());
+    }
+
+    /**
+     * @param feeOracle             source of recent prioritization fees, shared by every tenant
+     * @param priorityFeePercentile percentile of recent fees that tenant transfers bid, or 0 for none
+     * @param secretSource          source of each tenant's mnemonic
+     * @param maxCachedSeeds        most tenants whose derivation nodes are held in memory at once
+     * @param repositoryFactory     creates the account repository of a tenant on first use
+     */
+    public TenantWalletRegistry(RpcExecutor rpcExecutor, HedgedRpcExecutor readExecutor,
+                                RecentBlockhashCache blockhashCache, ConfirmationTracker confirmationTracker,
+                                FeeOracle feeOracle, int priorityFeePercentile,
+                                TenantSecretSource secretSource, int maxCachedSeeds,
+                                Function<String, DerivedAccountRepository> repositoryFactory) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.readExecutor = Objects.requireNonNull(readExecutor, "readExecutor must not be null");
+        this.blockhashCache = Objects.requireNonNull(blockhashCache, "blockhashCache must not be null");
+        this.confirmationTracker = Objects.requireNonNull(confirmationTracker, "confirmationTracker must not be null");
+        if (priorityFeePercentile < 0 || priorityFeePercentile > 100) {
+            throw new IllegalArgumentException("priorityFeePercentile must be between 0 and 100");
+        }
+        this.feeOracle = Objects.requireNonNull(feeOracle, "feeOracle must not be null");
+        this.priorityFeePercentile = priorityFeePercentile;
+        this.secretSource = Objects.requireNonNull(secretSource, "secretSource must not be null");
+        this.repositoryFactory = Objects.requireNonNull(repositoryFactory, "repositoryFactory must not be null");
+        this.seedCache = new SeedCache(maxCachedSeeds);
+    }
+
+    /**
+     * Wallet of a tenant, created on first use.
+     *
+     * @throws IllegalArgumentException when the secret source does not know the tenant
+     */
+    public SolanaWalletService wallet(String tenantId) {
+        Objects.requireNonNull(tenantId, "tenantId must not be null");
+        return tenants.computeIfAbsent(tenantId, this::createTenant).wallet();
+    }
+
+    /**
+     * Drop a tenant's wallet and zero its cached derivation node. Its repository is not touched.
+     *
+     * @return whether the tenant was loaded
+     */
+    public boolean remove(String tenantId) {
+        Tenant tenant = tenants.remove(tenantId);
+        if (tenant == null) {
+            return false;
+        }
+        tenant.derivationService().clearCachedSecrets();
+        return true;
+    }
+
+    /**
+     * @return number of tenants whose wallets have been created
+     */
+    public int tenantCount() {
+        return tenants.size();
+    }
+
+    public SeedCache getSeedCache() {
+        return seedCache;
+    }
+
+    private Tenant createTenant(String tenantId) {
+        DerivationService.validate(secretSource.mnemonicFor(tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tenant: " + tenantId)));
+        // The mnemonic is fetched again whenever the node has to be recomputed, never kept here.
+        DerivationService derivationService = new DerivationService(() -> secretSource.mnemonicFor(tenantId)
+                .orElseThrow(() -> new IllegalStateException("Secret of tenant " + tenantId + " is no longer available")),
+                "", seedCache);
+        SolanaWalletService wallet = new SolanajWalletService(rpcExecutor, readExecutor, blockhashCache,
+                confirmationTracker, derivationService, repositoryFactory.apply(tenantId), new DiscardingKeyStorage(),
+                AddressPartition.single(), feeOracle, priorityFeePercentile);
+        LOGGER.fine(() -> "Loaded wallet for tenant " + tenantId);
+        return new Tenant(wallet, derivationService);
+    }
+
+    private record Tenant(SolanaWalletService wallet, DerivationService derivationService) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.solana.rpc.token;
+
+import java.util.Arrays;
+
+/**
+ * Reads fields of SPL Token accounts and mints straight from the base64 text of an RPC response,
+ * without first decoding it into a byte array.
+ * <p>
+ * Token account layout: mint at 0, owner at 32, amount (u64, little endian) at 64. Mint layout:
+ * decimals (u8) at 44.
+ */
+final class TokenAccountData {
+
+    static final int MINT_OFFSET = 0;
+    static final int AMOUNT_OFFSET = 64;
+    static final int AMOUNT_BYTES = Long.BYTES;
+    static final int MINT_DECIMALS_OFFSET = 44;
+
+    private static final int[] SEXTETS = new int[128];
+
+    static {
+        Arrays.fill(SEXTETS, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            SEXTETS[alphabet.charAt(i)] = i;
+        }
+    }
+
+    private TokenAccountData() {
+    }
+
+    /**
+     * @return number of bytes encoded by {@code length} base64 characters
+     */
+    static int decodedLength(char[] text, int offset, int length) {
+        if (length % 4 != 0) {
+            throw new IllegalArgumentException("Base64 account data has a length of " + length);
+        }
+        int padding = 0;
+        if (length > 0 && text[offset + length - 1] == '=') {
+            padding++;
+            if (text[offset + length - 2] == '=') {
+                padding++;
+            }
+        }
+        return length / 4 * 3 - padding;
+    }
+
+    /**
+     * @param index position of the byte in the decoded data
+     * @return the decoded byte, as an unsigned value
+     */
+    static int byteAt(char[] text, int offset, int index) {
+        int quad = offset + index / 3 * 4;
+        int bits = sextet(text[quad]) << 18 | sextet(text[quad + 1]) << 12;
+        switch (index % 3) {
+            case 0:
+                return bits >>> 16;
+            case 1:
+                return (bits | sextet(text[quad + 2]) << 6) >>> 8 & 0xFF;
+            default:
+                return (sextet(text[quad + 2]) << 6 | sextet(text[quad + 3])) & 0xFF;
+        }
+    }
+
+    /**
+     * @return unsigned little-endian 64-bit integer starting at decoded byte {@code index}
+     */
+    static long u64At(char[] text, int offset, int index) {
+        long value = 0;
+        for (int i = AMOUNT_BYTES - 1; i >= 0; i--) {
+            value = value << 8 | byteAt(text, offset, index + i);
+        }
+        return value;
+    }
+
+    /**
+     * Copy {@code out.length} decoded bytes starting at decoded byte {@code index}.
+     */
+    static void copy(char[] text, int offset, int index, byte[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) byteAt(text, offset, index + i);
+        }
+    }
+
+    private static int sextet(char c) {
+        int value = c < SEXTETS.length ? SEXTETS[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid base64 character in account data: " + c);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,138 @@
+package com.solana.rpc.token;
+
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.programs.AssociatedTokenProgram;
+import org.p2p.solanaj.programs.TokenProgram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded least-recently-used cache of token balances per (owner, mint), shared by every
+ * {@link TokenBalanceService} that is handed the same cache.
+ * <p>
+ * A balance is served for {@code ttl} after it was read. The owner's associated token account
+ * address is kept with it after the balance expires, so refreshing a balance does not derive the
+ * address again. Mint decimals never change and are kept until the cache is discarded.
+ */
+public final class TokenBalanceCache {
+
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final Map<Key, Entry> entries;
+    private final Map<String, Integer> decimals = new ConcurrentHashMap<>();
+
+    public TokenBalanceCache() {
+        this(DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param ttl        how long a balance is served after it was read
+     * @param maxEntries most (owner, mint) pairs held at once; must be positive
+     */
+    public TokenBalanceCache(Duration ttl, int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    TokenBalanceCache(Duration ttl, int maxEntries, LongSupplier nanoClock) {
+        Objects.requireNonNull(ttl, "ttl must not be null");
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be negative");
+        }
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock must not be null");
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > TokenBalanceCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the balance read for the pair within the last {@code ttl}, if any
+     */
+    public OptionalLong getAmount(String owner, String mint) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(new Key(owner, mint));
+        }
+        if (entry == null || !entry.hasAmount() || nanoClock.getAsLong() - entry.readAtNanos() >= ttlNanos) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(entry.amount());
+    }
+
+    /**
+     * @return number of (owner, mint) pairs currently held
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop every balance of {@code owner}, e.g. after a transfer out of one of its token accounts.
+     */
+    public synchronized void invalidate(String owner) {
+        entries.keySet().removeIf(key -> key.owner().equals(owner));
+    }
+
+    /**
+     * @return base58 address of the owner's associated token account for the mint under the SPL
+     * Token program
+     */
+    String associatedTokenAccount(String owner, String mint) {
+        Key key = new Key(owner, mint);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                return entry.tokenAccount();
+            }
+        }
+        String address = PublicKey.findProgramAddress(List.of(
+                new PublicKey(owner).toByteArray(),
+                TokenProgram.PROGRAM_ID.toByteArray(),
+                new PublicKey(mint).toByteArray()), AssociatedTokenProgram.PROGRAM_ID).getAddress().toBase58();
+        synchronized (this) {
+            entries.putIfAbsent(key, new Entry(address, false, 0, 0));
+        }
+        return address;
+    }
+
+    void putAmount(String owner, String mint, String tokenAccount, long amount) {
+        Entry entry = new Entry(tokenAccount, true, amount, nanoClock.getAsLong());
+        synchronized (this) {
+            entries.put(new Key(owner, mint), entry);
+        }
+    }
+
+    OptionalInt getDecimals(String mint) {
+        Integer value = decimals.get(mint);
+        return value == null ? OptionalInt.empty() : OptionalInt.of(value);
+    }
+
+    void putDecimals(String mint, int value) {
+        decimals.put(mint, value);
+    }
+
+    private record Key(String owner, String mint) {
+    }
+
+    private record Entry(String tokenAccount, boolean hasAmount, long amount, long readAtNanos) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.solana.rpc.token;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.solana.rpc.config.SolanaApplicationContext;
+import com.solana.rpc.service.DerivedAccountRepository;
+import com.solana.rpc.token.TokenResultDecoders.OwnedTokenAccount;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.ParamsWriter;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import com.solana.rpc.transport.TransportScope;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.programs.TokenProgram;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * SPL Token balances of derived addresses, read from their associated token accounts.
+ * <p>
+ * For a known set of mints, the associated token account of every (owner, mint) pair is derived
+ * locally and read with {@code getMultipleAccounts}, 100 accounts per call, with account data
+ * sliced on the server to the 8-byte amount. A report over {@code n} owners and {@code m} mints
+ * therefore costs at most {@code ceil(n * m / 100)} calls, plus one per 100 mints whose decimals
+ * are not yet known; pairs read within the cache's TTL cost nothing. To discover which mints a
+ * single owner holds, {@code getTokenAccountsByOwner} is used instead.
+ * <p>
+ * Only associated token accounts of the SPL Token program are counted. Tokens held in other token
+ * accounts of the same owner, or under the Token-2022 program, are not.
+ */
+public class TokenBalanceService {
+
+    private static final Logger LOGGER = Logger.getLogger(TokenBalanceService.class.getName());
+    private static final int ACCOUNTS_PER_REQUEST = JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST;
+
+    private final RpcExecutor rpcExecutor;
+    private final JsonRpcTransport transport;
+    private final DerivedAccountRepository repository;
+    private final TokenBalanceCache cache;
+
+    /**
+     * Service sharing the application context's RPC stack and token balance cache.
+     */
+    public TokenBalanceService(DerivedAccountRepository repository) {
+        this(SolanaApplicationContext.getRpcExecutor(), SolanaApplicationContext.getJsonRpcTransport(), repository,
+                SolanaApplicationContext.getTokenBalanceCache());
+    }
+
+    /**
+     * @param rpcExecutor executor for all RPC calls
+     * @param transport   streaming transport used for account reads
+     * @param repository  derived addresses covered by {@link #getRepositoryTokenBalances(List)}
+     * @param cache       balances and associated token accounts, possibly shared with other services
+     */
+    public TokenBalanceService(RpcExecutor rpcExecutor, JsonRpcTransport transport,
+                               DerivedAccountRepository repository, TokenBalanceCache cache) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.repository = Objects.requireNonNull(repository, "repository must not be null");
+        this.cache = Objects.requireNonNull(cache, "cache must not be null");
+    }
+
+    /**
+     * Balances of every mint the owner holds in an associated token account, read with one
+     * {@code getTokenAccountsByOwner} call. The result refreshes the cache.
+     *
+     * @param owner base58-encoded owner public key
+     */
+    public TokenPortfolio getTokenBalances(String owner) {
+        parsePublicKey(owner, "owner");
+        try {
+            List<OwnedTokenAccount> accounts = rpcExecutor.execute(api -> transport.call("getTokenAccountsByOwner",
+                    generator -> {
+                        generator.writeString(owner);
+                        generator.writeStartObject();
+                        generator.writeStringField("programId", TokenProgram.PROGRAM_ID.toBase58());
+                        generator.writeEndObject();
+                        writeAccountConfig(generator, TokenAccountData.MINT_OFFSET,
+                                TokenAccountData.AMOUNT_OFFSET + TokenAccountData.AMOUNT_BYTES);
+                    }, TokenResultDecoders.ownedAccounts()));
+
+            Map<String, Long> amounts = new LinkedHashMap<>();
+            for (OwnedTokenAccount account : accounts) {
+                if (account.address().equals(cache.associatedTokenAccount(owner, account.mint()))) {
+                    amounts.put(account.mint(), account.amount());
+                    cache.putAmount(owner, account.mint(), account.address(), account.amount());
+                }
+            }
+            List<String> mints = new ArrayList<>(amounts.keySet());
+            int[] calls = {1};
+            int[] decimals = resolveDecimals(mints, calls);
+            long[] values = amounts.values().stream().mapToLong(Long::longValue).toArray();
+            return new TokenPortfolio(List.of(owner), mints, values, decimals, calls[0]);
+        } catch (RpcException e) {
+            LOGGER.log(Level.SEVERE, "Token account listing failed", e);
+            throw new IllegalStateException("Failed to fetch token accounts from Solana RPC", e);
+        }
+    }
+
+    /**
+     * Balances of each owner in each mint. Pairs cached within the TTL are not read again.
+     *
+     * @param owners base58-encoded owner public keys
+     * @param mints  base58-encoded mint addresses
+     * @throws IllegalArgumentException when a key is malformed or a mint does not exist
+     */
+    public TokenPortfolio getTokenBalances(List<String> owners, List<String> mints) {
+        Objects.requireNonNull(owners, "owners must not be null");
+        Objects.requireNonNull(mints, "mints must not be null");
+        List<String> distinctOwners = distinct(owners, "owner");
+        List<String> distinctMints = distinct(mints, "mint");
+        try {
+            return read(distinctOwners, distinctMints);
+        } catch (RpcException e) {
+            LOGGER.log(Level.SEVERE, "Token balance read failed", e);
+            throw new IllegalStateException("Failed to fetch token balances from Solana RPC", e);
+        }
+    }
+
+    /**
+     * Balances of every address in the repository in each mint. Reads run in the
+     * {@link RpcLane#BULK} lane.
+     *
+     * @param mints base58-encoded mint addresses
+     */
+    public TokenPortfolio getRepositoryTokenBalances(List<String> mints) {
+        List<String> owners = new ArrayList<>();
+        repository.forEachAccount(account -> owners.add(account.getPublicKey()));
+        try (TransportScope ignored = RpcLane.BULK.enter()) {
+            return getTokenBalances(owners, mints);
+        }
+    }
+
+    public TokenBalanceCache getCache() {
+        return cache;
+    }
+
+    private TokenPortfolio read(List<String> owners, List<String> mints) throws RpcException {
+        int[] calls = {0};
+        int[] decimals = resolveDecimals(mints, calls);
+
+        long[] amounts = new long[owners.size() * mints.size()];
+        List<Integer> pendingCells = new ArrayList<>();
+        List<String> pendingAccounts = new ArrayList<>();
+        for (int row = 0; row < owners.size(); row++) {
+            for (int column = 0; column < mints.size(); column++) {
+                int cell = row * mints.size() + column;
+                OptionalLong cached = cache.getAmount(owners.get(row), mints.get(column));
+                if (cached.isPresent()) {
+                    amounts[cell] = cached.getAsLong();
+                } else {
+                    pendingCells.add(cell);
+                    pendingAccounts.add(cache.associatedTokenAccount(owners.get(row), mints.get(column)));
+                }
+            }
+        }
+
+        for (int from = 0; from < pendingAccounts.size(); from += ACCOUNTS_PER_REQUEST) {
+            List<String> chunk = pendingAccounts.subList(from,
+                    Math.min(pendingAccounts.size(), from + ACCOUNTS_PER_REQUEST));
+            long[] chunkAmounts = rpcExecutor.execute(api -> transport.call("getMultipleAccounts",
+                    multipleAccounts(chunk, TokenAccountData.AMOUNT_OFFSET, TokenAccountData.AMOUNT_BYTES),
+                    TokenResultDecoders.amounts(chunk.size())));
+            calls[0]++;
+            for (int i = 0; i < chunkAmounts.length; i++) {
+                int cell = pendingCells.get(from + i);
+                amounts[cell] = chunkAmounts[i];
+                cache.putAmount(owners.get(cell / mints.size()), mints.get(cell % mints.size()), chunk.get(i),
+                        chunkAmounts[i]);
+            }
+        }
+        return new TokenPortfolio(owners, mints, amounts, decimals, calls[0]);
+    }
+
+    private int[] resolveDecimals(List<String> mints, int[] calls) throws RpcException {
+        int[] decimals = new int[mints.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < mints.size(); i++) {
+            OptionalInt cached = cache.getDecimals(mints.get(i));
+            if (cached.isPresent()) {
+                decimals[i] = cached.getAsInt();
+            } else {
+                pending.add(i);
+            }
+        }
+        for (int from = 0; from < pending.size(); from += ACCOUNTS_PER_REQUEST) {
+            List<String> chunk = pending.subList(from, Math.min(pending.size(), from + ACCOUNTS_PER_REQUEST))
+                    .stream().map(mints::get).toList();
+            int[] chunkDecimals = rpcExecutor.execute(api -> transport.call("getMultipleAccounts",
+                    multipleAccounts(chunk, TokenAccountData.MINT_DECIMALS_OFFSET, 1),
+                    TokenResultDecoders.decimals(chunk.size())));
+            calls[0]++;
+            for (int i = 0; i < chunkDecimals.length; i++) {
+                if (chunkDecimals[i] == TokenResultDecoders.MISSING_MINT) {
+                    throw new IllegalArgumentException("Mint does not exist: " + chunk.get(i));
+                }
+                decimals[pending.get(from + i)] = chunkDecimals[i];
+                cache.putDecimals(chunk.get(i), chunkDecimals[i]);
+            }
+        }
+        return decimals;
+    }
+
+    private static ParamsWriter multipleAccounts(List<String> addresses, int offset, int length) {
+        return generator -> {
+            generator.writeStartArray();
+            for (String address : addresses) {
+                generator.writeString(address);
+            }
+            generator.writeEndArray();
+            writeAccountConfig(generator, offset, length);
+        };
+    }
+
+    private static void writeAccountConfig(JsonGenerator generator, int offset, int length) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("encoding", "base64");
+        generator.writeObjectFieldStart("dataSlice");
+        generator.writeNumberField("offset", offset);
+        generator.writeNumberField("length", length);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static List<String> distinct(List<String> keys, String kind) {
+        LinkedHashSet<String> distinct = new LinkedHashSet<>(keys);
+        for (String key : distinct) {
+            parsePublicKey(key, kind);
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    private static void parsePublicKey(String key, String kind) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Token " + kind + " must not be null or blank");
+        }
+        try {
+            new PublicKey(key);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid token " + kind + ": " + key, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.solana.rpc.token;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token balances of a set of owners in a set of mints. Amounts are raw SPL Token amounts: unsigned
+ * 64-bit integers in the mint's smallest unit.
+ */
+public final class TokenPortfolio {
+
+    private final List<String> owners;
+    private final List<String> mints;
+    private final Map<String, Integer> ownerPositions;
+    private final Map<String, Integer> mintPositions;
+    private final long[] amounts;
+    private final int[] decimals;
+    private final int rpcCalls;
+
+    TokenPortfolio(List<String> owners, List<String> mints, long[] amounts, int[] decimals, int rpcCalls) {
+        this.owners = List.copyOf(owners);
+        this.mints = List.copyOf(mints);
+        this.ownerPositions = positions(this.owners);
+        this.mintPositions = positions(this.mints);
+        this.amounts = amounts;
+        this.decimals = decimals;
+        this.rpcCalls = rpcCalls;
+    }
+
+    public List<String> getOwners() {
+        return owners;
+    }
+
+    public List<String> getMints() {
+        return mints;
+    }
+
+    /**
+     * @return raw amount held by the owner, as an unsigned value
+     * @throws IllegalArgumentException when the owner or mint is not part of this portfolio
+     */
+    public long getAmount(String owner, String mint) {
+        return amounts[position(ownerPositions, owner, "owner") * mints.size() + position(mintPositions, mint, "mint")];
+    }
+
+    /**
+     * @return amount held by the owner in whole tokens
+     */
+    public BigDecimal getUiAmount(String owner, String mint) {
+        return toUiAmount(new BigInteger(Long.toUnsignedString(getAmount(owner, mint))), mint);
+    }
+
+    /**
+     * @return amount held by all owners together in whole tokens
+     */
+    public BigDecimal getUiTotal(String mint) {
+        int column = position(mintPositions, mint, "mint");
+        BigInteger total = BigInteger.ZERO;
+        for (int row = 0; row < owners.size(); row++) {
+            long amount = amounts[row * mints.size() + column];
+            if (amount != 0) {
+                total = total.add(new BigInteger(Long.toUnsignedString(amount)));
+            }
+        }
+        return toUiAmount(total, mint);
+    }
+
+    public int getDecimals(String mint) {
+        return decimals[position(mintPositions, mint, "mint")];
+    }
+
+    /**
+     * @return RPC calls made to assemble this portfolio; balances served from the cache cost none
+     */
+    public int getRpcCalls() {
+        return rpcCalls;
+    }
+
+    private BigDecimal toUiAmount(BigInteger amount, String mint) {
+        return new BigDecimal(amount, getDecimals(mint));
+    }
+
+    private static Map<String, Integer> positions(List<String> values) {
+        Map<String, Integer> positions = new HashMap<>(values.size() * 2);
+        for (int i = 0; i < values.size(); i++) {
+            positions.put(values.get(i), i);
+        }
+        return positions;
+    }
+
+    private static int position(Map<String, Integer> positions, String value, String kind) {
+        Integer position = positions.get(value);
+        if (position == null) {
+            throw new IllegalArgumentException("Unknown " + kind + ": " + value);
+        }
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenPortfolio{" +
+                "owners=" + owners.size() +
+                ", mints=" + mints +
+                ", rpcCalls=" + rpcCalls +
+                '}';
+    }
+}
@@ -0,0 +1,205 @@
+package com.solana.rpc.token;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.solana.rpc.transport.ResultDecoder;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.utils.Base58;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoders for token RPC results requested with base64 encoding and a data slice. Account data is
+ * read from the parser's character buffer in place.
+ */
+final class TokenResultDecoders {
+
+    /**
+     * Marker for mints that do not exist on chain.
+     */
+    static final int MISSING_MINT = -1;
+
+    private TokenResultDecoders() {
+    }
+
+    /**
+     * Decoder for {@code getMultipleAccounts} over token accounts sliced to their amount. A token
+     * account that does not exist holds nothing and reads as zero.
+     */
+    static ResultDecoder<long[]> amounts(int expectedAccounts) {
+        return parser -> {
+            long[] amounts = new long[expectedAccounts];
+            int[] position = {0};
+            readValueArray(parser, expectedAccounts, () -> position[0]++, (data, offset, length) -> {
+                requireDecodedLength(parser, data, offset, length, TokenAccountData.AMOUNT_BYTES);
+                amounts[position[0]] = TokenAccountData.u64At(data, offset, 0);
+            });
+            return amounts;
+        };
+    }
+
+    /**
+     * Decoder for {@code getMultipleAccounts} over mints sliced to their decimals.
+     */
+    static ResultDecoder<int[]> decimals(int expectedMints) {
+        return parser -> {
+            int[] decimals = new int[expectedMints];
+            Arrays.fill(decimals, MISSING_MINT);
+            int[] position = {0};
+            readValueArray(parser, expectedMints, () -> position[0]++, (data, offset, length) -> {
+                requireDecodedLength(parser, data, offset, length, 1);
+                decimals[position[0]] = TokenAccountData.byteAt(data, offset, 0);
+            });
+            return decimals;
+        };
+    }
+
+    /**
+     * Decoder for {@code getTokenAccountsByOwner} with data sliced to mint, owner and amount.
+     */
+    static ResultDecoder<List<OwnedTokenAccount>> ownedAccounts() {
+        return parser -> {
+            expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+            List<OwnedTokenAccount> accounts = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("value".equals(field)) {
+                    expect(parser, token, JsonToken.START_ARRAY);
+                    accounts = new ArrayList<>();
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        expect(parser, token, JsonToken.START_OBJECT);
+                        accounts.add(readOwnedAccount(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (accounts == null) {
+                throw new JsonParseException(parser, "getTokenAccountsByOwner result has no value array");
+            }
+            return accounts;
+        };
+    }
+
+    private static OwnedTokenAccount readOwnedAccount(JsonParser parser) throws IOException {
+        String address = null;
+        String[] mint = {null};
+        long[] amount = {0};
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("pubkey".equals(field)) {
+                address = parser.getText();
+            } else if ("account".equals(field)) {
+                expect(parser, token, JsonToken.START_OBJECT);
+                readAccount(parser, (data, offset, length) -> {
+                    requireDecodedLength(parser, data, offset, length,
+                            TokenAccountData.AMOUNT_OFFSET + TokenAccountData.AMOUNT_BYTES);
+                    byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+                    TokenAccountData.copy(data, offset, TokenAccountData.MINT_OFFSET, key);
+                    mint[0] = Base58.encode(key);
+                    amount[0] = TokenAccountData.u64At(data, offset, TokenAccountData.AMOUNT_OFFSET);
+                });
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (address == null || mint[0] == null) {
+            throw new JsonParseException(parser, "Token account without pubkey or data");
+        }
+        return new OwnedTokenAccount(address, mint[0], amount[0]);
+    }
+
+    /**
+     * Walk a {@code {context, value: [account | null, ...]}} result, handing each account's data to
+     * {@code consumer} and advancing {@code next} after every entry.
+     */
+    private static void readValueArray(JsonParser parser, int expected, Runnable next, DataConsumer consumer)
+            throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        int count = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("value".equals(field)) {
+                expect(parser, token, JsonToken.START_ARRAY);
+                count = 0;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (count == expected) {
+                        throw new JsonParseException(parser, "getMultipleAccounts returned more than "
+                                + expected + " accounts");
+                    }
+                    if (token != JsonToken.VALUE_NULL) {
+                        expect(parser, token, JsonToken.START_OBJECT);
+                        readAccount(parser, consumer);
+                    }
+                    next.run();
+                    count++;
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (count != expected) {
+            throw new JsonParseException(parser, "getMultipleAccounts returned " + Math.max(count, 0)
+                    + " accounts, expected " + expected);
+        }
+    }
+
+    private static void readAccount(JsonParser parser, DataConsumer consumer) throws IOException {
+        boolean sawData = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("data".equals(field)) {
+                expect(parser, token, JsonToken.START_ARRAY);
+                expect(parser, parser.nextToken(), JsonToken.VALUE_STRING);
+                try {
+                    consumer.accept(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException(parser, e.getMessage());
+                }
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+                sawData = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!sawData) {
+            throw new JsonParseException(parser, "Account without data");
+        }
+    }
+
+    private static void requireDecodedLength(JsonParser parser, char[] data, int offset, int length, int expected)
+            throws JsonParseException {
+        int actual = TokenAccountData.decodedLength(data, offset, length);
+        if (actual < expected) {
+            throw new JsonParseException(parser, "Account data has " + actual + " bytes, expected " + expected);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+
+    @FunctionalInterface
+    private interface DataConsumer {
+
+        void accept(char[] data, int offset, int length) throws IOException;
+    }
+
+    /**
+     * Token account returned for an owner, with its mint and raw amount.
+     */
+    record OwnedTokenAccount(String address, String mint, long amount) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.solana.rpc.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One timed operation within a trace. Spans are opened by {@link Tracer} and recorded when closed;
+ * a span opened with {@link Tracer#startTrace} or {@link Tracer#span} is current on its thread
+ * until then, so it has to be closed on that thread, normally with try-with-resources.
+ * <p>
+ * Unsampled work gets {@link #NOOP}, whose methods do nothing.
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * Span handed out when nothing is being recorded.
+     */
+    public static final Span NOOP = new Span();
+
+    private final Tracer tracer;
+    private final long traceId;
+    private final long spanId;
+    private final long parentId;
+    private final String name;
+    private final long startNanos;
+    private final Span previous;
+    private final boolean current;
+    private List<String> attributes;
+    private boolean closed;
+
+    private Span() {
+        this(null, 0, 0, 0, null, 0, null, false);
+    }
+
+    private Span(Tracer tracer, long traceId, long spanId, long parentId, String name, long startNanos,
+                 Span previous, boolean current) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    static Span startRoot(Tracer tracer, String name) {
+        Span span = new Span(tracer, newId(), newId(), 0, name, System.nanoTime(), Tracer.current(), true);
+        Tracer.makeCurrent(span);
+        return span;
+    }
+
+    Span startChild(String name) {
+        if (tracer == null) {
+            return NOOP;
+        }
+        Span span = new Span(tracer, traceId, newId(), spanId, name, System.nanoTime(), Tracer.current(), true);
+        Tracer.makeCurrent(span);
+        return span;
+    }
+
+    /**
+     * Record an already finished child without making it current, for phases reported by callbacks
+     * such as OkHttp events.
+     *
+     * @param name       operation name
+     * @param startNanos {@link System#nanoTime()} when the phase began
+     * @param endNanos   {@link System#nanoTime()} when it ended
+     */
+    public void recordChild(String name, long startNanos, long endNanos) {
+        if (tracer == null) {
+            return;
+        }
+        tracer.record(new SpanData(traceId, newId(), spanId, name, tracer.relativeNanos(startNanos),
+                Math.max(0, endNanos - startNanos), Thread.currentThread().getName(), Map.of()));
+    }
+
+    /**
+     * Attach a key/value pair to the span, e.g. the RPC method.
+     *
+     * @return this span
+     */
+    public Span setAttribute(String key, String value) {
+        if (tracer == null) {
+            return this;
+        }
+        if (attributes == null) {
+            attributes = new ArrayList<>(4);
+        }
+        attributes.add(key);
+        attributes.add(value);
+        return this;
+    }
+
+    /**
+     * Attach a numeric attribute; the value is only formatted when the span is recorded.
+     *
+     * @return this span
+     */
+    public Span setAttribute(String key, long value) {
+        return tracer == null ? this : setAttribute(key, Long.toString(value));
+    }
+
+    /**
+     * @return whether the span is recorded; callers can skip building expensive attributes otherwise
+     */
+    public boolean isRecording() {
+        return tracer != null;
+    }
+
+    @Override
+    public void close() {
+        if (tracer == null || closed) {
+            return;
+        }
+        closed = true;
+        long endNanos = System.nanoTime();
+        if (current) {
+            Tracer.makeCurrent(previous);
+        }
+        tracer.record(new SpanData(traceId, spanId, parentId, name, tracer.relativeNanos(startNanos),
+                endNanos - startNanos, Thread.currentThread().getName(), attributeMap()));
+        if (parentId == 0) {
+            Tracer.traceFinished();
+        }
+    }
+
+    private Map<String, String> attributeMap() {
+        if (attributes == null) {
+            return Map.of();
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < attributes.size(); i += 2) {
+            map.put(attributes.get(i), attributes.get(i + 1));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+package com.solana.rpc.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span as kept by the {@link Tracer}'s ring buffer.
+ *
+ * @param traceId        identifier shared by every span of the trace
+ * @param spanId         identifier of this span
+ * @param parentId       identifier of the parent span, or 0 for the root
+ * @param name           operation name
+ * @param startNanos     start, in nanoseconds since the tracer was created
+ * @param durationNanos  duration in nanoseconds
+ * @param thread         name of the thread the span ended on
+ * @param attributes     key/value pairs attached while the span was open
+ */
+public record SpanData(long traceId, long spanId, long parentId, String name, long startNanos,
+                       long durationNanos, String thread, Map<String, String> attributes) {
+
+    public boolean isRoot() {
+        return parentId == 0;
+    }
+}
@@ -0,0 +1,115 @@
+package com.solana.rpc.tracing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writers for {@link Tracer#exportJson} and {@link Tracer#exportChromeTrace}.
+ */
+final class SpanExporter {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private SpanExporter() {
+    }
+
+    static void writeJson(List<SpanData> spans, long originEpochMicros, OutputStream out) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            for (SpanData span : spans) {
+                generator.writeStartObject();
+                generator.writeStringField("traceId", hex(span.traceId()));
+                generator.writeStringField("spanId", hex(span.spanId()));
+                if (!span.isRoot()) {
+                    generator.writeStringField("parentId", hex(span.parentId()));
+                }
+                generator.writeStringField("name", span.name());
+                generator.writeNumberField("startEpochMicros", originEpochMicros + span.startNanos() / 1_000);
+                generator.writeNumberField("durationNanos", span.durationNanos());
+                generator.writeStringField("thread", span.thread());
+                writeAttributes(generator, span.attributes());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        out.flush();
+    }
+
+    /**
+     * Complete ({@code "ph":"X"}) events, one row per thread, with trace and span ids in {@code args}.
+     */
+    static void writeChromeTrace(List<SpanData> spans, OutputStream out) throws IOException {
+        Map<String, Integer> threadIds = new HashMap<>();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("traceEvents");
+            for (SpanData span : spans) {
+                int tid = threadIds.computeIfAbsent(span.thread(), thread -> threadIds.size() + 1);
+                generator.writeStartObject();
+                generator.writeStringField("name", span.name());
+                generator.writeStringField("cat", category(span.name()));
+                generator.writeStringField("ph", "X");
+                generator.writeNumberField("ts", span.startNanos() / 1_000.0);
+                generator.writeNumberField("dur", span.durationNanos() / 1_000.0);
+                generator.writeNumberField("pid", 1);
+                generator.writeNumberField("tid", tid);
+                generator.writeObjectFieldStart("args");
+                generator.writeStringField("traceId", hex(span.traceId()));
+                generator.writeStringField("spanId", hex(span.spanId()));
+                if (!span.isRoot()) {
+                    generator.writeStringField("parentId", hex(span.parentId()));
+                }
+                for (Map.Entry<String, String> attribute : span.attributes().entrySet()) {
+                    generator.writeStringField(attribute.getKey(), attribute.getValue());
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            for (Map.Entry<String, Integer> thread : threadIds.entrySet()) {
+                generator.writeStartObject();
+                generator.writeStringField("name", "thread_name");
+                generator.writeStringField("ph", "M");
+                generator.writeNumberField("pid", 1);
+                generator.writeNumberField("tid", thread.getValue());
+                generator.writeObjectFieldStart("args");
+                generator.writeStringField("name", thread.getKey());
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeStringField("displayTimeUnit", "ms");
+            generator.writeEndObject();
+        }
+        out.flush();
+    }
+
+    private static void writeAttributes(JsonGenerator generator, Map<String, String> attributes) throws IOException {
+        if (attributes.isEmpty()) {
+            return;
+        }
+        generator.writeObjectFieldStart("attributes");
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            generator.writeStringField(attribute.getKey(), attribute.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static String category(String name) {
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    private static String hex(long id) {
+        String digits = Long.toHexString(id);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,54 @@
+package com.solana.rpc.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size buffer of the most recent finished spans. Recording claims a slot with one atomic
+ * increment and overwrites whatever it held, so writers never block each other or a reader.
+ */
+final class SpanRingBuffer {
+
+    private final AtomicReferenceArray<SpanData> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final int mask;
+
+    SpanRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    void record(SpanData span) {
+        slots.lazySet((int) (sequence.getAndIncrement() & mask), span);
+    }
+
+    /**
+     * @return buffered spans ordered by start time; spans recorded during the copy may or may not appear
+     */
+    List<SpanData> snapshot() {
+        List<SpanData> spans = new ArrayList<>((int) Math.min(slots.length(), sequence.get()));
+        for (int i = 0; i < slots.length(); i++) {
+            SpanData span = slots.get(i);
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        spans.sort(Comparator.comparingLong(SpanData::startNanos));
+        return spans;
+    }
+
+    long getOverwritten() {
+        return Math.max(0, sequence.get() - slots.length());
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
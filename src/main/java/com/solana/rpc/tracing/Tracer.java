@@ -0,0 +1,183 @@
+package com.solana.rpc.tracing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sampled, span-based tracing for following one wallet operation down to the HTTP exchanges it
+ * causes.
+ * <p>
+ * A trace starts at an entry point with {@link #startTrace(String)}; whether it is recorded is
+ * decided once, there, by the sample rate. Lower layers open child spans with the static
+ * {@link #span(String)}, which attaches to the span current on the calling thread and returns the
+ * shared {@link Span#NOOP} when there is none. Finished spans go to a fixed-size lock-free ring
+ * buffer that keeps the most recent ones and can be exported as JSON or in Chrome trace format.
+ * <p>
+ * While no sampled trace is running anywhere, {@link #span(String)} costs one volatile read, so the
+ * instrumentation can stay in hot paths.
+ */
+public final class Tracer {
+
+    public static final int DEFAULT_CAPACITY = 65_536;
+
+    private static final AtomicInteger ACTIVE_TRACES = new AtomicInteger();
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static volatile Tracer global = disabled();
+
+    private final double sampleRate;
+    private final SpanRingBuffer buffer;
+    private final long originNanos = System.nanoTime();
+    private final long originEpochMicros = System.currentTimeMillis() * 1_000;
+
+    /**
+     * @param sampleRate fraction of traces to record, from 0 (none) to 1 (all)
+     * @param capacity   number of finished spans kept; rounded up to a power of two
+     */
+    public Tracer(double sampleRate, int capacity) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+        }
+        this.sampleRate = sampleRate;
+        this.buffer = new SpanRingBuffer(capacity);
+    }
+
+    /**
+     * @return tracer that never samples and keeps a minimal buffer
+     */
+    public static Tracer disabled() {
+        return new Tracer(0, 1);
+    }
+
+    /**
+     * @return tracer used by the wallet service entry points
+     */
+    public static Tracer global() {
+        return global;
+    }
+
+    public static void setGlobal(Tracer tracer) {
+        if (tracer == null) {
+            throw new IllegalArgumentException("tracer must not be null");
+        }
+        global = tracer;
+    }
+
+    /**
+     * Start a trace at an entry point. When a span is already current on this thread the new span
+     * joins that trace as a child instead; otherwise the trace is sampled at this tracer's rate.
+     * The returned span becomes current until it is closed, which must happen on the same thread.
+     *
+     * @param name operation name, e.g. {@code wallet.getBalance}
+     * @return recording span, or {@link Span#NOOP} when not sampled
+     */
+    public Span startTrace(String name) {
+        if (sampleRate <= 0) {
+            return Span.NOOP;
+        }
+        Span parent = CURRENT.get();
+        if (parent != null) {
+            return parent.startChild(name);
+        }
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return Span.NOOP;
+        }
+        ACTIVE_TRACES.incrementAndGet();
+        return Span.startRoot(this, name);
+    }
+
+    /**
+     * Open a child of the span current on this thread. It becomes current until it is closed.
+     *
+     * @param name operation name, e.g. {@code rpc.attempt}
+     * @return recording span, or {@link Span#NOOP} when no sampled trace is running on this thread
+     */
+    public static Span span(String name) {
+        if (ACTIVE_TRACES.get() == 0) {
+            return Span.NOOP;
+        }
+        Span parent = CURRENT.get();
+        return parent == null ? Span.NOOP : parent.startChild(name);
+    }
+
+    /**
+     * Open a span on this thread as a child of a span captured on another thread, for work handed
+     * off to a pool.
+     *
+     * @param parent span returned by {@link #currentSpan()} on the submitting thread, or {@code null}
+     * @param name   operation name
+     * @return recording span, or {@link Span#NOOP} when {@code parent} is {@code null} or a no-op
+     */
+    public static Span childOf(Span parent, String name) {
+        return parent == null ? Span.NOOP : parent.startChild(name);
+    }
+
+    /**
+     * @return span current on this thread, or {@code null} when no sampled trace is running here
+     */
+    public static Span currentSpan() {
+        return ACTIVE_TRACES.get() == 0 ? null : CURRENT.get();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return finished spans still held by the ring buffer, oldest first
+     */
+    public List<SpanData> getFinishedSpans() {
+        return buffer.snapshot();
+    }
+
+    /**
+     * @return number of finished spans pushed out of the ring buffer by newer ones
+     */
+    public long getOverwrittenSpans() {
+        return buffer.getOverwritten();
+    }
+
+    /**
+     * Write the buffered spans as a JSON array with wall-clock start times in microseconds.
+     *
+     * @param out target stream; it is flushed but not closed
+     */
+    public void exportJson(OutputStream out) throws IOException {
+        SpanExporter.writeJson(getFinishedSpans(), originEpochMicros, out);
+    }
+
+    /**
+     * Write the buffered spans in Chrome trace event format, for {@code chrome://tracing} or Perfetto.
+     *
+     * @param out target stream; it is flushed but not closed
+     */
+    public void exportChromeTrace(OutputStream out) throws IOException {
+        SpanExporter.writeChromeTrace(getFinishedSpans(), out);
+    }
+
+    static Span current() {
+        return CURRENT.get();
+    }
+
+    static void makeCurrent(Span span) {
+        if (span == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span);
+        }
+    }
+
+    static void traceFinished() {
+        ACTIVE_TRACES.decrementAndGet();
+    }
+
+    long relativeNanos(long nanoTime) {
+        return nanoTime - originNanos;
+    }
+
+    void record(SpanData span) {
+        buffer.record(span);
+    }
+}
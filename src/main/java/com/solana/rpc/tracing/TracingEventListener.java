@@ -0,0 +1,116 @@
+package com.solana.rpc.tracing;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * OkHttp listener that splits an HTTP exchange made inside a sampled trace into child spans of the
+ * span current when the call was created: {@code http.dns}, {@code http.connect} with
+ * {@code http.tls} inside it, {@code http.request}, {@code http.server} (request sent until the
+ * first response byte, i.e. time spent by the RPC node) and {@code http.response}.
+ * <p>
+ * Calls made outside a sampled trace get {@link EventListener#NONE}.
+ */
+public final class TracingEventListener extends EventListener {
+
+    /**
+     * Factory to install with {@code OkHttpClient.Builder#eventListenerFactory}.
+     */
+    public static final EventListener.Factory FACTORY = call -> {
+        Span parent = Tracer.currentSpan();
+        return parent == null ? EventListener.NONE : new TracingEventListener(parent);
+    };
+
+    private final Span parent;
+    private long dnsStart;
+    private long connectStart;
+    private long tlsStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseStart;
+
+    private TracingEventListener(Span parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        parent.recordChild("http.dns", dnsStart, System.nanoTime());
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        parent.recordChild("http.tls", tlsStart, System.nanoTime());
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        parent.recordChild("http.connect", connectStart, System.nanoTime());
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        parent.recordChild("http.connect", connectStart, System.nanoTime());
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseStart = System.nanoTime();
+        parent.recordChild("http.request", requestStart, requestEnd);
+        parent.recordChild("http.server", requestEnd, responseStart);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        parent.recordChild("http.response", responseStart, System.nanoTime());
+    }
+
+    @Override
+    public void responseFailed(Call call, IOException ioe) {
+        if (responseStart != 0) {
+            parent.recordChild("http.response", responseStart, System.nanoTime());
+        } else if (requestEnd != 0) {
+            parent.recordChild("http.server", requestEnd, System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.solana.rpc.transaction;
+
+import java.util.Locale;
+
+/**
+ * How far the cluster has progressed with a transaction, from optimistic to irreversible.
+ */
+public enum CommitmentLevel {
+
+    PROCESSED,
+    CONFIRMED,
+    FINALIZED;
+
+    /**
+     * @return whether a transaction at this level satisfies a caller waiting for {@code required}
+     */
+    public boolean satisfies(CommitmentLevel required) {
+        return compareTo(required) >= 0;
+    }
+
+    /**
+     * Parse the {@code confirmationStatus} reported by {@code getSignatureStatuses}.
+     *
+     * @param status status string such as {@code "confirmed"}
+     * @return matching level
+     */
+    public static CommitmentLevel fromStatus(String status) {
+        try {
+            return valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown confirmation status: " + status, e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.transport.Deadline;
+import com.solana.rpc.transport.RpcExecutor;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tracks submitted transactions until they reach the commitment callers asked for.
+ * <p>
+ * All pending signatures share one poll loop on a single scheduler thread: each round reads the
+ * block height once and then the statuses in {@code getSignatureStatuses} batches of up to
+ * {@value #MAX_SIGNATURES_PER_REQUEST}, so thousands of pending transactions cost a handful of
+ * RPC calls per round. A signature that is still unknown once the block height passes its
+ * blockhash's last valid height has expired and can no longer land.
+ */
+public class ConfirmationTracker implements AutoCloseable {
+
+    /**
+     * Most signatures {@code getSignatureStatuses} accepts per call.
+     */
+    public static final int MAX_SIGNATURES_PER_REQUEST = 256;
+
+    private static final Logger LOGGER = Logger.getLogger(ConfirmationTracker.class.getName());
+    private static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    private final RpcExecutor rpcExecutor;
+    private final long pollIntervalNanos;
+    private final Map<String, PendingSignature> pending = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    public ConfirmationTracker(RpcExecutor rpcExecutor) {
+        this(rpcExecutor, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * @param rpcExecutor  executor for status and block height reads
+     * @param pollInterval pause between poll rounds
+     */
+    public ConfirmationTracker(RpcExecutor rpcExecutor, Duration pollInterval) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        Objects.requireNonNull(pollInterval, "pollInterval must not be null");
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("pollInterval must be positive");
+        }
+        this.pollIntervalNanos = pollInterval.toNanos();
+    }
+
+    /**
+     * Start tracking a submitted transaction.
+     *
+     * @param signature            base58-encoded transaction signature
+     * @param lastValidBlockHeight last valid block height of the blockhash the transaction was signed with
+     * @param commitment           level at which the returned future completes
+     * @return future completing with the confirmation, or exceptionally with
+     * {@link TransactionFailedException} or {@link TransactionExpiredException}; cancelling it
+     * stops tracking for this caller
+     */
+    public CompletableFuture<TransactionConfirmation> track(String signature, long lastValidBlockHeight,
+                                                            CommitmentLevel commitment) {
+        if (signature == null || signature.isBlank()) {
+            throw new IllegalArgumentException("Signature must not be null or blank");
+        }
+        Objects.requireNonNull(commitment, "commitment must not be null");
+        if (closed) {
+            throw new IllegalStateException("Confirmation tracker is closed");
+        }
+
+        CompletableFuture<TransactionConfirmation> future = new CompletableFuture<>();
+        pending.compute(signature, (key, existing) -> {
+            PendingSignature entry = existing == null ? new PendingSignature(signature) : existing;
+            entry.add(lastValidBlockHeight, commitment, future);
+            return entry;
+        });
+        start();
+        return future;
+    }
+
+    /**
+     * @return number of signatures still being tracked
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+        RpcException closedException = new RpcException("Confirmation tracker closed");
+        for (String signature : new ArrayList<>(pending.keySet())) {
+            pending.computeIfPresent(signature, (key, entry) -> {
+                entry.failAll(closedException);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Run one poll round: read the block height, then every pending status, and settle what can
+     * be settled.
+     */
+    void poll() throws RpcException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Read the height first: anything still unknown afterwards was not processed by then.
+        long blockHeight = rpcExecutor.execute(api -> api.getBlockHeight(Commitment.CONFIRMED),
+                Deadline.after(Duration.ofNanos(pollIntervalNanos * 2)));
+
+        List<String> signatures = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < signatures.size(); from += MAX_SIGNATURES_PER_REQUEST) {
+            List<String> chunk = signatures.subList(from, Math.min(signatures.size(), from + MAX_SIGNATURES_PER_REQUEST));
+            List<Object> statuses = fetchStatuses(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Object status = i < statuses.size() ? statuses.get(i) : null;
+                pending.computeIfPresent(chunk.get(i), (key, entry) -> entry.update(status, blockHeight) ? null : entry);
+            }
+        }
+    }
+
+    private List<Object> fetchStatuses(List<String> signatures) throws RpcException {
+        List<Object> params = List.of(List.copyOf(signatures), Map.of("searchTransactionHistory", false));
+        Map<?, ?> result = rpcExecutor.execute(api -> rpcExecutor.getRpcClient().call(
+                "getSignatureStatuses", params, Map.class), Deadline.after(Duration.ofNanos(pollIntervalNanos * 2)));
+        Object value = result == null ? null : result.get("value");
+        if (!(value instanceof List<?> statuses) || statuses.size() != signatures.size()) {
+            throw new RpcException("Unexpected getSignatureStatuses response for " + signatures.size() + " signatures");
+        }
+        return new ArrayList<>(statuses);
+    }
+
+    private void start() {
+        if (scheduler != null) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler != null || closed) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "confirmation-tracker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::pollQuietly, pollIntervalNanos, pollIntervalNanos,
+                    TimeUnit.NANOSECONDS);
+            scheduler = executor;
+        }
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RpcException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Confirmation poll failed; retrying next round", e);
+        }
+    }
+
+    /**
+     * Callers waiting on one signature, possibly for different commitment levels.
+     */
+    private static final class PendingSignature {
+
+        private final String signature;
+        private final List<Waiter> waiters = new ArrayList<>(1);
+        private long lastValidBlockHeight = Long.MIN_VALUE;
+
+        private PendingSignature(String signature) {
+            this.signature = signature;
+        }
+
+        private void add(long lastValidBlockHeight, CommitmentLevel commitment,
+                         CompletableFuture<TransactionConfirmation> future) {
+            this.lastValidBlockHeight = Math.max(this.lastValidBlockHeight, lastValidBlockHeight);
+            waiters.add(new Waiter(commitment, future));
+        }
+
+        /**
+         * @return {@code true} once no caller is waiting any more
+         */
+        private boolean update(Object status, long blockHeight) {
+            if (status instanceof Map<?, ?> fields) {
+                Object error = fields.get("err");
+                if (error != null) {
+                    failAll(new TransactionFailedException(signature, String.valueOf(error)));
+                    return true;
+                }
+                long slot = fields.get("slot") instanceof Number number ? number.longValue() : -1;
+                CommitmentLevel reached = reachedLevel(fields);
+                for (Iterator<Waiter> iterator = waiters.iterator(); iterator.hasNext(); ) {
+                    Waiter waiter = iterator.next();
+                    if (waiter.future().isDone()) {
+                        iterator.remove();
+                    } else if (reached.satisfies(waiter.commitment())) {
+                        waiter.future().complete(new TransactionConfirmation(signature, slot, reached));
+                        iterator.remove();
+                    }
+                }
+                return waiters.isEmpty();
+            }
+            if (blockHeight > lastValidBlockHeight) {
+                failAll(new TransactionExpiredException(signature, lastValidBlockHeight));
+                return true;
+            }
+            waiters.removeIf(waiter -> waiter.future().isDone());
+            return waiters.isEmpty();
+        }
+
+        private void failAll(RpcException failure) {
+            for (Waiter waiter : waiters) {
+                waiter.future().completeExceptionally(failure);
+            }
+            waiters.clear();
+        }
+
+        private static CommitmentLevel reachedLevel(Map<?, ?> fields) {
+            Object status = fields.get("confirmationStatus");
+            if (status != null) {
+                return CommitmentLevel.fromStatus(status.toString());
+            }
+            // Older nodes omit the status; a null confirmation count means the slot is rooted.
+            return fields.get("confirmations") == null ? CommitmentLevel.FINALIZED : CommitmentLevel.CONFIRMED;
+        }
+    }
+
+    private record Waiter(CommitmentLevel commitment, CompletableFuture<TransactionConfirmation> future) {
+    }
+}
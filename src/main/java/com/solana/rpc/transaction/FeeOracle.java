@@ -0,0 +1,221 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.transport.Deadline;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.RecentPrioritizationFees;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Keeps rolling estimates of recent prioritization fees on hand so that sending a transaction does
+ * not pay for a {@code getRecentPrioritizationFees} round trip.
+ * <p>
+ * A background task refreshes a cluster-wide estimate and one estimate per tracked set of writable
+ * accounts at a fixed interval, in the {@link RpcLane#BULK} lane. Each estimate covers the most
+ * recent {@code windowSlots} slots seen across refreshes. Lookups read a published snapshot and
+ * never wait for the network: a set of accounts seen for the first time is tracked from the next
+ * refresh on and is answered with the cluster-wide estimate until then. The refresh task starts
+ * with the first lookup or an explicit {@link #start()}.
+ */
+public class FeeOracle implements AutoCloseable {
+
+    /**
+     * Most accounts {@code getRecentPrioritizationFees} accepts in one call.
+     */
+    public static final int MAX_WRITABLE_ACCOUNTS = 128;
+
+    private static final Logger LOGGER = Logger.getLogger(FeeOracle.class.getName());
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(5);
+    private static final int DEFAULT_WINDOW_SLOTS = 150;
+    private static final int DEFAULT_MAX_TRACKED_ACCOUNT_SETS = 32;
+    private static final Duration IDLE_ACCOUNT_SET_EXPIRY = Duration.ofMinutes(10);
+
+    private final RpcExecutor rpcExecutor;
+    private final long refreshIntervalNanos;
+    private final int windowSlots;
+    private final int maxTrackedAccountSets;
+    private final Window global = new Window(List.of());
+    private final Map<List<String>, Window> accountSets = new ConcurrentHashMap<>();
+    private final Object refreshLock = new Object();
+
+    private volatile ScheduledExecutorService refresher;
+    private volatile boolean closed;
+
+    public FeeOracle(RpcExecutor rpcExecutor) {
+        this(rpcExecutor, DEFAULT_REFRESH_INTERVAL, DEFAULT_WINDOW_SLOTS, DEFAULT_MAX_TRACKED_ACCOUNT_SETS);
+    }
+
+    /**
+     * @param rpcExecutor           executor used for {@code getRecentPrioritizationFees}
+     * @param refreshInterval       pause between background refreshes
+     * @param windowSlots           number of most recent slots each estimate covers
+     * @param maxTrackedAccountSets most writable-account sets with their own estimate
+     */
+    public FeeOracle(RpcExecutor rpcExecutor, Duration refreshInterval, int windowSlots, int maxTrackedAccountSets) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        Objects.requireNonNull(refreshInterval, "refreshInterval must not be null");
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("refreshInterval must be positive");
+        }
+        if (windowSlots < 1) {
+            throw new IllegalArgumentException("windowSlots must be positive");
+        }
+        if (maxTrackedAccountSets < 0) {
+            throw new IllegalArgumentException("maxTrackedAccountSets must not be negative");
+        }
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.windowSlots = windowSlots;
+        this.maxTrackedAccountSets = maxTrackedAccountSets;
+    }
+
+    /**
+     * @return cluster-wide estimate, or {@link PriorityFeeEstimate#EMPTY} before the first refresh
+     */
+    public PriorityFeeEstimate estimate() {
+        start();
+        return global.estimate;
+    }
+
+    /**
+     * Estimate for transactions that write to the given accounts, which local fee markets may price
+     * above the cluster as a whole.
+     *
+     * @param writableAccounts base58-encoded accounts the transaction writes to
+     * @return estimate for the set, or the cluster-wide estimate while the set has none yet
+     * @throws IllegalArgumentException when an account is not a valid public key
+     */
+    public PriorityFeeEstimate estimate(Collection<String> writableAccounts) {
+        Objects.requireNonNull(writableAccounts, "writableAccounts must not be null");
+        if (writableAccounts.size() > MAX_WRITABLE_ACCOUNTS) {
+            throw new IllegalArgumentException("At most " + MAX_WRITABLE_ACCOUNTS + " writable accounts are supported");
+        }
+        start();
+        if (writableAccounts.isEmpty()) {
+            return global.estimate;
+        }
+        List<String> key = List.copyOf(new TreeSet<>(writableAccounts));
+        Window window = accountSets.get(key);
+        if (window == null) {
+            if (accountSets.size() < maxTrackedAccountSets) {
+                key.forEach(PublicKey::new);
+                accountSets.putIfAbsent(key, new Window(key));
+            }
+            return global.estimate;
+        }
+        window.lastUsedNanos = System.nanoTime();
+        PriorityFeeEstimate estimate = window.estimate;
+        return estimate == PriorityFeeEstimate.EMPTY ? global.estimate : estimate;
+    }
+
+    /**
+     * @return number of writable-account sets currently tracked
+     */
+    public int getTrackedAccountSetCount() {
+        return accountSets.size();
+    }
+
+    /**
+     * Start the background refresh task if it is not running yet.
+     */
+    public void start() {
+        if (refresher != null || closed) {
+            return;
+        }
+        synchronized (this) {
+            if (refresher != null || closed) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "fee-oracle-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshIntervalNanos, TimeUnit.NANOSECONDS);
+            refresher = executor;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (refresher != null) {
+                refresher.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * Refresh the cluster-wide estimate and every tracked account set, dropping sets that have not
+     * been looked up for a while. Lookups never take the refresh lock.
+     */
+    void refresh() throws RpcException {
+        synchronized (refreshLock) {
+            long now = System.nanoTime();
+            accountSets.values().removeIf(window -> now - window.lastUsedNanos > IDLE_ACCOUNT_SET_EXPIRY.toNanos());
+            refresh(global);
+            for (Window window : accountSets.values()) {
+                refresh(window);
+            }
+        }
+    }
+
+    private void refresh(Window window) throws RpcException {
+        List<PublicKey> accounts = window.accounts.stream().map(PublicKey::new).toList();
+        Deadline deadline = Deadline.after(Duration.ofNanos(refreshIntervalNanos));
+        List<RecentPrioritizationFees> fees = rpcExecutor.execute(api -> accounts.isEmpty()
+                ? api.getRecentPrioritizationFees()
+                : api.getRecentPrioritizationFees(accounts), deadline, RpcLane.BULK);
+        if (fees == null) {
+            throw new RpcException("RPC response is null");
+        }
+        for (RecentPrioritizationFees fee : fees) {
+            window.feesBySlot.put(fee.getSlot(), fee.getPrioritizationFee());
+        }
+        if (window.feesBySlot.isEmpty()) {
+            return;
+        }
+        long newestSlot = window.feesBySlot.lastKey();
+        window.feesBySlot.headMap(newestSlot - windowSlots, true).clear();
+        long[] sorted = window.feesBySlot.values().stream().mapToLong(Long::longValue).sorted().toArray();
+        window.estimate = new PriorityFeeEstimate(sorted, newestSlot, System.nanoTime());
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RpcException | RuntimeException e) {
+            LOGGER.warning(() -> "Background priority fee refresh failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Slot window of one estimate. {@code feesBySlot} is only touched under the refresh lock;
+     * lookups read the published {@code estimate}.
+     */
+    private static final class Window {
+
+        private final List<String> accounts;
+        private final TreeMap<Long, Long> feesBySlot = new TreeMap<>();
+        private volatile PriorityFeeEstimate estimate = PriorityFeeEstimate.EMPTY;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        private Window(List<String> accounts) {
+            this.accounts = accounts;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.solana.rpc.transaction;
+
+/**
+ * Immutable snapshot of the prioritization fees paid in a window of recent slots, in micro-lamports
+ * per compute unit. Percentile lookups read one element of a pre-sorted array.
+ */
+public final class PriorityFeeEstimate {
+
+    /**
+     * Estimate handed out before the first refresh has completed: every percentile is zero.
+     */
+    public static final PriorityFeeEstimate EMPTY = new PriorityFeeEstimate(new long[0], -1, 0);
+
+    private final long[] sortedFees;
+    private final long newestSlot;
+    private final long fetchedAtNanos;
+
+    PriorityFeeEstimate(long[] sortedFees, long newestSlot, long fetchedAtNanos) {
+        this.sortedFees = sortedFees;
+        this.newestSlot = newestSlot;
+        this.fetchedAtNanos = fetchedAtNanos;
+    }
+
+    /**
+     * @param percentile percentile from 1 to 100
+     * @return smallest fee that at least {@code percentile}% of the sampled slots paid, or zero
+     * when there are no samples
+     */
+    public long percentile(int percentile) {
+        if (percentile < 1 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 1 and 100");
+        }
+        if (sortedFees.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedFees.length);
+        return sortedFees[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * @return number of slots the estimate was computed from
+     */
+    public int getSampleCount() {
+        return sortedFees.length;
+    }
+
+    /**
+     * @return most recent slot in the window, or {@code -1} when there are no samples
+     */
+    public long getNewestSlot() {
+        return newestSlot;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} at which the estimate was computed
+     */
+    public long getFetchedAtNanos() {
+        return fetchedAtNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PriorityFeeEstimate{" +
+                "samples=" + sortedFees.length +
+                ", newestSlot=" + newestSlot +
+                (sortedFees.length == 0 ? "" : ", p50=" + percentile(50) + ", p90=" + percentile(90)) +
+                '}';
+    }
+}
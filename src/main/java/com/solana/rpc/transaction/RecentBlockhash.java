@@ -0,0 +1,43 @@
+package com.solana.rpc.transaction;
+
+import java.util.Objects;
+
+/**
+ * Blockhash returned by {@code getLatestBlockhash}, together with the last block height at which
+ * transactions referencing it are still accepted and the time it was fetched.
+ */
+public final class RecentBlockhash {
+
+    private final String blockhash;
+    private final long lastValidBlockHeight;
+    private final long fetchedAtNanos;
+
+    public RecentBlockhash(String blockhash, long lastValidBlockHeight, long fetchedAtNanos) {
+        this.blockhash = Objects.requireNonNull(blockhash, "blockhash must not be null");
+        this.lastValidBlockHeight = lastValidBlockHeight;
+        this.fetchedAtNanos = fetchedAtNanos;
+    }
+
+    public String getBlockhash() {
+        return blockhash;
+    }
+
+    public long getLastValidBlockHeight() {
+        return lastValidBlockHeight;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} reading taken when the blockhash was received
+     */
+    public long getFetchedAtNanos() {
+        return fetchedAtNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RecentBlockhash{" +
+                "blockhash='" + blockhash + '\'' +
+                ", lastValidBlockHeight=" + lastValidBlockHeight +
+                '}';
+    }
+}
@@ -0,0 +1,152 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.transport.Deadline;
+import com.solana.rpc.transport.RpcExecutor;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.LatestBlockhash;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Keeps a recent blockhash on hand so that sending a transaction does not pay for a
+ * {@code getLatestBlockhash} round trip.
+ * <p>
+ * A background task refreshes the blockhash at a fixed interval, well inside the roughly
+ * 60-second window in which the cluster accepts it. Callers only fetch synchronously when the
+ * cached value is older than the maximum age, e.g. because refreshes have been failing. The
+ * refresh task starts with the first {@link #get()} or an explicit {@link #start()}.
+ */
+public class RecentBlockhashCache implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RecentBlockhashCache.class.getName());
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(20);
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofSeconds(45);
+
+    private final RpcExecutor rpcExecutor;
+    private final long refreshIntervalNanos;
+    private final long maxAgeNanos;
+    private final Object fetchLock = new Object();
+
+    private volatile RecentBlockhash current;
+    private volatile ScheduledExecutorService refresher;
+    private volatile boolean closed;
+
+    public RecentBlockhashCache(RpcExecutor rpcExecutor) {
+        this(rpcExecutor, DEFAULT_REFRESH_INTERVAL, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param rpcExecutor     executor used for {@code getLatestBlockhash}
+     * @param refreshInterval pause between background refreshes
+     * @param maxAge          age beyond which a cached blockhash is no longer handed out
+     */
+    public RecentBlockhashCache(RpcExecutor rpcExecutor, Duration refreshInterval, Duration maxAge) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        Objects.requireNonNull(refreshInterval, "refreshInterval must not be null");
+        Objects.requireNonNull(maxAge, "maxAge must not be null");
+        if (refreshInterval.isNegative() || refreshInterval.isZero() || maxAge.compareTo(refreshInterval) <= 0) {
+            throw new IllegalArgumentException("refreshInterval must be positive and shorter than maxAge");
+        }
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * Return the cached blockhash, fetching one first if none is cached or the cached one is too old.
+     *
+     * @return blockhash suitable for a new transaction
+     * @throws RpcException when a synchronous fetch was needed and failed
+     */
+    public RecentBlockhash get() throws RpcException {
+        RecentBlockhash cached = current;
+        if (!isFresh(cached)) {
+            synchronized (fetchLock) {
+                cached = current;
+                if (!isFresh(cached)) {
+                    cached = fetch(Deadline.none());
+                }
+            }
+        }
+        start();
+        return cached;
+    }
+
+    /**
+     * Drop the cached blockhash if it is the given one, e.g. after the cluster reported it as not
+     * found, so the next {@link #get()} fetches a new one.
+     *
+     * @param blockhash blockhash the cluster rejected
+     */
+    public void invalidate(String blockhash) {
+        RecentBlockhash cached = current;
+        if (cached != null && cached.getBlockhash().equals(blockhash)) {
+            synchronized (fetchLock) {
+                if (current == cached) {
+                    current = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Start the background refresh task if it is not running yet.
+     */
+    public void start() {
+        if (refresher != null || closed) {
+            return;
+        }
+        synchronized (this) {
+            if (refresher != null || closed) {
+                return;
+            }
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "blockhash-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long initialDelay = current == null ? 0 : refreshIntervalNanos;
+            executor.scheduleWithFixedDelay(this::refreshQuietly, initialDelay, refreshIntervalNanos,
+                    TimeUnit.NANOSECONDS);
+            refresher = executor;
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (refresher != null) {
+                refresher.shutdownNow();
+            }
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            fetch(Deadline.after(Duration.ofNanos(refreshIntervalNanos)));
+        } catch (RpcException | RuntimeException e) {
+            LOGGER.warning(() -> "Background blockhash refresh failed: " + e.getMessage());
+        }
+    }
+
+    private RecentBlockhash fetch(Deadline deadline) throws RpcException {
+        LatestBlockhash latest = rpcExecutor.execute(api -> api.getLatestBlockhash(Commitment.CONFIRMED), deadline);
+        if (latest == null || latest.getValue() == null || latest.getValue().getBlockhash() == null) {
+            throw new RpcException("RPC response is null");
+        }
+        RecentBlockhash fetched = new RecentBlockhash(latest.getValue().getBlockhash(),
+                latest.getValue().getLastValidBlockHeight(), System.nanoTime());
+        current = fetched;
+        return fetched;
+    }
+
+    private boolean isFresh(RecentBlockhash cached) {
+        return cached != null && System.nanoTime() - cached.getFetchedAtNanos() < maxAgeNanos;
+    }
+}
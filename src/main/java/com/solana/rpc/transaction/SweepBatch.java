@@ -0,0 +1,50 @@
+package com.solana.rpc.transaction;
+
+import java.util.List;
+
+/**
+ * Transfers packed into a single transaction. The first transfer's source pays the fee for all
+ * signatures, which its planned amount already accounts for.
+ */
+public final class SweepBatch {
+
+    private final List<SweepTransfer> transfers;
+    private final long fee;
+
+    public SweepBatch(List<SweepTransfer> transfers, long fee) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("A batch needs at least one transfer");
+        }
+        this.transfers = List.copyOf(transfers);
+        this.fee = fee;
+    }
+
+    public List<SweepTransfer> getTransfers() {
+        return transfers;
+    }
+
+    public SweepTransfer getFeePayer() {
+        return transfers.get(0);
+    }
+
+    public long getFee() {
+        return fee;
+    }
+
+    public long getTotalLamports() {
+        long total = 0;
+        for (SweepTransfer transfer : transfers) {
+            total += transfer.getLamports();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "SweepBatch{" +
+                "transfers=" + transfers.size() +
+                ", fee=" + fee +
+                ", totalLamports=" + getTotalLamports() +
+                '}';
+    }
+}
@@ -0,0 +1,245 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.transport.AccountLamports;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.transport.RpcLane;
+import com.solana.rpc.wallet.DerivationService;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.SystemProgram;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.utils.Base58;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Sweeps deposit addresses into a treasury in as few transactions as possible.
+ * <p>
+ * Balances are read with {@code getMultipleAccounts} in chunks, planned by {@link SweepPlanner},
+ * derived and signed on a pool sized to the available cores and submitted with a bounded number
+ * of transactions in flight. Signing only runs a small window ahead of submission, so signed
+ * transactions do not sit in a queue while their blockhash ages. Every outcome is recorded in a
+ * {@link SweepProgress}, and sources it already lists as submitted are left out of later runs.
+ * Its RPC calls run in the {@link RpcLane#BULK} lane.
+ */
+public class SweepEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(SweepEngine.class.getName());
+    private static final int SIGNATURE_OFFSET = 1;
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private final RpcExecutor rpcExecutor;
+    private final JsonRpcTransport transport;
+    private final DerivationService derivationService;
+    private final RecentBlockhashCache blockhashCache;
+    private final SweepPolicy policy;
+    private final SweepPlanner planner;
+
+    public SweepEngine(RpcExecutor rpcExecutor, JsonRpcTransport transport, DerivationService derivationService,
+                       RecentBlockhashCache blockhashCache, SweepPolicy policy) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.transport = Objects.requireNonNull(transport, "transport must not be null");
+        this.derivationService = Objects.requireNonNull(derivationService, "derivationService must not be null");
+        this.blockhashCache = Objects.requireNonNull(blockhashCache, "blockhashCache must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        this.planner = new SweepPlanner(policy);
+    }
+
+    /**
+     * Read current balances and plan a sweep without sending anything.
+     *
+     * @param sources         deposit addresses to sweep
+     * @param treasuryAddress base58-encoded treasury public key
+     * @return planned transactions and skipped sources
+     * @throws RpcException when balances or the rent-exempt minimum cannot be read
+     */
+    public SweepPlan plan(List<DerivedAccount> sources, String treasuryAddress) throws RpcException {
+        Objects.requireNonNull(sources, "sources must not be null");
+        parseTreasury(treasuryAddress);
+        if (sources.isEmpty()) {
+            return new SweepPlan(List.of(), Map.of());
+        }
+
+        List<String> keys = new ArrayList<>(sources.size() + 1);
+        keys.add(treasuryAddress);
+        for (DerivedAccount source : sources) {
+            keys.add(source.getPublicKey());
+        }
+        long[] lamports = readLamports(keys);
+        long rentExemptMinimum = rpcExecutor.execute(api -> api.getMinimumBalanceForRentExemption(0), RpcLane.BULK);
+        return planner.plan(sources, Arrays.copyOfRange(lamports, 1, lamports.length), lamports[0], rentExemptMinimum);
+    }
+
+    /**
+     * Sweep the given sources into the treasury, recording every outcome in {@code progress}.
+     * Sources already recorded as submitted are not swept again.
+     *
+     * @param sources         deposit addresses to sweep
+     * @param treasuryAddress base58-encoded treasury public key
+     * @param progress        outcomes of this and earlier runs
+     * @return {@code progress}, once every planned transaction was submitted or failed
+     * @throws RpcException when balances or the rent-exempt minimum cannot be read
+     */
+    public SweepProgress sweep(List<DerivedAccount> sources, String treasuryAddress, SweepProgress progress)
+            throws RpcException {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(progress, "progress must not be null");
+        PublicKey treasury = parseTreasury(treasuryAddress);
+
+        List<DerivedAccount> pending = new ArrayList<>(sources.size());
+        for (DerivedAccount source : sources) {
+            if (!progress.isSubmitted(source.getPublicKey())) {
+                pending.add(source);
+            }
+        }
+        SweepPlan plan = plan(pending, treasuryAddress);
+        plan.getSkipped().forEach((source, reason) ->
+                progress.record(source.getPublicKey(), SweepProgress.Status.SKIPPED, 0, null, reason));
+        LOGGER.info(() -> "Sweeping " + plan.getTotalLamports() + " lamports from " + (pending.size()
+                - plan.getSkipped().size()) + " sources in " + plan.getBatches().size() + " transactions ("
+                + (sources.size() - pending.size()) + " already submitted, " + plan.getSkipped().size() + " skipped)");
+
+        ExecutorService signingPool = Executors.newFixedThreadPool(policy.getSigningThreads(), threads("sweep-signer"));
+        ExecutorService submissionPool = Executors.newFixedThreadPool(policy.getMaxConcurrentSubmissions(),
+                threads("sweep-submitter"));
+        Semaphore window = new Semaphore(policy.getSigningThreads() + policy.getMaxConcurrentSubmissions());
+        List<CompletableFuture<Void>> outcomes = new ArrayList<>(plan.getBatches().size());
+        try {
+            for (SweepBatch batch : plan.getBatches()) {
+                window.acquireUninterruptibly();
+                outcomes.add(CompletableFuture
+                        .supplyAsync(() -> sign(batch, treasury), signingPool)
+                        .thenAcceptAsync(signed -> submit(signed, progress), submissionPool)
+                        .exceptionally(failure -> {
+                            recordFailure(batch, null, unwrap(failure), progress);
+                            return null;
+                        })
+                        .whenComplete((ignored, failure) -> window.release()));
+            }
+            CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).join();
+        } finally {
+            signingPool.shutdownNow();
+            submissionPool.shutdownNow();
+        }
+        LOGGER.info(() -> "Sweep finished: " + progress.count(SweepProgress.Status.SUBMITTED) + " submitted, "
+                + progress.count(SweepProgress.Status.FAILED) + " failed, "
+                + progress.count(SweepProgress.Status.SKIPPED) + " skipped");
+        return progress;
+    }
+
+    public SweepPlanner getPlanner() {
+        return planner;
+    }
+
+    private long[] readLamports(List<String> keys) throws RpcException {
+        long[] lamports = new long[keys.size()];
+        for (int from = 0; from < keys.size(); from += JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST));
+            AccountLamports result = rpcExecutor.execute(api -> transport.getMultipleAccountLamports(chunk),
+                    RpcLane.BULK);
+            for (int i = 0; i < result.size(); i++) {
+                lamports[from + i] = result.getLamports(i);
+            }
+        }
+        return lamports;
+    }
+
+    SignedBatch sign(SweepBatch batch, PublicKey treasury) {
+        List<Account> signers = new ArrayList<>(batch.getTransfers().size());
+        Transaction transaction = new Transaction();
+        for (SweepTransfer transfer : batch.getTransfers()) {
+            DerivedAccount source = transfer.getSource();
+            Account signer = derivationService.derive(source.getAccount(), source.getChange(), source.getIndex());
+            if (!signer.getPublicKey().toBase58().equals(source.getPublicKey())) {
+                throw new IllegalStateException("Derived key does not match stored public key for label: "
+                        + source.getLabel());
+            }
+            signers.add(signer);
+            transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), treasury, transfer.getLamports()));
+        }
+
+        String blockhash;
+        try {
+            blockhash = blockhashCache.get().getBlockhash();
+        } catch (RpcException e) {
+            throw new CompletionException(e);
+        }
+        transaction.setRecentBlockHash(blockhash);
+        // The first signer pays the fee, matching the plan.
+        transaction.sign(signers);
+        byte[] wire = transaction.serialize();
+        String signature = Base58.encode(Arrays.copyOfRange(wire, SIGNATURE_OFFSET, SIGNATURE_OFFSET + SIGNATURE_LENGTH));
+        return new SignedBatch(batch, blockhash, wire, signature);
+    }
+
+    private void submit(SignedBatch signed, SweepProgress progress) {
+        try {
+            rpcExecutor.execute(api -> transport.sendTransaction(signed.wire()), RpcLane.BULK);
+        } catch (RpcException e) {
+            if (e.getMessage() != null && e.getMessage().toLowerCase(Locale.ROOT).contains("blockhash not found")) {
+                blockhashCache.invalidate(signed.blockhash());
+            }
+            recordFailure(signed.batch(), signed.signature(), e, progress);
+            return;
+        }
+        for (SweepTransfer transfer : signed.batch().getTransfers()) {
+            progress.record(transfer.getSource().getPublicKey(), SweepProgress.Status.SUBMITTED,
+                    transfer.getLamports(), signed.signature(), null);
+        }
+    }
+
+    private static void recordFailure(SweepBatch batch, String signature, Throwable failure, SweepProgress progress) {
+        LOGGER.warning(() -> "Sweep transaction of " + batch.getTransfers().size() + " transfers failed: "
+                + failure.getMessage());
+        for (SweepTransfer transfer : batch.getTransfers()) {
+            progress.record(transfer.getSource().getPublicKey(), SweepProgress.Status.FAILED,
+                    transfer.getLamports(), signature, String.valueOf(failure.getMessage()));
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static PublicKey parseTreasury(String treasuryAddress) {
+        if (treasuryAddress == null || treasuryAddress.isBlank()) {
+            throw new IllegalArgumentException("Treasury address must not be null or blank");
+        }
+        try {
+            return new PublicKey(treasuryAddress);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Treasury address is not a valid base58-encoded public key", e);
+        }
+    }
+
+    private static ThreadFactory threads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Batch in wire format with the signature identifying its transaction.
+     */
+    record SignedBatch(SweepBatch batch, String blockhash, byte[] wire, String signature) {
+    }
+}
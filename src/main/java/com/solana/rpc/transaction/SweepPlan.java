@@ -0,0 +1,38 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.model.DerivedAccount;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of planning a sweep: the transactions to send and the sources left alone, with the reason.
+ */
+public final class SweepPlan {
+
+    private final List<SweepBatch> batches;
+    private final Map<DerivedAccount, String> skipped;
+
+    public SweepPlan(List<SweepBatch> batches, Map<DerivedAccount, String> skipped) {
+        this.batches = List.copyOf(batches);
+        this.skipped = Collections.unmodifiableMap(new LinkedHashMap<>(skipped));
+    }
+
+    public List<SweepBatch> getBatches() {
+        return batches;
+    }
+
+    public Map<DerivedAccount, String> getSkipped() {
+        return skipped;
+    }
+
+    public long getTotalLamports() {
+        long total = 0;
+        for (SweepBatch batch : batches) {
+            total += batch.getTotalLamports();
+        }
+        return total;
+    }
+}
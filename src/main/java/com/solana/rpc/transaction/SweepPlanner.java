@@ -0,0 +1,141 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.transport.AccountLamports;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Turns observed balances into packed sweep transactions.
+ * <p>
+ * Each source moves everything above what it has to keep: nothing, or the rent-exempt minimum
+ * when the policy retains it. Sources are packed largest first so that the first source of every
+ * transaction, which pays the fee for all its signatures, is the one best able to afford it. The
+ * number of transfers per transaction is capped by the policy and by the 1232-byte packet limit.
+ */
+public final class SweepPlanner {
+
+    /**
+     * Largest serialized transaction the cluster accepts.
+     */
+    public static final int PACKET_DATA_SIZE = 1232;
+
+    private static final int SIGNATURE_LENGTH = 64;
+    private static final int PUBLIC_KEY_LENGTH = 32;
+    private static final int MESSAGE_HEADER_LENGTH = 3;
+    private static final int TRANSFER_ACCOUNTS = 2;
+    private static final int TRANSFER_DATA_LENGTH = 12;
+
+    private final SweepPolicy policy;
+    private final int transfersPerTransaction;
+
+    public SweepPlanner(SweepPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        int transfers = policy.getMaxTransfersPerTransaction();
+        while (transfers > 1 && transferTransactionSize(transfers) > PACKET_DATA_SIZE) {
+            transfers--;
+        }
+        this.transfersPerTransaction = transfers;
+    }
+
+    /**
+     * Plan the sweep of the given sources.
+     *
+     * @param sources           deposit addresses to sweep
+     * @param balances          lamports of each source, aligned with {@code sources}; {@link AccountLamports#MISSING}
+     *                          for accounts that do not exist
+     * @param treasuryBalance   current lamports of the treasury, or {@link AccountLamports#MISSING}
+     * @param rentExemptMinimum minimum balance of an account without data
+     * @return transactions to send and sources that were skipped
+     */
+    public SweepPlan plan(List<DerivedAccount> sources, long[] balances, long treasuryBalance, long rentExemptMinimum) {
+        Objects.requireNonNull(sources, "sources must not be null");
+        Objects.requireNonNull(balances, "balances must not be null");
+        if (sources.size() != balances.length) {
+            throw new IllegalArgumentException("Every source needs exactly one balance");
+        }
+
+        Map<DerivedAccount, String> skipped = new LinkedHashMap<>();
+        List<SweepTransfer> candidates = new ArrayList<>(sources.size());
+        Set<String> seen = new HashSet<>();
+        long reserve = policy.isRetainRentExemptMinimum() ? rentExemptMinimum : 0;
+        for (int i = 0; i < sources.size(); i++) {
+            DerivedAccount source = sources.get(i);
+            long balance = balances[i];
+            if (!seen.add(source.getPublicKey())) {
+                skipped.put(source, "duplicate source");
+            } else if (balance == AccountLamports.MISSING) {
+                skipped.put(source, "account does not exist");
+            } else if (balance - reserve < policy.getMinTransferLamports()) {
+                skipped.put(source, "balance below minimum transfer");
+            } else {
+                candidates.add(new SweepTransfer(source, balance, balance - reserve));
+            }
+        }
+        candidates.sort(Comparator.comparingLong(SweepTransfer::getLamports).reversed());
+
+        // Concurrent batches must each leave a new treasury rent-exempt on their own.
+        long treasuryShortfall = Math.max(0, rentExemptMinimum - Math.max(0, treasuryBalance));
+        List<SweepBatch> batches = new ArrayList<>();
+        int next = 0;
+        while (next < candidates.size()) {
+            SweepTransfer payer = candidates.get(next);
+            long affordable = policy.getLamportsPerSignature() == 0 ? Long.MAX_VALUE
+                    : (payer.getLamports() - policy.getMinTransferLamports()) / policy.getLamportsPerSignature();
+            int size = (int) Math.min(Math.min(transfersPerTransaction, candidates.size() - next), affordable);
+            if (size < 1) {
+                skipped.put(payer.getSource(), "balance does not cover the transaction fee");
+                next++;
+                continue;
+            }
+
+            long fee = policy.getLamportsPerSignature() * size;
+            List<SweepTransfer> transfers = new ArrayList<>(size);
+            transfers.add(new SweepTransfer(payer.getSource(), payer.getBalance(), payer.getLamports() - fee));
+            transfers.addAll(candidates.subList(next + 1, next + size));
+            SweepBatch batch = new SweepBatch(transfers, fee);
+            if (batch.getTotalLamports() < treasuryShortfall) {
+                for (SweepTransfer transfer : transfers) {
+                    skipped.put(transfer.getSource(), "would leave the treasury below the rent-exempt minimum");
+                }
+            } else {
+                batches.add(batch);
+            }
+            next += size;
+        }
+        return new SweepPlan(batches, skipped);
+    }
+
+    /**
+     * @return transfers packed into each transaction under the policy and the packet size limit
+     */
+    public int getTransfersPerTransaction() {
+        return transfersPerTransaction;
+    }
+
+    /**
+     * Serialized size of a legacy transaction moving funds from {@code transfers} distinct signers
+     * to one recipient with System Program transfers.
+     */
+    static int transferTransactionSize(int transfers) {
+        int accountKeys = transfers + 2; // signers, recipient, System Program
+        int instruction = 1 + compactU16Length(TRANSFER_ACCOUNTS) + TRANSFER_ACCOUNTS
+                + compactU16Length(TRANSFER_DATA_LENGTH) + TRANSFER_DATA_LENGTH;
+        int message = MESSAGE_HEADER_LENGTH
+                + compactU16Length(accountKeys) + accountKeys * PUBLIC_KEY_LENGTH
+                + PUBLIC_KEY_LENGTH
+                + compactU16Length(transfers) + transfers * instruction;
+        return compactU16Length(transfers) + transfers * SIGNATURE_LENGTH + message;
+    }
+
+    private static int compactU16Length(int value) {
+        return value < 0x80 ? 1 : value < 0x4000 ? 2 : 3;
+    }
+}
@@ -0,0 +1,98 @@
+package com.solana.rpc.transaction;
+
+/**
+ * Settings for sweeping deposit addresses into a treasury: what to leave behind, how to pack
+ * transfers into transactions and how much parallelism to use.
+ */
+public final class SweepPolicy {
+
+    /**
+     * Base fee the cluster charges per transaction signature.
+     */
+    public static final long DEFAULT_LAMPORTS_PER_SIGNATURE = 5_000;
+
+    private static final int DEFAULT_MAX_TRANSFERS_PER_TRANSACTION = 10;
+    private static final int DEFAULT_MAX_CONCURRENT_SUBMISSIONS = 8;
+
+    private final boolean retainRentExemptMinimum;
+    private final long minTransferLamports;
+    private final long lamportsPerSignature;
+    private final int maxTransfersPerTransaction;
+    private final int signingThreads;
+    private final int maxConcurrentSubmissions;
+
+    /**
+     * @param retainRentExemptMinimum    leave the rent-exempt minimum in each source so the address stays
+     *                                   usable, instead of draining it to zero
+     * @param minTransferLamports        smallest amount worth moving; smaller balances are skipped as dust
+     * @param lamportsPerSignature       fee charged per signature
+     * @param maxTransfersPerTransaction upper bound on transfers packed into one transaction; the
+     *                                   transaction size limit may lower it further
+     * @param signingThreads             threads used for key derivation and signing
+     * @param maxConcurrentSubmissions   transactions submitted concurrently
+     */
+    public SweepPolicy(boolean retainRentExemptMinimum, long minTransferLamports, long lamportsPerSignature,
+                       int maxTransfersPerTransaction, int signingThreads, int maxConcurrentSubmissions) {
+        if (minTransferLamports < 1) {
+            throw new IllegalArgumentException("minTransferLamports must be positive");
+        }
+        if (lamportsPerSignature < 0) {
+            throw new IllegalArgumentException("lamportsPerSignature must not be negative");
+        }
+        if (maxTransfersPerTransaction < 1 || signingThreads < 1 || maxConcurrentSubmissions < 1) {
+            throw new IllegalArgumentException("Batch size, signing threads and submission concurrency must be positive");
+        }
+        this.retainRentExemptMinimum = retainRentExemptMinimum;
+        this.minTransferLamports = minTransferLamports;
+        this.lamportsPerSignature = lamportsPerSignature;
+        this.maxTransfersPerTransaction = maxTransfersPerTransaction;
+        this.signingThreads = signingThreads;
+        this.maxConcurrentSubmissions = maxConcurrentSubmissions;
+    }
+
+    /**
+     * Drain sources completely, skip anything below ten signature fees, sign on every core and
+     * keep eight submissions in flight.
+     */
+    public static SweepPolicy defaults() {
+        return new SweepPolicy(false, 10 * DEFAULT_LAMPORTS_PER_SIGNATURE, DEFAULT_LAMPORTS_PER_SIGNATURE,
+                DEFAULT_MAX_TRANSFERS_PER_TRANSACTION, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_MAX_CONCURRENT_SUBMISSIONS);
+    }
+
+    public boolean isRetainRentExemptMinimum() {
+        return retainRentExemptMinimum;
+    }
+
+    public long getMinTransferLamports() {
+        return minTransferLamports;
+    }
+
+    public long getLamportsPerSignature() {
+        return lamportsPerSignature;
+    }
+
+    public int getMaxTransfersPerTransaction() {
+        return maxTransfersPerTransaction;
+    }
+
+    public int getSigningThreads() {
+        return signingThreads;
+    }
+
+    public int getMaxConcurrentSubmissions() {
+        return maxConcurrentSubmissions;
+    }
+
+    @Override
+    public String toString() {
+        return "SweepPolicy{" +
+                "retainRentExemptMinimum=" + retainRentExemptMinimum +
+                ", minTransferLamports=" + minTransferLamports +
+                ", lamportsPerSignature=" + lamportsPerSignature +
+                ", maxTransfersPerTransaction=" + maxTransfersPerTransaction +
+                ", signingThreads=" + signingThreads +
+                ", maxConcurrentSubmissions=" + maxConcurrentSubmissions +
+                '}';
+    }
+}
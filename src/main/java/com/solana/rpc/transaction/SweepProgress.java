@@ -0,0 +1,217 @@
+package com.solana.rpc.transaction;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-source outcome of a sweep, optionally journaled to a file so that an interrupted sweep can
+ * be resumed without sending a second transfer for sources already submitted.
+ * <p>
+ * The journal is append-only with one tab-separated line per outcome; on reopening it is replayed
+ * and the latest line for each source wins.
+ */
+public final class SweepProgress implements Closeable {
+
+    /**
+     * Outcome recorded for a source.
+     */
+    public enum Status {
+        SUBMITTED,
+        FAILED,
+        SKIPPED
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final BufferedWriter journal;
+
+    private SweepProgress(BufferedWriter journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * @return progress tracker that is not persisted
+     */
+    public static SweepProgress inMemory() {
+        return new SweepProgress(null);
+    }
+
+    /**
+     * Open a journal, replaying any outcomes it already holds, and append new outcomes to it.
+     *
+     * @param journalFile journal location; created when missing
+     * @return progress tracker backed by the journal
+     * @throws IOException when the journal cannot be read or opened for appending
+     */
+    public static SweepProgress open(Path journalFile) throws IOException {
+        Objects.requireNonNull(journalFile, "journalFile must not be null");
+        Map<String, Entry> replayed = new ConcurrentHashMap<>();
+        if (Files.exists(journalFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Entry entry = Entry.parse(line);
+                    if (entry != null) {
+                        replayed.put(entry.getPublicKey(), entry);
+                    }
+                }
+            }
+        }
+        SweepProgress progress = new SweepProgress(Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        progress.entries.putAll(replayed);
+        return progress;
+    }
+
+    /**
+     * @return whether a transfer from the source was already accepted by the cluster
+     */
+    public boolean isSubmitted(String publicKey) {
+        Entry entry = entries.get(publicKey);
+        return entry != null && entry.getStatus() == Status.SUBMITTED;
+    }
+
+    public Optional<Entry> get(String publicKey) {
+        return Optional.ofNullable(entries.get(publicKey));
+    }
+
+    public Map<String, Entry> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    public int count(Status status) {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return lamports moved by all submitted transfers
+     */
+    public long getSubmittedLamports() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.getStatus() == Status.SUBMITTED) {
+                total += entry.getLamports();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (journal != null) {
+            synchronized (journal) {
+                journal.close();
+            }
+        }
+    }
+
+    void record(String publicKey, Status status, long lamports, String signature, String detail) {
+        Entry entry = new Entry(publicKey, status, lamports, signature, detail);
+        entries.put(publicKey, entry);
+        if (journal == null) {
+            return;
+        }
+        synchronized (journal) {
+            try {
+                journal.write(entry.format());
+                journal.newLine();
+                journal.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write sweep journal", e);
+            }
+        }
+    }
+
+    /**
+     * Latest outcome for one source.
+     */
+    public static final class Entry {
+
+        private final String publicKey;
+        private final Status status;
+        private final long lamports;
+        private final String signature;
+        private final String detail;
+
+        private Entry(String publicKey, Status status, long lamports, String signature, String detail) {
+            this.publicKey = publicKey;
+            this.status = status;
+            this.lamports = lamports;
+            this.signature = signature;
+            this.detail = detail;
+        }
+
+        public String getPublicKey() {
+            return publicKey;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getLamports() {
+            return lamports;
+        }
+
+        /**
+         * @return signature of the transaction carrying the transfer, or {@code null} if none was sent
+         */
+        public String getSignature() {
+            return signature;
+        }
+
+        /**
+         * @return reason for a skip or failure, or {@code null}
+         */
+        public String getDetail() {
+            return detail;
+        }
+
+        private String format() {
+            return publicKey + '\t' + status + '\t' + lamports + '\t' + (signature == null ? "" : signature)
+                    + '\t' + (detail == null ? "" : detail.replaceAll("\\s+", " "));
+        }
+
+        private static Entry parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 5) {
+                // Torn last line from an interrupted write.
+                return null;
+            }
+            try {
+                return new Entry(fields[0], Status.valueOf(fields[1]), Long.parseLong(fields[2]),
+                        fields[3].isEmpty() ? null : fields[3], fields[4].isEmpty() ? null : fields[4]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" +
+                    "publicKey='" + publicKey + '\'' +
+                    ", status=" + status +
+                    ", lamports=" + lamports +
+                    ", signature='" + signature + '\'' +
+                    ", detail='" + detail + '\'' +
+                    '}';
+        }
+    }
+}
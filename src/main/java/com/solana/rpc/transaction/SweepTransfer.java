@@ -0,0 +1,48 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.model.DerivedAccount;
+
+import java.util.Objects;
+
+/**
+ * One planned transfer from a deposit address to the treasury.
+ */
+public final class SweepTransfer {
+
+    private final DerivedAccount source;
+    private final long balance;
+    private final long lamports;
+
+    public SweepTransfer(DerivedAccount source, long balance, long lamports) {
+        this.source = Objects.requireNonNull(source, "source must not be null");
+        this.balance = balance;
+        this.lamports = lamports;
+    }
+
+    public DerivedAccount getSource() {
+        return source;
+    }
+
+    /**
+     * @return balance observed when the sweep was planned
+     */
+    public long getBalance() {
+        return balance;
+    }
+
+    /**
+     * @return amount moved to the treasury
+     */
+    public long getLamports() {
+        return lamports;
+    }
+
+    @Override
+    public String toString() {
+        return "SweepTransfer{" +
+                "source=" + source.getPublicKey() +
+                ", balance=" + balance +
+                ", lamports=" + lamports +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.solana.rpc.transaction;
+
+import java.util.Objects;
+
+/**
+ * A transaction that reached the commitment level a caller asked for.
+ */
+public final class TransactionConfirmation {
+
+    private final String signature;
+    private final long slot;
+    private final CommitmentLevel commitment;
+
+    public TransactionConfirmation(String signature, long slot, CommitmentLevel commitment) {
+        this.signature = Objects.requireNonNull(signature, "signature must not be null");
+        this.slot = slot;
+        this.commitment = Objects.requireNonNull(commitment, "commitment must not be null");
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return slot the transaction was processed in
+     */
+    public long getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return level observed, which may exceed the level requested
+     */
+    public CommitmentLevel getCommitment() {
+        return commitment;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionConfirmation{" +
+                "signature='" + signature + '\'' +
+                ", slot=" + slot +
+                ", commitment=" + commitment +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package com.solana.rpc.transaction;
+
+import org.p2p.solanaj.rpc.RpcException;
+
+/**
+ * Signals that the cluster moved past the last block height at which a transaction's blockhash
+ * was valid without processing it. The transaction can no longer land and may be re-signed.
+ */
+public class TransactionExpiredException extends RpcException {
+
+    private final String signature;
+
+    public TransactionExpiredException(String signature, long lastValidBlockHeight) {
+        super("Transaction " + signature + " expired after block height " + lastValidBlockHeight);
+        this.signature = signature;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+}
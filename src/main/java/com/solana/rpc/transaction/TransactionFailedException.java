@@ -0,0 +1,21 @@
+package com.solana.rpc.transaction;
+
+import org.p2p.solanaj.rpc.RpcException;
+
+/**
+ * Signals that a transaction landed on chain but failed, e.g. for lack of funds. Its fee was
+ * still charged.
+ */
+public class TransactionFailedException extends RpcException {
+
+    private final String signature;
+
+    public TransactionFailedException(String signature, String error) {
+        super("Transaction " + signature + " failed: " + error);
+        this.signature = signature;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+}
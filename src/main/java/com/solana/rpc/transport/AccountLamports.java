@@ -0,0 +1,46 @@
+package com.solana.rpc.transport;
+
+import java.util.Arrays;
+
+/**
+ * Lamport balances for a batch of accounts, read at a single context slot.
+ */
+public final class AccountLamports {
+
+    /**
+     * Marker for accounts that do not exist on chain.
+     */
+    public static final long MISSING = -1;
+
+    private final long contextSlot;
+    private final long[] lamports;
+
+    public AccountLamports(long contextSlot, long[] lamports) {
+        this.contextSlot = contextSlot;
+        this.lamports = lamports;
+    }
+
+    public long getContextSlot() {
+        return contextSlot;
+    }
+
+    public int size() {
+        return lamports.length;
+    }
+
+    /**
+     * @param position position of the account in the request
+     * @return balance in lamports, or {@link #MISSING} when the account does not exist
+     */
+    public long getLamports(int position) {
+        return lamports[position];
+    }
+
+    @Override
+    public String toString() {
+        return "AccountLamports{" +
+                "contextSlot=" + contextSlot +
+                ", lamports=" + Arrays.toString(lamports) +
+                '}';
+    }
+}
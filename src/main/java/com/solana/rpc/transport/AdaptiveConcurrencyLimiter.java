@@ -0,0 +1,361 @@
+package com.solana.rpc.transport;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Additive-increase/multiplicative-decrease limiter for outbound RPC concurrency.
+ * <p>
+ * The limit grows by roughly one permit for every full window of successful calls and is cut back
+ * when the provider pushes back (HTTP 429, dropped connections) or when round-trip latency climbs
+ * well above the best latency observed recently. Callers that cannot get a permit queue for a
+ * bounded amount of time.
+ * <p>
+ * Permits are shared between {@link RpcLane}s by weighted fair queuing: when calls of several
+ * lanes are waiting, the next free permit goes to the lane using the smallest part of its share,
+ * so each lane is guaranteed its share of the limit. Capacity a lane leaves idle is lent to the
+ * others, and a borrowing lane gives it back as its calls complete.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double DEFAULT_BACKOFF_RATIO = 0.5;
+    private static final double DEFAULT_LATENCY_TOLERANCE = 2.0;
+    private static final double LATENCY_BACKOFF_RATIO = 0.9;
+    private static final int BASELINE_RESET_SAMPLES = 1_000;
+    private static final double DEFAULT_BULK_SHARE = 0.25;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double[] shares;
+    private final LatencyHistogram[] waitTimes;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private final int[] laneInFlight;
+    private final int[] laneQueued;
+    private final long[] laneAcquired;
+    private final long[] laneTimedOut;
+    private long baselineRttNanos = Long.MAX_VALUE;
+    private long smoothedRttNanos;
+    private int samplesSinceBaselineReset;
+    private long lastDecreaseNanos;
+
+    /**
+     * Create a limiter with the default backoff ratio and latency tolerance.
+     *
+     * @param initialLimit starting number of concurrent calls
+     * @param minLimit     floor the limit never drops below; must be at least one
+     * @param maxLimit     ceiling the limit never grows beyond
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, DEFAULT_BACKOFF_RATIO, DEFAULT_LATENCY_TOLERANCE);
+    }
+
+    /**
+     * Create a limiter with explicit tuning parameters.
+     *
+     * @param initialLimit     starting number of concurrent calls
+     * @param minLimit         floor the limit never drops below; must be at least one
+     * @param maxLimit         ceiling the limit never grows beyond
+     * @param backoffRatio     multiplier applied to the limit when a call is dropped or throttled
+     * @param latencyTolerance ratio over the baseline round trip above which latency counts as congestion
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance, DEFAULT_BULK_SHARE);
+    }
+
+    /**
+     * Create a limiter with the default backoff ratio and latency tolerance.
+     *
+     * @param initialLimit starting number of concurrent calls
+     * @param minLimit     floor the limit never drops below; must be at least one
+     * @param maxLimit     ceiling the limit never grows beyond
+     * @param bulkShare    fraction of the limit guaranteed to {@link RpcLane#BULK}; the rest is
+     *                     guaranteed to {@link RpcLane#INTERACTIVE}
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double bulkShare) {
+        this(initialLimit, minLimit, maxLimit, DEFAULT_BACKOFF_RATIO, DEFAULT_LATENCY_TOLERANCE, bulkShare);
+    }
+
+    /**
+     * Create a limiter with explicit tuning parameters.
+     *
+     * @param initialLimit     starting number of concurrent calls
+     * @param minLimit         floor the limit never drops below; must be at least one
+     * @param maxLimit         ceiling the limit never grows beyond
+     * @param backoffRatio     multiplier applied to the limit when a call is dropped or throttled
+     * @param latencyTolerance ratio over the baseline round trip above which latency counts as congestion
+     * @param bulkShare        fraction of the limit guaranteed to {@link RpcLane#BULK}; the rest is
+     *                         guaranteed to {@link RpcLane#INTERACTIVE}
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, double latencyTolerance, double bulkShare) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must lie between minLimit and maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        if (latencyTolerance <= 1) {
+            throw new IllegalArgumentException("latencyTolerance must be greater than 1");
+        }
+        if (!(bulkShare > 0 && bulkShare < 1)) {
+            throw new IllegalArgumentException("bulkShare must be between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.limit = initialLimit;
+
+        int lanes = RpcLane.all().length;
+        this.shares = new double[lanes];
+        this.shares[RpcLane.INTERACTIVE.ordinal()] = 1 - bulkShare;
+        this.shares[RpcLane.BULK.ordinal()] = bulkShare;
+        this.waitTimes = new LatencyHistogram[lanes];
+        for (int i = 0; i < lanes; i++) {
+            waitTimes[i] = new LatencyHistogram();
+        }
+        this.laneInFlight = new int[lanes];
+        this.laneQueued = new int[lanes];
+        this.laneAcquired = new long[lanes];
+        this.laneTimedOut = new long[lanes];
+    }
+
+    /**
+     * Wait for an {@link RpcLane#INTERACTIVE} permit for at most the given time.
+     *
+     * @return {@code true} when a permit was granted, {@code false} when the wait timed out
+     * @throws InterruptedException when the waiting thread is interrupted
+     */
+    public boolean acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquire(RpcLane.INTERACTIVE, timeout, unit);
+    }
+
+    /**
+     * Wait for a permit in the given lane for at most the given time. The permit must be released
+     * through the same lane.
+     *
+     * @return {@code true} when a permit was granted, {@code false} when the wait timed out
+     * @throws InterruptedException when the waiting thread is interrupted
+     */
+    public boolean acquire(RpcLane lane, long timeout, TimeUnit unit) throws InterruptedException {
+        int l = Objects.requireNonNull(lane, "lane must not be null").ordinal();
+        long startNanos = System.nanoTime();
+        long remainingNanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            if (laneQueued[l] == 0 && mayGrant(l)) {
+                grant(l);
+                waitTimes[l].record(0);
+                return true;
+            }
+            queued++;
+            laneQueued[l]++;
+            try {
+                while (!mayGrant(l)) {
+                    if (remainingNanos <= 0) {
+                        laneTimedOut[l]++;
+                        // Calls of other lanes may have been held back in favour of this one.
+                        permitReleased.signalAll();
+                        return false;
+                    }
+                    remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                }
+                grant(l);
+            } finally {
+                queued--;
+                laneQueued[l]--;
+            }
+        } finally {
+            lock.unlock();
+        }
+        waitTimes[l].record(System.nanoTime() - startNanos);
+        return true;
+    }
+
+    /**
+     * Release a permit after a successful call and feed its round-trip time into the limit.
+     *
+     * @param rttNanos observed round-trip time of the call in nanoseconds
+     */
+    public void onSuccess(long rttNanos) {
+        onSuccess(RpcLane.INTERACTIVE, rttNanos);
+    }
+
+    /**
+     * Release a permit of the given lane after a successful call and feed its round-trip time into the limit.
+     *
+     * @param rttNanos observed round-trip time of the call in nanoseconds
+     */
+    public void onSuccess(RpcLane lane, long rttNanos) {
+        lock.lock();
+        try {
+            release(lane);
+            recordRtt(rttNanos);
+            if (rttNanos > baselineRttNanos * latencyTolerance) {
+                decrease(LATENCY_BACKOFF_RATIO);
+            } else if (limit < maxLimit) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a permit after the provider throttled or dropped the call, shrinking the limit.
+     */
+    public void onDropped() {
+        onDropped(RpcLane.INTERACTIVE);
+    }
+
+    /**
+     * Release a permit of the given lane after the provider throttled or dropped the call, shrinking the limit.
+     */
+    public void onDropped(RpcLane lane) {
+        lock.lock();
+        try {
+            release(lane);
+            decrease(backoffRatio);
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release a permit without adjusting the limit, e.g. when a call failed for reasons unrelated to load.
+     */
+    public void onIgnore() {
+        onIgnore(RpcLane.INTERACTIVE);
+    }
+
+    /**
+     * Release a permit of the given lane without adjusting the limit.
+     */
+    public void onIgnore(RpcLane lane) {
+        lock.lock();
+        try {
+            release(lane);
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return queue depth, permits in use and wait times of one lane
+     */
+    public RpcLaneMetrics getLaneMetrics(RpcLane lane) {
+        int l = Objects.requireNonNull(lane, "lane must not be null").ordinal();
+        int laneInFlightNow;
+        int laneQueuedNow;
+        long acquired;
+        long timedOut;
+        lock.lock();
+        try {
+            laneInFlightNow = laneInFlight[l];
+            laneQueuedNow = laneQueued[l];
+            acquired = laneAcquired[l];
+            timedOut = laneTimedOut[l];
+        } finally {
+            lock.unlock();
+        }
+        return new RpcLaneMetrics(lane, shares[l], laneInFlightNow, laneQueuedNow, acquired, timedOut,
+                waitTimes[l].getValueAtPercentile(50), waitTimes[l].getValueAtPercentile(99));
+    }
+
+    /**
+     * Whether a call of lane {@code l} may take a permit now: one must be free, and no other lane
+     * with waiting calls may be further below its share. Ties go to the lane declared first.
+     */
+    private boolean mayGrant(int l) {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        for (int other = 0; other < laneQueued.length; other++) {
+            if (other == l || laneQueued[other] == 0) {
+                continue;
+            }
+            // Compare inFlight / share without dividing.
+            double otherUsage = laneInFlight[other] * shares[l];
+            double usage = laneInFlight[l] * shares[other];
+            if (otherUsage < usage || (otherUsage == usage && other < l)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grant(int l) {
+        inFlight++;
+        laneInFlight[l]++;
+        laneAcquired[l]++;
+    }
+
+    private void release(RpcLane lane) {
+        inFlight--;
+        laneInFlight[lane.ordinal()]--;
+    }
+
+    private void recordRtt(long rttNanos) {
+        smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : (smoothedRttNanos * 7 + rttNanos) / 8;
+        if (++samplesSinceBaselineReset >= BASELINE_RESET_SAMPLES) {
+            // Let the baseline drift upwards when the provider's normal latency changes.
+            baselineRttNanos = smoothedRttNanos;
+            samplesSinceBaselineReset = 0;
+        }
+        baselineRttNanos = Math.min(baselineRttNanos, rttNanos);
+    }
+
+    private void decrease(double ratio) {
+        long now = System.nanoTime();
+        // A burst of failures from one overload episode should only cut the limit once per round trip.
+        if (lastDecreaseNanos != 0 && now - lastDecreaseNanos < smoothedRttNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * ratio);
+    }
+}
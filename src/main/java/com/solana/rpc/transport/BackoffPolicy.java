@@ -0,0 +1,59 @@
+package com.solana.rpc.transport;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter for retrying throttled or dropped RPC calls.
+ */
+public final class BackoffPolicy {
+
+    private static final int MAX_SHIFT = 20;
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+
+    /**
+     * @param maxRetries  number of retries after the first attempt; zero disables retries
+     * @param baseDelayMs delay cap for the first retry in milliseconds
+     * @param maxDelayMs  upper bound for any single delay in milliseconds
+     */
+    public BackoffPolicy(int maxRetries, long baseDelayMs, long maxDelayMs) {
+        if (maxRetries < 0 || baseDelayMs < 0 || maxDelayMs < baseDelayMs) {
+            throw new IllegalArgumentException("Backoff requires maxRetries >= 0 and 0 <= baseDelayMs <= maxDelayMs");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public static BackoffPolicy noRetries() {
+        return new BackoffPolicy(0, 0, 0);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Compute a randomized delay for the given retry attempt, spreading retries from concurrent
+     * callers so they do not hit the provider again in lockstep.
+     *
+     * @param retry one-based retry number
+     * @return delay in milliseconds, uniformly drawn from {@code [0, min(maxDelay, base * 2^(retry-1))]}
+     */
+    public long delayMillis(int retry) {
+        int shift = Math.min(Math.max(retry - 1, 0), MAX_SHIFT);
+        long cap = Math.min(maxDelayMs, baseDelayMs << shift);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "BackoffPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", baseDelayMs=" + baseDelayMs +
+                ", maxDelayMs=" + maxDelayMs +
+                '}';
+    }
+}
@@ -0,0 +1,146 @@
+package com.solana.rpc.transport;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget for a logical RPC operation, shared by every attempt and retry made on its behalf.
+ * A deadline can also be cancelled explicitly, which aborts any HTTP request currently running
+ * under it.
+ */
+public final class Deadline {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Create a deadline that expires after the given budget, measured from now.
+     *
+     * @param budget time allowed for the operation; must not be negative
+     * @return new deadline
+     */
+    public static Deadline after(Duration budget) {
+        Objects.requireNonNull(budget, "budget must not be null");
+        if (budget.isNegative()) {
+            throw new IllegalArgumentException("Deadline budget must not be negative");
+        }
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    /**
+     * Create a deadline that never expires on its own but can still be cancelled.
+     *
+     * @return new unbounded deadline
+     */
+    public static Deadline none() {
+        return new Deadline(NO_DEADLINE);
+    }
+
+    /**
+     * Create a deadline with the same expiry that is also cancelled when this one is, but which can
+     * be cancelled on its own without affecting this deadline. Used to abort one of several
+     * concurrent attempts made under a shared budget.
+     *
+     * @return new child deadline
+     */
+    public Deadline child() {
+        Deadline child = new Deadline(deadlineNanos);
+        onCancel(child::cancel);
+        return child;
+    }
+
+    public boolean hasExpiry() {
+        return deadlineNanos != NO_DEADLINE;
+    }
+
+    /**
+     * @return remaining budget in nanoseconds, {@link Long#MAX_VALUE} when unbounded, or zero or
+     * less once expired
+     */
+    public long remainingNanos() {
+        if (cancelled) {
+            return 0;
+        }
+        if (!hasExpiry()) {
+            return Long.MAX_VALUE;
+        }
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public long remainingMillis() {
+        long remaining = remainingNanos();
+        return remaining == Long.MAX_VALUE ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(remaining);
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancel the deadline, aborting any in-flight request bound to it. Idempotent.
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        for (Runnable listener : cancelListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Register a callback that runs when the deadline is cancelled. Runs immediately if it already was.
+     *
+     * @param listener callback, typically cancelling an HTTP call
+     * @return handle that removes the callback again
+     */
+    public TransportScope onCancel(Runnable listener) {
+        Objects.requireNonNull(listener, "listener must not be null");
+        cancelListeners.add(listener);
+        if (cancelled) {
+            listener.run();
+        }
+        return () -> cancelListeners.remove(listener);
+    }
+
+    /**
+     * @return the deadline bound to the calling thread by {@link RpcExecutor}, or {@code null}
+     */
+    static Deadline current() {
+        return CURRENT.get();
+    }
+
+    TransportScope bindToCurrentThread() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return hasExpiry() ? "Deadline{remainingMs=" + remainingMillis() + ", cancelled=" + cancelled + '}'
+                : "Deadline{unbounded, cancelled=" + cancelled + '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.solana.rpc.transport;
+
+import org.p2p.solanaj.rpc.RpcException;
+
+/**
+ * Signals that an RPC operation could not complete within its {@link Deadline}.
+ */
+public class DeadlineExceededException extends RpcException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
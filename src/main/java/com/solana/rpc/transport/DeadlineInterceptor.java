@@ -0,0 +1,69 @@
+package com.solana.rpc.transport;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttp interceptor that applies the {@link Deadline} bound by {@link RpcExecutor} to the HTTP
+ * exchange: socket timeouts are capped at the remaining budget and the call is cancelled outright
+ * when the deadline expires or is cancelled, releasing the connection and the calling thread.
+ */
+public class DeadlineInterceptor implements Interceptor {
+
+    private static final ScheduledExecutorService CANCELLER = createCanceller();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return chain.proceed(chain.request());
+        }
+        if (!deadline.hasExpiry()) {
+            return proceedCancellable(chain, deadline, null);
+        }
+
+        long remainingNanos = deadline.remainingNanos();
+        if (remainingNanos <= 0) {
+            throw new InterruptedIOException("deadline exceeded before the request was sent");
+        }
+
+        Call call = chain.call();
+        ScheduledFuture<?> expiry = CANCELLER.schedule(call::cancel, remainingNanos, TimeUnit.NANOSECONDS);
+        int remainingMs = (int) Math.max(1, Math.min(Integer.MAX_VALUE, TimeUnit.NANOSECONDS.toMillis(remainingNanos)));
+        Chain bounded = chain
+                .withConnectTimeout(Math.min(remainingMs, chain.connectTimeoutMillis()), TimeUnit.MILLISECONDS)
+                .withReadTimeout(Math.min(remainingMs, chain.readTimeoutMillis()), TimeUnit.MILLISECONDS)
+                .withWriteTimeout(Math.min(remainingMs, chain.writeTimeoutMillis()), TimeUnit.MILLISECONDS);
+        return proceedCancellable(bounded, deadline, expiry);
+    }
+
+    private static Response proceedCancellable(Chain chain, Deadline deadline, ScheduledFuture<?> expiry)
+            throws IOException {
+        Call call = chain.call();
+        try (TransportScope ignored = deadline.onCancel(call::cancel)) {
+            return chain.proceed(chain.request());
+        } finally {
+            if (expiry != null) {
+                expiry.cancel(false);
+            }
+        }
+    }
+
+    private static ScheduledExecutorService createCanceller() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "rpc-deadline-canceller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
@@ -0,0 +1,320 @@
+package com.solana.rpc.transport;
+
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executes idempotent reads with optional hedging: when the primary attempt has not answered
+ * within a percentile of recent latency, a duplicate goes out, the first response wins and the
+ * other attempt is cancelled. Hedges are paid for from a token budget refilled by every request,
+ * which caps them at a fixed fraction of traffic.
+ * <p>
+ * The primary attempt runs on the caller's thread; only hedges use the internal pool. With hedging
+ * disabled calls pass straight through to the underlying {@link RpcExecutor}.
+ */
+public class HedgedRpcExecutor implements AutoCloseable {
+
+    private static final int LATENCY_WINDOW = 10_000;
+    private static final int DELAY_REFRESH_INTERVAL = 64;
+    private static final long TOKEN_SCALE = 1_000_000L;
+    private static final long MAX_TOKENS = 10 * TOKEN_SCALE;
+    private static final int NOT_LAUNCHED = 0;
+    private static final int LAUNCHED = 1;
+    private static final int SUPPRESSED = 2;
+
+    private final RpcExecutor rpcExecutor;
+    private final HedgingPolicy policy;
+    private final long tokensPerRequest;
+    private final long minDelayNanos;
+
+    private final AtomicLong hedgeTokens = new AtomicLong();
+    private final AtomicReference<LatencyHistogram> currentWindow = new AtomicReference<>(new LatencyHistogram());
+    private volatile LatencyHistogram previousWindow = new LatencyHistogram();
+    private volatile long hedgeDelayNanos;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LatencyHistogram effectiveLatency = new LatencyHistogram();
+    private final LatencyHistogram primaryLatency = new LatencyHistogram();
+
+    private volatile ScheduledExecutorService timer;
+    private volatile ExecutorService hedgePool;
+
+    public HedgedRpcExecutor(RpcExecutor rpcExecutor, HedgingPolicy policy) {
+        this.rpcExecutor = Objects.requireNonNull(rpcExecutor, "rpcExecutor must not be null");
+        this.policy = Objects.requireNonNull(policy, "policy must not be null");
+        this.tokensPerRequest = (long) (policy.getMaxHedgeRatio() * TOKEN_SCALE);
+        this.minDelayNanos = policy.getMinDelay().toNanos();
+    }
+
+    /**
+     * Execute an idempotent read under the given deadline, hedging it if the policy allows.
+     *
+     * @param call     idempotent RPC invocation; may run twice concurrently
+     * @param deadline budget shared by the primary and the hedge
+     * @param <T>      result type
+     * @return result of whichever attempt answered first
+     * @throws RpcException when every launched attempt failed or the deadline ran out
+     */
+    public <T> T execute(RpcCall<T> call, Deadline deadline) throws RpcException {
+        Objects.requireNonNull(call, "call must not be null");
+        Objects.requireNonNull(deadline, "deadline must not be null");
+        if (!policy.isEnabled()) {
+            return rpcExecutor.execute(call, deadline);
+        }
+
+        requests.increment();
+        refillTokens();
+        long startNanos = System.nanoTime();
+        HedgedCall<T> hedgedCall = new HedgedCall<>(call, deadline);
+        long delayNanos = hedgeDelayNanos;
+        if (delayNanos > 0 && delayNanos < deadline.remainingNanos()) {
+            hedgedCall.timer = timer().schedule(hedgedCall::launchHedge, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            T result = hedgedCall.runPrimary();
+            long elapsed = System.nanoTime() - startNanos;
+            effectiveLatency.record(elapsed);
+            recordWindow(elapsed);
+            return result;
+        } finally {
+            hedgedCall.cleanUp();
+        }
+    }
+
+    /**
+     * @return counters and latency percentiles since creation, for judging what hedging buys and costs
+     */
+    public HedgingMetrics getMetrics() {
+        return new HedgingMetrics(requests.sum(), hedgesSent.sum(), hedgeWins.sum(),
+                effectiveLatency.getValueAtPercentile(50), effectiveLatency.getValueAtPercentile(99),
+                primaryLatency.getValueAtPercentile(50), primaryLatency.getValueAtPercentile(99));
+    }
+
+    public HedgingPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (hedgePool != null) {
+            hedgePool.shutdownNow();
+        }
+    }
+
+    long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    private long computeHedgeDelayNanos() {
+        LatencyHistogram window = currentWindow.get();
+        if (window.getCount() < policy.getMinSamples()) {
+            window = previousWindow;
+            if (window.getCount() < policy.getMinSamples()) {
+                return 0;
+            }
+        }
+        return Math.max(minDelayNanos, window.getValueAtPercentile(policy.getDelayPercentile()));
+    }
+
+    private void refillTokens() {
+        hedgeTokens.getAndUpdate(tokens -> Math.min(MAX_TOKENS, tokens + tokensPerRequest));
+    }
+
+    private boolean tryTakeHedgeToken() {
+        long tokens;
+        do {
+            tokens = hedgeTokens.get();
+            if (tokens < TOKEN_SCALE) {
+                return false;
+            }
+        } while (!hedgeTokens.compareAndSet(tokens, tokens - TOKEN_SCALE));
+        return true;
+    }
+
+    private void recordWindow(long nanos) {
+        LatencyHistogram window = currentWindow.get();
+        window.record(nanos);
+        long count = window.getCount();
+        if (count >= LATENCY_WINDOW && currentWindow.compareAndSet(window, new LatencyHistogram())) {
+            previousWindow = window;
+        }
+        if (count % DELAY_REFRESH_INTERVAL == 0 || count == policy.getMinSamples()) {
+            hedgeDelayNanos = computeHedgeDelayNanos();
+        }
+    }
+
+    private ScheduledExecutorService timer() {
+        ScheduledExecutorService existing = timer;
+        if (existing == null) {
+            synchronized (this) {
+                existing = timer;
+                if (existing == null) {
+                    existing = Executors.newSingleThreadScheduledExecutor(daemonThreads("rpc-hedge-timer"));
+                    timer = existing;
+                }
+            }
+        }
+        return existing;
+    }
+
+    private ExecutorService hedgePool() {
+        ExecutorService existing = hedgePool;
+        if (existing == null) {
+            synchronized (this) {
+                existing = hedgePool;
+                if (existing == null) {
+                    existing = Executors.newCachedThreadPool(daemonThreads("rpc-hedge"));
+                    hedgePool = existing;
+                }
+            }
+        }
+        return existing;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * State shared between the primary attempt on the caller's thread and a possible hedge.
+     */
+    private final class HedgedCall<T> {
+
+        private final RpcCall<T> call;
+        private final Deadline deadline;
+        private final Deadline primaryDeadline;
+        private final CompletableFuture<T> winner = new CompletableFuture<>();
+        private final CompletableFuture<T> hedgeOutcome = new CompletableFuture<>();
+        private final AtomicInteger hedgeState = new AtomicInteger(NOT_LAUNCHED);
+        private final Span callerSpan = Tracer.currentSpan();
+        private final RpcLane lane = RpcLane.current();
+        private volatile Deadline hedgeDeadline;
+        private volatile ScheduledFuture<?> timer;
+
+        private HedgedCall(RpcCall<T> call, Deadline deadline) {
+            this.call = call;
+            this.deadline = deadline;
+            this.primaryDeadline = deadline.child();
+        }
+
+        private T runPrimary() throws RpcException {
+            long startNanos = System.nanoTime();
+            try {
+                T result = rpcExecutor.execute(call, primaryDeadline, lane);
+                primaryLatency.record(System.nanoTime() - startNanos);
+                if (winner.complete(result)) {
+                    suppressOrCancelHedge();
+                }
+                return winner.join();
+            } catch (RpcException e) {
+                primaryLatency.record(System.nanoTime() - startNanos);
+                if (suppressOrCancelHedge()) {
+                    throw e;
+                }
+                return awaitHedge(e);
+            }
+        }
+
+        /**
+         * @return {@code true} when no hedge was launched, {@code false} when one is (or was) running
+         */
+        private boolean suppressOrCancelHedge() {
+            ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            if (hedgeState.compareAndSet(NOT_LAUNCHED, SUPPRESSED)) {
+                return true;
+            }
+            Deadline hedge = hedgeDeadline;
+            if (hedge != null && winner.isDone() && !hedgeOutcome.isDone()) {
+                hedge.cancel();
+            }
+            return false;
+        }
+
+        private T awaitHedge(RpcException primaryFailure) throws RpcException {
+            try {
+                long remaining = deadline.remainingNanos();
+                return remaining == Long.MAX_VALUE ? hedgeOutcome.get()
+                        : hedgeOutcome.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RpcException rpcException) {
+                    throw rpcException;
+                }
+                throw primaryFailure;
+            } catch (TimeoutException e) {
+                throw new DeadlineExceededException("Hedged RPC call exceeded its deadline");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RpcException("Interrupted while waiting for hedged RPC call");
+            }
+        }
+
+        private void launchHedge() {
+            if (winner.isDone() || deadline.isExpired() || !tryTakeHedgeToken()) {
+                return;
+            }
+            if (!hedgeState.compareAndSet(NOT_LAUNCHED, LAUNCHED)) {
+                // The primary finished meanwhile; give the token back.
+                hedgeTokens.addAndGet(TOKEN_SCALE);
+                return;
+            }
+            hedgeDeadline = deadline.child();
+            hedgesSent.increment();
+            hedgePool().execute(this::runHedge);
+        }
+
+        private void runHedge() {
+            try (Span ignored = Tracer.childOf(callerSpan, "rpc.hedge")) {
+                T result = rpcExecutor.execute(call, hedgeDeadline, lane);
+                if (winner.complete(result)) {
+                    hedgeWins.increment();
+                    primaryDeadline.cancel();
+                }
+                hedgeOutcome.complete(result);
+            } catch (RpcException | RuntimeException e) {
+                hedgeOutcome.completeExceptionally(e);
+            }
+        }
+
+        private void cleanUp() {
+            ScheduledFuture<?> scheduled = timer;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+            hedgeState.compareAndSet(NOT_LAUNCHED, SUPPRESSED);
+            Deadline hedge = hedgeDeadline;
+            if (hedge != null && !hedgeOutcome.isDone()) {
+                hedge.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.solana.rpc.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time view of what hedging costs (extra requests) and what it buys (lower tail latency).
+ * Primary-attempt latency shows what callers would have seen without hedging; for primaries that
+ * lost to a hedge it is the time until they were cancelled, so it understates the true tail.
+ */
+public final class HedgingMetrics {
+
+    private final long requests;
+    private final long hedgesSent;
+    private final long hedgeWins;
+    private final long effectiveP50Nanos;
+    private final long effectiveP99Nanos;
+    private final long primaryP50Nanos;
+    private final long primaryP99Nanos;
+
+    public HedgingMetrics(long requests, long hedgesSent, long hedgeWins,
+                          long effectiveP50Nanos, long effectiveP99Nanos,
+                          long primaryP50Nanos, long primaryP99Nanos) {
+        this.requests = requests;
+        this.hedgesSent = hedgesSent;
+        this.hedgeWins = hedgeWins;
+        this.effectiveP50Nanos = effectiveP50Nanos;
+        this.effectiveP99Nanos = effectiveP99Nanos;
+        this.primaryP50Nanos = primaryP50Nanos;
+        this.primaryP99Nanos = primaryP99Nanos;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent;
+    }
+
+    public long getHedgeWins() {
+        return hedgeWins;
+    }
+
+    /**
+     * @return extra load from hedging as a fraction of requests
+     */
+    public double getHedgeRate() {
+        return requests == 0 ? 0 : (double) hedgesSent / requests;
+    }
+
+    public long getEffectiveP50Nanos() {
+        return effectiveP50Nanos;
+    }
+
+    public long getEffectiveP99Nanos() {
+        return effectiveP99Nanos;
+    }
+
+    public long getPrimaryP50Nanos() {
+        return primaryP50Nanos;
+    }
+
+    public long getPrimaryP99Nanos() {
+        return primaryP99Nanos;
+    }
+
+    /**
+     * @return how much hedging lowered p99 latency compared to the primary attempts alone
+     */
+    public long getP99ReductionNanos() {
+        return Math.max(0, primaryP99Nanos - effectiveP99Nanos);
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingMetrics{" +
+                "requests=" + requests +
+                ", hedgesSent=" + hedgesSent +
+                ", hedgeWins=" + hedgeWins +
+                ", hedgeRate=" + String.format("%.4f", getHedgeRate()) +
+                ", effectiveP99Ms=" + TimeUnit.NANOSECONDS.toMillis(effectiveP99Nanos) +
+                ", primaryP99Ms=" + TimeUnit.NANOSECONDS.toMillis(primaryP99Nanos) +
+                ", p99ReductionMs=" + TimeUnit.NANOSECONDS.toMillis(getP99ReductionNanos()) +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.solana.rpc.transport;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Settings for hedged reads: when to send a duplicate request and how much extra load hedging may add.
+ */
+public final class HedgingPolicy {
+
+    private static final int DEFAULT_MIN_SAMPLES = 100;
+    private static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(5);
+
+    private final double delayPercentile;
+    private final double maxHedgeRatio;
+    private final int minSamples;
+    private final Duration minDelay;
+
+    /**
+     * @param delayPercentile percentile (0-100] of recent latency after which a hedge is sent
+     * @param maxHedgeRatio   maximum hedges as a fraction of requests, e.g. 0.05 for 5%; zero disables hedging
+     * @param minSamples      latency observations required before hedging starts
+     * @param minDelay        lower bound for the hedge delay
+     */
+    public HedgingPolicy(double delayPercentile, double maxHedgeRatio, int minSamples, Duration minDelay) {
+        if (delayPercentile <= 0 || delayPercentile > 100) {
+            throw new IllegalArgumentException("delayPercentile must be in (0, 100]");
+        }
+        if (maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("maxHedgeRatio must be between 0 and 1");
+        }
+        if (minSamples < 1) {
+            throw new IllegalArgumentException("minSamples must be positive");
+        }
+        this.delayPercentile = delayPercentile;
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.minSamples = minSamples;
+        this.minDelay = Objects.requireNonNull(minDelay, "minDelay must not be null");
+    }
+
+    /**
+     * Create a policy hedging at the given latency percentile and capped at the given percentage of traffic.
+     *
+     * @param delayPercentile percentile (0-100] of recent latency after which a hedge is sent
+     * @param maxHedgePercent maximum hedges as a percentage of requests; zero disables hedging
+     * @return new policy with default warmup and minimum delay
+     */
+    public static HedgingPolicy of(int delayPercentile, int maxHedgePercent) {
+        return new HedgingPolicy(delayPercentile, maxHedgePercent / 100.0, DEFAULT_MIN_SAMPLES, DEFAULT_MIN_DELAY);
+    }
+
+    public static HedgingPolicy disabled() {
+        return new HedgingPolicy(100, 0, DEFAULT_MIN_SAMPLES, DEFAULT_MIN_DELAY);
+    }
+
+    public boolean isEnabled() {
+        return maxHedgeRatio > 0;
+    }
+
+    public double getDelayPercentile() {
+        return delayPercentile;
+    }
+
+    public double getMaxHedgeRatio() {
+        return maxHedgeRatio;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingPolicy{" +
+                "delayPercentile=" + delayPercentile +
+                ", maxHedgeRatio=" + maxHedgeRatio +
+                ", minSamples=" + minSamples +
+                ", minDelay=" + minDelay +
+                '}';
+    }
+}
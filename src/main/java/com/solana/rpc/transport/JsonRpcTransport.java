@@ -0,0 +1,337 @@
+package com.solana.rpc.transport;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal JSON-RPC client that streams requests out with a {@link JsonGenerator} and decodes
+ * responses straight from the HTTP body with a {@link JsonParser}, so large responses never turn
+ * into a String or an object tree.
+ * <p>
+ * The request buffer is reused per thread and Jackson recycles its parser buffers per thread, so a
+ * call allocates little beyond what the decoder chooses to keep. Calls run on the shared
+ * {@link OkHttpClient}, so when executed through {@link RpcExecutor} they honour deadlines and
+ * error messages follow the same conventions Solanaj uses, which keeps retry classification working.
+ */
+public class JsonRpcTransport {
+
+    /**
+     * Most keys the RPC API accepts in a single {@code getMultipleAccounts} call.
+     */
+    public static final int MAX_ACCOUNTS_PER_REQUEST = 100;
+
+    /**
+     * Widest slot range the RPC API accepts in a single {@code getBlocks} call.
+     */
+    public static final int MAX_SLOTS_PER_BLOCKS_REQUEST = 500_000;
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAX_RETAINED_REQUEST_BUFFER = 64 * 1024;
+    private static final ThreadLocal<RequestBuffer> REQUEST_BUFFER = ThreadLocal.withInitial(RequestBuffer::new);
+
+    private final OkHttpClient httpClient;
+    private final String endpoint;
+    private final AtomicLong requestIds = new AtomicLong();
+
+    public JsonRpcTransport(OkHttpClient httpClient, String endpoint) {
+        this.httpClient = Objects.requireNonNull(httpClient, "httpClient must not be null");
+        this.endpoint = Objects.requireNonNull(endpoint, "endpoint must not be null");
+    }
+
+    /**
+     * Perform a JSON-RPC call and decode its result with the given decoder.
+     *
+     * @param method  RPC method name
+     * @param params  writer for the params array elements
+     * @param decoder decoder invoked on the {@code result} value
+     * @param <T>     decoded type
+     * @return decoded result
+     * @throws RpcException when the transport fails, the provider returns an error or the
+     *                      response cannot be decoded
+     */
+    public <T> T call(String method, ParamsWriter params, ResultDecoder<T> decoder) throws RpcException {
+        Objects.requireNonNull(method, "method must not be null");
+        Objects.requireNonNull(params, "params must not be null");
+        Objects.requireNonNull(decoder, "decoder must not be null");
+
+        RequestBuffer buffer = REQUEST_BUFFER.get();
+        try (Span ignored = Tracer.span("rpc.call").setAttribute("method", method)) {
+            buffer.reset();
+            writeRequest(buffer, method, params);
+            Request request = new Request.Builder()
+                    .url(endpoint)
+                    .post(RequestBody.create(buffer.array(), JSON, 0, buffer.size()))
+                    .build();
+            try (Response response = httpClient.newCall(request).execute()) {
+                return readResponse(response, decoder);
+            }
+        } catch (JsonProcessingException e) {
+            throw new RpcException("JSON processing error during RPC call: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new RpcException("IO error during RPC call: " + e.getMessage());
+        } finally {
+            buffer.trim();
+        }
+    }
+
+    /**
+     * Read the balance of one account.
+     *
+     * @param base58Address base58-encoded public key
+     * @return balance in lamports
+     */
+    public long getBalance(String base58Address) throws RpcException {
+        Objects.requireNonNull(base58Address, "base58Address must not be null");
+        return call("getBalance", generator -> generator.writeString(base58Address),
+                RpcResultDecoders.contextLongValue());
+    }
+
+    /**
+     * Read the lamports of up to {@value #MAX_ACCOUNTS_PER_REQUEST} accounts in one round trip.
+     * Account data is sliced to zero bytes on the server since only balances are kept.
+     *
+     * @param base58Addresses base58-encoded public keys
+     * @return balances in request order, read at one context slot
+     */
+    public AccountLamports getMultipleAccountLamports(List<String> base58Addresses) throws RpcException {
+        return getMultipleAccountLamports(base58Addresses, -1);
+    }
+
+    /**
+     * Read the lamports of up to {@value #MAX_ACCOUNTS_PER_REQUEST} accounts in one round trip from
+     * a node that has reached at least {@code minContextSlot}, so the batch is never older than a
+     * snapshot the caller has already seen. A node that is further behind fails the call.
+     *
+     * @param base58Addresses base58-encoded public keys
+     * @param minContextSlot  lowest acceptable context slot, or a negative value for any
+     * @return balances in request order, read at one context slot
+     */
+    public AccountLamports getMultipleAccountLamports(List<String> base58Addresses, long minContextSlot)
+            throws RpcException {
+        Objects.requireNonNull(base58Addresses, "base58Addresses must not be null");
+        if (base58Addresses.isEmpty() || base58Addresses.size() > MAX_ACCOUNTS_PER_REQUEST) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_ACCOUNTS_PER_REQUEST
+                    + " addresses are required per request");
+        }
+        return call("getMultipleAccounts", generator -> {
+            generator.writeStartArray();
+            for (String address : base58Addresses) {
+                generator.writeString(address);
+            }
+            generator.writeEndArray();
+            generator.writeStartObject();
+            generator.writeStringField("encoding", "base64");
+            generator.writeObjectFieldStart("dataSlice");
+            generator.writeNumberField("offset", 0);
+            generator.writeNumberField("length", 0);
+            generator.writeEndObject();
+            if (minContextSlot >= 0) {
+                generator.writeNumberField("minContextSlot", minContextSlot);
+            }
+            generator.writeEndObject();
+        }, RpcResultDecoders.multipleAccountLamports(base58Addresses.size()));
+    }
+
+    /**
+     * Submit a signed transaction in wire format. Resubmitting the same bytes is harmless: the
+     * cluster deduplicates by signature.
+     *
+     * @param wireTransaction serialized, fully signed transaction
+     * @return base58-encoded signature reported by the node
+     */
+    public String sendTransaction(byte[] wireTransaction) throws RpcException {
+        Objects.requireNonNull(wireTransaction, "wireTransaction must not be null");
+        String encoded = Base64.getEncoder().encodeToString(wireTransaction);
+        return call("sendTransaction", generator -> {
+            generator.writeString(encoded);
+            generator.writeStartObject();
+            generator.writeStringField("encoding", "base64");
+            generator.writeEndObject();
+        }, RpcResultDecoders.stringValue());
+    }
+
+    /**
+     * Read the highest slot that reached the given commitment.
+     *
+     * @param commitment {@code processed}, {@code confirmed} or {@code finalized}
+     * @return slot number
+     */
+    public long getSlot(String commitment) throws RpcException {
+        Objects.requireNonNull(commitment, "commitment must not be null");
+        return call("getSlot", generator -> writeCommitment(generator, commitment), RpcResultDecoders.longValue());
+    }
+
+    /**
+     * List the slots in {@code [startSlot, endSlot]} that hold a block; skipped slots are left out.
+     *
+     * @param startSlot  first slot, inclusive
+     * @param endSlot    last slot, inclusive; at most {@value #MAX_SLOTS_PER_BLOCKS_REQUEST} slots past {@code startSlot}
+     * @param commitment {@code confirmed} or {@code finalized}
+     * @return produced slots in ascending order
+     */
+    public long[] getBlocks(long startSlot, long endSlot, String commitment) throws RpcException {
+        Objects.requireNonNull(commitment, "commitment must not be null");
+        if (startSlot < 0 || endSlot < startSlot || endSlot - startSlot >= MAX_SLOTS_PER_BLOCKS_REQUEST) {
+            throw new IllegalArgumentException("Slot range must be ascending and span at most "
+                    + MAX_SLOTS_PER_BLOCKS_REQUEST + " slots");
+        }
+        return call("getBlocks", generator -> {
+            generator.writeNumber(startSlot);
+            generator.writeNumber(endSlot);
+            writeCommitment(generator, commitment);
+        }, RpcResultDecoders.longArray());
+    }
+
+    /**
+     * Fetch a block with full, base64-encoded transactions and no rewards, accepting versioned
+     * transactions, and decode it with the given decoder.
+     *
+     * @param slot       slot holding the block
+     * @param commitment {@code confirmed} or {@code finalized}
+     * @param decoder    decoder invoked on the block object
+     * @param <T>        decoded type
+     * @return decoded block
+     */
+    public <T> T getBlock(long slot, String commitment, ResultDecoder<T> decoder) throws RpcException {
+        Objects.requireNonNull(commitment, "commitment must not be null");
+        return call("getBlock", generator -> {
+            generator.writeNumber(slot);
+            generator.writeStartObject();
+            generator.writeStringField("commitment", commitment);
+            generator.writeStringField("encoding", "base64");
+            generator.writeStringField("transactionDetails", "full");
+            generator.writeBooleanField("rewards", false);
+            generator.writeNumberField("maxSupportedTransactionVersion", 0);
+            generator.writeEndObject();
+        }, decoder);
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    private static void writeCommitment(JsonGenerator generator, String commitment) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("commitment", commitment);
+        generator.writeEndObject();
+    }
+
+    private void writeRequest(RequestBuffer buffer, String method, ParamsWriter params) throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeStringField("jsonrpc", "2.0");
+            generator.writeNumberField("id", requestIds.incrementAndGet());
+            generator.writeStringField("method", method);
+            generator.writeArrayFieldStart("params");
+            params.write(generator);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static <T> T readResponse(Response response, ResultDecoder<T> decoder) throws IOException, RpcException {
+        int status = response.code();
+        if (status == 429) {
+            throw new RpcException("HTTP 429 Too Many Requests from RPC endpoint");
+        }
+        ResponseBody body = response.body();
+        if (!response.isSuccessful() && !isJson(body)) {
+            throw new RpcException("IO error during RPC call: HTTP " + status);
+        }
+
+        try (InputStream stream = body.byteStream();
+             JsonParser parser = JSON_FACTORY.createParser(stream)) {
+            return readEnvelope(parser, decoder);
+        }
+    }
+
+    private static boolean isJson(ResponseBody body) {
+        MediaType contentType = body.contentType();
+        return contentType != null && "json".equalsIgnoreCase(contentType.subtype());
+    }
+
+    static <T> T readEnvelope(JsonParser parser, ResultDecoder<T> decoder) throws IOException, RpcException {
+        RpcResultDecoders.expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        T result = null;
+        boolean hasResult = false;
+        String errorMessage = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("result".equals(field)) {
+                hasResult = true;
+                result = token == JsonToken.VALUE_NULL ? null : decoder.decode(parser);
+            } else if ("error".equals(field) && token == JsonToken.START_OBJECT) {
+                errorMessage = readError(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (errorMessage != null) {
+            throw new RpcException(errorMessage);
+        }
+        if (!hasResult || result == null) {
+            throw new RpcException("RPC response is null");
+        }
+        return result;
+    }
+
+    private static String readError(JsonParser parser) throws IOException {
+        long code = 0;
+        String message = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("code".equals(field)) {
+                code = parser.getLongValue();
+            } else if ("message".equals(field)) {
+                message = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message == null ? "RPC error " + code : message + " (code " + code + ")";
+    }
+
+    /**
+     * Growable request buffer exposing its backing array, reused by each thread.
+     */
+    private static final class RequestBuffer extends ByteArrayOutputStream {
+
+        private RequestBuffer() {
+            super(1024);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void trim() {
+            if (buf.length > MAX_RETAINED_REQUEST_BUFFER) {
+                buf = new byte[1024];
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.solana.rpc.transport;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Writes the elements of a JSON-RPC {@code params} array straight to the request body.
+ */
+@FunctionalInterface
+public interface ParamsWriter {
+
+    ParamsWriter NONE = generator -> {
+    };
+
+    /**
+     * @param generator generator positioned inside the {@code params} array
+     * @throws IOException when writing fails
+     */
+    void write(JsonGenerator generator) throws IOException;
+}
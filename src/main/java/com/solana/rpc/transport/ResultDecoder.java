@@ -0,0 +1,24 @@
+package com.solana.rpc.transport;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Pulls the fields a caller needs out of a JSON-RPC {@code result} without building an object graph.
+ *
+ * @param <T> decoded type
+ */
+@FunctionalInterface
+public interface ResultDecoder<T> {
+
+    /**
+     * Decode the result value. On entry the parser's current token is the first token of the
+     * {@code result} value; on return it must be the last token of that value.
+     *
+     * @param parser streaming parser over the response body
+     * @return decoded value
+     * @throws IOException when the payload is malformed or cannot be read
+     */
+    T decode(JsonParser parser) throws IOException;
+}
@@ -0,0 +1,22 @@
+package com.solana.rpc.transport;
+
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcException;
+
+/**
+ * A single outbound RPC invocation executed against the Solanaj API.
+ *
+ * @param <T> type of the RPC result
+ */
+@FunctionalInterface
+public interface RpcCall<T> {
+
+    /**
+     * Perform the call.
+     *
+     * @param api Solanaj API bound to the shared RPC client
+     * @return RPC result
+     * @throws RpcException when the RPC call fails
+     */
+    T call(RpcApi api) throws RpcException;
+}
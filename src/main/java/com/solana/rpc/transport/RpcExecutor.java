@@ -0,0 +1,215 @@
+package com.solana.rpc.transport;
+
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Runs outbound RPC calls through an {@link AdaptiveConcurrencyLimiter}, retrying throttled and
+ * dropped calls with jittered exponential backoff. Each call queues for a permit in its
+ * {@link RpcLane}, so bulk work cannot take the capacity reserved for interactive calls.
+ */
+public class RpcExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(RpcExecutor.class.getName());
+    private static final int DEFAULT_INITIAL_CONCURRENCY = 8;
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+    private static final Duration DEFAULT_MAX_QUEUE_WAIT = Duration.ofSeconds(2);
+    private static final String IO_ERROR_PREFIX = "IO error during RPC call";
+
+    private final RpcClient rpcClient;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final BackoffPolicy backoffPolicy;
+    private final long maxQueueWaitNanos;
+
+    /**
+     * Create an executor with default limits and no retries, mainly for tests and simple tools.
+     *
+     * @param rpcClient Solanaj RPC client
+     */
+    public RpcExecutor(RpcClient rpcClient) {
+        this(rpcClient,
+                new AdaptiveConcurrencyLimiter(DEFAULT_INITIAL_CONCURRENCY, 1, DEFAULT_MAX_CONCURRENCY),
+                BackoffPolicy.noRetries(),
+                DEFAULT_MAX_QUEUE_WAIT);
+    }
+
+    public RpcExecutor(RpcClient rpcClient, AdaptiveConcurrencyLimiter limiter,
+                       BackoffPolicy backoffPolicy, Duration maxQueueWait) {
+        this.rpcClient = Objects.requireNonNull(rpcClient, "rpcClient must not be null");
+        this.limiter = Objects.requireNonNull(limiter, "limiter must not be null");
+        this.backoffPolicy = Objects.requireNonNull(backoffPolicy, "backoffPolicy must not be null");
+        this.maxQueueWaitNanos = Objects.requireNonNull(maxQueueWait, "maxQueueWait must not be null").toNanos();
+    }
+
+    /**
+     * Execute the call without a deadline, waiting for a concurrency permit and retrying when the
+     * provider pushes back.
+     *
+     * @param call RPC invocation
+     * @param <T>  result type
+     * @return RPC result
+     * @throws RpcException when the call fails permanently, retries are exhausted, or no permit
+     *                      became available within the queue wait bound
+     */
+    public <T> T execute(RpcCall<T> call) throws RpcException {
+        return execute(call, Deadline.none());
+    }
+
+    /**
+     * Execute the call without a deadline in the given lane.
+     *
+     * @param call RPC invocation
+     * @param lane lane whose share of the concurrency limit the call draws from
+     * @param <T>  result type
+     * @return RPC result
+     * @throws RpcException when the call fails permanently, retries are exhausted, or no permit
+     *                      became available within the queue wait bound
+     */
+    public <T> T execute(RpcCall<T> call, RpcLane lane) throws RpcException {
+        return execute(call, Deadline.none(), lane);
+    }
+
+    /**
+     * Execute the call within the given deadline. Queueing, every attempt and every backoff pause
+     * draw from the same budget; the in-flight HTTP request is cancelled once it runs out.
+     *
+     * @param call     RPC invocation
+     * @param deadline time budget shared by all attempts
+     * @param <T>      result type
+     * @return RPC result
+     * @throws DeadlineExceededException when the budget runs out before a result arrives
+     * @throws RpcException              when the call fails permanently or retries are exhausted
+     */
+    public <T> T execute(RpcCall<T> call, Deadline deadline) throws RpcException {
+        return execute(call, deadline, RpcLane.current());
+    }
+
+    /**
+     * Execute the call within the given deadline, queueing for permits in the given lane rather
+     * than the one bound to the calling thread.
+     *
+     * @param call     RPC invocation
+     * @param deadline time budget shared by all attempts
+     * @param lane     lane whose share of the concurrency limit the call draws from
+     * @param <T>      result type
+     * @return RPC result
+     * @throws DeadlineExceededException when the budget runs out before a result arrives
+     * @throws RpcException              when the call fails permanently or retries are exhausted
+     */
+    public <T> T execute(RpcCall<T> call, Deadline deadline, RpcLane lane) throws RpcException {
+        Objects.requireNonNull(call, "call must not be null");
+        Objects.requireNonNull(deadline, "deadline must not be null");
+        Objects.requireNonNull(lane, "lane must not be null");
+
+        for (int attempt = 0; ; attempt++) {
+            try (Span ignored = Tracer.span("rpc.queue")) {
+                acquirePermit(deadline, lane);
+            }
+            long startNanos = System.nanoTime();
+            try (TransportScope ignored = deadline.bindToCurrentThread();
+                 Span attemptSpan = Tracer.span("rpc.attempt").setAttribute("attempt", attempt)) {
+                T result = call.call(rpcClient.getApi());
+                limiter.onSuccess(lane, System.nanoTime() - startNanos);
+                return result;
+            } catch (RpcException e) {
+                if (deadline.isExpired()) {
+                    // Our own cancellation, not the provider's doing.
+                    limiter.onIgnore(lane);
+                    throw deadlineExceeded(deadline, e);
+                }
+                if (!isRetryable(e)) {
+                    // The provider answered; the failure says nothing about load.
+                    limiter.onSuccess(lane, System.nanoTime() - startNanos);
+                    throw e;
+                }
+                limiter.onDropped(lane);
+                if (attempt >= backoffPolicy.getMaxRetries()) {
+                    throw e;
+                }
+                long delayMs = backoffPolicy.delayMillis(attempt + 1);
+                if (delayMs >= deadline.remainingMillis()) {
+                    throw deadlineExceeded(deadline, e);
+                }
+                int retry = attempt + 1;
+                LOGGER.fine(() -> "RPC call pushed back (" + e.getMessage() + "); retry " + retry
+                        + " in " + delayMs + " ms, limit=" + limiter.getLimit());
+                try (Span ignored = Tracer.span("rpc.backoff")) {
+                    sleep(delayMs);
+                }
+            } catch (RuntimeException e) {
+                limiter.onIgnore(lane);
+                throw e;
+            }
+        }
+    }
+
+    public RpcClient getRpcClient() {
+        return rpcClient;
+    }
+
+    public AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * Whether the failure indicates the provider is rate limiting us or the connection was dropped,
+     * both of which are worth retrying after a pause.
+     */
+    static boolean isRetryable(RpcException e) {
+        String message = e.getMessage();
+        if (message == null) {
+            return false;
+        }
+        String normalized = message.toLowerCase(Locale.ROOT);
+        return normalized.contains("429")
+                || normalized.contains("too many requests")
+                || normalized.contains("rate limit")
+                || message.startsWith(IO_ERROR_PREFIX);
+    }
+
+    private void acquirePermit(Deadline deadline, RpcLane lane) throws RpcException {
+        long remainingNanos = deadline.remainingNanos();
+        if (remainingNanos <= 0) {
+            throw deadlineExceeded(deadline, null);
+        }
+        try {
+            if (!limiter.acquire(lane, Math.min(maxQueueWaitNanos, remainingNanos), TimeUnit.NANOSECONDS)) {
+                if (deadline.isExpired()) {
+                    throw deadlineExceeded(deadline, null);
+                }
+                throw new RpcException("RPC concurrency limit reached (lane=" + lane + ", limit=" + limiter.getLimit()
+                        + ", queued=" + limiter.getQueued() + "); gave up after "
+                        + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while waiting for an RPC permit");
+        }
+    }
+
+    private static DeadlineExceededException deadlineExceeded(Deadline deadline, RpcException lastFailure) {
+        String reason = deadline.isCancelled() ? "RPC call was cancelled" : "RPC call exceeded its deadline";
+        return new DeadlineExceededException(lastFailure == null ? reason
+                : reason + " (last failure: " + lastFailure.getMessage() + ")");
+    }
+
+    private static void sleep(long delayMs) throws RpcException {
+        if (delayMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RpcException("Interrupted while backing off before an RPC retry");
+        }
+    }
+}
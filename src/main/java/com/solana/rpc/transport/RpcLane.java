@@ -0,0 +1,55 @@
+package com.solana.rpc.transport;
+
+/**
+ * Scheduling class of an outbound RPC call. Each lane is guaranteed its share of the
+ * {@link AdaptiveConcurrencyLimiter}'s limit; a lane with no waiting calls lends its unused share
+ * to the others.
+ * <p>
+ * Calls that do not name a lane run in the lane bound to the calling thread with {@link #enter()},
+ * or in {@link #INTERACTIVE} when none is.
+ */
+public enum RpcLane {
+
+    /**
+     * Latency-sensitive calls made on behalf of a waiting user, such as a single balance lookup.
+     */
+    INTERACTIVE,
+
+    /**
+     * Background work such as sweeps, block scans and reports, which can wait.
+     */
+    BULK;
+
+    private static final RpcLane[] VALUES = values();
+    private static final ThreadLocal<RpcLane> CURRENT = new ThreadLocal<>();
+
+    static RpcLane[] all() {
+        return VALUES;
+    }
+
+    /**
+     * @return the lane bound to the calling thread, or {@link #INTERACTIVE}
+     */
+    public static RpcLane current() {
+        RpcLane lane = CURRENT.get();
+        return lane == null ? INTERACTIVE : lane;
+    }
+
+    /**
+     * Run the calling thread's RPC calls in this lane until the returned scope is closed,
+     * e.g. {@code try (var ignored = RpcLane.BULK.enter()) { report(); }}.
+     *
+     * @return handle restoring the previous lane
+     */
+    public TransportScope enter() {
+        RpcLane previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.solana.rpc.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time view of one {@link RpcLane} of an {@link AdaptiveConcurrencyLimiter}: how many of
+ * its calls run and wait right now, and how long its calls have waited for a permit.
+ */
+public final class RpcLaneMetrics {
+
+    private final RpcLane lane;
+    private final double share;
+    private final int inFlight;
+    private final int queued;
+    private final long acquired;
+    private final long timedOut;
+    private final long waitP50Nanos;
+    private final long waitP99Nanos;
+
+    public RpcLaneMetrics(RpcLane lane, double share, int inFlight, int queued, long acquired, long timedOut,
+                          long waitP50Nanos, long waitP99Nanos) {
+        this.lane = lane;
+        this.share = share;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.acquired = acquired;
+        this.timedOut = timedOut;
+        this.waitP50Nanos = waitP50Nanos;
+        this.waitP99Nanos = waitP99Nanos;
+    }
+
+    public RpcLane getLane() {
+        return lane;
+    }
+
+    /**
+     * @return fraction of the concurrency limit guaranteed to this lane
+     */
+    public double getShare() {
+        return share;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return calls currently waiting for a permit
+     */
+    public int getQueued() {
+        return queued;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    /**
+     * @return calls that gave up waiting for a permit
+     */
+    public long getTimedOut() {
+        return timedOut;
+    }
+
+    public long getWaitP50Nanos() {
+        return waitP50Nanos;
+    }
+
+    public long getWaitP99Nanos() {
+        return waitP99Nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RpcLaneMetrics{" +
+                "lane=" + lane +
+                ", share=" + String.format("%.2f", share) +
+                ", inFlight=" + inFlight +
+                ", queued=" + queued +
+                ", acquired=" + acquired +
+                ", timedOut=" + timedOut +
+                ", waitP50Us=" + TimeUnit.NANOSECONDS.toMicros(waitP50Nanos) +
+                ", waitP99Us=" + TimeUnit.NANOSECONDS.toMicros(waitP99Nanos) +
+                '}';
+    }
+}
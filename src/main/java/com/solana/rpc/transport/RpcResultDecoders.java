@@ -0,0 +1,183 @@
+package com.solana.rpc.transport;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streaming decoders for the RPC results this service reads on hot paths. Each one walks the
+ * token stream once, keeps only the fields it needs and skips everything else, including account
+ * data blobs, without materializing them.
+ */
+public final class RpcResultDecoders {
+
+    private static final ResultDecoder<Long> CONTEXT_LONG_VALUE = RpcResultDecoders::decodeContextLongValue;
+    private static final ResultDecoder<String> STRING_VALUE = RpcResultDecoders::decodeString;
+    private static final ResultDecoder<Long> LONG_VALUE = RpcResultDecoders::decodeLong;
+    private static final ResultDecoder<long[]> LONG_ARRAY = RpcResultDecoders::decodeLongArray;
+
+    private RpcResultDecoders() {
+    }
+
+    /**
+     * Decoder for {@code {"context":{...},"value":<long>}} results such as {@code getBalance}.
+     */
+    public static ResultDecoder<Long> contextLongValue() {
+        return CONTEXT_LONG_VALUE;
+    }
+
+    /**
+     * Decoder for plain string results such as the signature returned by {@code sendTransaction}.
+     */
+    public static ResultDecoder<String> stringValue() {
+        return STRING_VALUE;
+    }
+
+    /**
+     * Decoder for plain integer results such as {@code getSlot}.
+     */
+    public static ResultDecoder<Long> longValue() {
+        return LONG_VALUE;
+    }
+
+    /**
+     * Decoder for arrays of integers such as the slots returned by {@code getBlocks}.
+     */
+    public static ResultDecoder<long[]> longArray() {
+        return LONG_ARRAY;
+    }
+
+    /**
+     * Decoder for {@code getMultipleAccounts} results keeping only each account's lamports.
+     *
+     * @param expectedAccounts number of keys in the request
+     */
+    public static ResultDecoder<AccountLamports> multipleAccountLamports(int expectedAccounts) {
+        return parser -> decodeMultipleAccountLamports(parser, expectedAccounts);
+    }
+
+    private static Long decodeContextLongValue(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        long value = 0;
+        boolean found = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("value".equals(field)) {
+                value = parser.getLongValue();
+                found = true;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!found) {
+            throw new JsonParseException(parser, "RPC result has no value field");
+        }
+        return value;
+    }
+
+    private static String decodeString(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.VALUE_STRING);
+        return parser.getText();
+    }
+
+    private static Long decodeLong(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.VALUE_NUMBER_INT);
+        return parser.getLongValue();
+    }
+
+    private static long[] decodeLongArray(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        long[] values = new long[16];
+        int size = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(parser, token, JsonToken.VALUE_NUMBER_INT);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getLongValue();
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    private static AccountLamports decodeMultipleAccountLamports(JsonParser parser, int expectedAccounts)
+            throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        long slot = -1;
+        long[] lamports = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("context".equals(field)) {
+                slot = readContextSlot(parser);
+            } else if ("value".equals(field)) {
+                expect(parser, token, JsonToken.START_ARRAY);
+                lamports = readAccountsLamports(parser, expectedAccounts);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (lamports == null) {
+            throw new JsonParseException(parser, "getMultipleAccounts result has no value array");
+        }
+        return new AccountLamports(slot, lamports);
+    }
+
+    static long readContextSlot(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_OBJECT);
+        long slot = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("slot".equals(field)) {
+                slot = parser.getLongValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return slot;
+    }
+
+    private static long[] readAccountsLamports(JsonParser parser, int expectedAccounts) throws IOException {
+        long[] lamports = new long[expectedAccounts];
+        int position = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (position == expectedAccounts) {
+                throw new JsonParseException(parser, "getMultipleAccounts returned more than "
+                        + expectedAccounts + " accounts");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                lamports[position++] = AccountLamports.MISSING;
+                continue;
+            }
+            expect(parser, token, JsonToken.START_OBJECT);
+            long value = AccountLamports.MISSING;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("lamports".equals(field)) {
+                    value = parser.getLongValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            lamports[position++] = value;
+        }
+        if (position != expectedAccounts) {
+            throw new JsonParseException(parser, "getMultipleAccounts returned " + position
+                    + " accounts, expected " + expectedAccounts);
+        }
+        return lamports;
+    }
+
+    static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.solana.rpc.transport;
+
+/**
+ * Handle for undoing a change to the transport state of the calling thread or of a call, such as
+ * an entered {@link RpcLane} or a {@link Deadline} cancellation callback. Closing it more than once
+ * has no further effect.
+ */
+@FunctionalInterface
+public interface TransportScope extends AutoCloseable {
+
+    @Override
+    void close();
+}
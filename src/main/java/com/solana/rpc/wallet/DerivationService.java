@@ -1,5 +1,7 @@
 package com.solana.rpc.wallet;
 
+import com.solana.rpc.tracing.Span;
+import com.solana.rpc.tracing.Tracer;
 import org.p2p.solanaj.core.Account;
 import org.p2p.solanaj.utils.bip32.wallet.HdAddress;
 import org.p2p.solanaj.utils.bip32.wallet.HdKeyGenerator;
@@ -13,20 +15,27 @@ import java.text.Normalizer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Utility for deriving Solana keypairs from a BIP39 mnemonic using the standard
  * m/44'/501'/account'/change'/index path structure.
+ * <p>
+ * The PBKDF2 seed and the m/44'/501' node are computed on first use and reused by later
+ * derivations, so deriving a key costs three hardened child derivations. The node is held in a
+ * {@link SeedCache}; services sharing a bounded cache recompute it after it was evicted. A service
+ * built on a mnemonic supplier holds no root secret between those computations.
  */
 public class DerivationService {
 
     private static final int PBKDF2_ITERATIONS = 2048;
     private static final int PBKDF2_KEY_LENGTH = 512;
 
-    private final List<String> mnemonicWords;
+    private final Supplier<String> mnemonicSource;
     private final String passphrase;
     private final HdKeyGenerator hdKeyGenerator;
     private final SolanaCoin solanaCoin;
+    private final SeedCache seedCache;
 
     /**
      * Create a new derivation service for the provided mnemonic with an empty passphrase.
@@ -44,23 +53,45 @@ public class DerivationService {
      * @param passphrase optional passphrase, may be blank
      */
     public DerivationService(String mnemonic, String passphrase) {
-        Objects.requireNonNull(mnemonic, "mnemonic must not be null");
-        Objects.requireNonNull(passphrase, "passphrase must not be null");
-
-        String trimmedMnemonic = mnemonic.trim();
-        if (trimmedMnemonic.isEmpty()) {
-            throw new IllegalArgumentException("Mnemonic must not be blank");
-        }
+        this(mnemonic, passphrase, new SeedCache(1));
+    }
 
-        List<String> words = Arrays.asList(trimmedMnemonic.split("\\s+"));
-        if (words.size() < 12) {
-            throw new IllegalArgumentException("Mnemonic must contain at least 12 words");
-        }
+    /**
+     * Create a derivation service whose m/44'/501' node is held in a shared, bounded cache.
+     *
+     * @param mnemonic   space-delimited BIP39 mnemonic
+     * @param passphrase optional passphrase, may be blank
+     * @param seedCache  cache shared with other services; the node is zeroed when evicted from it
+     */
+    public DerivationService(String mnemonic, String passphrase, SeedCache seedCache) {
+        this(validMnemonic(mnemonic), passphrase, seedCache);
+    }
 
-        this.mnemonicWords = words;
-        this.passphrase = passphrase;
+    /**
+     * Create a derivation service that does not keep the mnemonic: it is fetched from
+     * {@code mnemonicSource} whenever the m/44'/501' node has to be computed, and dropped as soon as
+     * the seed is derived.
+     *
+     * @param mnemonicSource supplies the space-delimited BIP39 mnemonic; may throw when it is gone
+     * @param passphrase     optional passphrase, may be blank
+     * @param seedCache      cache shared with other services; the node is zeroed when evicted from it
+     */
+    public DerivationService(Supplier<String> mnemonicSource, String passphrase, SeedCache seedCache) {
+        this.mnemonicSource = Objects.requireNonNull(mnemonicSource, "mnemonicSource must not be null");
+        this.passphrase = Objects.requireNonNull(passphrase, "passphrase must not be null");
         this.hdKeyGenerator = new HdKeyGenerator();
         this.solanaCoin = new SolanaCoin();
+        this.seedCache = Objects.requireNonNull(seedCache, "seedCache must not be null");
+    }
+
+    /**
+     * Check that a mnemonic has the shape BIP39 requires before a service is built on it.
+     *
+     * @param mnemonic space-delimited BIP39 mnemonic
+     * @throws IllegalArgumentException when the mnemonic is blank or has fewer than 12 words
+     */
+    public static void validate(String mnemonic) {
+        words(mnemonic);
     }
 
     /**
@@ -77,18 +108,22 @@ public class DerivationService {
             throw new IllegalArgumentException("Derivation path components must not be negative");
         }
 
-        byte[] seed = mnemonicToSeed(this.mnemonicWords, this.passphrase);
-
-        HdAddress master = hdKeyGenerator.getAddressFromSeed(seed, solanaCoin);
-        HdAddress purpose = hdKeyGenerator.getAddress(master, solanaCoin.getPurpose(), solanaCoin.getAlwaysHardened());
-        HdAddress coinType = hdKeyGenerator.getAddress(purpose, solanaCoin.getCoinType(), solanaCoin.getAlwaysHardened());
-        HdAddress accountNode = hdKeyGenerator.getAddress(coinType, account, solanaCoin.getAlwaysHardened());
-        HdAddress changeNode = hdKeyGenerator.getAddress(accountNode, change, solanaCoin.getAlwaysHardened());
-        HdAddress indexNode = hdKeyGenerator.getAddress(changeNode, index, solanaCoin.getAlwaysHardened());
-
-        byte[] seed32 = indexNode.getPrivateKey().getPrivateKey();
-        TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair_fromSeed(seed32);
-        return new Account(keyPair.getSecretKey());
+        try (Span ignored = Tracer.span("derivation.derive")) {
+            HdAddress accountNode;
+            try (SeedCache.Lease coinType = seedCache.acquire(this, this::computeCoinTypeNode)) {
+                accountNode = hdKeyGenerator.getAddress(coinType.node(), account, solanaCoin.getAlwaysHardened());
+            }
+            HdAddress changeNode = hdKeyGenerator.getAddress(accountNode, change, solanaCoin.getAlwaysHardened());
+            HdAddress indexNode = hdKeyGenerator.getAddress(changeNode, index, solanaCoin.getAlwaysHardened());
+
+            byte[] seed32 = indexNode.getPrivateKey().getPrivateKey();
+            TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair_fromSeed(seed32);
+            Account derived = new Account(keyPair.getSecretKey());
+            wipe(accountNode);
+            wipe(changeNode);
+            wipe(indexNode);
+            return derived;
+        }
     }
 
     /**
@@ -103,19 +138,81 @@ public class DerivationService {
         return derive(account, change, index).getPublicKey().toBase58();
     }
 
+    /**
+     * Compute the PBKDF2 seed and the m/44'/501' node now, so that the first derivation does not pay
+     * for them. Does nothing when the node is already cached.
+     */
+    public void warmUp() {
+        try (SeedCache.Lease ignored = seedCache.acquire(this, this::computeCoinTypeNode)) {
+            // Acquiring the lease is what loads the node into the cache.
+        }
+    }
+
+    /**
+     * Drop this service's cached node, zeroing it; it is recomputed from the mnemonic on next use.
+     */
+    public void clearCachedSecrets() {
+        seedCache.evict(this);
+    }
+
+    private HdAddress computeCoinTypeNode() {
+        byte[] seed = mnemonicToSeed(words(mnemonicSource.get()), passphrase);
+        try {
+            HdAddress master = hdKeyGenerator.getAddressFromSeed(seed, solanaCoin);
+            HdAddress purpose = hdKeyGenerator.getAddress(master, solanaCoin.getPurpose(),
+                    solanaCoin.getAlwaysHardened());
+            HdAddress coinType = hdKeyGenerator.getAddress(purpose, solanaCoin.getCoinType(),
+                    solanaCoin.getAlwaysHardened());
+            wipe(master);
+            wipe(purpose);
+            return coinType;
+        } finally {
+            Arrays.fill(seed, (byte) 0);
+        }
+    }
+
+    private static void wipe(HdAddress node) {
+        Arrays.fill(node.getPrivateKey().getPrivateKey(), (byte) 0);
+        Arrays.fill(node.getPrivateKey().getChainCode(), (byte) 0);
+    }
+
+    private static Supplier<String> validMnemonic(String mnemonic) {
+        validate(mnemonic);
+        return () -> mnemonic;
+    }
+
+    private static List<String> words(String mnemonic) {
+        Objects.requireNonNull(mnemonic, "mnemonic must not be null");
+        String trimmedMnemonic = mnemonic.trim();
+        if (trimmedMnemonic.isEmpty()) {
+            throw new IllegalArgumentException("Mnemonic must not be blank");
+        }
+
+        List<String> words = Arrays.asList(trimmedMnemonic.split("\\s+"));
+        if (words.size() < 12) {
+            throw new IllegalArgumentException("Mnemonic must contain at least 12 words");
+        }
+        return words;
+    }
+
     private static byte[] mnemonicToSeed(List<String> words, String passphrase) {
         String sentence = String.join(" ", words);
         String normalizedMnemonic = Normalizer.normalize(sentence, Normalizer.Form.NFKD);
         String normalizedPassphrase = Normalizer.normalize(passphrase, Normalizer.Form.NFKD);
         String salt = "mnemonic" + normalizedPassphrase;
 
+        char[] password = normalizedMnemonic.toCharArray();
+        PBEKeySpec keySpec = new PBEKeySpec(password, salt.getBytes(StandardCharsets.UTF_8),
+                PBKDF2_ITERATIONS, PBKDF2_KEY_LENGTH);
         try {
-            PBEKeySpec keySpec = new PBEKeySpec(normalizedMnemonic.toCharArray(),
-                    salt.getBytes(StandardCharsets.UTF_8), PBKDF2_ITERATIONS, PBKDF2_KEY_LENGTH);
             SecretKeyFactory secretKeyFactory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA512");
             return secretKeyFactory.generateSecret(keySpec).getEncoded();
         } catch (Exception e) {
             throw new IllegalStateException("Failed to derive seed from mnemonic", e);
+        } finally {
+            // PBEKeySpec keeps its own copy of the password; wipe both.
+            keySpec.clearPassword();
+            Arrays.fill(password, '\0');
         }
     }
 }
@@ -0,0 +1,185 @@
+package com.solana.rpc.wallet;
+
+import org.p2p.solanaj.utils.bip32.wallet.HdAddress;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded least-recently-used cache of the m/44'/501' nodes that {@link DerivationService}s derive
+ * from their seeds, shared by every service that is handed the same cache.
+ * <p>
+ * When a node is evicted its private key and chain codes are overwritten with zeros, so the secret
+ * material of at most {@code maxEntries} wallets is held in memory at any time; an evicted wallet
+ * recomputes its node from the mnemonic on next use. A node is only zeroed once no derivation is
+ * still using it.
+ */
+public final class SeedCache {
+
+    private final int maxEntries;
+    private final Map<DerivationService, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long loads;
+    private long evictions;
+
+    /**
+     * @param maxEntries most nodes held at once; must be positive
+     */
+    public SeedCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return number of nodes currently cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of times a node had to be computed from a seed
+     */
+    public synchronized long getLoads() {
+        return loads;
+    }
+
+    /**
+     * @return number of nodes evicted, explicitly or to stay within the bound
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Drop and zero the node cached for {@code owner}, if any.
+     */
+    public void evict(DerivationService owner) {
+        Entry removed;
+        synchronized (this) {
+            removed = entries.remove(owner);
+            if (removed == null) {
+                return;
+            }
+            evictions++;
+            removed.evicted = true;
+        }
+        removed.zeroIfUnused();
+    }
+
+    /**
+     * Borrow the node of {@code owner}, computing it with {@code loader} outside the cache lock when
+     * it is not cached. The node stays intact until the lease is closed.
+     */
+    Lease acquire(DerivationService owner, Supplier<HdAddress> loader) {
+        synchronized (this) {
+            Entry entry = entries.get(owner);
+            if (entry != null) {
+                entry.leases++;
+                return new Lease(this, entry);
+            }
+        }
+
+        HdAddress loaded = loader.get();
+        Entry victim = null;
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(owner);
+            if (entry == null) {
+                entry = new Entry(loaded);
+                entries.put(owner, entry);
+                loads++;
+                loaded = null;
+                if (entries.size() > maxEntries) {
+                    Iterator<Entry> eldest = entries.values().iterator();
+                    victim = eldest.next();
+                    eldest.remove();
+                    victim.evicted = true;
+                    evictions++;
+                }
+            }
+            entry.leases++;
+        }
+        if (loaded != null) {
+            // Another thread cached the node first.
+            zero(loaded);
+        }
+        if (victim != null) {
+            victim.zeroIfUnused();
+        }
+        return new Lease(this, entry);
+    }
+
+    private static void zero(HdAddress node) {
+        Arrays.fill(node.getPrivateKey().getPrivateKey(), (byte) 0);
+        Arrays.fill(node.getPrivateKey().getChainCode(), (byte) 0);
+        if (node.getPrivateKey().getKeyData() != null) {
+            Arrays.fill(node.getPrivateKey().getKeyData(), (byte) 0);
+        }
+        if (node.getPublicKey() != null && node.getPublicKey().getChainCode() != null) {
+            Arrays.fill(node.getPublicKey().getChainCode(), (byte) 0);
+        }
+    }
+
+    /**
+     * Access to a cached node; closing it allows the node to be zeroed once evicted.
+     */
+    static final class Lease implements AutoCloseable {
+
+        private final SeedCache cache;
+        private final Entry entry;
+        private boolean closed;
+
+        private Lease(SeedCache cache, Entry entry) {
+            this.cache = cache;
+            this.entry = entry;
+        }
+
+        HdAddress node() {
+            return entry.node;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (cache) {
+                entry.leases--;
+            }
+            entry.zeroIfUnused();
+        }
+    }
+
+    private final class Entry {
+
+        private final HdAddress node;
+        private int leases;
+        private boolean evicted;
+        private boolean zeroed;
+
+        private Entry(HdAddress node) {
+            this.node = Objects.requireNonNull(node, "node must not be null");
+        }
+
+        private void zeroIfUnused() {
+            synchronized (SeedCache.this) {
+                if (!evicted || leases > 0 || zeroed) {
+                    return;
+                }
+                zeroed = true;
+            }
+            zero(node);
+        }
+    }
+}
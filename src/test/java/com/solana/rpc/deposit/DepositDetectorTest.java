@@ -0,0 +1,157 @@
+package com.solana.rpc.deposit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.IndexedDerivedAccountRepository;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Replays blocks recorded in {@code src/test/resources/blocks} through a local mock RPC endpoint.
+ * Slot 101 is skipped; slot 100 holds a legacy deposit plus an unrelated, a failed and an outgoing
+ * transfer; slot 102 holds a deposit through an address lookup table and a legacy deposit.
+ */
+class DepositDetectorTest {
+
+    private static final String DEPOSIT_0 = "7gjxccDJzLK2rwRcsw7fTniQPvdZk8CKRx2ET1SmEJq9";
+    private static final String DEPOSIT_1 = "8F5aF2AZr29tLrR1NoxZYPt8KZkepaTixvLmQS99Wj1m";
+    private static final String SIGNATURE_A = "2pEmdvXq56gtmit3X1JsxJyMkVqd6Z2K7KyVfdke6kC18G1XMrNjp1GL5nW7EAxHELaWFqU1SeeTbQy1fepWmCnz";
+    private static final String SIGNATURE_D = "3RVS4Wd5c1pf3MWEyFgK4zGu7TpGSvBFGXVi7sJehxjb6bTPDXkKXUgaEZDjotpZdEDuDMo4tyK2NvDPgkUKHqMn";
+    private static final String SIGNATURE_E = "Ckvxpfaq4n9g7Nr3tvyQePTCAKgoipnu6xpHMCsHMPHWFnyg5SfKh1pmaCSuGG8QhX91NkV9PSgZDFVPVGH8A1B";
+    private static final long[] RECORDED_SLOTS = {100, 102};
+
+    private final AtomicLong tip = new AtomicLong(103);
+    private final AtomicBoolean failNextBlock = new AtomicBoolean();
+    private final List<DepositEvent> deposits = Collections.synchronizedList(new ArrayList<>());
+
+    private MockRpcServer server;
+    private RpcExecutor rpcExecutor;
+    private JsonRpcTransport transport;
+    private IndexedDerivedAccountRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockRpcServer.start()
+                .on("getSlot", params -> Long.toString(tip.get()))
+                .on("getBlocks", this::blocks)
+                .on("getBlock", this::block);
+        OkHttpClient httpClient = new OkHttpClient();
+        rpcExecutor = new RpcExecutor(new RpcClient(server.getUrl(), httpClient));
+        transport = new JsonRpcTransport(httpClient, server.getUrl());
+        repository = new IndexedDerivedAccountRepository(new InMemoryDerivedAccountRepository());
+        repository.save(new DerivedAccount("deposit-0", 0, 0, 0, DEPOSIT_0));
+        repository.save(new DerivedAccount("deposit-1", 0, 0, 1, DEPOSIT_1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void deliversDepositsFromRecordedBlocksInOrder() throws RpcException {
+        SlotCheckpoint checkpoint = SlotCheckpoint.inMemory();
+        checkpoint.save(99);
+
+        try (DepositDetector detector = detector(checkpoint)) {
+            assertEquals(2, detector.scanToTip());
+        }
+
+        assertEquals(List.of(
+                new DepositEvent(100, 1760000000, SIGNATURE_A, DEPOSIT_0, "deposit-0", 1_000_000),
+                new DepositEvent(102, 1760000001, SIGNATURE_D, DEPOSIT_1, "deposit-1", 2_000_000),
+                new DepositEvent(102, 1760000001, SIGNATURE_E, DEPOSIT_0, "deposit-0", 500_000)), deposits);
+        assertEquals(103, checkpoint.getLastSlot().orElseThrow());
+    }
+
+    @Test
+    void resumesFromCheckpointFileWithoutRescanning(@TempDir Path directory) throws Exception {
+        Path checkpointFile = directory.resolve("deposits.checkpoint");
+        tip.set(100);
+        try (DepositDetector detector = detector(SlotCheckpoint.open(checkpointFile))) {
+            detector.scanToTip();
+        }
+        assertEquals(1, deposits.size());
+
+        tip.set(103);
+        try (DepositDetector detector = detector(SlotCheckpoint.open(checkpointFile))) {
+            assertEquals(100, detector.getLastScannedSlot().orElseThrow());
+            detector.scanToTip();
+        }
+
+        assertEquals(3, deposits.size());
+        assertEquals(2, server.getCallCount("getBlock"));
+        assertEquals(103, SlotCheckpoint.open(checkpointFile).getLastSlot().orElseThrow());
+    }
+
+    @Test
+    void stopsAtAFailedBlockAndRetriesIt() throws RpcException {
+        SlotCheckpoint checkpoint = SlotCheckpoint.inMemory();
+        checkpoint.save(99);
+        failNextBlock.set(true);
+
+        try (DepositDetector detector = detector(checkpoint)) {
+            assertThrows(RpcException.class, detector::scanToTip);
+            assertEquals(100, checkpoint.getLastSlot().orElseThrow());
+            assertEquals(1, deposits.size());
+
+            detector.scanToTip();
+        }
+
+        assertEquals(3, deposits.size());
+        assertEquals(103, checkpoint.getLastSlot().orElseThrow());
+    }
+
+    private DepositDetector detector(SlotCheckpoint checkpoint) {
+        return new DepositDetector(rpcExecutor, transport, repository, checkpoint, deposits::add,
+                2, 4, Duration.ofHours(1));
+    }
+
+    private String blocks(JsonNode params) {
+        long start = params.get(0).asLong();
+        long end = params.get(1).asLong();
+        StringJoiner slots = new StringJoiner(",", "[", "]");
+        for (long slot : RECORDED_SLOTS) {
+            if (slot >= start && slot <= end) {
+                slots.add(Long.toString(slot));
+            }
+        }
+        return slots.toString();
+    }
+
+    private String block(JsonNode params) throws IOException {
+        long slot = params.get(0).asLong();
+        if (slot == 102 && failNextBlock.getAndSet(false)) {
+            throw new MockRpcServer.RpcError(-32004, "Block not available for slot " + slot);
+        }
+        try (InputStream recorded = getClass().getResourceAsStream("/blocks/slot-" + slot + ".json")) {
+            if (recorded == null) {
+                throw new MockRpcServer.RpcError(-32007, "Slot " + slot + " was skipped, or missing due to ledger jump to recent snapshot");
+            }
+            return new String(recorded.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
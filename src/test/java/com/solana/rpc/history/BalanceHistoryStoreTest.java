@@ -0,0 +1,125 @@
+package com.solana.rpc.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.utils.Base58;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceHistoryStoreTest {
+
+    private static final String ALICE = address(1);
+    private static final String BOB = address(2);
+    private static final String CAROL = address(3);
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void answersTotalsAndBalancesAtAnyPointInTime() throws IOException {
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory)) {
+            assertEquals(2, store.record(1_000, List.of(ALICE, BOB), new long[]{100, 200}));
+            assertEquals(0, store.record(2_000, List.of(ALICE, BOB), new long[]{100, 200}));
+            assertEquals(1, store.record(3_000, List.of(ALICE, BOB), new long[]{150, 200}));
+            assertEquals(1, store.record(4_000, List.of(CAROL), new long[]{50}));
+
+            assertEquals(OptionalLong.empty(), store.totalAt(Instant.ofEpochMilli(999)));
+            assertEquals(OptionalLong.of(300), store.totalAt(Instant.ofEpochMilli(2_500)));
+            assertEquals(OptionalLong.of(400), store.totalAt(Instant.ofEpochMilli(4_000)));
+            assertEquals(OptionalLong.of(100), store.balanceAt(ALICE, Instant.ofEpochMilli(2_999)));
+            assertEquals(OptionalLong.of(150), store.balanceAt(ALICE, Instant.ofEpochMilli(3_000)));
+            assertEquals(OptionalLong.of(0), store.balanceAt(CAROL, Instant.ofEpochMilli(3_000)));
+            assertEquals(OptionalLong.empty(), store.balanceAt(address(9), Instant.ofEpochMilli(3_000)));
+            assertEquals(List.of(new BalancePoint(1_500, 100), new BalancePoint(3_000, 150)),
+                    store.history(ALICE, Instant.ofEpochMilli(1_500), Instant.ofEpochMilli(10_000)));
+            assertEquals(3, store.getAccountCount());
+        }
+    }
+
+    @Test
+    void rollsSegmentsAndQueriesAcrossThemAfterReopening() throws IOException {
+        Duration span = Duration.ofHours(1);
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory, span)) {
+            store.record(10, List.of(ALICE, BOB), new long[]{100, 200});
+            store.record(HOUR + 10, List.of(ALICE), new long[]{0});
+            store.record(3 * HOUR, List.of(BOB), new long[]{250});
+            assertEquals(3, store.getSegmentCount());
+        }
+
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory, span)) {
+            // Before the first frame of a segment, the previous segment's last state applies.
+            assertEquals(OptionalLong.of(300), store.totalAt(Instant.ofEpochMilli(HOUR + 5)));
+            assertEquals(OptionalLong.of(200), store.totalAt(Instant.ofEpochMilli(2 * HOUR + 5)));
+            assertEquals(OptionalLong.of(250), store.totalAt(Instant.ofEpochMilli(3 * HOUR)));
+            assertEquals(List.of(new BalancePoint(10, 100), new BalancePoint(HOUR + 10, 0)),
+                    store.history(ALICE, Instant.ofEpochMilli(0), Instant.ofEpochMilli(4 * HOUR)));
+
+            assertEquals(1, store.record(3 * HOUR + 10, List.of(ALICE, BOB), new long[]{5, 250}));
+            assertEquals(OptionalLong.of(255), store.totalAt(Instant.ofEpochMilli(4 * HOUR)));
+        }
+    }
+
+    @Test
+    void dropsTornFrameWhenReopened() throws IOException {
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory)) {
+            store.record(1_000, List.of(ALICE), new long[]{100});
+            store.record(2_000, List.of(ALICE), new long[]{300});
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory)) {
+            assertEquals(OptionalLong.of(100), store.totalAt(Instant.ofEpochMilli(5_000)));
+            assertEquals(1, store.record(3_000, List.of(ALICE), new long[]{400}));
+            assertEquals(OptionalLong.of(400), store.balanceAt(ALICE, Instant.ofEpochMilli(3_000)));
+        }
+    }
+
+    @Test
+    void refusesToOpenWhenFramesReferToLostAccounts() throws IOException {
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory)) {
+            store.record(1_000, List.of(ALICE, BOB), new long[]{100, 200});
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("accounts.bin"), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 32);
+        }
+
+        IOException failure = assertThrows(IOException.class, () -> BalanceHistoryStore.open(directory));
+        assertTrue(failure.getMessage().contains("refers to account 1"));
+    }
+
+    @Test
+    void rejectsRecordsOutOfTimeOrder() throws IOException {
+        try (BalanceHistoryStore store = BalanceHistoryStore.open(directory)) {
+            store.record(2_000, List.of(ALICE), new long[]{100});
+
+            assertThrows(IllegalArgumentException.class, () -> store.record(1_000, List.of(ALICE), new long[]{1}));
+            assertThrows(IllegalArgumentException.class, () -> store.record(3_000, List.of(ALICE), new long[]{-1}));
+            assertThrows(IllegalArgumentException.class, () -> store.record(3_000, List.of("not-a-key"), new long[]{1}));
+        }
+    }
+
+    private static String address(int seed) {
+        byte[] key = new byte[32];
+        key[0] = (byte) seed;
+        key[31] = 7;
+        return Base58.encode(key);
+    }
+}
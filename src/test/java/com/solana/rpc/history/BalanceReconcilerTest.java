@@ -0,0 +1,170 @@
+package com.solana.rpc.history;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceReconcilerTest {
+
+    private static final int ACCOUNTS = 300;
+    private static final int MAX_IDLE_RUNS = 8;
+
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+    private final AtomicLong slot = new AtomicLong(100);
+    private final AtomicLong lastMinContextSlot = new AtomicLong();
+    private final AtomicInteger accountsRequested = new AtomicInteger();
+    private final AtomicBoolean failNext = new AtomicBoolean();
+
+    private MockRpcServer server;
+    private BalanceReconciler reconciler;
+    private List<String> addresses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        InMemoryDerivedAccountRepository repository = new InMemoryDerivedAccountRepository();
+        addresses = new ArrayList<>();
+        for (int index = 0; index < ACCOUNTS; index++) {
+            String address = key(index);
+            addresses.add(address);
+            repository.save(new DerivedAccount("deposit-" + index, 0, 0, index, address));
+            if (index % 10 == 0) {
+                balances.put(address, 1_000L);
+            }
+        }
+        server = MockRpcServer.start().on("getMultipleAccounts", this::multipleAccounts);
+        OkHttpClient httpClient = new OkHttpClient();
+        reconciler = new BalanceReconciler(new RpcExecutor(new RpcClient(server.getUrl(), httpClient)),
+                new JsonRpcTransport(httpClient, server.getUrl()), repository, MAX_IDLE_RUNS, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void readsOnlyActiveAddressesOnceBalancesSettle() {
+        ReconciliationReport first = reconciler.reconcile();
+        assertEquals(ACCOUNTS, first.getAccountsRead());
+        assertEquals(3, first.getRpcCalls());
+        assertEquals(ACCOUNTS / 10, first.getDeltas().size());
+        assertEquals(new BalanceDelta(addresses.get(0), 0, 1_000, 100), first.getDeltas().get(0));
+
+        String hot = addresses.get(7);
+        reconciler.markActive(hot);
+        int before = accountsRequested.get();
+        int runs = 40;
+        for (int run = 1; run <= runs; run++) {
+            balances.merge(hot, 5L, Long::sum);
+            slot.incrementAndGet();
+            ReconciliationReport report = reconciler.reconcile();
+            assertTrue(report.getDeltas().stream().anyMatch(delta -> delta.address().equals(hot)));
+            assertTrue(report.getDeltas().stream().allMatch(delta -> delta.address().equals(hot)));
+        }
+        // Cold addresses are read every MAX_IDLE_RUNS runs at most, instead of every run.
+        assertTrue(accountsRequested.get() - before < ACCOUNTS * runs / 4,
+                "read " + (accountsRequested.get() - before) + " accounts");
+        assertEquals(OptionalLong.of(runs * 5L), reconciler.getLamports(hot));
+    }
+
+    @Test
+    void picksUpColdChangesWithinIdleLimitAndMarkedAddressesRightAway() {
+        for (int run = 0; run < 20; run++) {
+            slot.incrementAndGet();
+            reconciler.reconcile();
+        }
+        String cold = addresses.get(10);
+        balances.put(cold, 250L);
+
+        int runsUntilSeen = 0;
+        List<BalanceDelta> deltas = List.of();
+        while (deltas.isEmpty() && runsUntilSeen < MAX_IDLE_RUNS) {
+            slot.incrementAndGet();
+            deltas = reconciler.reconcile().getDeltas();
+            runsUntilSeen++;
+        }
+        assertEquals(List.of(new BalanceDelta(cold, 1_000, 250, slot.get())), deltas);
+
+        String marked = addresses.get(11);
+        balances.put(marked, 42L);
+        reconciler.markActive(marked);
+        reconciler.markActive(key(999));
+        slot.incrementAndGet();
+
+        ReconciliationReport report = reconciler.reconcile();
+
+        assertEquals(List.of(new BalanceDelta(marked, 0, 42, slot.get())), report.getDeltas());
+        assertTrue(report.getAccountsRead() < ACCOUNTS / 2);
+        assertEquals(ACCOUNTS, reconciler.getTrackedAccountCount());
+    }
+
+    @Test
+    void neverAcceptsOlderSnapshotsAndRetriesFailedReads() {
+        reconciler.reconcile();
+        assertEquals(100, reconciler.getHighestContextSlot());
+
+        // A lagging node that ignores minContextSlot must not roll balances back.
+        String address = addresses.get(0);
+        balances.put(address, 0L);
+        slot.set(90);
+        reconciler.markActive(address);
+        assertEquals(List.of(), reconciler.reconcile().getDeltas());
+        assertEquals(100, lastMinContextSlot.get());
+
+        slot.set(120);
+        failNext.set(true);
+        ReconciliationReport failed = reconciler.reconcile();
+        assertEquals(1, failed.getFailedCalls());
+        assertEquals(3, failed.getRpcCalls());
+        assertEquals(List.of(), failed.getDeltas());
+
+        ReconciliationReport retried = reconciler.reconcile();
+        assertEquals(List.of(new BalanceDelta(address, 1_000, 0, 120)), retried.getDeltas());
+        assertEquals(0, retried.getFailedCalls());
+    }
+
+    private String multipleAccounts(JsonNode params) {
+        if (failNext.getAndSet(false)) {
+            throw new MockRpcServer.RpcError(-32016, "Minimum context slot has not been reached");
+        }
+        JsonNode minContextSlot = params.get(1).get("minContextSlot");
+        lastMinContextSlot.set(minContextSlot == null ? -1 : minContextSlot.asLong());
+        StringBuilder value = new StringBuilder("[");
+        for (JsonNode key : params.get(0)) {
+            accountsRequested.incrementAndGet();
+            Long lamports = balances.get(key.asText());
+            value.append(value.length() > 1 ? "," : "")
+                    .append(lamports == null ? "null" : "{\"lamports\":" + lamports + ",\"data\":[\"\",\"base64\"]}");
+        }
+        return MockRpcServer.contextResult(slot.get(), value.append(']').toString());
+    }
+
+    private static String key(int seed) {
+        byte[] key = new byte[32];
+        key[0] = (byte) seed;
+        key[1] = (byte) (seed >> 8);
+        key[31] = 13;
+        return new PublicKey(key).toBase58();
+    }
+}
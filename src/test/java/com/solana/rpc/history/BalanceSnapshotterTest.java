@@ -0,0 +1,118 @@
+package com.solana.rpc.history;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceSnapshotterTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final int ACCOUNTS = 150;
+
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+
+    @TempDir
+    Path directory;
+
+    private MockRpcServer server;
+    private InMemoryDerivedAccountRepository repository;
+    private BalanceHistoryStore store;
+    private BalanceSnapshotter snapshotter;
+    private String first;
+    private Instant now = Instant.ofEpochMilli(1_000);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DerivationService derivationService = new DerivationService(TEST_MNEMONIC);
+        repository = new InMemoryDerivedAccountRepository();
+        for (int index = 0; index < ACCOUNTS; index++) {
+            String publicKey = derivationService.derivePublicKeyBase58(0, 0, index);
+            repository.save(new DerivedAccount("deposit-" + index, 0, 0, index, publicKey));
+            if (index % 2 == 0) {
+                balances.put(publicKey, 1_000L);
+            }
+        }
+        first = derivationService.derivePublicKeyBase58(0, 0, 0);
+
+        server = MockRpcServer.start().on("getMultipleAccounts", this::multipleAccounts);
+        OkHttpClient httpClient = new OkHttpClient();
+        store = BalanceHistoryStore.open(directory);
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        };
+        snapshotter = new BalanceSnapshotter(new RpcExecutor(new RpcClient(server.getUrl(), httpClient)),
+                new JsonRpcTransport(httpClient, server.getUrl()), repository, store, Duration.ofMinutes(5), clock);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        snapshotter.close();
+        store.close();
+        server.close();
+    }
+
+    @Test
+    void recordsOnlyBalancesThatChangedBetweenSnapshots() throws Exception {
+        assertEquals(ACCOUNTS / 2, snapshotter.snapshot());
+
+        now = Instant.ofEpochMilli(2_000);
+        balances.put(first, 4_000L);
+        assertEquals(1, snapshotter.snapshot());
+
+        now = Instant.ofEpochMilli(3_000);
+        assertEquals(0, snapshotter.snapshot());
+
+        assertEquals(ACCOUNTS, store.getAccountCount());
+        assertEquals(OptionalLong.of(ACCOUNTS / 2 * 1_000L), store.totalAt(Instant.ofEpochMilli(1_500)));
+        assertEquals(OptionalLong.of(ACCOUNTS / 2 * 1_000L + 3_000), store.totalAt(Instant.ofEpochMilli(3_000)));
+        assertEquals(List.of(new BalancePoint(1_000, 1_000), new BalancePoint(2_000, 4_000)),
+                store.history(first, Instant.ofEpochMilli(1_000), Instant.ofEpochMilli(3_000)));
+    }
+
+    private String multipleAccounts(JsonNode params) {
+        StringBuilder value = new StringBuilder("[");
+        for (JsonNode key : params.get(0)) {
+            Long lamports = balances.get(key.asText());
+            value.append(value.length() > 1 ? "," : "")
+                    .append(lamports == null ? "null" : "{\"lamports\":" + lamports + ",\"data\":[\"\",\"base64\"]}");
+        }
+        return MockRpcServer.contextResult(10, value.append(']').toString());
+    }
+}
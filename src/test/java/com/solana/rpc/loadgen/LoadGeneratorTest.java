@@ -0,0 +1,90 @@
+package com.solana.rpc.loadgen;
+
+import com.solana.rpc.service.SolanaWalletService;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.logging.Level;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadGeneratorTest {
+
+    @Test
+    void parsesOptionsOnTopOfDefaults() {
+        LoadProfile profile = LoadProfile.parse("--rate=750", "--mix=getBalance:3, listAccounts:1",
+                "--warmup=500ms", "--duration=2m", "--rpc=http://localhost:8899", "--log-level=info");
+
+        assertEquals(750, profile.getRatePerSecond());
+        assertEquals(Map.of(WalletOperation.GET_BALANCE, 3, WalletOperation.LIST_ACCOUNTS, 1), profile.getMix());
+        assertEquals(Duration.ofMillis(500), profile.getWarmup());
+        assertEquals(Duration.ofMinutes(2), profile.getDuration());
+        assertEquals("http://localhost:8899", profile.getEndpoint());
+        assertEquals(Level.INFO, profile.getLogLevel());
+        assertEquals(LoadProfile.defaults().getWorkers(), profile.getWorkers());
+
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("--threads=4"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("--warmup=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("--mix=transfer:1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadProfile.parse("--rate=0"));
+    }
+
+    @Test
+    void issuesTheMixAndSkipsWarmup() throws InterruptedException {
+        SolanaWalletService walletService = mock(SolanaWalletService.class);
+        when(walletService.getNewAddress(anyString())).thenAnswer(invocation -> "address-" + invocation.getArgument(0));
+        when(walletService.getBalance(anyString())).thenReturn(BigDecimal.ONE);
+        LoadProfile profile = new LoadProfile(1_000,
+                Map.of(WalletOperation.GET_BALANCE, 3, WalletOperation.LIST_ACCOUNTS, 1),
+                Duration.ofMillis(500), Duration.ofSeconds(1), 4, 10, LoadProfile.MOCK_ENDPOINT, Duration.ZERO, 7,
+                Level.OFF);
+
+        LoadReport report = new LoadGenerator(walletService, profile).run();
+
+        LoadReport.OperationResult balances = report.getResults().get(WalletOperation.GET_BALANCE);
+        LoadReport.OperationResult lists = report.getResults().get(WalletOperation.LIST_ACCOUNTS);
+        assertEquals(1_000, balances.succeeded() + lists.succeeded());
+        assertEquals(0, balances.failed() + lists.failed());
+        assertEquals(750, balances.succeeded(), 60);
+        assertEquals(1_000, report.getOverallLatency().getCount());
+    }
+
+    @Test
+    void countsQueueingBehindSlowCallsAsLatency() throws InterruptedException {
+        SolanaWalletService walletService = mock(SolanaWalletService.class);
+        when(walletService.getNewAddress(anyString())).thenReturn("address");
+        when(walletService.getBalance(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(40);
+            return BigDecimal.ONE;
+        });
+        // One worker serves 25 calls per second; 50 per second arrive.
+        LoadProfile profile = new LoadProfile(50, Map.of(WalletOperation.GET_BALANCE, 1), Duration.ZERO,
+                Duration.ofSeconds(1), 1, 1, LoadProfile.MOCK_ENDPOINT, Duration.ZERO, 7, Level.OFF);
+
+        LoadReport report = new LoadGenerator(walletService, profile).run();
+
+        LoadReport.OperationResult result = report.getResults().get(WalletOperation.GET_BALANCE);
+        assertEquals(50, result.succeeded());
+        assertTrue(result.latency().getValueAtPercentile(50) >= Duration.ofMillis(40).toNanos());
+        // The last arrival waits behind about 49 calls of 40 ms, which a closed loop would never see.
+        assertTrue(result.latency().getValueAtPercentile(100) > Duration.ofMillis(800).toNanos());
+    }
+
+    @Test
+    void mockEndpointAnswersBalanceReads() throws Exception {
+        try (MockBalanceEndpoint endpoint = MockBalanceEndpoint.start(5_000, Duration.ZERO)) {
+            RpcClient client = new RpcClient(endpoint.getUrl());
+
+            assertEquals(5_000, client.getApi().getBalance(new PublicKey("11111111111111111111111111111111")));
+            assertThrows(RpcException.class, () -> client.getApi().getSlot());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsBinaryArchivesLargerThanOneBatch() throws IOException {
+        InMemoryDerivedAccountRepository source = repositoryWith(AccountArchive.IMPORT_BATCH_SIZE + 5);
+        source.save(new DerivedAccount("\u00fcn\u00efcode-label", Integer.MAX_VALUE, 0, -1, randomKey(new Random(9))));
+        Path archive = directory.resolve("accounts.bin");
+
+        assertEquals(AccountArchive.IMPORT_BATCH_SIZE + 6, export(source, archive, AccountArchiveFormat.BINARY));
+        InMemoryDerivedAccountRepository target = new InMemoryDerivedAccountRepository();
+        assertEquals(AccountArchive.IMPORT_BATCH_SIZE + 6, importInto(target, archive, AccountArchiveFormat.BINARY));
+
+        assertEquals(sorted(source.findAll()), sorted(target.findAll()));
+        // 1 length byte, 10 label bytes, at most 4 path bytes and 32 key bytes per generated record.
+        assertTrue(Files.size(archive) <= 47L * (AccountArchive.IMPORT_BATCH_SIZE + 6) + 64);
+    }
+
+    @Test
+    void roundTripsNdjsonArchives() throws IOException {
+        InMemoryDerivedAccountRepository source = repositoryWith(10);
+        Path archive = directory.resolve("accounts.ndjson");
+
+        export(source, archive, AccountArchiveFormat.NDJSON);
+        InMemoryDerivedAccountRepository target = new InMemoryDerivedAccountRepository();
+        importInto(target, archive, AccountArchiveFormat.NDJSON);
+
+        assertEquals(sorted(source.findAll()), sorted(target.findAll()));
+        List<String> lines = Files.readAllLines(archive, StandardCharsets.UTF_8);
+        assertEquals(10, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"label\":\"acct-00000\",\"account\":0,\"change\":0,\"index\":0,"));
+    }
+
+    @Test
+    void rejectsTruncatedBinaryArchives() throws IOException {
+        Path archive = directory.resolve("accounts.bin");
+        export(repositoryWith(100), archive, AccountArchiveFormat.BINARY);
+        byte[] content = Files.readAllBytes(archive);
+        Files.write(archive, Arrays.copyOf(content, content.length - 40));
+
+        assertThrows(EOFException.class,
+                () -> importInto(new InMemoryDerivedAccountRepository(), archive, AccountArchiveFormat.BINARY));
+    }
+
+    @Test
+    void rejectsNdjsonRecordsWithInvalidKeys() throws IOException {
+        Path archive = directory.resolve("accounts.ndjson");
+        Files.writeString(archive, "{\"label\":\"a\",\"account\":0,\"change\":0,\"index\":0,\"publicKey\":\"abc\"}\n");
+
+        assertThrows(IOException.class,
+                () -> importInto(new InMemoryDerivedAccountRepository(), archive, AccountArchiveFormat.NDJSON));
+    }
+
+    private static InMemoryDerivedAccountRepository repositoryWith(int accounts) {
+        Random random = new Random(accounts);
+        InMemoryDerivedAccountRepository repository = new InMemoryDerivedAccountRepository();
+        List<DerivedAccount> batch = new ArrayList<>();
+        for (int i = 0; i < accounts; i++) {
+            batch.add(new DerivedAccount(String.format("acct-%05d", i), 0, 0, i, randomKey(random)));
+        }
+        repository.saveAll(batch);
+        return repository;
+    }
+
+    private static String randomKey(Random random) {
+        byte[] key = new byte[PublicKey.PUBLIC_KEY_LENGTH];
+        random.nextBytes(key);
+        return new PublicKey(key).toBase58();
+    }
+
+    private static long export(DerivedAccountRepository repository, Path file, AccountArchiveFormat format)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return repository.exportAccounts(channel, format);
+        }
+    }
+
+    private static long importInto(DerivedAccountRepository repository, Path file, AccountArchiveFormat format)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return repository.importAccounts(channel, format);
+        }
+    }
+
+    private static List<DerivedAccount> sorted(List<DerivedAccount> accounts) {
+        accounts.sort(Comparator.comparing(DerivedAccount::getLabel));
+        return accounts;
+    }
+}
@@ -0,0 +1,118 @@
+package com.solana.rpc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.wallet.DerivationService;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AddressProvisionerTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void streamsPersistedAddressesInIndexOrder() throws Exception {
+        DerivationService derivationService = new DerivationService(TEST_MNEMONIC);
+        InMemoryDerivedAccountRepository repository = new InMemoryDerivedAccountRepository();
+        InMemoryKeyStorage keyStorage = new InMemoryKeyStorage();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (AddressProvisioner provisioner = new AddressProvisioner(derivationService, repository, keyStorage, 4)) {
+            assertEquals(40, provisioner.provision(0, 0, 10, 40, "bulk-", out));
+        }
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(40, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode line = MAPPER.readTree(lines[i]);
+            int index = 10 + i;
+            String publicKey = derivationService.derivePublicKeyBase58(0, 0, index);
+            assertEquals("bulk-" + index, line.get("label").asText());
+            assertEquals(index, line.get("index").asInt());
+            assertEquals(publicKey, line.get("publicKey").asText());
+            assertEquals(new DerivedAccount("bulk-" + index, 0, 0, index, publicKey),
+                    repository.findByLabel("bulk-" + index).orElseThrow());
+            assertTrue(keyStorage.findByPublicKey(publicKey).isPresent());
+        }
+    }
+
+    @Test
+    void slowConsumerHoldsBackDerivation() throws Exception {
+        AtomicInteger derivations = new AtomicInteger();
+        DerivationService derivationService = mock(DerivationService.class);
+        when(derivationService.derive(anyInt(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            derivations.incrementAndGet();
+            return new Account();
+        });
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream slowConsumer = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        int window = 8;
+        try (AddressProvisioner provisioner = new AddressProvisioner(derivationService,
+                new InMemoryDerivedAccountRepository(), new InMemoryKeyStorage(), 2, window)) {
+            CompletableFuture<Long> provisioning = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return provisioner.provision(0, 0, 0, 10_000, "slow-", slowConsumer);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            assertTrue(derivations.get() <= AddressProvisioner.MAX_COMMIT_BATCH + window,
+                    "derived " + derivations.get() + " addresses while the consumer was blocked");
+
+            release.countDown();
+            assertEquals(10_000, provisioning.get(30, TimeUnit.SECONDS));
+            assertEquals(10_000, derivations.get());
+        }
+    }
+
+    @Test
+    void rejectsRangeWhoseLabelsAreTaken() {
+        InMemoryDerivedAccountRepository repository = new InMemoryDerivedAccountRepository();
+        repository.save(new DerivedAccount("bulk-3", 1, 0, 99, "2bahaF9qfc6pE5DJCKQ7AcZF1nXx5Jvf4NwkQib8uwbL"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (AddressProvisioner provisioner = new AddressProvisioner(new DerivationService(TEST_MNEMONIC),
+                repository, new InMemoryKeyStorage(), 1, 1)) {
+            assertThrows(IllegalArgumentException.class, () -> provisioner.provision(0, 0, 0, 5, "bulk-", out));
+        }
+
+        assertEquals(99, repository.findByLabel("bulk-3").orElseThrow().getIndex());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+    }
+}
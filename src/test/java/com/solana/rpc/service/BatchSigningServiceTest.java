@@ -0,0 +1,92 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.wallet.DerivationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BatchSigningServiceTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+
+    private BatchSigningService signingService;
+
+    @AfterEach
+    void tearDown() {
+        if (signingService != null) {
+            signingService.close();
+        }
+    }
+
+    @Test
+    void signsWithStoredKeysInRequestOrder() {
+        DerivationService derivationService = mock(DerivationService.class);
+        InMemoryKeyStorage keyStorage = new InMemoryKeyStorage();
+        List<Account> accounts = new ArrayList<>();
+        List<SigningRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Account account = new Account();
+            keyStorage.save(account);
+            accounts.add(account);
+        }
+        for (int i = 0; i < 103; i++) {
+            Account account = accounts.get(i % accounts.size());
+            requests.add(new SigningRequest(derivedAccount(i % accounts.size(), account),
+                    ("message-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        signingService = new BatchSigningService(derivationService, keyStorage, 4);
+
+        List<byte[]> signatures = signingService.signAll(requests);
+
+        assertEquals(requests.size(), signatures.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Account account = accounts.get(i % accounts.size());
+            byte[] expected = new TweetNaclFast.Signature(new byte[0], account.getSecretKey())
+                    .detached(requests.get(i).getMessage());
+            assertArrayEquals(expected, signatures.get(i), "signature " + i);
+        }
+        verify(derivationService, never()).derive(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void derivesKeysMissingFromStorage() {
+        DerivationService derivationService = new DerivationService(TEST_MNEMONIC);
+        Account expected = derivationService.derive(0, 0, 3);
+        DerivedAccount signer = new DerivedAccount("deposit", 0, 0, 3, expected.getPublicKey().toBase58());
+        byte[] message = new byte[4096];
+        signingService = new BatchSigningService(derivationService, new InMemoryKeyStorage(), 2);
+
+        List<byte[]> signatures = signingService.signAll(List.of(new SigningRequest(signer, message),
+                new SigningRequest(signer, new byte[]{1})));
+
+        assertTrue(new TweetNaclFast.Signature(expected.getPublicKey().toByteArray(), new byte[0])
+                .detached_verify(message, signatures.get(0)));
+        assertEquals(64, signatures.get(1).length);
+    }
+
+    @Test
+    void rejectsSignersWhoseDerivedKeyDoesNotMatch() {
+        DerivationService derivationService = new DerivationService(TEST_MNEMONIC);
+        DerivedAccount signer = new DerivedAccount("wrong", 0, 0, 3, new Account().getPublicKey().toBase58());
+        signingService = new BatchSigningService(derivationService, new InMemoryKeyStorage(), 2);
+
+        assertThrows(IllegalStateException.class,
+                () -> signingService.signAll(List.of(new SigningRequest(signer, new byte[8]))));
+    }
+
+    private static DerivedAccount derivedAccount(int index, Account account) {
+        return new DerivedAccount("signer-" + index, 0, 0, index, account.getPublicKey().toBase58());
+    }
+}
@@ -4,6 +4,7 @@ import com.solana.rpc.model.DerivedAccount;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -52,4 +53,50 @@ class InMemoryDerivedAccountRepositoryTest {
         assertEquals("primary", lookup.get().getLabel());
         assertEquals(1, lookup.get().getIndex());
     }
+
+    @Test
+    void findsLabelsByPrefixInOrderUpToLimit() {
+        repository.save(new DerivedAccount("cust-2-a", 0, 0, 3, "pubKey3"));
+        repository.save(new DerivedAccount("cust-1-b", 0, 0, 2, "pubKey2"));
+        repository.save(new DerivedAccount("cust-1-a", 0, 0, 1, "pubKey1"));
+        repository.save(new DerivedAccount("cust-10", 0, 0, 4, "pubKey4"));
+
+        List<DerivedAccount> matches = repository.findByLabelPrefix("cust-1-", 10);
+
+        assertEquals(List.of("cust-1-a", "cust-1-b"), matches.stream().map(DerivedAccount::getLabel).toList());
+        assertEquals(1, repository.findByLabelPrefix("cust-1", 1).size());
+        assertEquals(4, repository.findByLabelPrefix("", 10).size());
+        assertTrue(repository.findByLabelPrefix("other", 10).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> repository.findByLabelPrefix("cust", 0));
+    }
+
+    @Test
+    void findsPathRangeWithinAccountAndChange() {
+        for (int index = 0; index < 10; index++) {
+            repository.save(new DerivedAccount("a0-" + index, 0, 0, index, "pk0-" + index));
+            repository.save(new DerivedAccount("a1-" + index, 1, 0, index, "pk1-" + index));
+        }
+
+        List<DerivedAccount> matches = repository.findByPathRange(0, 0, 3, 6, 10);
+
+        assertEquals(List.of(3, 4, 5), matches.stream().map(DerivedAccount::getIndex).toList());
+        assertTrue(matches.stream().allMatch(account -> account.getAccount() == 0));
+        assertEquals(2, repository.findByPathRange(1, 0, 0, 10, 2).size());
+        assertTrue(repository.findByPathRange(0, 1, 0, 10, 10).isEmpty());
+        assertTrue(repository.findByPathRange(0, 0, 6, 3, 10).isEmpty());
+    }
+
+    @Test
+    void indexesFollowOverwritesAndDeletes() {
+        repository.save(new DerivedAccount("moving", 0, 0, 1, "oldKey"));
+        repository.save(new DerivedAccount("moving", 0, 0, 2, "newKey"));
+
+        assertTrue(repository.findByPublicKey("oldKey").isEmpty());
+        assertTrue(repository.findByPathRange(0, 0, 1, 2, 10).isEmpty());
+        assertEquals(1, repository.findByPathRange(0, 0, 0, 10, 10).size());
+
+        assertTrue(repository.deleteByPublicKey("newKey"));
+        assertTrue(repository.findByLabelPrefix("mov", 10).isEmpty());
+        assertTrue(repository.findByPathRange(0, 0, 0, 10, 10).isEmpty());
+    }
 }
@@ -0,0 +1,76 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedDerivedAccountRepositoryTest {
+
+    private InMemoryDerivedAccountRepository delegate;
+    private PublicKey first;
+    private PublicKey second;
+
+    @BeforeEach
+    void setUp() {
+        delegate = new InMemoryDerivedAccountRepository();
+        first = new Account().getPublicKey();
+        second = new Account().getPublicKey();
+    }
+
+    @Test
+    void indexesExistingAndSavedAccounts() {
+        delegate.save(new DerivedAccount("existing", 0, 0, 0, first.toBase58()));
+        IndexedDerivedAccountRepository repository = new IndexedDerivedAccountRepository(delegate);
+
+        repository.save(new DerivedAccount("new", 0, 0, 1, second.toBase58()));
+
+        WalletMembershipIndex index = repository.getMembershipIndex();
+        assertTrue(index.contains(first));
+        assertTrue(index.contains(second));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void followsOverwritesAndDeletes() {
+        IndexedDerivedAccountRepository repository = new IndexedDerivedAccountRepository(delegate);
+        repository.save(new DerivedAccount("deposit", 0, 0, 0, first.toBase58()));
+
+        repository.save(new DerivedAccount("deposit", 0, 0, 1, second.toBase58()));
+        assertFalse(repository.getMembershipIndex().contains(first));
+        assertTrue(repository.getMembershipIndex().contains(second));
+
+        assertTrue(repository.deleteByPublicKey(second.toBase58()));
+        assertFalse(repository.deleteByLabel("deposit"));
+        assertEquals(0, repository.getMembershipIndex().size());
+    }
+
+    @Test
+    void keepsKeysStillReferencedByAnotherLabel() {
+        IndexedDerivedAccountRepository repository = new IndexedDerivedAccountRepository(delegate);
+        repository.save(new DerivedAccount("old", 0, 0, 0, first.toBase58()));
+        repository.save(new DerivedAccount("renamed", 0, 0, 0, first.toBase58()));
+
+        assertTrue(repository.deleteByLabel("old"));
+
+        assertTrue(repository.getMembershipIndex().contains(first));
+    }
+
+    @Test
+    void indexesBulkSaves() {
+        IndexedDerivedAccountRepository repository = new IndexedDerivedAccountRepository(delegate);
+        repository.save(new DerivedAccount("deposit", 0, 0, 0, first.toBase58()));
+
+        repository.saveAll(List.of(new DerivedAccount("deposit", 0, 0, 1, second.toBase58()),
+                new DerivedAccount("other", 0, 0, 2, first.toBase58())));
+
+        assertTrue(repository.getMembershipIndex().contains(first));
+        assertTrue(repository.getMembershipIndex().contains(second));
+        assertEquals(2, repository.findAll().size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.HedgingPolicy;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Several service instances sharing one mnemonic and one repository, each owning a partition.
+ */
+class PartitionedWalletServiceTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final int INSTANCES = 3;
+    private static final int ADDRESSES_PER_INSTANCE = 40;
+
+    private RpcExecutor rpcExecutor;
+    private InMemoryDerivedAccountRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        rpcExecutor = new RpcExecutor(mock(RpcClient.class));
+        repository = new InMemoryDerivedAccountRepository();
+    }
+
+    @Test
+    void concurrentInstancesIssueDisjointAddresses() throws Exception {
+        List<SolanajWalletService> services = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            services.add(instance(AddressPartition.forInstance("wallet-" + i)));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(INSTANCES * 2);
+        List<Future<String>> issued = new ArrayList<>();
+        for (int n = 0; n < ADDRESSES_PER_INSTANCE; n++) {
+            for (SolanajWalletService service : services) {
+                issued.add(pool.submit(() -> service.getNewAddress()));
+            }
+        }
+        Set<String> addresses = new HashSet<>();
+        for (Future<String> address : issued) {
+            addresses.add(address.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(INSTANCES * ADDRESSES_PER_INSTANCE, addresses.size());
+        for (SolanajWalletService service : services) {
+            assertEquals(INSTANCES * ADDRESSES_PER_INSTANCE, service.listAccounts().size());
+        }
+        for (int account = 0; account < INSTANCES; account++) {
+            List<DerivedAccount> partition = repository.findByPathRange(account, 0, 0, Integer.MAX_VALUE, 1_000);
+            assertEquals(ADDRESSES_PER_INSTANCE, partition.size());
+            assertEquals(ADDRESSES_PER_INSTANCE - 1, partition.get(partition.size() - 1).getIndex());
+        }
+        assertTrue(repository.findByLabel("account-2-0").isPresent());
+        assertTrue(repository.findByLabel("account-0").isPresent());
+    }
+
+    @Test
+    void restartedInstanceContinuesAfterItsHighestStoredIndex() {
+        SolanajWalletService first = instance(AddressPartition.of(1));
+        SolanajWalletService other = instance(AddressPartition.of(2));
+        for (int i = 0; i < 5; i++) {
+            first.getNewAddress();
+        }
+        other.getNewAddress();
+        repository.save(new DerivedAccount("imported", 1, 0, 9, new DerivationService(TEST_MNEMONIC)
+                .derivePublicKeyBase58(1, 0, 9)));
+
+        SolanajWalletService restarted = instance(AddressPartition.of(1));
+        String next = restarted.getNewAddress("next");
+
+        assertEquals(new DerivationService(TEST_MNEMONIC).derivePublicKeyBase58(1, 0, 10), next);
+        assertEquals(10, repository.findByLabel("next").orElseThrow().getIndex());
+    }
+
+    @Test
+    void parsesPartitionFromInstanceId() {
+        assertEquals(AddressPartition.of(3), AddressPartition.forInstance("3"));
+        assertEquals(AddressPartition.of(12), AddressPartition.forInstance("wallet-12"));
+        assertSame(AddressPartition.single(), AddressPartition.forInstance("node-0"));
+        assertThrows(IllegalArgumentException.class, () -> AddressPartition.forInstance("wallet"));
+        assertThrows(IllegalArgumentException.class, () -> AddressPartition.forInstance("wallet-99999999999"));
+        assertThrows(IllegalArgumentException.class, () -> AddressPartition.of(-1));
+    }
+
+    private SolanajWalletService instance(AddressPartition partition) {
+        return new SolanajWalletService(rpcExecutor, new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled()),
+                new RecentBlockhashCache(rpcExecutor), new ConfirmationTracker(rpcExecutor),
+                new DerivationService(TEST_MNEMONIC), repository, new InMemoryKeyStorage(), partition);
+    }
+}
@@ -11,7 +11,11 @@ import org.p2p.solanaj.rpc.RpcApi;
 import org.p2p.solanaj.rpc.RpcClient;
 import org.p2p.solanaj.rpc.RpcException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,6 +77,22 @@ class SolanajWalletServiceTest {
         assertEquals(1, keyStorage.getAccounts().size());
     }
 
+    @Test
+    void provisionAddressesReservesRangeAheadOfGetNewAddress() throws IOException {
+        walletService.getNewAddress("primary");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, walletService.provisionAddresses("batch-", 3, out));
+        String next = walletService.getNewAddress("next");
+
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).lines().count());
+        assertEquals(1, accountRepository.findByLabel("batch-1").orElseThrow().getIndex());
+        assertEquals(3, accountRepository.findByLabel("batch-3").orElseThrow().getIndex());
+        assertEquals(derivationService.derivePublicKeyBase58(0, 0, 4), next);
+        assertEquals(5, keyStorage.getAccounts().size());
+        assertThrows(IllegalArgumentException.class, () -> walletService.provisionAddresses("batch-", 0, out));
+    }
+
     @Test
     void getBalanceReturnsConvertedSolValue() throws RpcException {
         when(rpcApi.getBalance(any(PublicKey.class))).thenReturn(2_500_000_000L);
@@ -95,6 +115,23 @@ class SolanajWalletServiceTest {
         verify(rpcApi).getBalance(new PublicKey(address));
     }
 
+    @Test
+    void getBalanceWithTimeoutReturnsConvertedSolValue() throws RpcException {
+        when(rpcApi.getBalance(any(PublicKey.class))).thenReturn(1_500_000_000L);
+
+        BigDecimal balance = walletService.getBalance("11111111111111111111111111111111", Duration.ofSeconds(1));
+
+        assertEquals(new BigDecimal("1.500000000"), balance);
+    }
+
+    @Test
+    void getBalanceRejectsNonPositiveTimeout() {
+        assertThrows(IllegalArgumentException.class,
+                () -> walletService.getBalance("11111111111111111111111111111111", Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                () -> walletService.getBalanceByLabel("missing", null));
+    }
+
     @Test
     void getBalanceRejectsBlankAddress() {
         assertThrows(IllegalArgumentException.class, () -> walletService.getBalance("  "));
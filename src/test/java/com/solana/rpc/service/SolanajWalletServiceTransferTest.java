@@ -0,0 +1,173 @@
+package com.solana.rpc.service;
+
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transaction.CommitmentLevel;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.FeeOracle;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transaction.TransactionConfirmation;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.HedgingPolicy;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.programs.ComputeBudgetProgram;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.utils.Base58;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends transfers through a real Solanaj client against a local mock RPC endpoint.
+ */
+class SolanajWalletServiceTransferTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final String RECIPIENT = "11111111111111111111111111111112";
+
+    private final List<byte[]> submitted = new CopyOnWriteArrayList<>();
+    private MockRpcServer server;
+    private RecentBlockhashCache blockhashCache;
+    private SolanajWalletService walletService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockRpcServer.start()
+                .on("getLatestBlockhash", params -> MockRpcServer.contextResult(1,
+                        "{\"blockhash\":\"" + blockhash((byte) 7) + "\",\"lastValidBlockHeight\":150}"))
+                .on("sendTransaction", params -> {
+                    byte[] wire = Base64.getDecoder().decode(params.get(0).asText());
+                    submitted.add(wire);
+                    return "\"" + Base58.encode(Arrays.copyOfRange(wire, 1, 65)) + "\"";
+                });
+        RpcExecutor rpcExecutor = new RpcExecutor(new RpcClient(server.getUrl(), new OkHttpClient()));
+        blockhashCache = new RecentBlockhashCache(rpcExecutor);
+        walletService = new SolanajWalletService(rpcExecutor,
+                new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled()), blockhashCache,
+                new ConfirmationTracker(rpcExecutor, Duration.ofMillis(20)),
+                new DerivationService(TEST_MNEMONIC), new InMemoryDerivedAccountRepository(), new InMemoryKeyStorage());
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockhashCache.close();
+        server.close();
+    }
+
+    @Test
+    void signsAndSubmitsTransferWithCachedBlockhash() {
+        String sender = walletService.getNewAddress("hot");
+
+        String firstSignature = walletService.transfer("hot", RECIPIENT, 1_000);
+        String secondSignature = walletService.transfer("hot", RECIPIENT, 2_000);
+
+        assertEquals(2, submitted.size());
+        assertEquals(1, server.getCallCount("getLatestBlockhash"));
+        assertNotEquals(firstSignature, secondSignature);
+
+        byte[] wire = submitted.get(0);
+        assertEquals(1, wire[0]);
+        byte[] signature = Arrays.copyOfRange(wire, 1, 65);
+        byte[] message = Arrays.copyOfRange(wire, 65, wire.length);
+        assertEquals(firstSignature, Base58.encode(signature));
+        TweetNaclFast.Signature verifier = new TweetNaclFast.Signature(new PublicKey(sender).toByteArray(), new byte[0]);
+        assertTrue(verifier.detached_verify(message, signature));
+    }
+
+    @Test
+    void refreshesBlockhashOnceWhenClusterRejectsIt() {
+        AtomicBoolean rejectNext = new AtomicBoolean(true);
+        server.on("sendTransaction", params -> {
+            if (rejectNext.getAndSet(false)) {
+                throw new MockRpcServer.RpcError(-32002, "Transaction simulation failed: Blockhash not found");
+            }
+            return "\"sig\"";
+        });
+        walletService.getNewAddress("hot");
+
+        assertEquals("sig", walletService.transfer("hot", RECIPIENT, 1_000));
+        assertEquals(2, server.getCallCount("getLatestBlockhash"));
+    }
+
+    @Test
+    void completesTransferOnceConfirmed() throws Exception {
+        server.on("getBlockHeight", params -> "100")
+                .on("getSignatureStatuses", params -> MockRpcServer.contextResult(2,
+                        "[{\"slot\":42,\"confirmations\":3,\"err\":null,\"confirmationStatus\":\"confirmed\"}]"));
+        walletService.getNewAddress("hot");
+
+        TransactionConfirmation confirmation = walletService
+                .transferAndConfirm("hot", RECIPIENT, 1_000, CommitmentLevel.CONFIRMED)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(42, confirmation.getSlot());
+        assertEquals(CommitmentLevel.CONFIRMED, confirmation.getCommitment());
+        assertEquals(1, submitted.size());
+    }
+
+    @Test
+    void bidsConfiguredPercentileOfRecentPriorityFees() throws Exception {
+        server.on("getRecentPrioritizationFees", params ->
+                "[{\"slot\":10,\"prioritizationFee\":0},{\"slot\":11,\"prioritizationFee\":2500}]");
+        RpcExecutor rpcExecutor = new RpcExecutor(new RpcClient(server.getUrl(), new OkHttpClient()));
+        try (FeeOracle feeOracle = new FeeOracle(rpcExecutor)) {
+            SolanajWalletService prioritized = new SolanajWalletService(rpcExecutor,
+                    new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled()), blockhashCache,
+                    new ConfirmationTracker(rpcExecutor, Duration.ofMillis(20)),
+                    new DerivationService(TEST_MNEMONIC), new InMemoryDerivedAccountRepository(),
+                    new InMemoryKeyStorage(), AddressPartition.single(), feeOracle, 75);
+            prioritized.getNewAddress("hot");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (feeOracle.estimate().getSampleCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            prioritized.transfer("hot", RECIPIENT, 1_000);
+            walletService.getNewAddress("hot");
+            walletService.transfer("hot", RECIPIENT, 1_000);
+        }
+
+        byte[] computeBudgetProgram = ComputeBudgetProgram.PROGRAM_ID.toByteArray();
+        assertTrue(contains(submitted.get(0), computeBudgetProgram));
+        assertFalse(contains(submitted.get(1), computeBudgetProgram));
+    }
+
+    @Test
+    void rejectsInvalidTransfers() {
+        walletService.getNewAddress("hot");
+
+        assertThrows(IllegalArgumentException.class, () -> walletService.transfer("missing", RECIPIENT, 1));
+        assertThrows(IllegalArgumentException.class, () -> walletService.transfer("hot", "not-base58!", 1));
+        assertThrows(IllegalArgumentException.class, () -> walletService.transfer("hot", RECIPIENT, 0));
+        assertEquals(0, server.getCallCount("sendTransaction"));
+    }
+
+    private static boolean contains(byte[] haystack, byte[] needle) {
+        for (int from = 0; from + needle.length <= haystack.length; from++) {
+            if (Arrays.equals(haystack, from, from + needle.length, needle, 0, needle.length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String blockhash(byte fill) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, fill);
+        return Base58.encode(bytes);
+    }
+}
@@ -0,0 +1,86 @@
+package com.solana.rpc.service;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WalletMembershipIndexTest {
+
+    @Test
+    void findsKeysAtAnOffsetInsideALargerBuffer() {
+        WalletMembershipIndex index = new WalletMembershipIndex();
+        byte[] message = new byte[3 + 3 * WalletMembershipIndex.KEY_BYTES];
+        new Random(1).nextBytes(message);
+        PublicKey issued = new PublicKey(Arrays.copyOfRange(message, 35, 67));
+
+        assertTrue(index.add(issued));
+        assertFalse(index.add(message, 35));
+
+        assertFalse(index.contains(message, 3));
+        assertTrue(index.contains(message, 35));
+        assertFalse(index.contains(message, 67));
+        assertThrows(IndexOutOfBoundsException.class, () -> index.contains(message, 68));
+    }
+
+    @Test
+    void handlesTheAllZeroKey() {
+        WalletMembershipIndex index = new WalletMembershipIndex(1);
+        byte[] zero = new byte[WalletMembershipIndex.KEY_BYTES];
+
+        assertFalse(index.contains(zero, 0));
+        index.add(zero, 0);
+
+        assertTrue(index.contains(zero, 0));
+        assertTrue(index.remove(zero, 0));
+        assertFalse(index.contains(zero, 0));
+    }
+
+    @Test
+    void growsAndRemovesWithoutLosingOtherKeys() {
+        WalletMembershipIndex index = new WalletMembershipIndex(4);
+        Random random = new Random(7);
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            byte[] key = new byte[WalletMembershipIndex.KEY_BYTES];
+            random.nextBytes(key);
+            keys.add(key);
+            index.add(key, 0);
+        }
+
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertTrue(index.remove(keys.get(i), 0));
+        }
+
+        assertEquals(10_000, index.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 2 == 1, index.contains(keys.get(i), 0), "key " + i);
+        }
+    }
+
+    @Test
+    void neverMatchesForeignKeys() {
+        WalletMembershipIndex index = new WalletMembershipIndex(10_000);
+        Random random = new Random(11);
+        byte[] key = new byte[WalletMembershipIndex.KEY_BYTES];
+        for (int i = 0; i < 10_000; i++) {
+            random.nextBytes(key);
+            index.add(key, 0);
+        }
+
+        int matches = 0;
+        for (int i = 0; i < 100_000; i++) {
+            random.nextBytes(key);
+            if (index.contains(key, 0)) {
+                matches++;
+            }
+        }
+
+        assertEquals(0, matches);
+    }
+}
@@ -0,0 +1,95 @@
+package com.solana.rpc.startup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupPipelineTest {
+
+    @Test
+    void runsConcurrentPhasesAtTheSameTimeAfterPrerequisites() {
+        AtomicBoolean configLoaded = new AtomicBoolean();
+        // Each phase waits for the other, so running them one after the other would time out.
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        StartupPipeline.Phase rendezvous = () -> {
+            assertTrue(configLoaded.get());
+            bothRunning.await(5, TimeUnit.SECONDS);
+        };
+
+        StartupReport report = new StartupPipeline()
+                .first("config", () -> configLoaded.set(true))
+                .concurrently("rpc-connection", rendezvous)
+                .concurrently("seed", rendezvous)
+                .run();
+
+        assertTrue(report.isWarm());
+        assertEquals(List.of("config", "rpc-connection", "seed"),
+                report.getPhases().stream().map(StartupReport.PhaseResult::name).toList());
+        StartupReport.PhaseResult config = report.getPhases().get(0);
+        for (StartupReport.PhaseResult phase : report.getPhases().subList(1, 3)) {
+            assertTrue(phase.startOffsetNanos() >= config.startOffsetNanos() + config.durationNanos());
+            assertTrue(phase.startOffsetNanos() + phase.durationNanos() <= report.getTotalNanos());
+        }
+    }
+
+    @Test
+    void recordsFailedConcurrentPhaseWithoutAbortingStartup() {
+        AtomicBoolean seedWarmed = new AtomicBoolean();
+
+        StartupReport report = new StartupPipeline()
+                .concurrently("rpc-connection", () -> {
+                    throw new IllegalStateException("connection refused");
+                })
+                .concurrently("seed", () -> seedWarmed.set(true))
+                .run();
+
+        assertFalse(report.isWarm());
+        assertTrue(seedWarmed.get());
+        assertEquals("connection refused", report.getPhases().get(0).failure());
+        assertTrue(report.getPhases().get(1).succeeded());
+    }
+
+    @Test
+    void recordsErrorsFromFailedStaticInitializers() {
+        StartupReport report = new StartupPipeline()
+                .concurrently("seed", () -> {
+                    throw new ExceptionInInitializerError(
+                            new IllegalArgumentException("Mnemonic must contain at least 12 words"));
+                })
+                .concurrently("diagnostics", () -> {
+                    throw new AssertionError("probe crashed");
+                })
+                .run();
+
+        assertFalse(report.isWarm());
+        assertEquals("Mnemonic must contain at least 12 words", report.getPhases().get(0).failure());
+        assertEquals("probe crashed", report.getPhases().get(1).failure());
+
+        StartupPipeline pipeline = new StartupPipeline().first("config", () -> {
+            throw new ExceptionInInitializerError(new IllegalStateException("Mnemonic is required"));
+        });
+        IllegalStateException failure = assertThrows(IllegalStateException.class, pipeline::run);
+        assertTrue(failure.getMessage().contains("Mnemonic is required"));
+    }
+
+    @Test
+    void failsStartupWhenPrerequisiteFails() {
+        AtomicBoolean seedWarmed = new AtomicBoolean();
+        StartupPipeline pipeline = new StartupPipeline()
+                .first("config", () -> {
+                    throw new IllegalStateException("Mnemonic is required");
+                })
+                .concurrently("seed", () -> seedWarmed.set(true));
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, pipeline::run);
+
+        assertTrue(failure.getMessage().contains("Mnemonic is required"));
+        assertFalse(seedWarmed.get());
+        assertThrows(IllegalArgumentException.class, () -> pipeline.concurrently("config", () -> { }));
+    }
+}
@@ -0,0 +1,88 @@
+package com.solana.rpc.tenant;
+
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.service.SolanaWalletService;
+import com.solana.rpc.transaction.ConfirmationTracker;
+import com.solana.rpc.transaction.FeeOracle;
+import com.solana.rpc.transaction.RecentBlockhashCache;
+import com.solana.rpc.transport.HedgedRpcExecutor;
+import com.solana.rpc.transport.HedgingPolicy;
+import com.solana.rpc.transport.RpcExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TenantWalletRegistryTest {
+
+    private static final Map<String, String> MNEMONICS = Map.of(
+            "alpha", "urge pulp usage sister evidence arrest palm math please chief egg abuse",
+            "beta", "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about");
+
+    private final AtomicInteger secretFetches = new AtomicInteger();
+    private TenantWalletRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        RpcExecutor rpcExecutor = new RpcExecutor(mock(RpcClient.class));
+        registry = new TenantWalletRegistry(rpcExecutor,
+                new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled()),
+                new RecentBlockhashCache(rpcExecutor), new ConfirmationTracker(rpcExecutor),
+                new FeeOracle(rpcExecutor), 75,
+                tenantId -> {
+                    secretFetches.incrementAndGet();
+                    return Optional.ofNullable(MNEMONICS.get(tenantId));
+                }, 1,
+                tenantId -> new InMemoryDerivedAccountRepository());
+    }
+
+    @Test
+    void keepsAddressesAndIndexesSeparatePerTenant() {
+        SolanaWalletService alpha = registry.wallet("alpha");
+        SolanaWalletService beta = registry.wallet("beta");
+
+        String alphaFirst = alpha.getNewAddress("deposit");
+        String betaFirst = beta.getNewAddress("deposit");
+        String alphaSecond = alpha.getNewAddress("change");
+
+        assertEquals("2bahaF9qfc6pE5DJCKQ7AcZF1nXx5Jvf4NwkQib8uwbL", alphaFirst);
+        assertEquals("9LCBeEKbr17HV3Us8cWR7JrnNP6tLK6QDFtMv8RevjP1", alphaSecond);
+        assertNotEquals(alphaFirst, betaFirst);
+        assertEquals(1, beta.listAccounts().size());
+        assertSame(alpha, registry.wallet("alpha"));
+        assertEquals(2, registry.tenantCount());
+        assertEquals(1, registry.getSeedCache().size());
+    }
+
+    @Test
+    void fetchesMnemonicAgainOnlyWhenEvictedNodeIsRecomputed() {
+        SolanaWalletService alpha = registry.wallet("alpha");
+        alpha.getNewAddress("first");
+        alpha.getNewAddress("second");
+        // One fetch validates the tenant, one computes its node; cached derivations fetch nothing.
+        assertEquals(2, secretFetches.get());
+
+        registry.wallet("beta").getNewAddress("deposit");
+        int beforeRecompute = secretFetches.get();
+        alpha.getNewAddress("third");
+
+        assertEquals(beforeRecompute + 1, secretFetches.get());
+    }
+
+    @Test
+    void removesTenantAndRejectsUnknownOnes() {
+        registry.wallet("alpha").getNewAddress("deposit");
+
+        assertTrue(registry.remove("alpha"));
+        assertFalse(registry.remove("alpha"));
+        assertEquals(0, registry.getSeedCache().size());
+        assertEquals(0, registry.tenantCount());
+        assertThrows(IllegalArgumentException.class, () -> registry.wallet("gamma"));
+    }
+}
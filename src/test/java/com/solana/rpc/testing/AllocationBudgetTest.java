@@ -0,0 +1,125 @@
+package com.solana.rpc.testing;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.service.InMemoryKeyStorage;
+import com.solana.rpc.service.SolanajWalletService;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per call on the wallet's hot paths, against an in-process RPC stub. The wallet's
+ * per-call INFO logging is switched off while measuring; when enabled it allocates far more than
+ * the calls themselves.
+ * <p>
+ * Budgets sit roughly 50% above the measured figures, so they catch a refactor that doubles the
+ * garbage of a path without failing on JIT noise. When a change legitimately moves a figure,
+ * update the budget together with the change; the trend is kept in the CSV written by
+ * {@link AllocationMeter}.
+ */
+class AllocationBudgetTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final int ISSUED_ADDRESSES = 1_000;
+
+    // Measured on JDK 17: 496, ~2.45M and 16 bytes. Almost all of derive's garbage is allocated
+    // inside solanaj.
+    private static final long GET_BALANCE_BUDGET = 768;
+    private static final long DERIVE_BUDGET = 3_700_000;
+    private static final long FIND_BY_PUBLIC_KEY_BUDGET = 64;
+
+    private static final Logger WALLET_LOGGER = Logger.getLogger(SolanajWalletService.class.getName());
+
+    private final AllocationMeter meter = new AllocationMeter(20_000, 2_000);
+    private Level walletLogLevel;
+    private DerivationService derivationService;
+    private InMemoryDerivedAccountRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(meter.isSupported(), "per-thread allocation accounting is not available");
+        walletLogLevel = WALLET_LOGGER.getLevel();
+        WALLET_LOGGER.setLevel(Level.WARNING);
+        derivationService = new DerivationService(TEST_MNEMONIC);
+        repository = new InMemoryDerivedAccountRepository();
+        for (int i = 0; i < ISSUED_ADDRESSES; i++) {
+            repository.save(new DerivedAccount("deposit-" + i, 0, 0, i, derivationService.derivePublicKeyBase58(0, 0, i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        WALLET_LOGGER.setLevel(walletLogLevel);
+    }
+
+    @Test
+    void getBalanceStaysWithinBudget() throws Exception {
+        SolanajWalletService walletService = new SolanajWalletService(new RpcExecutor(new StubRpcClient()),
+                derivationService, repository, new InMemoryKeyStorage());
+        String address = repository.findByLabel("deposit-7").orElseThrow().getPublicKey();
+
+        long bytes = meter.bytesPerOperation("SolanajWalletService.getBalance", GET_BALANCE_BUDGET,
+                () -> walletService.getBalance(address));
+
+        assertTrue(bytes <= GET_BALANCE_BUDGET, "getBalance allocated " + bytes + " B/op");
+    }
+
+    @Test
+    void deriveStaysWithinBudget() throws Exception {
+        AllocationMeter slowMeter = new AllocationMeter(200, 50);
+        int[] index = {0};
+
+        long bytes = slowMeter.bytesPerOperation("DerivationService.derive", DERIVE_BUDGET,
+                () -> derivationService.derive(0, 0, index[0]++ % ISSUED_ADDRESSES));
+
+        assertTrue(bytes <= DERIVE_BUDGET, "derive allocated " + bytes + " B/op");
+    }
+
+    @Test
+    void findByPublicKeyStaysWithinBudget() throws Exception {
+        String[] keys = new String[ISSUED_ADDRESSES];
+        for (int i = 0; i < ISSUED_ADDRESSES; i++) {
+            keys[i] = repository.findByLabel("deposit-" + i).orElseThrow().getPublicKey();
+        }
+        int[] index = {0};
+
+        long bytes = meter.bytesPerOperation("InMemoryDerivedAccountRepository.findByPublicKey",
+                FIND_BY_PUBLIC_KEY_BUDGET, () -> repository.findByPublicKey(keys[index[0]++ % ISSUED_ADDRESSES]));
+
+        assertTrue(bytes <= FIND_BY_PUBLIC_KEY_BUDGET, "findByPublicKey allocated " + bytes + " B/op");
+    }
+
+    /**
+     * Answers balance reads in-process, so only the wallet's own allocations are measured.
+     */
+    private static final class StubRpcClient extends RpcClient {
+
+        private final RpcApi api = new RpcApi(this) {
+            @Override
+            public long getBalance(PublicKey account) {
+                return 2_500_000_000L;
+            }
+        };
+
+        private StubRpcClient() {
+            super("http://localhost");
+        }
+
+        @Override
+        public RpcApi getApi() {
+            return api;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.solana.rpc.testing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Measures heap bytes allocated per call of an operation on the calling thread, using
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ * <p>
+ * The operation is warmed up first so that class loading, lazy initialisation and interpreted
+ * code do not count, then measured over several rounds of which the lowest is kept: a round can
+ * only be inflated by one-off work, never deflated. Every measurement is appended to a CSV file
+ * (by default {@code build/reports/allocation-budgets.csv}, or the {@code allocation.report}
+ * system property) so that budgets can be tracked across builds.
+ */
+public final class AllocationMeter {
+
+    private static final int ROUNDS = 5;
+    private static final Path DEFAULT_REPORT = Path.of("build", "reports", "allocation-budgets.csv");
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final int warmupIterations;
+    private final int iterations;
+
+    /**
+     * @param warmupIterations calls made before measuring
+     * @param iterations       calls per measured round
+     */
+    public AllocationMeter(int warmupIterations, int iterations) {
+        if (warmupIterations < 0 || iterations < 1) {
+            throw new IllegalArgumentException("warmupIterations must not be negative and iterations must be positive");
+        }
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+    }
+
+    /**
+     * @return whether the JVM can report per-thread allocation
+     */
+    public boolean isSupported() {
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return true;
+    }
+
+    /**
+     * Measure the operation and record the result under {@code name}.
+     *
+     * @return bytes allocated per call, rounded down
+     */
+    public long bytesPerOperation(String name, long budget, Operation operation) throws Exception {
+        for (int i = 0; i < warmupIterations; i++) {
+            operation.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                operation.run();
+            }
+            long after = threads.getThreadAllocatedBytes(threadId);
+            best = Math.min(best, (after - before) / iterations);
+        }
+        report(name, best, budget);
+        return best;
+    }
+
+    private static void report(String name, long bytesPerOperation, long budget) {
+        String line = Instant.now() + "," + name + "," + bytesPerOperation + "," + budget + System.lineSeparator();
+        System.out.print("allocation " + name + ": " + bytesPerOperation + " B/op (budget " + budget + ")"
+                + System.lineSeparator());
+        Path report = Path.of(System.getProperty("allocation.report", DEFAULT_REPORT.toString()));
+        try {
+            if (report.getParent() != null) {
+                Files.createDirectories(report.getParent());
+            }
+            if (Files.notExists(report)) {
+                Files.writeString(report, "timestamp,operation,bytesPerOp,budget" + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            Files.writeString(report, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Operation under measurement.
+     */
+    @FunctionalInterface
+    public interface Operation {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,152 @@
+package com.solana.rpc.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local JSON-RPC endpoint for end-to-end tests. Each RPC method is answered by a registered
+ * handler that turns the request params into the JSON text of the {@code result} member.
+ */
+public final class MockRpcServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+    private volatile long responseDelayNanos;
+
+    private MockRpcServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static MockRpcServer start() throws IOException {
+        return new MockRpcServer();
+    }
+
+    /**
+     * Answer the given method with the handler's result.
+     *
+     * @param method  JSON-RPC method name
+     * @param handler maps the request params to the JSON text of the result
+     * @return this server
+     */
+    public MockRpcServer on(String method, Handler handler) {
+        handlers.put(method, handler);
+        return this;
+    }
+
+    /**
+     * Hold every response for the given time, to stand in for a remote node's service time.
+     *
+     * @param delay time to wait before answering; zero answers immediately
+     * @return this server
+     */
+    public MockRpcServer withResponseDelay(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        responseDelayNanos = delay.toNanos();
+        return this;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getCallCount(String method) {
+        AtomicInteger count = callCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return JSON text of a {@code {context, value}} result at the given slot
+     */
+    public static String contextResult(long slot, String valueJson) {
+        return "{\"context\":{\"slot\":" + slot + "},\"value\":" + valueJson + "}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request = MAPPER.readTree(exchange.getRequestBody());
+        String method = request.path("method").asText();
+        callCounts.computeIfAbsent(method, key -> new AtomicInteger()).incrementAndGet();
+
+        String envelope;
+        Handler handler = handlers.get(method);
+        if (handler == null) {
+            envelope = error(request, -32601, "Method not found: " + method);
+        } else {
+            try {
+                envelope = "{\"jsonrpc\":\"2.0\",\"id\":" + request.path("id") + ",\"result\":"
+                        + handler.handle(request.path("params")) + "}";
+            } catch (RpcError e) {
+                envelope = error(request, e.code, e.getMessage());
+            } catch (Exception e) {
+                envelope = error(request, -32603, "Internal error: " + e);
+            }
+        }
+
+        long delayNanos = responseDelayNanos;
+        if (delayNanos > 0) {
+            LockSupport.parkNanos(delayNanos);
+        }
+
+        byte[] body = envelope.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String error(JsonNode request, int code, String message) {
+        return "{\"jsonrpc\":\"2.0\",\"id\":" + request.path("id") + ",\"error\":{\"code\":" + code
+                + ",\"message\":" + MAPPER.valueToTree(message) + "}}";
+    }
+
+    /**
+     * Produces the JSON text of a method's result from its params.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        String handle(JsonNode params) throws Exception;
+    }
+
+    /**
+     * Thrown by a handler to answer with a JSON-RPC error instead of a result.
+     */
+    public static final class RpcError extends RuntimeException {
+
+        private final int code;
+
+        public RpcError(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+}
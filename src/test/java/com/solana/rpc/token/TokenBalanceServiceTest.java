@@ -0,0 +1,163 @@
+package com.solana.rpc.token;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBalanceServiceTest {
+
+    private static final String USDC = key(1201);
+    private static final String BONK = key(1202);
+    private static final int OWNERS = 250;
+
+    private final Map<String, Long> tokenAmounts = new HashMap<>();
+    private final Map<String, Integer> mintDecimals = Map.of(USDC, 6, BONK, 5);
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private MockRpcServer server;
+    private InMemoryDerivedAccountRepository repository;
+    private TokenBalanceCache cache;
+    private TokenBalanceService service;
+    private List<String> owners;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cache = new TokenBalanceCache(Duration.ofSeconds(30), 10_000, nanos::get);
+        repository = new InMemoryDerivedAccountRepository();
+        owners = new ArrayList<>();
+        for (int index = 0; index < OWNERS; index++) {
+            String owner = key(index);
+            owners.add(owner);
+            repository.save(new DerivedAccount("deposit-" + index, 0, 0, index, owner));
+            if (index % 10 == 0) {
+                tokenAmounts.put(cache.associatedTokenAccount(owner, USDC), 1_500_000L);
+            }
+        }
+        // Largest u64 amount, which does not fit a signed long.
+        tokenAmounts.put(cache.associatedTokenAccount(owners.get(1), BONK), -1L);
+
+        server = MockRpcServer.start()
+                .on("getMultipleAccounts", this::multipleAccounts)
+                .on("getTokenAccountsByOwner", this::tokenAccountsByOwner);
+        OkHttpClient httpClient = new OkHttpClient();
+        service = new TokenBalanceService(new RpcExecutor(new RpcClient(server.getUrl(), httpClient)),
+                new JsonRpcTransport(httpClient, server.getUrl()), repository, cache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void readsRepositoryPortfolioInBatchesAndServesRepeatsFromCache() {
+        TokenPortfolio portfolio = service.getRepositoryTokenBalances(List.of(USDC, BONK));
+
+        // One call for the decimals of both mints, then 500 associated token accounts in batches of 100.
+        assertEquals(6, portfolio.getRpcCalls());
+        assertEquals(6, calls.get());
+        assertEquals(1_500_000L, portfolio.getAmount(owners.get(0), USDC));
+        assertEquals(0, portfolio.getAmount(owners.get(1), USDC));
+        assertEquals(new BigDecimal("37.500000"), portfolio.getUiTotal(USDC));
+        assertEquals(new BigDecimal("184467440737095.51615"), portfolio.getUiAmount(owners.get(1), BONK));
+
+        TokenPortfolio cached = service.getTokenBalances(owners.subList(0, 20), List.of(USDC));
+        assertEquals(0, cached.getRpcCalls());
+        assertEquals(new BigDecimal("3.000000"), cached.getUiTotal(USDC));
+
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals(1, service.getTokenBalances(owners.subList(0, 20), List.of(USDC)).getRpcCalls());
+    }
+
+    @Test
+    void listsOnlyAssociatedTokenAccountsOfSingleOwner() {
+        String owner = owners.get(0);
+        TokenPortfolio portfolio = service.getTokenBalances(owner);
+
+        assertEquals(List.of(USDC), portfolio.getMints());
+        assertEquals(1_500_000L, portfolio.getAmount(owner, USDC));
+        assertEquals(6, portfolio.getDecimals(USDC));
+        assertEquals(2, portfolio.getRpcCalls());
+        assertEquals(1_500_000L, cache.getAmount(owner, USDC).orElseThrow());
+    }
+
+    @Test
+    void rejectsUnknownMintsAndMalformedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> service.getTokenBalances(owners, List.of(key(1250))));
+        assertThrows(IllegalArgumentException.class, () -> service.getTokenBalances(List.of("not-a-key"), List.of(USDC)));
+    }
+
+    private String multipleAccounts(JsonNode params) {
+        calls.incrementAndGet();
+        int offset = params.get(1).get("dataSlice").get("offset").asInt();
+        StringBuilder value = new StringBuilder("[");
+        for (JsonNode key : params.get(0)) {
+            value.append(value.length() > 1 ? "," : "");
+            byte[] data = null;
+            if (offset == TokenAccountData.MINT_DECIMALS_OFFSET) {
+                Integer decimals = mintDecimals.get(key.asText());
+                data = decimals == null ? null : new byte[]{decimals.byteValue()};
+            } else {
+                Long amount = tokenAmounts.get(key.asText());
+                data = amount == null ? null : littleEndian(amount);
+            }
+            value.append(data == null ? "null" : account(data));
+        }
+        return MockRpcServer.contextResult(10, value.append(']').toString());
+    }
+
+    private String tokenAccountsByOwner(JsonNode params) {
+        calls.incrementAndGet();
+        String owner = params.get(0).asText();
+        String usdcAccount = cache.associatedTokenAccount(owner, USDC);
+        // A token account for BONK that is not the owner's associated token account.
+        ByteBuffer foreign = ByteBuffer.allocate(72).order(ByteOrder.LITTLE_ENDIAN)
+                .put(new PublicKey(BONK).toByteArray()).put(new PublicKey(owner).toByteArray()).putLong(99);
+        ByteBuffer associated = ByteBuffer.allocate(72).order(ByteOrder.LITTLE_ENDIAN)
+                .put(new PublicKey(USDC).toByteArray()).put(new PublicKey(owner).toByteArray())
+                .putLong(tokenAmounts.get(usdcAccount));
+        return MockRpcServer.contextResult(10, "[{\"pubkey\":\"" + key(1240) + "\",\"account\":" + account(foreign.array())
+                + "},{\"pubkey\":\"" + usdcAccount + "\",\"account\":" + account(associated.array()) + "}]");
+    }
+
+    private static String account(byte[] data) {
+        return "{\"lamports\":2039280,\"data\":[\"" + Base64.getEncoder().encodeToString(data) + "\",\"base64\"]}";
+    }
+
+    private static byte[] littleEndian(long value) {
+        return ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+    }
+
+    private static String key(int seed) {
+        byte[] key = new byte[32];
+        key[0] = (byte) seed;
+        key[1] = (byte) (seed >> 8);
+        key[31] = 11;
+        return new PublicKey(key).toBase58();
+    }
+}
@@ -0,0 +1,149 @@
+package com.solana.rpc.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.service.InMemoryDerivedAccountRepository;
+import com.solana.rpc.service.InMemoryKeyStorage;
+import com.solana.rpc.service.SolanajWalletService;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TracerTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final String ADDRESS = "2bahaF9qfc6pE5DJCKQ7AcZF1nXx5Jvf4NwkQib8uwbL";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @AfterEach
+    void tearDown() {
+        Tracer.setGlobal(Tracer.disabled());
+    }
+
+    @Test
+    void sampledTraceRecordsNestedSpans() {
+        Tracer tracer = new Tracer(1, 64);
+
+        try (Span root = tracer.startTrace("wallet.op")) {
+            assertTrue(root.isRecording());
+            try (Span child = Tracer.span("rpc.call").setAttribute("method", "getSlot")) {
+                Tracer.span("http.server").close();
+            }
+            Tracer.span("repository.save").close();
+        }
+
+        Map<String, SpanData> spans = byName(tracer.getFinishedSpans());
+        assertEquals(4, spans.size());
+        SpanData root = spans.get("wallet.op");
+        assertTrue(root.isRoot());
+        assertEquals(root.spanId(), spans.get("rpc.call").parentId());
+        assertEquals(root.spanId(), spans.get("repository.save").parentId());
+        assertEquals(spans.get("rpc.call").spanId(), spans.get("http.server").parentId());
+        assertEquals(Map.of("method", "getSlot"), spans.get("rpc.call").attributes());
+        spans.values().forEach(span -> assertEquals(root.traceId(), span.traceId()));
+        assertNull(Tracer.currentSpan());
+    }
+
+    @Test
+    void unsampledWorkRecordsNothing() {
+        Tracer tracer = new Tracer(0, 64);
+
+        try (Span root = tracer.startTrace("wallet.op")) {
+            assertSame(Span.NOOP, root);
+            assertSame(Span.NOOP, Tracer.span("rpc.call"));
+            assertNull(Tracer.currentSpan());
+        }
+
+        assertTrue(tracer.getFinishedSpans().isEmpty());
+    }
+
+    @Test
+    void ringBufferKeepsTheNewestSpans() {
+        Tracer tracer = new Tracer(1, 4);
+
+        for (int i = 0; i < 10; i++) {
+            tracer.startTrace("op-" + i).close();
+        }
+
+        assertEquals(List.of("op-6", "op-7", "op-8", "op-9"),
+                tracer.getFinishedSpans().stream().map(SpanData::name).toList());
+        assertEquals(6, tracer.getOverwrittenSpans());
+    }
+
+    @Test
+    void tracesWalletCallDownToHttpPhases() throws Exception {
+        Tracer tracer = new Tracer(1, 1024);
+        Tracer.setGlobal(tracer);
+        try (MockRpcServer server = MockRpcServer.start()
+                .on("getBalance", params -> "{\"context\":{\"slot\":1},\"value\":1500000000}")) {
+            OkHttpClient httpClient = new OkHttpClient.Builder()
+                    .eventListenerFactory(TracingEventListener.FACTORY)
+                    .build();
+            InMemoryDerivedAccountRepository repository = new InMemoryDerivedAccountRepository();
+            repository.save(new DerivedAccount("primary", 0, 0, 0, ADDRESS));
+            SolanajWalletService walletService = new SolanajWalletService(
+                    new RpcExecutor(new RpcClient(server.getUrl(), httpClient)),
+                    new DerivationService(TEST_MNEMONIC), repository, new InMemoryKeyStorage());
+
+            assertEquals(new BigDecimal("1.500000000"), walletService.getBalanceByLabel("primary"));
+        }
+
+        Map<String, SpanData> spans = byName(tracer.getFinishedSpans());
+        SpanData root = spans.get("wallet.getBalanceByLabel");
+        SpanData attempt = spans.get("rpc.attempt");
+        assertNotNull(root);
+        assertEquals(root.spanId(), spans.get("repository.findByLabel").parentId());
+        assertEquals(root.spanId(), spans.get("wallet.parseAddress").parentId());
+        assertEquals(root.spanId(), spans.get("rpc.queue").parentId());
+        assertEquals(root.spanId(), attempt.parentId());
+        for (String phase : List.of("http.connect", "http.request", "http.server", "http.response")) {
+            assertEquals(attempt.spanId(), spans.get(phase).parentId(), phase);
+        }
+        spans.values().forEach(span -> assertEquals(root.traceId(), span.traceId()));
+    }
+
+    @Test
+    void exportsChromeTraceAndJson() throws Exception {
+        Tracer tracer = new Tracer(1, 64);
+        try (Span ignored = tracer.startTrace("wallet.getBalance")) {
+            Tracer.span("rpc.attempt").setAttribute("attempt", 0).close();
+        }
+
+        ByteArrayOutputStream chrome = new ByteArrayOutputStream();
+        tracer.exportChromeTrace(chrome);
+        JsonNode events = MAPPER.readTree(chrome.toByteArray()).get("traceEvents");
+        JsonNode attempt = events.get(1);
+        assertEquals("wallet.getBalance", events.get(0).get("name").asText());
+        assertEquals("X", attempt.get("ph").asText());
+        assertEquals("rpc", attempt.get("cat").asText());
+        assertEquals("0", attempt.get("args").get("attempt").asText());
+        assertEquals(events.get(0).get("args").get("spanId"), attempt.get("args").get("parentId"));
+        assertEquals("M", events.get(2).get("ph").asText());
+
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        tracer.exportJson(json);
+        JsonNode spans = MAPPER.readTree(json.toByteArray());
+        assertEquals(2, spans.size());
+        assertFalse(spans.get(0).has("parentId"));
+        assertEquals(spans.get(0).get("traceId"), spans.get(1).get("traceId"));
+        assertTrue(spans.get(1).get("startEpochMicros").asLong() >= spans.get(0).get("startEpochMicros").asLong());
+    }
+
+    private static Map<String, SpanData> byName(List<SpanData> spans) {
+        return spans.stream().collect(Collectors.toMap(SpanData::name, Function.identity()));
+    }
+}
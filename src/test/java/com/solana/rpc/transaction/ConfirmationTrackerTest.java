@@ -0,0 +1,132 @@
+package com.solana.rpc.transaction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.RpcExecutor;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfirmationTrackerTest {
+
+    private final Map<String, String> statuses = new ConcurrentHashMap<>();
+    private final AtomicLong blockHeight = new AtomicLong(100);
+    private final AtomicInteger largestBatch = new AtomicInteger();
+
+    private MockRpcServer server;
+    private ConfirmationTracker tracker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = MockRpcServer.start()
+                .on("getBlockHeight", params -> Long.toString(blockHeight.get()))
+                .on("getSignatureStatuses", this::signatureStatuses);
+        // Polls are driven by the test; the scheduled loop would only run after an hour.
+        tracker = new ConfirmationTracker(new RpcExecutor(new RpcClient(server.getUrl(), new OkHttpClient())),
+                Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.close();
+        server.close();
+    }
+
+    @Test
+    void pollsThousandsOfSignaturesInBatchesOf256() throws Exception {
+        List<CompletableFuture<TransactionConfirmation>> futures = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String signature = "sig-" + i;
+            statuses.put(signature, status(10 + i, "finalized"));
+            futures.add(tracker.track(signature, 150, CommitmentLevel.CONFIRMED));
+        }
+
+        tracker.poll();
+
+        assertEquals(1, server.getCallCount("getBlockHeight"));
+        assertEquals(3, server.getCallCount("getSignatureStatuses"));
+        assertEquals(ConfirmationTracker.MAX_SIGNATURES_PER_REQUEST, largestBatch.get());
+        assertEquals(0, tracker.getPendingCount());
+        assertEquals(CommitmentLevel.FINALIZED, futures.get(599).get().getCommitment());
+        assertEquals(609, futures.get(599).get().getSlot());
+    }
+
+    @Test
+    void completesEachCallerAtItsRequestedCommitment() throws Exception {
+        CompletableFuture<TransactionConfirmation> processed = tracker.track("sig", 150, CommitmentLevel.PROCESSED);
+        CompletableFuture<TransactionConfirmation> finalized = tracker.track("sig", 150, CommitmentLevel.FINALIZED);
+        statuses.put("sig", status(7, "confirmed"));
+
+        tracker.poll();
+
+        assertEquals(CommitmentLevel.CONFIRMED, processed.get().getCommitment());
+        assertFalse(finalized.isDone());
+        assertEquals(1, tracker.getPendingCount());
+
+        statuses.put("sig", status(7, "finalized"));
+        tracker.poll();
+
+        assertEquals(CommitmentLevel.FINALIZED, finalized.get().getCommitment());
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    @Test
+    void failsTransactionsThatErroredOrExpired() {
+        CompletableFuture<TransactionConfirmation> failed = tracker.track("failed", 150, CommitmentLevel.CONFIRMED);
+        CompletableFuture<TransactionConfirmation> expired = tracker.track("lost", 150, CommitmentLevel.CONFIRMED);
+        CompletableFuture<TransactionConfirmation> waiting = tracker.track("slow", 250, CommitmentLevel.CONFIRMED);
+        statuses.put("failed", "{\"slot\":9,\"confirmations\":1,\"err\":{\"InstructionError\":[0,{\"Custom\":1}]},"
+                + "\"confirmationStatus\":\"confirmed\"}");
+        blockHeight.set(151);
+
+        assertDoesNotThrow(() -> tracker.poll());
+
+        ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(TransactionFailedException.class, failure.getCause());
+        assertTrue(failure.getCause().getMessage().contains("InstructionError"));
+        assertInstanceOf(TransactionExpiredException.class, assertThrows(ExecutionException.class, expired::get).getCause());
+        assertFalse(waiting.isDone());
+        assertEquals(1, tracker.getPendingCount());
+    }
+
+    @Test
+    void stopsTrackingCancelledCallersAndSkipsIdlePolls() throws Exception {
+        tracker.poll();
+        assertEquals(0, server.getCallCount("getBlockHeight"));
+
+        tracker.track("sig", 150, CommitmentLevel.CONFIRMED).cancel(false);
+        tracker.poll();
+
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    private String signatureStatuses(JsonNode params) {
+        JsonNode signatures = params.get(0);
+        largestBatch.accumulateAndGet(signatures.size(), Math::max);
+        StringBuilder value = new StringBuilder("[");
+        for (JsonNode signature : signatures) {
+            value.append(value.length() > 1 ? "," : "").append(statuses.getOrDefault(signature.asText(), "null"));
+        }
+        return MockRpcServer.contextResult(200, value.append(']').toString());
+    }
+
+    private static String status(long slot, String confirmationStatus) {
+        return "{\"slot\":" + slot + ",\"confirmations\":null,\"err\":null,\"confirmationStatus\":\""
+                + confirmationStatus + "\"}";
+    }
+}
@@ -0,0 +1,123 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.transport.RpcExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.RecentPrioritizationFees;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeeOracleTest {
+
+    private static final String TREASURY = "11111111111111111111111111111112";
+
+    @Mock
+    private RpcClient rpcClient;
+
+    @Mock
+    private RpcApi rpcApi;
+
+    private FeeOracle oracle;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rpcClient.getApi()).thenReturn(rpcApi);
+        oracle = new FeeOracle(new RpcExecutor(rpcClient), Duration.ofHours(1), 10, 4);
+        // A closed oracle never starts its background task, so the tests drive every refresh.
+        oracle.close();
+    }
+
+    @Test
+    void servesPercentilesOfTheSlotWindowAfterRefresh() throws RpcException {
+        assertSame(PriorityFeeEstimate.EMPTY, oracle.estimate());
+        assertEquals(0, PriorityFeeEstimate.EMPTY.percentile(90));
+
+        List<RecentPrioritizationFees> fees = new ArrayList<>();
+        for (int slot = 1; slot <= 10; slot++) {
+            fees.add(fee(100 + slot, slot * 1_000L));
+        }
+        Collections.shuffle(fees);
+        when(rpcApi.getRecentPrioritizationFees()).thenReturn(fees);
+        oracle.refresh();
+
+        PriorityFeeEstimate estimate = oracle.estimate();
+        assertEquals(10, estimate.getSampleCount());
+        assertEquals(110, estimate.getNewestSlot());
+        assertEquals(1_000, estimate.percentile(1));
+        assertEquals(5_000, estimate.percentile(50));
+        assertEquals(9_000, estimate.percentile(90));
+        assertEquals(10_000, estimate.percentile(100));
+        assertThrows(IllegalArgumentException.class, () -> estimate.percentile(0));
+    }
+
+    @Test
+    void dropsSlotsThatFallOutOfTheWindow() throws RpcException {
+        List<RecentPrioritizationFees> first = List.of(fee(100, 50_000), fee(105, 10));
+        when(rpcApi.getRecentPrioritizationFees()).thenReturn(first);
+        oracle.refresh();
+        assertEquals(2, oracle.estimate().getSampleCount());
+
+        List<RecentPrioritizationFees> second = List.of(fee(112, 20), fee(113, 30));
+        when(rpcApi.getRecentPrioritizationFees()).thenReturn(second);
+        oracle.refresh();
+
+        PriorityFeeEstimate estimate = oracle.estimate();
+        assertEquals(3, estimate.getSampleCount());
+        assertEquals(113, estimate.getNewestSlot());
+        assertEquals(30, estimate.percentile(100));
+    }
+
+    @Test
+    void tracksWritableAccountSetsFromTheNextRefreshOn() throws RpcException {
+        List<RecentPrioritizationFees> cluster = List.of(fee(100, 10));
+        List<RecentPrioritizationFees> treasury = List.of(fee(100, 7_500));
+        when(rpcApi.getRecentPrioritizationFees()).thenReturn(cluster);
+        when(rpcApi.getRecentPrioritizationFees(anyList())).thenReturn(treasury);
+        oracle.refresh();
+
+        assertEquals(10, oracle.estimate(List.of(TREASURY)).percentile(50));
+        assertEquals(1, oracle.getTrackedAccountSetCount());
+
+        oracle.refresh();
+
+        assertEquals(7_500, oracle.estimate(List.of(TREASURY, TREASURY)).percentile(50));
+        assertEquals(10, oracle.estimate().percentile(50));
+        assertEquals(1, oracle.getTrackedAccountSetCount());
+    }
+
+    @Test
+    void rejectsMalformedAndOversizedAccountSets() {
+        assertThrows(IllegalArgumentException.class, () -> oracle.estimate(List.of("not-a-key")));
+
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i <= FeeOracle.MAX_WRITABLE_ACCOUNTS; i++) {
+            byte[] key = new byte[32];
+            key[0] = (byte) i;
+            accounts.add(new PublicKey(key).toBase58());
+        }
+        assertThrows(IllegalArgumentException.class, () -> oracle.estimate(accounts));
+        assertEquals(0, oracle.getTrackedAccountSetCount());
+    }
+
+    private static RecentPrioritizationFees fee(long slot, long prioritizationFee) {
+        RecentPrioritizationFees fees = mock(RecentPrioritizationFees.class);
+        when(fees.getSlot()).thenReturn(slot);
+        when(fees.getPrioritizationFee()).thenReturn(prioritizationFee);
+        return fees;
+    }
+}
@@ -0,0 +1,100 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.transport.RpcExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+import org.p2p.solanaj.rpc.types.LatestBlockhash;
+import org.p2p.solanaj.rpc.types.config.Commitment;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecentBlockhashCacheTest {
+
+    @Mock
+    private RpcClient rpcClient;
+
+    @Mock
+    private RpcApi rpcApi;
+
+    private RecentBlockhashCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rpcClient.getApi()).thenReturn(rpcApi);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.close();
+        }
+    }
+
+    @Test
+    void servesCachedBlockhashWithoutFetchingAgain() throws RpcException {
+        LatestBlockhash first = latestBlockhash("hash-1", 100);
+        when(rpcApi.getLatestBlockhash(Commitment.CONFIRMED)).thenReturn(first);
+        cache = new RecentBlockhashCache(new RpcExecutor(rpcClient), Duration.ofMinutes(1), Duration.ofMinutes(2));
+
+        RecentBlockhash fetched = cache.get();
+        RecentBlockhash cached = cache.get();
+
+        assertEquals("hash-1", fetched.getBlockhash());
+        assertEquals(100, fetched.getLastValidBlockHeight());
+        assertSame(fetched, cached);
+        verify(rpcApi, times(1)).getLatestBlockhash(Commitment.CONFIRMED);
+    }
+
+    @Test
+    void backgroundRefreshReplacesBlockhash() throws Exception {
+        LatestBlockhash first = latestBlockhash("hash-1", 100);
+        LatestBlockhash second = latestBlockhash("hash-2", 120);
+        when(rpcApi.getLatestBlockhash(Commitment.CONFIRMED)).thenReturn(first, second);
+        cache = new RecentBlockhashCache(new RpcExecutor(rpcClient), Duration.ofMillis(20), Duration.ofMinutes(1));
+
+        assertEquals("hash-1", cache.get().getBlockhash());
+
+        long giveUp = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!"hash-2".equals(cache.get().getBlockhash()) && System.nanoTime() < giveUp) {
+            Thread.sleep(5);
+        }
+        assertEquals("hash-2", cache.get().getBlockhash());
+    }
+
+    @Test
+    void invalidatedBlockhashIsFetchedAgain() throws RpcException {
+        LatestBlockhash first = latestBlockhash("hash-1", 100);
+        LatestBlockhash second = latestBlockhash("hash-2", 120);
+        when(rpcApi.getLatestBlockhash(Commitment.CONFIRMED)).thenReturn(first, second);
+        cache = new RecentBlockhashCache(new RpcExecutor(rpcClient), Duration.ofMinutes(1), Duration.ofMinutes(2));
+
+        cache.get();
+        cache.invalidate("some-other-hash");
+        assertEquals("hash-1", cache.get().getBlockhash());
+
+        cache.invalidate("hash-1");
+        assertEquals("hash-2", cache.get().getBlockhash());
+    }
+
+    private static LatestBlockhash latestBlockhash(String blockhash, long lastValidBlockHeight) {
+        LatestBlockhash.Value value = mock(LatestBlockhash.Value.class);
+        when(value.getBlockhash()).thenReturn(blockhash);
+        when(value.getLastValidBlockHeight()).thenReturn(lastValidBlockHeight);
+        LatestBlockhash latest = mock(LatestBlockhash.class);
+        when(latest.getValue()).thenReturn(value);
+        return latest;
+    }
+}
@@ -0,0 +1,161 @@
+package com.solana.rpc.transaction;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.testing.MockRpcServer;
+import com.solana.rpc.transport.JsonRpcTransport;
+import com.solana.rpc.transport.RpcExecutor;
+import com.solana.rpc.wallet.DerivationService;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.utils.Base58;
+import org.p2p.solanaj.utils.TweetNaclFast;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs sweeps end to end against a local mock RPC endpoint.
+ */
+class SweepEngineTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final String TREASURY = "11111111111111111111111111111112";
+    private static final int SOURCES = 25;
+    private static final int MAX_CONCURRENT_SUBMISSIONS = 2;
+
+    private final Map<String, Long> balances = new ConcurrentHashMap<>();
+    private final List<byte[]> submitted = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicBoolean failNextSend = new AtomicBoolean();
+
+    private MockRpcServer server;
+    private RecentBlockhashCache blockhashCache;
+    private SweepEngine engine;
+    private List<DerivedAccount> sources;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DerivationService derivationService = new DerivationService(TEST_MNEMONIC);
+        sources = new ArrayList<>();
+        for (int index = 0; index < SOURCES; index++) {
+            String publicKey = derivationService.derivePublicKeyBase58(0, 0, index);
+            sources.add(new DerivedAccount("deposit-" + index, 0, 0, index, publicKey));
+            balances.put(publicKey, 1_000_000L + index * 10_000L);
+        }
+
+        server = MockRpcServer.start()
+                .on("getMultipleAccounts", this::multipleAccounts)
+                .on("getMinimumBalanceForRentExemption", params -> "890880")
+                .on("getLatestBlockhash", params -> MockRpcServer.contextResult(1,
+                        "{\"blockhash\":\"" + Base58.encode(new byte[32]) + "\",\"lastValidBlockHeight\":150}"))
+                .on("sendTransaction", this::sendTransaction);
+        OkHttpClient httpClient = new OkHttpClient();
+        RpcExecutor rpcExecutor = new RpcExecutor(new RpcClient(server.getUrl(), httpClient));
+        blockhashCache = new RecentBlockhashCache(rpcExecutor);
+        engine = new SweepEngine(rpcExecutor, new JsonRpcTransport(httpClient, server.getUrl()), derivationService,
+                blockhashCache, new SweepPolicy(false, 50_000, SweepPolicy.DEFAULT_LAMPORTS_PER_SIGNATURE, 10, 4,
+                MAX_CONCURRENT_SUBMISSIONS));
+    }
+
+    @AfterEach
+    void tearDown() {
+        blockhashCache.close();
+        server.close();
+    }
+
+    @Test
+    void sweepsAllSourcesInPackedSignedTransactions() throws Exception {
+        SweepProgress progress = engine.sweep(sources, TREASURY, SweepProgress.inMemory());
+
+        assertEquals(3, submitted.size());
+        assertEquals(SOURCES, progress.count(SweepProgress.Status.SUBMITTED));
+        long expectedLamports = balances.values().stream().mapToLong(Long::longValue).sum()
+                - SOURCES * SweepPolicy.DEFAULT_LAMPORTS_PER_SIGNATURE;
+        assertEquals(expectedLamports, progress.getSubmittedLamports());
+        assertTrue(maxInFlight.get() <= MAX_CONCURRENT_SUBMISSIONS);
+        for (byte[] wire : submitted) {
+            assertTrue(wire.length <= SweepPlanner.PACKET_DATA_SIZE);
+            assertSignedByAllSigners(wire);
+        }
+    }
+
+    @Test
+    void resumesFromJournalWithoutResendingSubmittedTransfers(@TempDir Path directory) throws Exception {
+        Path journal = directory.resolve("sweep.journal");
+        failNextSend.set(true);
+        try (SweepProgress progress = SweepProgress.open(journal)) {
+            engine.sweep(sources, TREASURY, progress);
+            assertEquals(2, submitted.size());
+            assertTrue(progress.count(SweepProgress.Status.FAILED) > 0);
+            assertEquals(SOURCES, progress.count(SweepProgress.Status.SUBMITTED)
+                    + progress.count(SweepProgress.Status.FAILED));
+        }
+
+        submitted.clear();
+        try (SweepProgress resumed = SweepProgress.open(journal)) {
+            int alreadySubmitted = resumed.count(SweepProgress.Status.SUBMITTED);
+            assertTrue(alreadySubmitted >= 15);
+            engine.sweep(sources, TREASURY, resumed);
+
+            assertEquals(1, submitted.size());
+            assertEquals(SOURCES, resumed.count(SweepProgress.Status.SUBMITTED));
+        }
+    }
+
+    private String multipleAccounts(JsonNode params) {
+        StringBuilder value = new StringBuilder("[");
+        for (JsonNode key : params.get(0)) {
+            Long lamports = balances.get(key.asText());
+            value.append(value.length() > 1 ? "," : "")
+                    .append(lamports == null ? "null" : "{\"lamports\":" + lamports + ",\"data\":[\"\",\"base64\"]}");
+        }
+        return MockRpcServer.contextResult(10, value.append(']').toString());
+    }
+
+    private String sendTransaction(JsonNode params) throws InterruptedException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            Thread.sleep(20);
+            if (failNextSend.getAndSet(false)) {
+                throw new MockRpcServer.RpcError(-32005, "Node is behind");
+            }
+            byte[] wire = Base64.getDecoder().decode(params.get(0).asText());
+            submitted.add(wire);
+            return "\"" + Base58.encode(Arrays.copyOfRange(wire, 1, 65)) + "\"";
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void assertSignedByAllSigners(byte[] wire) {
+        int signatures = wire[0];
+        int messageOffset = 1 + signatures * 64;
+        byte[] message = Arrays.copyOfRange(wire, messageOffset, wire.length);
+        assertEquals(signatures, message[0]);
+        int keysOffset = 4;
+        for (int i = 0; i < signatures; i++) {
+            byte[] signature = Arrays.copyOfRange(wire, 1 + i * 64, 1 + (i + 1) * 64);
+            byte[] publicKey = Arrays.copyOfRange(message, keysOffset + i * 32, keysOffset + (i + 1) * 32);
+            assertTrue(new TweetNaclFast.Signature(publicKey, new byte[0]).detached_verify(message, signature),
+                    "signature " + i + " does not verify");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.solana.rpc.transaction;
+
+import com.solana.rpc.model.DerivedAccount;
+import com.solana.rpc.transport.AccountLamports;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.Account;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.core.Transaction;
+import org.p2p.solanaj.programs.SystemProgram;
+import org.p2p.solanaj.utils.Base58;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepPlannerTest {
+
+    private static final long RENT_EXEMPT_MINIMUM = 890_880;
+    private static final long FEE = SweepPolicy.DEFAULT_LAMPORTS_PER_SIGNATURE;
+
+    @Test
+    void packsAsManyTransfersAsFitInOnePacket() {
+        SweepPlanner planner = new SweepPlanner(policy(false, 10));
+
+        assertEquals(10, planner.getTransfersPerTransaction());
+        assertEquals(SweepPlanner.PACKET_DATA_SIZE, SweepPlanner.transferTransactionSize(10));
+        assertEquals(10, new SweepPlanner(policy(false, 16)).getTransfersPerTransaction());
+        assertEquals(4, new SweepPlanner(policy(false, 4)).getTransfersPerTransaction());
+    }
+
+    @Test
+    void sizeEstimateMatchesSerializedTransaction() {
+        PublicKey treasury = new Account().getPublicKey();
+        for (int transfers = 1; transfers <= 11; transfers++) {
+            List<Account> signers = new ArrayList<>();
+            Transaction transaction = new Transaction();
+            for (int i = 0; i < transfers; i++) {
+                Account signer = new Account();
+                signers.add(signer);
+                transaction.addInstruction(SystemProgram.transfer(signer.getPublicKey(), treasury, 1_000_000));
+            }
+            transaction.setRecentBlockHash(Base58.encode(new byte[32]));
+            transaction.sign(signers);
+
+            assertEquals(SweepPlanner.transferTransactionSize(transfers), transaction.serialize().length);
+        }
+    }
+
+    @Test
+    void drainsSourcesWithFirstSourcePayingTheFee() {
+        SweepPlanner planner = new SweepPlanner(policy(false, 10));
+        List<DerivedAccount> sources = sources(3);
+
+        SweepPlan plan = planner.plan(sources, new long[]{2_000_000, 5_000_000, 3_000_000}, 10_000_000, RENT_EXEMPT_MINIMUM);
+
+        assertEquals(1, plan.getBatches().size());
+        SweepBatch batch = plan.getBatches().get(0);
+        assertEquals(3 * FEE, batch.getFee());
+        assertEquals("key-1", batch.getFeePayer().getSource().getPublicKey());
+        assertEquals(5_000_000 - 3 * FEE, batch.getFeePayer().getLamports());
+        assertEquals(10_000_000 - 3 * FEE, plan.getTotalLamports());
+        assertTrue(plan.getSkipped().isEmpty());
+    }
+
+    @Test
+    void retainsRentExemptMinimumAndSkipsDustAndMissingAccounts() {
+        SweepPlanner planner = new SweepPlanner(policy(true, 10));
+        List<DerivedAccount> sources = sources(4);
+
+        SweepPlan plan = planner.plan(sources,
+                new long[]{RENT_EXEMPT_MINIMUM + 1_000_000, RENT_EXEMPT_MINIMUM + 10, AccountLamports.MISSING, 2_000_000},
+                10_000_000, RENT_EXEMPT_MINIMUM);
+
+        assertEquals(1, plan.getBatches().size());
+        for (SweepTransfer transfer : plan.getBatches().get(0).getTransfers()) {
+            long left = transfer.getBalance() - transfer.getLamports()
+                    - (transfer == plan.getBatches().get(0).getFeePayer() ? 2 * FEE : 0);
+            assertEquals(RENT_EXEMPT_MINIMUM, left);
+        }
+        assertEquals("balance below minimum transfer", plan.getSkipped().get(sources.get(1)));
+        assertEquals("account does not exist", plan.getSkipped().get(sources.get(2)));
+    }
+
+    @Test
+    void splitsIntoBatchesAndSkipsThoseThatCannotFundANewTreasury() {
+        SweepPlanner planner = new SweepPlanner(policy(false, 10));
+        List<DerivedAccount> sources = sources(12);
+        long[] balances = new long[12];
+        for (int i = 0; i < balances.length; i++) {
+            balances[i] = i < 10 ? 1_000_000 : 100_000;
+        }
+
+        SweepPlan plan = planner.plan(sources, balances, AccountLamports.MISSING, RENT_EXEMPT_MINIMUM);
+
+        assertEquals(1, plan.getBatches().size());
+        assertEquals(10, plan.getBatches().get(0).getTransfers().size());
+        assertEquals(2, plan.getSkipped().size());
+        assertTrue(plan.getSkipped().values().stream().allMatch(reason -> reason.contains("treasury")));
+    }
+
+    private static SweepPolicy policy(boolean retainRentExemptMinimum, int maxTransfers) {
+        return new SweepPolicy(retainRentExemptMinimum, 50_000, FEE, maxTransfers, 2, 2);
+    }
+
+    private static List<DerivedAccount> sources(int count) {
+        List<DerivedAccount> sources = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sources.add(new DerivedAccount("deposit-" + i, 0, 0, i, "key-" + i));
+        }
+        return sources;
+    }
+}
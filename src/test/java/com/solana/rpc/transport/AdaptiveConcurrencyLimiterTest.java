@@ -0,0 +1,157 @@
+package com.solana.rpc.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void rejectsCallersBeyondLimitAfterBoundedWait() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 4);
+
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        assertFalse(limiter.acquire(10, TimeUnit.MILLISECONDS));
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.onIgnore();
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void droppedCallsHalveTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 1, 64);
+
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        limiter.onDropped();
+
+        assertEquals(8, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limitNeverDropsBelowMinimum() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 8);
+
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        limiter.onDropped();
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void successfulCallsGrowTheLimitAdditively() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 64);
+
+        for (int i = 0; i < 40; i++) {
+            assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+            limiter.onSuccess(1_000_000L);
+        }
+
+        int grown = limiter.getLimit();
+        assertTrue(grown > 4, "limit should grow after sustained success but was " + grown);
+        assertTrue(grown < 40, "growth should be additive, not one per call, but was " + grown);
+    }
+
+    @Test
+    void latencyWellAboveBaselineShrinksTheLimit() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 64);
+
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        limiter.onSuccess(1_000L);
+        assertTrue(limiter.acquire(0, TimeUnit.MILLISECONDS));
+        limiter.onSuccess(50_000_000L);
+
+        assertTrue(limiter.getLimit() < 20);
+    }
+
+    @Test
+    void validatesConstructorArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(8, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(2, 1, 4, 1.5, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(2, 1, 4, 1.0));
+    }
+
+    @Test
+    void bulkBorrowsIdleCapacityAndInteractiveReclaimsIt() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 4, 0.25);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.acquire(RpcLane.BULK, 0, TimeUnit.MILLISECONDS));
+        }
+
+        CompletableFuture<Boolean> bulk = waitFor(limiter, RpcLane.BULK);
+        awaitQueued(limiter, RpcLane.BULK);
+        CompletableFuture<Boolean> interactive = waitFor(limiter, RpcLane.INTERACTIVE);
+        awaitQueued(limiter, RpcLane.INTERACTIVE);
+        limiter.onIgnore(RpcLane.BULK);
+
+        assertTrue(interactive.get(5, TimeUnit.SECONDS));
+        assertFalse(bulk.isDone());
+        limiter.onIgnore(RpcLane.BULK);
+        assertTrue(bulk.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void bulkKeepsItsShareWhileInteractiveCallsWait() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 4, 0.25);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire(RpcLane.INTERACTIVE, 0, TimeUnit.MILLISECONDS));
+        }
+        assertTrue(limiter.acquire(RpcLane.BULK, 0, TimeUnit.MILLISECONDS));
+
+        CompletableFuture<Boolean> interactive = waitFor(limiter, RpcLane.INTERACTIVE);
+        awaitQueued(limiter, RpcLane.INTERACTIVE);
+        CompletableFuture<Boolean> bulk = waitFor(limiter, RpcLane.BULK);
+        awaitQueued(limiter, RpcLane.BULK);
+        limiter.onIgnore(RpcLane.BULK);
+
+        assertTrue(bulk.get(5, TimeUnit.SECONDS));
+        assertFalse(interactive.isDone());
+        limiter.onIgnore(RpcLane.INTERACTIVE);
+        assertTrue(interactive.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reportsQueueDepthAndWaitsPerLane() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.25);
+
+        assertTrue(limiter.acquire(RpcLane.INTERACTIVE, 0, TimeUnit.MILLISECONDS));
+        assertFalse(limiter.acquire(RpcLane.BULK, 5, TimeUnit.MILLISECONDS));
+
+        RpcLaneMetrics interactive = limiter.getLaneMetrics(RpcLane.INTERACTIVE);
+        RpcLaneMetrics bulk = limiter.getLaneMetrics(RpcLane.BULK);
+        assertEquals(1, interactive.getInFlight());
+        assertEquals(1, interactive.getAcquired());
+        assertEquals(0, bulk.getQueued());
+        assertEquals(0, bulk.getAcquired());
+        assertEquals(1, bulk.getTimedOut());
+        assertEquals(0.25, bulk.getShare());
+    }
+
+    private static CompletableFuture<Boolean> waitFor(AdaptiveConcurrencyLimiter limiter, RpcLane lane) {
+        CompletableFuture<Boolean> granted = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                granted.complete(limiter.acquire(lane, 10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                granted.completeExceptionally(e);
+            }
+        });
+        waiter.setDaemon(true);
+        waiter.start();
+        return granted;
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, RpcLane lane) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getLaneMetrics(lane).getQueued() == 0) {
+            assertTrue(System.nanoTime() < deadline, lane + " caller never queued");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.solana.rpc.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineInterceptorTest {
+
+    private static final PublicKey KEY = new PublicKey("11111111111111111111111111111111");
+
+    private HttpServer server;
+    private volatile long responseDelayMs;
+    private CountDownLatch requestReceived;
+    private RpcExecutor executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        requestReceived = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requestReceived.countDown();
+            try {
+                Thread.sleep(responseDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":7},\"id\":1}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(200, body.length);
+                out.write(body);
+            } catch (IOException ignored) {
+                // Client went away after cancelling.
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .readTimeout(Duration.ofSeconds(20))
+                .addInterceptor(new DeadlineInterceptor())
+                .build();
+        RpcClient rpcClient = new RpcClient("http://127.0.0.1:" + server.getAddress().getPort(), httpClient);
+        executor = new RpcExecutor(rpcClient, new AdaptiveConcurrencyLimiter(4, 1, 4),
+                new BackoffPolicy(3, 1, 2), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void completesWithinBudget() throws RpcException {
+        responseDelayMs = 0;
+
+        long lamports = executor.execute(api -> api.getBalance(KEY), Deadline.after(Duration.ofSeconds(5)));
+
+        assertEquals(7L, lamports);
+    }
+
+    @Test
+    void cancelsInFlightRequestWhenDeadlineExpires() {
+        responseDelayMs = 5_000;
+        long start = System.nanoTime();
+
+        assertThrows(DeadlineExceededException.class,
+                () -> executor.execute(api -> api.getBalance(KEY), Deadline.after(Duration.ofMillis(200))));
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < 2_000, "call should be abandoned near the deadline but took " + elapsedMs + " ms");
+        assertEquals(0, executor.getLimiter().getInFlight());
+    }
+
+    @Test
+    void explicitCancellationAbortsUnboundedCall() throws InterruptedException {
+        responseDelayMs = 5_000;
+        Deadline deadline = Deadline.none();
+        Thread canceller = new Thread(() -> {
+            try {
+                requestReceived.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            deadline.cancel();
+        });
+        canceller.start();
+
+        DeadlineExceededException error = assertThrows(DeadlineExceededException.class,
+                () -> executor.execute(api -> api.getBalance(KEY), deadline));
+
+        canceller.join();
+        assertTrue(error.getMessage().contains("cancelled"));
+    }
+
+    @Test
+    void expiredDeadlineFailsFastWithoutSendingRequest() throws InterruptedException {
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        assertThrows(DeadlineExceededException.class, () -> executor.execute(api -> api.getBalance(KEY), deadline));
+        assertFalse(requestReceived.await(100, TimeUnit.MILLISECONDS));
+    }
+}
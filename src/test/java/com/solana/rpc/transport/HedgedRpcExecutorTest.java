@@ -0,0 +1,137 @@
+package com.solana.rpc.transport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class HedgedRpcExecutorTest {
+
+    private static final PublicKey KEY = new PublicKey("11111111111111111111111111111111");
+    private static final int WARMUP_CALLS = 5;
+
+    @Mock
+    private RpcClient rpcClient;
+
+    @Mock
+    private RpcApi rpcApi;
+
+    private RpcExecutor rpcExecutor;
+    private HedgedRpcExecutor hedgedExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rpcClient.getApi()).thenReturn(rpcApi);
+        rpcExecutor = new RpcExecutor(rpcClient, new AdaptiveConcurrencyLimiter(16, 1, 16),
+                BackoffPolicy.noRetries(), Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (hedgedExecutor != null) {
+            hedgedExecutor.close();
+        }
+    }
+
+    @Test
+    void hedgeWinsWhenPrimaryIsSlowAndPrimaryIsCancelled() throws RpcException {
+        hedgedExecutor = new HedgedRpcExecutor(rpcExecutor,
+                new HedgingPolicy(90, 1.0, WARMUP_CALLS, Duration.ofMillis(1)));
+        warmUp();
+        AtomicInteger invocation = new AtomicInteger();
+        AtomicInteger cancelledPrimaries = new AtomicInteger();
+        when(rpcApi.getBalance(any(PublicKey.class))).thenAnswer(ignored -> {
+            if (invocation.incrementAndGet() == 1) {
+                awaitCancellation(5_000);
+                cancelledPrimaries.incrementAndGet();
+                throw new RpcException("IO error during RPC call: Canceled");
+            }
+            return 99L;
+        });
+
+        long start = System.nanoTime();
+        long lamports = hedgedExecutor.execute(api -> api.getBalance(KEY), Deadline.none());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(99L, lamports);
+        assertTrue(elapsedMs < 2_000, "hedge should answer quickly but took " + elapsedMs + " ms");
+        assertEquals(1, cancelledPrimaries.get());
+        HedgingMetrics metrics = hedgedExecutor.getMetrics();
+        assertEquals(1, metrics.getHedgesSent());
+        assertEquals(1, metrics.getHedgeWins());
+        assertEquals(WARMUP_CALLS + 1, metrics.getRequests());
+    }
+
+    @Test
+    void hedgeRateIsCappedByBudget() throws RpcException {
+        hedgedExecutor = new HedgedRpcExecutor(rpcExecutor,
+                new HedgingPolicy(50, 0.1, WARMUP_CALLS, Duration.ofMillis(1)));
+        warmUp();
+        when(rpcApi.getBalance(any(PublicKey.class))).thenAnswer(ignored -> {
+            awaitCancellation(30);
+            return 1L;
+        });
+
+        for (int i = 0; i < 20; i++) {
+            hedgedExecutor.execute(api -> api.getBalance(KEY), Deadline.none());
+        }
+
+        HedgingMetrics metrics = hedgedExecutor.getMetrics();
+        assertTrue(metrics.getHedgesSent() >= 1, "expected some hedges");
+        assertTrue(metrics.getHedgeRate() <= 0.15, "hedge rate exceeded budget: " + metrics);
+    }
+
+    @Test
+    void primaryFailureWithoutHedgePropagates() throws RpcException {
+        hedgedExecutor = new HedgedRpcExecutor(rpcExecutor,
+                new HedgingPolicy(90, 1.0, WARMUP_CALLS, Duration.ofMillis(1)));
+        when(rpcApi.getBalance(any(PublicKey.class))).thenThrow(new RpcException("Invalid param"));
+
+        RpcException error = assertThrows(RpcException.class,
+                () -> hedgedExecutor.execute(api -> api.getBalance(KEY), Deadline.none()));
+
+        assertEquals("Invalid param", error.getMessage());
+        assertEquals(0, hedgedExecutor.getMetrics().getHedgesSent());
+    }
+
+    @Test
+    void disabledPolicyPassesThrough() throws RpcException {
+        hedgedExecutor = new HedgedRpcExecutor(rpcExecutor, HedgingPolicy.disabled());
+        when(rpcApi.getBalance(any(PublicKey.class))).thenReturn(5L);
+
+        long lamports = hedgedExecutor.execute(api -> api.getBalance(KEY), Deadline.none());
+
+        assertEquals(5L, lamports);
+        assertEquals(0, hedgedExecutor.getMetrics().getRequests());
+    }
+
+    private void warmUp() throws RpcException {
+        when(rpcApi.getBalance(any(PublicKey.class))).thenReturn(0L);
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            hedgedExecutor.execute(api -> api.getBalance(KEY), Deadline.none());
+        }
+        assertTrue(hedgedExecutor.getHedgeDelayNanos() > 0, "hedge delay should be known after warmup");
+    }
+
+    private static void awaitCancellation(long maxMillis) throws InterruptedException {
+        Deadline deadline = Deadline.current();
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        while (System.nanoTime() < until && !deadline.isCancelled()) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.solana.rpc.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonRpcTransportTest {
+
+    private HttpServer server;
+    private volatile int status;
+    private volatile String responseBody;
+    private volatile String lastRequest;
+    private JsonRpcTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        status = 200;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            lastRequest = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        transport = new JsonRpcTransport(new OkHttpClient(), "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void decodesBalanceFromContextValue() throws RpcException {
+        responseBody = "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"apiVersion\":\"1.18.0\",\"slot\":12},\"value\":2500000000},\"id\":1}";
+
+        long lamports = transport.getBalance("11111111111111111111111111111111");
+
+        assertEquals(2_500_000_000L, lamports);
+        assertTrue(lastRequest.contains("\"method\":\"getBalance\""));
+        assertTrue(lastRequest.contains("\"params\":[\"11111111111111111111111111111111\"]"));
+    }
+
+    @Test
+    void decodesMultipleAccountsSkippingDataAndNulls() throws RpcException {
+        responseBody = "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":{\"context\":{\"slot\":99},\"value\":["
+                + "{\"data\":[\"AAEC\",\"base64\"],\"executable\":false,\"lamports\":5,\"owner\":\"x\",\"rentEpoch\":18446744073709551615,\"space\":3},"
+                + "null,"
+                + "{\"lamports\":7,\"data\":{\"parsed\":{\"nested\":[1,2,{\"deep\":true}]}}}"
+                + "]}}";
+
+        AccountLamports result = transport.getMultipleAccountLamports(List.of("a", "b", "c"));
+
+        assertEquals(99, result.getContextSlot());
+        assertEquals(5, result.getLamports(0));
+        assertEquals(AccountLamports.MISSING, result.getLamports(1));
+        assertEquals(7, result.getLamports(2));
+        assertTrue(lastRequest.contains("\"dataSlice\":{\"offset\":0,\"length\":0}"));
+    }
+
+    @Test
+    void surfacesRpcErrorsWithCode() {
+        responseBody = "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":-32602,\"message\":\"Invalid param: WrongSize\"},\"id\":1}";
+
+        RpcException error = assertThrows(RpcException.class, () -> transport.getBalance("bad"));
+
+        assertEquals("Invalid param: WrongSize (code -32602)", error.getMessage());
+        assertFalse(RpcExecutor.isRetryable(error));
+    }
+
+    @Test
+    void mapsHttp429ToRetryableError() {
+        status = 429;
+        responseBody = "{\"jsonrpc\":\"2.0\",\"error\":{\"code\":429,\"message\":\"Too many requests\"},\"id\":1}";
+
+        RpcException error = assertThrows(RpcException.class, () -> transport.getBalance("any"));
+
+        assertTrue(RpcExecutor.isRetryable(error));
+    }
+
+    @Test
+    void rejectsMismatchedAccountCount() {
+        responseBody = "{\"jsonrpc\":\"2.0\",\"result\":{\"context\":{\"slot\":1},\"value\":[{\"lamports\":1}]},\"id\":1}";
+
+        RpcException error = assertThrows(RpcException.class,
+                () -> transport.getMultipleAccountLamports(List.of("a", "b")));
+
+        assertTrue(error.getMessage().startsWith("JSON processing error"));
+    }
+
+    @Test
+    void rejectsOversizedBatches() {
+        List<String> keys = Collections.nCopies(JsonRpcTransport.MAX_ACCOUNTS_PER_REQUEST + 1, "a");
+
+        assertThrows(IllegalArgumentException.class, () -> transport.getMultipleAccountLamports(keys));
+    }
+
+    @Test
+    void sendsBase64TransactionAndReturnsSignature() throws RpcException {
+        responseBody = "{\"jsonrpc\":\"2.0\",\"result\":\"5VERv8NMvzbJMEkV8xnrLkEaWRtSz9CosKDYjCJjBRnb\",\"id\":1}";
+
+        String signature = transport.sendTransaction(new byte[]{1, 2, 3});
+
+        assertEquals("5VERv8NMvzbJMEkV8xnrLkEaWRtSz9CosKDYjCJjBRnb", signature);
+        assertTrue(lastRequest.contains("\"params\":[\"AQID\",{\"encoding\":\"base64\"}]"));
+    }
+}
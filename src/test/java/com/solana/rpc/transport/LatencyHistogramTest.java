@@ -0,0 +1,61 @@
+package com.solana.rpc.transport;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void reportsPercentilesWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertWithinPercent(5_000_000, histogram.getValueAtPercentile(50), 4);
+        assertWithinPercent(9_900_000, histogram.getValueAtPercentile(99), 4);
+        assertWithinPercent(10_000_000, histogram.getValueAtPercentile(100), 4);
+    }
+
+    @Test
+    void bucketIndexRoundTripsToUpperBound() {
+        for (long value : new long[]{0, 1, 31, 32, 63, 64, 65, 1_000, 123_456_789L, Long.MAX_VALUE}) {
+            long upper = LatencyHistogram.highestEquivalentValue(LatencyHistogram.indexFor(value));
+            assertTrue(upper >= value, "upper bound " + upper + " below " + value);
+            assertTrue(upper - value <= Math.max(1, value / 32), "bucket too wide for " + value);
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZeroAndResetClears() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    void addMergesCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(20);
+        second.record(30);
+
+        first.add(second);
+
+        assertEquals(3, first.getCount());
+        assertEquals(20, first.getMeanNanos());
+    }
+
+    private static void assertWithinPercent(long expected, long actual, int percent) {
+        long tolerance = expected * percent / 100;
+        assertTrue(Math.abs(expected - actual) <= tolerance, "expected ~" + expected + " but was " + actual);
+    }
+}
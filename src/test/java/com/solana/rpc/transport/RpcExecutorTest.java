@@ -0,0 +1,85 @@
+package com.solana.rpc.transport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.p2p.solanaj.core.PublicKey;
+import org.p2p.solanaj.rpc.RpcApi;
+import org.p2p.solanaj.rpc.RpcClient;
+import org.p2p.solanaj.rpc.RpcException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RpcExecutorTest {
+
+    private static final PublicKey KEY = new PublicKey("11111111111111111111111111111111");
+
+    @Mock
+    private RpcClient rpcClient;
+
+    @Mock
+    private RpcApi rpcApi;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(rpcClient.getApi()).thenReturn(rpcApi);
+        limiter = new AdaptiveConcurrencyLimiter(8, 1, 16);
+    }
+
+    @Test
+    void retriesThrottledCallsUntilSuccess() throws RpcException {
+        when(rpcApi.getBalance(any(PublicKey.class)))
+                .thenThrow(new RpcException("Too many requests for a specific RPC call"))
+                .thenThrow(new RpcException("IO error during RPC call: connection reset"))
+                .thenReturn(42L);
+        RpcExecutor executor = new RpcExecutor(rpcClient, limiter, new BackoffPolicy(3, 1, 2), Duration.ofSeconds(1));
+
+        long lamports = executor.execute(api -> api.getBalance(KEY));
+
+        assertEquals(42L, lamports);
+        verify(rpcApi, times(3)).getBalance(any(PublicKey.class));
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.getLimit() < 8);
+    }
+
+    @Test
+    void givesUpAfterMaxRetries() throws RpcException {
+        when(rpcApi.getBalance(any(PublicKey.class))).thenThrow(new RpcException("429 Too Many Requests"));
+        RpcExecutor executor = new RpcExecutor(rpcClient, limiter, new BackoffPolicy(2, 1, 2), Duration.ofSeconds(1));
+
+        assertThrows(RpcException.class, () -> executor.execute(api -> api.getBalance(KEY)));
+        verify(rpcApi, times(3)).getBalance(any(PublicKey.class));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doesNotRetryPermanentErrors() throws RpcException {
+        when(rpcApi.getBalance(any(PublicKey.class))).thenThrow(new RpcException("Invalid param: WrongSize"));
+        RpcExecutor executor = new RpcExecutor(rpcClient, limiter, new BackoffPolicy(3, 1, 2), Duration.ofSeconds(1));
+
+        assertThrows(RpcException.class, () -> executor.execute(api -> api.getBalance(KEY)));
+        verify(rpcApi, times(1)).getBalance(any(PublicKey.class));
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void failsFastWhenNoPermitBecomesAvailable() throws InterruptedException {
+        AdaptiveConcurrencyLimiter saturated = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        assertTrue(saturated.acquire(0, TimeUnit.MILLISECONDS));
+        RpcExecutor executor = new RpcExecutor(rpcClient, saturated, BackoffPolicy.noRetries(), Duration.ofMillis(20));
+
+        RpcException error = assertThrows(RpcException.class, () -> executor.execute(api -> api.getBalance(KEY)));
+        assertTrue(error.getMessage().contains("concurrency limit"));
+    }
+}
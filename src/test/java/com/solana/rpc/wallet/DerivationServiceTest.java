@@ -38,6 +38,19 @@ class DerivationServiceTest {
         assertEquals(firstDerived, secondDerived);
     }
 
+    @Test
+    void warmUpLoadsSeedOnceAheadOfDerivation() {
+        SeedCache cache = new SeedCache(1);
+        DerivationService service = new DerivationService(TEST_MNEMONIC, "", cache);
+
+        service.warmUp();
+        service.warmUp();
+        assertEquals(1, cache.getLoads());
+
+        assertEquals("2bahaF9qfc6pE5DJCKQ7AcZF1nXx5Jvf4NwkQib8uwbL", service.derivePublicKeyBase58(0, 0, 0));
+        assertEquals(1, cache.getLoads());
+    }
+
     @Test
     void validatesMnemonicInput() {
         assertThrows(NullPointerException.class, () -> new DerivationService(null));
@@ -0,0 +1,68 @@
+package com.solana.rpc.wallet;
+
+import org.junit.jupiter.api.Test;
+import org.p2p.solanaj.utils.bip32.wallet.HdAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeedCacheTest {
+
+    private static final String TEST_MNEMONIC = "urge pulp usage sister evidence arrest palm math please chief egg abuse";
+    private static final String OTHER_MNEMONIC = "abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon abandon about";
+
+    @Test
+    void evictsLeastRecentlyUsedNodeAndRederivesItOnDemand() {
+        SeedCache cache = new SeedCache(1);
+        DerivationService first = new DerivationService(TEST_MNEMONIC, "", cache);
+        DerivationService second = new DerivationService(OTHER_MNEMONIC, "", cache);
+
+        first.derivePublicKeyBase58(0, 0, 0);
+        second.derivePublicKeyBase58(0, 0, 0);
+        String rederived = first.derivePublicKeyBase58(0, 0, 1);
+
+        assertEquals("9LCBeEKbr17HV3Us8cWR7JrnNP6tLK6QDFtMv8RevjP1", rederived);
+        assertEquals(1, cache.size());
+        assertEquals(3, cache.getLoads());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    void zeroesEvictedNodeOnlyOnceItsLeaseIsReleased() {
+        SeedCache cache = new SeedCache(1);
+        DerivationService first = new DerivationService(TEST_MNEMONIC, "", cache);
+        DerivationService second = new DerivationService(OTHER_MNEMONIC, "", cache);
+        first.derivePublicKeyBase58(0, 0, 0);
+
+        HdAddress node;
+        try (SeedCache.Lease lease = cache.acquire(first, () -> fail("node should be cached"))) {
+            node = lease.node();
+            second.derivePublicKeyBase58(0, 0, 0);
+            assertFalse(isZero(node.getPrivateKey().getPrivateKey()));
+        }
+
+        assertTrue(isZero(node.getPrivateKey().getPrivateKey()));
+        assertTrue(isZero(node.getPrivateKey().getChainCode()));
+    }
+
+    @Test
+    void clearCachedSecretsZeroesNodeAndKeepsDerivationWorking() {
+        SeedCache cache = new SeedCache(4);
+        DerivationService service = new DerivationService(TEST_MNEMONIC, "", cache);
+        service.derivePublicKeyBase58(0, 0, 0);
+
+        service.clearCachedSecrets();
+
+        assertEquals(0, cache.size());
+        assertEquals("2bahaF9qfc6pE5DJCKQ7AcZF1nXx5Jvf4NwkQib8uwbL", service.derivePublicKeyBase58(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SeedCache(0));
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}